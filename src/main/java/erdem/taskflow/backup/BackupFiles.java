@@ -0,0 +1,205 @@
+package erdem.taskflow.backup;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * On-disk format of database backups. A full backup is the database file as is. An
+ * incremental backup holds the pages that differ from the previous backup: a header of
+ * magic, page size and page count, then {@code (page number, page)} records ending with
+ * page number 0. Either may be gzip-compressed ({@code .gz}).
+ * <p>
+ * Every backup has a {@code .hashes} file with a SHA-256 digest per page, which the next
+ * incremental backup is compared against.
+ */
+final class BackupFiles {
+
+    private static final int PAGES_MAGIC = 0x54465049;
+    private static final int HASHES_MAGIC = 0x54464848;
+    private static final int DIGEST = 32;
+    private static final int BUFFER = 64 * 1024;
+
+    /**
+     * Page digests of one database image.
+     */
+    record PageHashes(int pageSize, int pageCount, byte[] digests) {
+
+        boolean matches(PageHashes other, int page) {
+            return page < other.pageCount && Arrays.equals(
+                    digests, page * DIGEST, (page + 1) * DIGEST,
+                    other.digests, page * DIGEST, (page + 1) * DIGEST);
+        }
+
+        /**
+         * Whether both images hold the same pages, so an incremental backup would be empty.
+         */
+        boolean sameAs(PageHashes other) {
+            return pageSize == other.pageSize && pageCount == other.pageCount
+                    && Arrays.equals(digests, other.digests);
+        }
+    }
+
+    private BackupFiles() {
+    }
+
+    /**
+     * Reads the page size from the database header (bytes 16-17, where 1 means 65536).
+     */
+    static int pageSize(Path database) throws IOException {
+        try (FileChannel channel = FileChannel.open(database, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(100);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            if (header.hasRemaining()) {
+                throw new IOException("Not an SQLite database: " + database);
+            }
+            int size = Short.toUnsignedInt(header.getShort(16));
+            return size == 1 ? 65536 : size;
+        }
+    }
+
+    static PageHashes hash(Path database) throws IOException {
+        int pageSize = pageSize(database);
+        MessageDigest sha = sha256();
+        try (FileChannel channel = FileChannel.open(database, StandardOpenOption.READ)) {
+            int pageCount = Math.toIntExact(channel.size() / pageSize);
+            byte[] digests = new byte[pageCount * DIGEST];
+            ByteBuffer page = ByteBuffer.allocate(pageSize);
+            for (int i = 0; i < pageCount; i++) {
+                readPage(channel, page, i);
+                sha.update(page.array());
+                System.arraycopy(sha.digest(), 0, digests, i * DIGEST, DIGEST);
+            }
+            return new PageHashes(pageSize, pageCount, digests);
+        }
+    }
+
+    /**
+     * Writes the pages of {@code database} whose digest in {@code current} differs from
+     * {@code previous}.
+     *
+     * @return number of pages written
+     */
+    static int writeChangedPages(Path database, PageHashes current, PageHashes previous, OutputStream out)
+            throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(PAGES_MAGIC);
+        data.writeInt(current.pageSize());
+        data.writeInt(current.pageCount());
+        int changed = 0;
+        try (FileChannel channel = FileChannel.open(database, StandardOpenOption.READ)) {
+            ByteBuffer page = ByteBuffer.allocate(current.pageSize());
+            for (int i = 0; i < current.pageCount(); i++) {
+                if (!current.matches(previous, i)) {
+                    readPage(channel, page, i);
+                    data.writeInt(i + 1);
+                    data.write(page.array());
+                    changed++;
+                }
+            }
+        }
+        data.writeInt(0);
+        data.flush();
+        return changed;
+    }
+
+    /**
+     * Rebuilds a database file from a full backup followed by the incremental backups
+     * taken after it, in order.
+     */
+    static void restore(List<Path> chain, Path target) throws IOException {
+        try (InputStream in = open(chain.get(0))) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        for (Path incremental : chain.subList(1, chain.size())) {
+            try (DataInputStream in = new DataInputStream(open(incremental));
+                 FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+                if (in.readInt() != PAGES_MAGIC) {
+                    throw new IOException("Not an incremental backup: " + incremental);
+                }
+                int pageSize = in.readInt();
+                int pageCount = in.readInt();
+                byte[] page = new byte[pageSize];
+                for (int number = in.readInt(); number != 0; number = in.readInt()) {
+                    in.readFully(page);
+                    ByteBuffer buffer = ByteBuffer.wrap(page);
+                    long position = (number - 1L) * pageSize;
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                }
+                channel.truncate((long) pageCount * pageSize);
+                channel.force(true);
+            }
+        }
+    }
+
+    static void writeHashes(Path path, PageHashes hashes) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(path))) {
+            out.writeInt(HASHES_MAGIC);
+            out.writeInt(hashes.pageSize());
+            out.writeInt(hashes.pageCount());
+            out.write(hashes.digests());
+        }
+    }
+
+    /**
+     * @return {@code null} if the file is missing or unreadable; the next backup is then full
+     */
+    static PageHashes readHashes(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER))) {
+            if (in.readInt() != HASHES_MAGIC) {
+                return null;
+            }
+            int pageSize = in.readInt();
+            int pageCount = in.readInt();
+            byte[] digests = new byte[pageCount * DIGEST];
+            in.readFully(digests);
+            return new PageHashes(pageSize, pageCount, digests);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static InputStream open(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        return path.getFileName().toString().endsWith(".gz")
+                ? new GZIPInputStream(in, BUFFER)
+                : new BufferedInputStream(in, BUFFER);
+    }
+
+    private static void readPage(FileChannel channel, ByteBuffer page, int index) throws IOException {
+        page.clear();
+        long position = (long) index * page.capacity();
+        while (page.hasRemaining()) {
+            int read = channel.read(page, position + page.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of database file at page " + (index + 1));
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
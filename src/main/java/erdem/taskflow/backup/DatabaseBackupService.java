@@ -0,0 +1,457 @@
+package erdem.taskflow.backup;
+
+import erdem.taskflow.dto.BackupDTO;
+import erdem.taskflow.dto.BackupRestoreDTO;
+import erdem.taskflow.project.ProjectContext;
+import erdem.taskflow.project.ProjectShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Online backups of the SQLite database into {@code taskflow.backup.dir}.
+ * <p>
+ * The database is copied with SQLite's online backup API in a single step, which reads
+ * one consistent snapshot. The database runs in WAL mode (see
+ * {@link erdem.taskflow.config.SchemaMigrations}), so writers keep committing while the
+ * copy is taken. The copy is then stored as a full backup, or as an incremental one
+ * holding only the pages that changed since the previous backup ({@link BackupFiles}).
+ * <ul>
+ *   <li>Every {@code full-every}-th backup is full. A full backup and the incremental
+ *       ones after it form a chain.</li>
+ *   <li>Chains whose newest backup is older than {@code retention} are deleted; the
+ *       newest chain is always kept.</li>
+ *   <li>Restoring rebuilds the database file of any backup under {@code <dir>/restore},
+ *       to be swapped in while the application is stopped.</li>
+ * </ul>
+ * Other databases (the PostgreSQL profile) have their own backup tooling; the scheduled
+ * run skips them.
+ * <p>
+ * Project shards are backed up the same way after the default database, each into
+ * {@code <dir>/projects/<project>}. Every operation applies to the project bound to the
+ * thread ({@link ProjectContext}), or to the default database.
+ */
+@Service
+public class DatabaseBackupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseBackupService.class);
+
+    private static final Pattern NAME =
+            Pattern.compile("taskflow-(\\d{8}T\\d{9}Z)-(full|incr)\\.(?:db|pages)(?:\\.gz)?");
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'").withZone(ZoneOffset.UTC);
+    private static final String PROJECTS = "projects";
+    private static final String COPY = ".snapshot.db.tmp";
+    private static final String HASHES = ".hashes";
+    private static final int BUFFER = 64 * 1024;
+    private static final int BUSY_SLEEP_MS = 100;
+    private static final int BUSY_RETRIES = 50;
+
+    private final DataSource dataSource;
+    private final ProjectShards shards;
+    private final Path root;
+    private final boolean enabled;
+    private final boolean projectsEnabled;
+    private final int fullEvery;
+    private final Duration retention;
+    private final boolean compress;
+    private final Timer fullTimer;
+    private final Timer incrementalTimer;
+    private final Counter failures;
+    private Boolean sqlite;
+    private Instant lastTimestamp = Instant.EPOCH;
+
+    /**
+     * A backup file, parsed from its name.
+     */
+    private record Entry(Path path, Instant createdAt, boolean full) {
+
+        String name() {
+            return path.getFileName().toString();
+        }
+
+        Path hashes() {
+            return path.resolveSibling(name() + HASHES);
+        }
+    }
+
+    public DatabaseBackupService(DataSource dataSource,
+                                 ProjectShards shards,
+                                 MeterRegistry registry,
+                                 @Value("${taskflow.backup.enabled:true}") boolean enabled,
+                                 @Value("${taskflow.projects.enabled:true}") boolean projectsEnabled,
+                                 @Value("${taskflow.backup.dir:backups}") Path dir,
+                                 @Value("${taskflow.backup.full-every:4}") int fullEvery,
+                                 @Value("${taskflow.backup.retention:P7D}") Duration retention,
+                                 @Value("${taskflow.backup.compress:true}") boolean compress) {
+        this.dataSource = dataSource;
+        this.shards = shards;
+        this.root = dir.toAbsolutePath();
+        this.enabled = enabled;
+        this.projectsEnabled = projectsEnabled;
+        this.fullEvery = fullEvery;
+        this.retention = retention;
+        this.compress = compress;
+        this.fullTimer = Timer.builder("taskflow.backup").tag("type", "full").register(registry);
+        this.incrementalTimer = Timer.builder("taskflow.backup").tag("type", "incremental").register(registry);
+        this.failures = Counter.builder("taskflow.backup.failures").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${taskflow.backup.interval:PT6H}",
+               initialDelayString = "${taskflow.backup.interval:PT6H}")
+    public void backupScheduled() {
+        if (!enabled) {
+            return;
+        }
+        backupAndPrune(null);
+        if (!projectsEnabled) {
+            return;
+        }
+        try {
+            for (String project : shards.list()) {
+                backupAndPrune(project);
+            }
+        } catch (IOException e) {
+            failures.increment();
+            logger.atError().setMessage("Project backups skipped, projects unreadable").setCause(e).log();
+        }
+    }
+
+    /**
+     * One scheduled backup of {@code project} ({@code null} for the default database);
+     * a failure is logged and counted, and does not stop the other databases.
+     */
+    private void backupAndPrune(String project) {
+        try {
+            ProjectContext.call(project, () -> {
+                if (isSqlite()) {
+                    backup(false);
+                    prune(Instant.now());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            failures.increment();
+            logger.atError()
+                    .setMessage("Database backup failed, retrying on the next run")
+                    .addKeyValue("project", project)
+                    .addKeyValue("dir", dir(project))
+                    .setCause(e)
+                    .log();
+        }
+    }
+
+    /**
+     * Takes a backup: incremental when the current chain is shorter than
+     * {@code full-every} and {@code full} is not requested, full otherwise. An incremental
+     * backup without changed pages is not written; the newest backup is returned instead.
+     *
+     * @throws IllegalStateException if the database is not SQLite
+     */
+    public synchronized BackupDTO backup(boolean full) throws IOException, SQLException {
+        if (!isSqlite()) {
+            throw new IllegalStateException("Backups are only supported for the SQLite database");
+        }
+        Path dir = dir();
+        Files.createDirectories(dir);
+        deleteTemporaryFiles();
+        Path copy = dir.resolve(COPY);
+        long start = System.nanoTime();
+        try {
+            copyDatabase(copy);
+            BackupFiles.PageHashes hashes = BackupFiles.hash(copy);
+            List<Entry> entries = entries();
+            BackupFiles.PageHashes previous = full ? null : previousHashes(entries, hashes);
+            boolean isFull = previous == null;
+            if (!isFull && hashes.sameAs(previous)) {
+                Entry newest = entries.get(entries.size() - 1);
+                logger.atInfo()
+                        .setMessage("Database unchanged since the last backup, nothing written")
+                        .addKeyValue("name", newest.name())
+                        .log();
+                return toDTO(newest, Files.size(newest.path()));
+            }
+
+            Instant createdAt = nextTimestamp(entries);
+            String name = "taskflow-" + TIMESTAMP.format(createdAt)
+                    + (isFull ? "-full.db" : "-incr.pages") + (compress ? ".gz" : "");
+            Path target = dir.resolve(name);
+            Path temporary = dir.resolve(name + ".tmp");
+            int pages;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER);
+                GZIPOutputStream gzip = compress ? new GZIPOutputStream(out, BUFFER) : null;
+                OutputStream sink = gzip != null ? gzip : out;
+                if (isFull) {
+                    Files.copy(copy, sink);
+                    pages = hashes.pageCount();
+                } else {
+                    pages = BackupFiles.writeChangedPages(copy, hashes, previous, sink);
+                }
+                if (gzip != null) {
+                    gzip.finish();
+                }
+                out.flush();
+                channel.force(true);
+            }
+            // Hashes first: a backup file is never visible without the hashes to diff against
+            BackupFiles.writeHashes(dir.resolve(name + HASHES), hashes);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            for (Entry entry : entries) {
+                Files.deleteIfExists(entry.hashes());
+            }
+
+            long nanos = System.nanoTime() - start;
+            (isFull ? fullTimer : incrementalTimer).record(nanos, TimeUnit.NANOSECONDS);
+            long size = Files.size(target);
+            logger.atInfo()
+                    .setMessage("Database backup written")
+                    .addKeyValue("project", ProjectContext.current())
+                    .addKeyValue("name", name)
+                    .addKeyValue("pages", pages)
+                    .addKeyValue("totalPages", hashes.pageCount())
+                    .addKeyValue("bytes", size)
+                    .addKeyValue("ms", nanos / 1_000_000)
+                    .log();
+            return toDTO(new Entry(target, createdAt, isFull), size);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    /**
+     * Deletes the chains whose newest backup was taken before {@code now - retention},
+     * except the newest chain.
+     *
+     * @return number of backup files deleted
+     */
+    public synchronized int prune(Instant now) throws IOException {
+        List<List<Entry>> chains = new ArrayList<>();
+        for (Entry entry : entries()) {
+            if (entry.full() || chains.isEmpty()) {
+                chains.add(new ArrayList<>());
+            }
+            chains.get(chains.size() - 1).add(entry);
+        }
+        Instant cutoff = now.minus(retention);
+        int deleted = 0;
+        for (List<Entry> chain : chains.subList(0, Math.max(chains.size() - 1, 0))) {
+            if (chain.get(chain.size() - 1).createdAt().isBefore(cutoff)) {
+                for (Entry entry : chain) {
+                    Files.deleteIfExists(entry.path());
+                    Files.deleteIfExists(entry.hashes());
+                    deleted++;
+                }
+            }
+        }
+        if (deleted > 0) {
+            logger.atInfo()
+                    .setMessage("Pruned database backups")
+                    .addKeyValue("deleted", deleted)
+                    .addKeyValue("before", cutoff)
+                    .log();
+        }
+        return deleted;
+    }
+
+    /**
+     * Backups, oldest first.
+     */
+    public List<BackupDTO> list() throws IOException {
+        List<BackupDTO> result = new ArrayList<>();
+        for (Entry entry : entries()) {
+            result.add(toDTO(entry, Files.size(entry.path())));
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds the database file as of backup {@code name} from its full backup and the
+     * incremental ones up to it.
+     *
+     * @throws IllegalArgumentException if {@code name} is not a backup name
+     * @throws IllegalStateException if the full backup of its chain is missing
+     * @throws RuntimeException if there is no such backup
+     */
+    public synchronized BackupRestoreDTO restore(String name) throws IOException {
+        Matcher matcher = NAME.matcher(name);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a backup name: " + name);
+        }
+        List<Entry> entries = entries();
+        int last = -1;
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).name().equals(name)) {
+                last = i;
+            }
+        }
+        if (last < 0) {
+            throw new RuntimeException("Backup not found: " + name);
+        }
+        int first = last;
+        while (first >= 0 && !entries.get(first).full()) {
+            first--;
+        }
+        if (first < 0) {
+            throw new IllegalStateException("No full backup before " + name);
+        }
+        List<Path> chain = entries.subList(first, last + 1).stream().map(Entry::path).toList();
+
+        long start = System.nanoTime();
+        Path restoreDir = Files.createDirectories(dir().resolve("restore"));
+        Path target = restoreDir.resolve("taskflow-" + matcher.group(1) + ".db");
+        Path temporary = restoreDir.resolve(target.getFileName() + ".tmp");
+        BackupFiles.restore(chain, temporary);
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        long size = Files.size(target);
+        logger.atInfo()
+                .setMessage("Database restored from backup")
+                .addKeyValue("backup", name)
+                .addKeyValue("files", chain.size())
+                .addKeyValue("path", target)
+                .addKeyValue("ms", (System.nanoTime() - start) / 1_000_000)
+                .log();
+        return new BackupRestoreDTO(name, target.toString(), size);
+    }
+
+    /**
+     * Copies the database page for page with the online backup API. One step over all
+     * pages reads a single snapshot; smaller steps would restart whenever another
+     * connection writes in between.
+     */
+    private void copyDatabase(Path copy) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            int rc = connection.unwrap(SQLiteConnection.class).getDatabase()
+                    .backup("main", copy.toString(), null, BUSY_SLEEP_MS, BUSY_RETRIES, -1);
+            if (rc != SQLiteErrorCode.SQLITE_OK.code) {
+                throw new SQLException("Database backup failed with SQLite result code " + rc);
+            }
+        }
+    }
+
+    /**
+     * Hashes of the newest backup when the next one can be incremental, {@code null} when
+     * it has to be full.
+     */
+    private BackupFiles.PageHashes previousHashes(List<Entry> entries, BackupFiles.PageHashes current) {
+        if (fullEvery <= 1 || entries.isEmpty()) {
+            return null;
+        }
+        int chainLength = 0;
+        boolean hasFull = false;
+        for (int i = entries.size() - 1; i >= 0 && !hasFull; i--) {
+            chainLength++;
+            hasFull = entries.get(i).full();
+        }
+        if (!hasFull || chainLength >= fullEvery) {
+            return null;
+        }
+        BackupFiles.PageHashes previous = BackupFiles.readHashes(entries.get(entries.size() - 1).hashes());
+        return previous != null && previous.pageSize() == current.pageSize() ? previous : null;
+    }
+
+    /**
+     * Backup directory of the bound project, or of the default database.
+     */
+    private Path dir() {
+        return dir(ProjectContext.current());
+    }
+
+    private Path dir(String project) {
+        return project == null ? root : root.resolve(PROJECTS).resolve(project);
+    }
+
+    private List<Entry> entries() throws IOException {
+        Path dir = dir();
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                Matcher matcher = NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    entries.add(new Entry(path, Instant.from(TIMESTAMP.parse(matcher.group(1))),
+                            matcher.group(2).equals("full")));
+                }
+            }
+        }
+        entries.sort((a, b) -> a.name().compareTo(b.name()));
+        return entries;
+    }
+
+    private void deleteTemporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir())) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (path.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Millisecond timestamps that keep increasing, so names sort in backup order.
+     */
+    private Instant nextTimestamp(List<Entry> entries) {
+        Instant latest = entries.isEmpty() ? lastTimestamp : max(lastTimestamp, entries.get(entries.size() - 1).createdAt());
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        lastTimestamp = now.isAfter(latest) ? now : latest.plusMillis(1);
+        return lastTimestamp;
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private boolean isSqlite() throws SQLException {
+        if (ProjectContext.current() != null) {
+            // Project shards are always SQLite files
+            return true;
+        }
+        if (sqlite == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                sqlite = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("sqlite");
+            }
+        }
+        return sqlite;
+    }
+
+    private static BackupDTO toDTO(Entry entry, long size) {
+        return new BackupDTO(entry.name(), entry.full() ? "full" : "incremental", size, entry.createdAt());
+    }
+}
@@ -0,0 +1,33 @@
+package erdem.taskflow.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+
+/**
+ * Application-level metrics wiring. HTTP server timers and Hikari pool gauges are
+ * auto-configured by the actuator; this adds {@code @Timed} support for the service
+ * layer and binds Hibernate statistics (query counts, entity loads, collection fetches).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> new HibernateMetrics(
+                entityManagerFactory.unwrap(SessionFactory.class), "default", Collections.emptyList())
+                .bindTo(registry);
+    }
+}
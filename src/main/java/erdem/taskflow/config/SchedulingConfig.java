@@ -0,0 +1,12 @@
+package erdem.taskflow.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (task archival).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,219 @@
+package erdem.taskflow.config;
+
+import erdem.taskflow.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * In-place upgrades of existing SQLite databases that {@code ddl-auto} cannot perform
+ * (it only adds missing tables and columns). Every step checks whether it is needed,
+ * so running on an up-to-date or empty database is a no-op. Runs before the
+ * EntityManagerFactory is created.
+ */
+@Component
+public class SchemaMigrations implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    private static final int TITLE_KEY_BATCH = 1000;
+
+    private final DataSource dataSource;
+
+    public SchemaMigrations(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("sqlite")) {
+                return;
+            }
+            migrate(connection);
+        }
+    }
+
+    /**
+     * Runs every step on an SQLite connection; also used for project shards as they are
+     * opened.
+     */
+    public static void migrate(Connection connection) throws SQLException {
+        convertTextIdsToBlob(connection);
+        addVersionColumn(connection, "task");
+        addVersionColumn(connection, "task_archive");
+        addTitleKeyColumn(connection, "task");
+        addTitleKeyColumn(connection, "task_archive");
+        useIncrementalAutoVacuum(connection);
+        useWriteAheadLog(connection);
+    }
+
+    /**
+     * Databases written by older mappings hold task ids as 36-character text. Rewrites
+     * {@code task.id} and {@code task_status_history.task_id} as 16-byte blobs in one
+     * transaction, then vacuums to reclaim the space of the wider keys.
+     */
+    private static void convertTextIdsToBlob(Connection connection) throws SQLException {
+        if (!tableExists(connection, "task") || !tableExists(connection, "task_status_history")) {
+            return;
+        }
+        if (!queryBoolean(connection, "SELECT EXISTS(SELECT 1 FROM task WHERE typeof(id) = 'text') "
+                + "OR EXISTS(SELECT 1 FROM task_status_history WHERE typeof(task_id) = 'text')")) {
+            return;
+        }
+        logger.info("Migrating text task ids to 16-byte blobs");
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            int tasks = statement.executeUpdate(
+                    "UPDATE task SET id = unhex(replace(id, '-', '')) WHERE typeof(id) = 'text'");
+            int history = statement.executeUpdate(
+                    "UPDATE task_status_history SET task_id = unhex(replace(task_id, '-', '')) "
+                            + "WHERE typeof(task_id) = 'text'");
+            connection.commit();
+            logger.info("Migrated {} task rows and {} status history rows", tasks, history);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new IllegalStateException("Task id migration failed, database left unchanged", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM");
+        }
+    }
+
+    /**
+     * Adds the optimistic-lock {@code version} column. {@code ddl-auto} would add it
+     * nullable, leaving existing rows without a version; here they start at 0.
+     */
+    private static void addVersionColumn(Connection connection, String table) throws SQLException {
+        if (!tableExists(connection, table) || columnExists(connection, table, "version")) {
+            return;
+        }
+        logger.info("Adding version column to {}", table);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + table + " ADD COLUMN version bigint not null default 0");
+        }
+    }
+
+    /**
+     * Adds the {@code title_key} column and fills it with {@link Task#titleKey} of every
+     * title, in one transaction. The key is computed in Java, so no SQL expression could
+     * fill it; {@code ddl-auto} would leave existing rows without one.
+     */
+    private static void addTitleKeyColumn(Connection connection, String table) throws SQLException {
+        if (!tableExists(connection, table) || columnExists(connection, table, "title_key")) {
+            return;
+        }
+        logger.info("Adding title_key column to {}", table);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        int rows = 0;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + table + " ADD COLUMN title_key varchar(255) not null default ''");
+            try (ResultSet rs = statement.executeQuery("SELECT rowid, title FROM " + table);
+                 PreparedStatement update = connection.prepareStatement(
+                         "UPDATE " + table + " SET title_key = ? WHERE rowid = ?")) {
+                while (rs.next()) {
+                    update.setString(1, Task.titleKey(rs.getString(2)));
+                    update.setLong(2, rs.getLong(1));
+                    update.addBatch();
+                    if (++rows % TITLE_KEY_BATCH == 0) {
+                        update.executeBatch();
+                    }
+                }
+                update.executeBatch();
+            }
+            connection.commit();
+            logger.info("Filled title_key of {} rows in {}", rows, table);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new IllegalStateException("Title key migration of " + table + " failed, database left unchanged", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Sets {@code auto_vacuum=INCREMENTAL}, so pages freed by deletes can be returned to
+     * the file system in small steps ({@link erdem.taskflow.maintenance.DatabaseMaintenanceService})
+     * instead of a full {@code VACUUM}. An existing database only picks up the setting
+     * when rebuilt, so this vacuums once.
+     */
+    private static void useIncrementalAutoVacuum(Connection connection) throws SQLException {
+        if ("2".equals(queryString(connection, "PRAGMA auto_vacuum"))) {
+            return;
+        }
+        logger.info("Switching database to incremental auto-vacuum");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            statement.execute("VACUUM");
+        }
+    }
+
+    /**
+     * Switches the database file to WAL mode, which persists in the file. Readers then see
+     * a snapshot and never block writers, so online backups
+     * ({@link erdem.taskflow.backup.DatabaseBackupService}) and long reads no longer hold
+     * up commits. In-memory databases cannot use WAL and keep their mode.
+     */
+    private static void useWriteAheadLog(Connection connection) throws SQLException {
+        if ("wal".equalsIgnoreCase(queryString(connection, "PRAGMA journal_mode"))) {
+            return;
+        }
+        String mode = queryString(connection, "PRAGMA journal_mode = WAL");
+        if ("wal".equalsIgnoreCase(mode)) {
+            logger.info("Switched database to WAL journal mode");
+        } else {
+            logger.warn("Database stays in {} journal mode, WAL not available", mode);
+        }
+    }
+
+    static boolean columnExists(Connection connection, String table, String column) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getColumns(null, null, table, column)) {
+            return rs.next();
+        }
+    }
+
+    static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getTables(null, null, table, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    private static String queryString(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private static boolean queryBoolean(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    /**
+     * Makes the JPA EntityManagerFactory wait for the migrations.
+     */
+    @Component
+    static class RunBeforeJpa extends EntityManagerFactoryDependsOnPostProcessor {
+
+        RunBeforeJpa() {
+            super(SchemaMigrations.class);
+        }
+    }
+}
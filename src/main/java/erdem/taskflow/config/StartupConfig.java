@@ -0,0 +1,20 @@
+package erdem.taskflow.config;
+
+import erdem.taskflow.controller.TaskController;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps the request path eager when {@code spring.main.lazy-initialization} is on
+ * (faststart profile): the controller pulls in the service, repository, JPA and the
+ * connection pool, so the first request does not pay for their creation.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerRequestPath() {
+        return LazyInitializationExcludeFilter.forBeanTypes(TaskController.class);
+    }
+}
@@ -0,0 +1,45 @@
+package erdem.taskflow.config;
+
+import erdem.taskflow.web.HtmlLinkResourceTransformer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Serving of the SPA. Scripts and stylesheets are addressed by content-hashed URLs and
+ * cached for a year as immutable; {@code index.html} refers to them through
+ * {@link HtmlLinkResourceTransformer} and is revalidated on every load, so a deploy is
+ * picked up immediately. Pre-compressed {@code .br}/{@code .gz} siblings of an asset
+ * are served to clients that accept them; everything else is compressed on the fly
+ * ({@code server.compression}).
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final String[] ASSET_DIRECTORIES = {"js", "css"};
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        VersionResourceResolver versions = new VersionResourceResolver().addContentVersionStrategy("/**");
+
+        for (String directory : ASSET_DIRECTORIES) {
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations("classpath:/static/" + directory + "/")
+                    .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(versions);
+        }
+
+        registry.addResourceHandler("/index.html")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true)
+                .addTransformer(new HtmlLinkResourceTransformer());
+    }
+}
@@ -0,0 +1,51 @@
+package erdem.taskflow.controller;
+
+import erdem.taskflow.dto.FlowAnalyticsDTO;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.service.FlowAnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@RestController
+@RequestMapping({"/api/analytics", "/api/projects/{project}/analytics"})
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private final FlowAnalyticsService flowAnalyticsService;
+
+    public AnalyticsController(FlowAnalyticsService flowAnalyticsService) {
+        this.flowAnalyticsService = flowAnalyticsService;
+    }
+
+    /**
+     * Time-in-status distributions and throughput for the days {@code from} to
+     * {@code to} (UTC, inclusive, either open), and the current aging work in progress.
+     * 404 when flow analytics are disabled.
+     */
+    @GetMapping("/flow")
+    public ResponseEntity<FlowAnalyticsDTO> getFlow(
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        if (!flowAnalyticsService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        ChronoUnit unit;
+        if ("day".equalsIgnoreCase(granularity)) {
+            unit = ChronoUnit.DAYS;
+        } else if ("week".equalsIgnoreCase(granularity)) {
+            unit = ChronoUnit.WEEKS;
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(flowAnalyticsService.getFlow(priority, from, to, unit));
+    }
+}
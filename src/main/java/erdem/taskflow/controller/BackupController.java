@@ -1,54 +1,68 @@
-//package erdem.taskflow.controller;
-//
-//import com.fasterxml.jackson.databind.ObjectMapper;
-//import erdem.taskflow.dto.TaskResponseDTO;
-//import erdem.taskflow.service.TaskService;
-//import org.springframework.http.HttpHeaders;
-//import org.springframework.http.MediaType;
-//import org.springframework.http.ResponseEntity;
-//import org.springframework.web.bind.annotation.*;
-//
-//import java.time.LocalDateTime;
-//import java.time.format.DateTimeFormatter;
-//import java.util.HashMap;
-//import java.util.List;
-//import java.util.Map;
-//
-//@RestController
-//@RequestMapping("/api/backup")
-//@CrossOrigin(origins = "*")
-//public class BackupController {
-//
-//    private final TaskService taskService;
-//    private final ObjectMapper objectMapper;
-//
-//    public BackupController(TaskService taskService, ObjectMapper objectMapper) {
-//        this.taskService = taskService;
-//        this.objectMapper = objectMapper;
-//    }
-//
-//    @GetMapping("/export")
-//    public ResponseEntity<String> exportTasks() {
-//        try {
-//            List<TaskResponseDTO> tasks = taskService.getAll();
-//
-//            Map<String, Object> backup = new HashMap<>();
-//            backup.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-//            backup.put("taskCount", tasks.size());
-//            backup.put("tasks", tasks);
-//
-//            String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(backup);
-//
-//            String filename = "taskflow_backup_" +
-//                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".json";
-//
-//            return ResponseEntity.ok()
-//                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-//                    .contentType(MediaType.APPLICATION_JSON)
-//                    .body(json);
-//        } catch (Exception e) {
-//            return ResponseEntity.internalServerError().build();
-//        }
-//    }
-//}
-//
+package erdem.taskflow.controller;
+
+import erdem.taskflow.backup.DatabaseBackupService;
+import erdem.taskflow.dto.BackupDTO;
+import erdem.taskflow.dto.BackupRestoreDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+@RestController
+@RequestMapping({"/api/backups", "/api/projects/{project}/backups"})
+@CrossOrigin(origins = "*")
+public class BackupController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupController.class);
+
+    private final DatabaseBackupService backupService;
+
+    public BackupController(DatabaseBackupService backupService) {
+        this.backupService = backupService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BackupDTO>> getAllBackups() throws IOException {
+        return ResponseEntity.ok(backupService.list());
+    }
+
+    /**
+     * Takes a backup now, incremental unless {@code full=true} or the current chain is
+     * complete.
+     */
+    @PostMapping
+    public ResponseEntity<BackupDTO> createBackup(@RequestParam(defaultValue = "false") boolean full)
+            throws IOException, SQLException {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(backupService.backup(full));
+        } catch (IllegalStateException e) {
+            logger.warn("Backup rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Rebuilds the database file of a backup under {@code <dir>/restore}. The live
+     * database is not touched.
+     */
+    @PostMapping("/{name}/restore")
+    public ResponseEntity<BackupRestoreDTO> restoreBackup(@PathVariable String name) throws IOException {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(backupService.restore(name));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid backup name: {}", name);
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            logger.warn("Backup cannot be restored: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            logger.warn("Backup not found: {}", name);
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package erdem.taskflow.controller;
+
+import erdem.taskflow.dto.ProjectStatsDTO;
+import erdem.taskflow.service.ProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Projects and their aggregate statistics. The task API of a project is
+ * {@link TaskController} under {@code /api/projects/{project}/tasks}.
+ */
+@RestController
+@RequestMapping("/api/projects")
+@CrossOrigin(origins = "*")
+public class ProjectController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectController.class);
+
+    private final ProjectService projectService;
+
+    public ProjectController(ProjectService projectService) {
+        this.projectService = projectService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<String>> getAllProjects() throws IOException {
+        return ResponseEntity.ok(projectService.getAll());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ProjectStatsDTO> getStatistics() throws IOException {
+        return ResponseEntity.ok(projectService.getStatistics());
+    }
+
+    @PutMapping("/{project}")
+    public ResponseEntity<Void> createProject(@PathVariable String project) throws IOException, SQLException {
+        if (!projectService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return projectService.create(project)
+                    ? ResponseEntity.status(HttpStatus.CREATED).build()
+                    : ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid project name: {}", project);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{project}")
+    public ResponseEntity<Void> deleteProject(@PathVariable String project) throws IOException {
+        if (!projectService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return projectService.delete(project)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            logger.warn("Project in use, not deleted: {}", project);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
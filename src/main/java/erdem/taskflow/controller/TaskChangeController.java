@@ -0,0 +1,50 @@
+package erdem.taskflow.controller;
+
+import erdem.taskflow.dto.TaskChangeDTO;
+import erdem.taskflow.dto.TaskChangePageDTO;
+import erdem.taskflow.event.TaskEventOutbox;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Change feed over the task event outbox. Consumers page through it with the
+ * {@code next} cursor of each response and so read only what changed since their last
+ * call; {@code after=0} starts at the oldest retained change. A cursor older than the
+ * compacted range gets 410 Gone: changes were dropped and the consumer has to
+ * resynchronize from {@code GET /api/tasks}. 404 when the outbox is disabled.
+ */
+@RestController
+@RequestMapping({"/api/changes", "/api/projects/{project}/changes"})
+@CrossOrigin(origins = "*")
+public class TaskChangeController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final TaskEventOutbox outbox;
+
+    public TaskChangeController(TaskEventOutbox outbox) {
+        this.outbox = outbox;
+    }
+
+    @GetMapping
+    public ResponseEntity<TaskChangePageDTO> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (!outbox.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (after < 0 || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (after > 0 && after < outbox.horizon()) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        int pageSize = Math.min(limit, MAX_LIMIT);
+        List<TaskChangeDTO> changes = outbox.changesAfter(after, pageSize);
+        long next = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSequence();
+        return ResponseEntity.ok(new TaskChangePageDTO(changes, next, next < outbox.head()));
+    }
+}
@@ -1,33 +1,56 @@
 package erdem.taskflow.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import erdem.taskflow.dto.BulkChangeDTO;
+import erdem.taskflow.dto.TaskListDTO;
+import erdem.taskflow.dto.TaskPageDTO;
 import erdem.taskflow.dto.TaskRequestDTO;
 import erdem.taskflow.dto.TaskResponseDTO;
 import erdem.taskflow.dto.TaskStatsDTO;
 import erdem.taskflow.model.Priority;
 import erdem.taskflow.model.Status;
+import erdem.taskflow.project.ProjectContext;
+import erdem.taskflow.service.IdempotencyStore;
 import erdem.taskflow.service.TaskService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
 @RestController
-@RequestMapping("/api/tasks")
+@RequestMapping({"/api/tasks", "/api/projects/{project}/tasks"})
 @CrossOrigin(origins = "*")
 public class TaskController {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int NDJSON_FLUSH_INTERVAL = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, ObjectMapper objectMapper, IdempotencyStore idempotencyStore) {
         this.taskService = taskService;
+        this.objectMapper = objectMapper;
+        this.idempotencyStore = idempotencyStore;
         logger.debug("TaskController initialized");
     }
 
@@ -40,60 +63,173 @@ public class TaskController {
             @RequestParam(required = false) String searchTerm,
             @RequestParam(required = false) String sortBy,
             @RequestParam(required = false) String sortOrder) {
-        
-        logger.debug("GET /api/tasks - Received request with params: status={}, priority={}, dueDateFrom={}, dueDateTo={}, searchTerm={}, sortBy={}, sortOrder={}", 
-                status, priority, dueDateFrom, dueDateTo, searchTerm, sortBy, sortOrder);
-        
+
         List<TaskResponseDTO> tasks;
         if (status != null || priority != null || dueDateFrom != null || dueDateTo != null || searchTerm != null) {
-            logger.debug("Applying filters - calling filterTasks()");
             tasks = taskService.filterTasks(status, priority, dueDateFrom, dueDateTo, searchTerm, sortBy, sortOrder);
         } else {
-            logger.debug("No filters applied - calling getAll()");
             tasks = taskService.getAll(sortBy, sortOrder);
         }
-        
-        logger.debug("Returning {} tasks", tasks.size());
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * {@link #getAllTasks} with {@code facets=true}: the tasks wrapped together with
+     * their counts per status, priority and due-date bucket.
+     */
+    @GetMapping(params = "facets=true")
+    public ResponseEntity<TaskListDTO> getTasksWithFacets(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo,
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String sortOrder) {
+        return ResponseEntity.ok(taskService.getTasksWithFacets(
+                status, priority, dueDateFrom, dueDateTo, searchTerm, sortBy, sortOrder));
+    }
+
+    /**
+     * {@link #getAllTasks} with {@code limit}: one page of tasks in title order. Pass the
+     * page's {@code next} as {@code after} for the following one.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<TaskPageDTO> getTaskPage(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) String sortOrder,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(taskService.getTitlePage(
+                    status, priority, sortOrder, after, Math.min(limit, MAX_PAGE_SIZE)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid page cursor: {}", after);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Same query as {@link #getAllTasks}, written as newline-delimited JSON while rows are
+     * read from the database, so the first task is sent before the last one is loaded.
+     */
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTasks(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo,
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String sortOrder) {
+
+        ObjectWriter writer = objectMapper.writerFor(TaskResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // The body is written on another thread, so it carries the request's project along
+        String project = ProjectContext.current();
+        StreamingResponseBody body = out -> {
+            ProjectContext.set(project);
+            try (JsonGenerator generator = writer.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                taskService.streamTasks(status, priority, dueDateFrom, dueDateTo, searchTerm, sortBy, sortOrder, task -> {
+                    try {
+                        writer.writeValue(generator, task);
+                        generator.writeRaw('\n');
+                        if (++written[0] == 1 || written[0] % NDJSON_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                ProjectContext.clear();
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable UUID id) {
-        logger.debug("GET /api/tasks/{} - Fetching task by ID", id);
         try {
             TaskResponseDTO task = taskService.getById(id);
-            logger.debug("Task found: {}", task.getTitle());
-            return ResponseEntity.ok(task);
+            return ResponseEntity.ok().eTag(eTag(task)).body(task);
         } catch (RuntimeException e) {
             logger.warn("Task not found with id: {}", id);
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * With an {@code Idempotency-Key}, a repeated request returns the task created by the
+     * first one instead of creating another.
+     */
     @PostMapping
-    public ResponseEntity<TaskResponseDTO> createTask(@Valid @RequestBody TaskRequestDTO requestDTO) {
-        logger.debug("POST /api/tasks - Creating new task: title={}, priority={}, dueDate={}", 
-                requestDTO.getTitle(), requestDTO.getPriority(), requestDTO.getDueDate());
+    public ResponseEntity<TaskResponseDTO> createTask(
+            @Valid @RequestBody TaskRequestDTO requestDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && ProjectContext.current() != null) {
+            // Keys are per project, like the tasks they create
+            idempotencyKey = ProjectContext.current() + ":" + idempotencyKey;
+        }
+        if (idempotencyKey != null) {
+            IdempotencyStore.Claim claim = idempotencyStore.claim(idempotencyKey, requestDTO);
+            switch (claim.state()) {
+                case REPLAY:
+                    return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(claim.response())).body(claim.response());
+                case IN_PROGRESS:
+                    return ResponseEntity.status(HttpStatus.CONFLICT).build();
+                case MISMATCH:
+                    logger.warn("Idempotency-Key reused with a different request: {}", idempotencyKey);
+                    return ResponseEntity.unprocessableEntity().build();
+                default:
+                    break;
+            }
+        }
         try {
             TaskResponseDTO created = taskService.create(requestDTO);
-            logger.debug("Task created successfully with ID: {}", created.getId());
-            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+            if (idempotencyKey != null) {
+                idempotencyStore.complete(idempotencyKey, created);
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(created)).body(created);
         } catch (Exception e) {
+            if (idempotencyKey != null) {
+                idempotencyStore.release(idempotencyKey);
+            }
             logger.error("Error creating task: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * With {@code If-Match}, the update only applies if the task is still at that version
+     * (its {@code ETag}); otherwise, or if another write wins the race, it answers 409.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponseDTO> updateTask(
             @PathVariable UUID id,
-            @Valid @RequestBody TaskRequestDTO requestDTO) {
-        logger.debug("PUT /api/tasks/{} - Updating task: title={}, priority={}", 
-                id, requestDTO.getTitle(), requestDTO.getPriority());
+            @Valid @RequestBody TaskRequestDTO requestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            TaskResponseDTO updated = taskService.update(id, requestDTO);
-            logger.debug("Task updated successfully");
-            return ResponseEntity.ok(updated);
+            TaskResponseDTO updated = taskService.update(id, requestDTO, expectedVersion);
+            return ResponseEntity.ok().eTag(eTag(updated)).body(updated);
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Conflicting update of task {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             logger.warn("Task not found for update: {}", id);
             return ResponseEntity.notFound().build();
@@ -106,12 +242,20 @@ public class TaskController {
     @PutMapping("/{id}/status")
     public ResponseEntity<TaskResponseDTO> updateTaskStatus(
             @PathVariable UUID id,
-            @RequestParam Status status) {
-        logger.debug("PUT /api/tasks/{}/status - Updating status to: {}", id, status);
+            @RequestParam Status status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
         try {
-            TaskResponseDTO updated = taskService.updateStatus(id, status);
-            logger.debug("Task status updated successfully");
-            return ResponseEntity.ok(updated);
+            expectedVersion = parseVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            TaskResponseDTO updated = taskService.updateStatus(id, status, expectedVersion);
+            return ResponseEntity.ok().eTag(eTag(updated)).body(updated);
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Conflicting status update of task {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             logger.warn("Task not found for status update: {}", id);
             return ResponseEntity.notFound().build();
@@ -120,10 +264,8 @@ public class TaskController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable UUID id) {
-        logger.debug("DELETE /api/tasks/{} - Deleting task", id);
         try {
             taskService.delete(id);
-            logger.debug("Task deleted successfully");
             return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
             logger.warn("Task not found for deletion: {}", id);
@@ -131,11 +273,69 @@ public class TaskController {
         }
     }
 
+    /**
+     * Deletes every task {@code GET /api/tasks} lists for the same filters. At least one
+     * filter is required, so a bare {@code DELETE /api/tasks} cannot empty the table.
+     */
+    @DeleteMapping
+    public ResponseEntity<BulkChangeDTO> deleteTasks(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo) {
+        if (status == null && priority == null && dueDateFrom == null && dueDateTo == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        long deleted = taskService.deleteMatching(status, priority, dueDateFrom, dueDateTo);
+        return ResponseEntity.ok(new BulkChangeDTO(deleted));
+    }
+
+    /**
+     * Moves every task matched as by {@link #deleteTasks} to {@code newStatus}.
+     */
+    @PatchMapping
+    public ResponseEntity<BulkChangeDTO> updateTasksStatus(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDateTo,
+            @RequestParam Status newStatus) {
+        if (status == null && priority == null && dueDateFrom == null && dueDateTo == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        long changed = taskService.updateStatusMatching(status, priority, dueDateFrom, dueDateTo, newStatus);
+        return ResponseEntity.ok(new BulkChangeDTO(changed));
+    }
+
+    private static String eTag(TaskResponseDTO task) {
+        return "\"" + task.getVersion() + "\"";
+    }
+
+    /**
+     * Version from an {@code If-Match} header such as {@code "3"} or {@code W/"3"};
+     * {@code null} when absent or {@code *}.
+     */
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch, e);
+        }
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<TaskStatsDTO> getStatistics() {
-        logger.debug("GET /api/tasks/stats - Fetching statistics");
         TaskStatsDTO stats = taskService.getStatistics();
-        logger.debug("Statistics retrieved successfully");
         return ResponseEntity.ok(stats);
     }
 }
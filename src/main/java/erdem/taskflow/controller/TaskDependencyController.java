@@ -0,0 +1,77 @@
+package erdem.taskflow.controller;
+
+import erdem.taskflow.dto.TaskPlanDTO;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.service.TaskDependencyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/tasks")
+@CrossOrigin(origins = "*")
+public class TaskDependencyController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskDependencyController.class);
+
+    private final TaskDependencyService dependencyService;
+
+    public TaskDependencyController(TaskDependencyService dependencyService) {
+        this.dependencyService = dependencyService;
+    }
+
+    /**
+     * Open tasks whose dependencies are all completed.
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<List<TaskResponseDTO>> getReadyTasks(
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String sortOrder) {
+        return ResponseEntity.ok(dependencyService.getReady(sortBy, sortOrder));
+    }
+
+    @GetMapping("/plan")
+    public ResponseEntity<TaskPlanDTO> getPlan() {
+        return ResponseEntity.ok(dependencyService.getPlan());
+    }
+
+    @GetMapping("/{id}/dependencies")
+    public ResponseEntity<List<UUID>> getDependencies(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(dependencyService.getDependencies(id));
+        } catch (RuntimeException e) {
+            logger.warn("Task not found with id: {}", id);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Makes task {@code id} wait for {@code dependsOnId}: 201 when added, 204 when it
+     * already existed, 409 when it would create a cycle.
+     */
+    @PutMapping("/{id}/dependencies/{dependsOnId}")
+    public ResponseEntity<Void> addDependency(@PathVariable UUID id, @PathVariable UUID dependsOnId) {
+        try {
+            boolean added = dependencyService.addDependency(id, dependsOnId);
+            return added ? ResponseEntity.status(HttpStatus.CREATED).build() : ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected dependency: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            logger.warn("Task not found for dependency: {} -> {}", id, dependsOnId);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}/dependencies/{dependsOnId}")
+    public ResponseEntity<Void> removeDependency(@PathVariable UUID id, @PathVariable UUID dependsOnId) {
+        return dependencyService.removeDependency(id, dependsOnId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
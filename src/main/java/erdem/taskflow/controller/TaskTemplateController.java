@@ -0,0 +1,80 @@
+package erdem.taskflow.controller;
+
+import erdem.taskflow.dto.TaskTemplateDTO;
+import erdem.taskflow.dto.TaskTemplateRequestDTO;
+import erdem.taskflow.service.TaskTemplateService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/templates")
+@CrossOrigin(origins = "*")
+public class TaskTemplateController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskTemplateController.class);
+
+    private final TaskTemplateService templateService;
+
+    public TaskTemplateController(TaskTemplateService templateService) {
+        this.templateService = templateService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<TaskTemplateDTO>> getAllTemplates() {
+        if (!templateService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(templateService.getAll());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TaskTemplateDTO> getTemplateById(@PathVariable UUID id) {
+        if (!templateService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(templateService.getById(id));
+        } catch (RuntimeException e) {
+            logger.warn("Template not found with id: {}", id);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Creates the template together with the tasks of its occurrences within the
+     * lookahead; later ones are created by the scheduled generator.
+     */
+    @PostMapping
+    public ResponseEntity<TaskTemplateDTO> createTemplate(@Valid @RequestBody TaskTemplateRequestDTO requestDTO) {
+        if (!templateService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(templateService.create(requestDTO));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid task template: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTemplate(@PathVariable UUID id) {
+        if (!templateService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            templateService.delete(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            logger.warn("Template not found for deletion: {}", id);
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
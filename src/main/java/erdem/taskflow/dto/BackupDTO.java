@@ -0,0 +1,19 @@
+package erdem.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupDTO {
+    private String name;
+    /** {@code full}, or {@code incremental} for the pages changed since the previous backup. */
+    private String type;
+    /** Size of the backup file in bytes, after compression. */
+    private long size;
+    private Instant createdAt;
+}
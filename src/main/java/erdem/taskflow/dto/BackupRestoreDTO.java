@@ -0,0 +1,18 @@
+package erdem.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Database file rebuilt from a backup, ready to replace the live one while the
+ * application is stopped.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupRestoreDTO {
+    private String backup;
+    private String path;
+    private long size;
+}
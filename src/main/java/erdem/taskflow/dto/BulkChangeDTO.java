@@ -0,0 +1,15 @@
+package erdem.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk delete or status change: the number of tasks it changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkChangeDTO {
+    private long affected;
+}
@@ -0,0 +1,73 @@
+package erdem.taskflow.dto;
+
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Flow analytics over a date range. Durations are in seconds; percentiles are the upper
+ * bound of the histogram bin they fall into, or {@code null} beyond the last bound.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlowAnalyticsDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private Priority priority;
+    private List<TimeInStatus> timeInStatus;
+    private List<Throughput> throughput;
+    private List<WorkInProgress> agingWip;
+
+    /**
+     * Time spent in {@code status} by tasks that left it within the range.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimeInStatus {
+        private Status status;
+        private long tasks;
+        private Long meanSeconds;
+        private Long p50Seconds;
+        private Long p85Seconds;
+        private List<Bin> histogram;
+    }
+
+    /**
+     * @param upToSeconds exclusive upper bound, {@code null} for the last bin
+     */
+    public record Bin(Long upToSeconds, long tasks) {
+    }
+
+    /**
+     * Tasks opened (created or reopened), started (moved to in progress) and completed in
+     * a day or week.
+     */
+    public record Throughput(LocalDate periodStart, long opened, long started, long completed) {
+    }
+
+    /**
+     * Tasks currently in {@code status}, binned by how long they have been in it, with
+     * the ones waiting longest.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WorkInProgress {
+        private Status status;
+        private long tasks;
+        private List<Bin> histogram;
+        private List<AgingTask> oldest;
+    }
+
+    public record AgingTask(UUID id, String title, Priority priority, Instant since, long ageSeconds) {
+    }
+}
@@ -0,0 +1,19 @@
+package erdem.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Task statistics across the default database and every project.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectStatsDTO {
+    private TaskStatsDTO total;
+    /** Statistics per project, the default database under {@code "default"}. */
+    private Map<String, TaskStatsDTO> projects;
+}
@@ -0,0 +1,24 @@
+package erdem.taskflow.dto;
+
+import erdem.taskflow.event.TaskEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One entry of the change feed: an outbox event with its sequence, which is the cursor
+ * to continue from.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangeDTO {
+    private long sequence;
+    private String type;
+    private UUID taskId;
+    private Instant occurredAt;
+    private TaskEvent event;
+}
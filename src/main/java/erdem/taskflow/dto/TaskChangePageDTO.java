@@ -0,0 +1,20 @@
+package erdem.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of the change feed. {@code next} is the cursor for the following request;
+ * {@code hasMore} is false once the page reached the newest change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangePageDTO {
+    private List<TaskChangeDTO> changes;
+    private long next;
+    private boolean hasMore;
+}
@@ -0,0 +1,30 @@
+package erdem.taskflow.dto;
+
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Number of tasks per status, priority and due-date bucket in a result. Every value is
+ * present, with 0 where nothing matched.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFacetsDTO {
+    private Map<Status, Long> status;
+    private Map<Priority, Long> priority;
+    private Map<DueBucket, Long> dueDate;
+
+    /**
+     * Due date relative to today: before it, today, within the next seven days, later,
+     * or no due date.
+     */
+    public enum DueBucket {
+        PAST, TODAY, NEXT_7_DAYS, LATER, NONE
+    }
+}
@@ -0,0 +1,18 @@
+package erdem.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A task list together with the facet counts of the same result.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskListDTO {
+    private List<TaskResponseDTO> tasks;
+    private TaskFacetsDTO facets;
+}
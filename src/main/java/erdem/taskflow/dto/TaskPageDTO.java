@@ -0,0 +1,20 @@
+package erdem.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of tasks in title order. {@code next} is the cursor for the following request,
+ * {@code null} with {@code hasMore} false on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageDTO {
+    private List<TaskResponseDTO> tasks;
+    private String next;
+    private boolean hasMore;
+}
@@ -0,0 +1,22 @@
+package erdem.taskflow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Unfinished tasks with dependencies, ordered so that each task comes after the tasks it
+ * depends on, and the longest chain of them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPlanDTO {
+    /** Dependency order; among tasks free to go, those heading longer chains first. */
+    private List<UUID> order;
+    /** The longest chain of unfinished tasks, first to last. */
+    private List<UUID> criticalPath;
+}
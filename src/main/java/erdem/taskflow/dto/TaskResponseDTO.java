@@ -23,6 +23,7 @@ public class TaskResponseDTO {
     private Instant createdAt;
     private Instant statusUpdatedAt;
     private List<StatusChangeDTO> statusHistory;
+    private long version;
 
     public String getTitle() {
         return title;
@@ -88,6 +89,14 @@ public class TaskResponseDTO {
         this.statusHistory = statusHistory;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 
     public UUID getId() {
         return id;
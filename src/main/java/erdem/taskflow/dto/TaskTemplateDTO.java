@@ -0,0 +1,27 @@
+package erdem.taskflow.dto;
+
+import erdem.taskflow.model.Priority;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTemplateDTO {
+    private UUID id;
+    private String title;
+    private String description;
+    private Priority priority;
+    private String recurrence;
+    private LocalDate startDate;
+    private int dueOffsetDays;
+    /** First occurrence without a task yet; {@code null} once the series has ended. */
+    private LocalDate nextFireDate;
+    private Instant createdAt;
+    private long version;
+}
@@ -0,0 +1,32 @@
+package erdem.taskflow.dto;
+
+import erdem.taskflow.model.Priority;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTemplateRequestDTO {
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    private String description;
+
+    private Priority priority;
+
+    /** RRULE subset, for example {@code FREQ=WEEKLY;BYDAY=MO}. */
+    @NotBlank(message = "Recurrence is required")
+    private String recurrence;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    /** Days from an occurrence to its task's due date. */
+    private int dueOffsetDays;
+}
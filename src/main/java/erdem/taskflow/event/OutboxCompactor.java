@@ -0,0 +1,140 @@
+package erdem.taskflow.event;
+
+import erdem.taskflow.project.ProjectContext;
+import erdem.taskflow.project.ProjectShards;
+import erdem.taskflow.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Deletes outbox events older than {@code taskflow.outbox.retention}, in chunks of
+ * {@code taskflow.outbox.compaction.batch-size} with one transaction per chunk.
+ * <p>
+ * Some events are always kept: the newest one, because SQLite hands out the next id as
+ * max + 1 and an empty table would start sequences over, and anything the
+ * {@link TaskChangeRelay} has not written yet. Change feed readers whose cursor falls
+ * behind the compacted range get 410 Gone and have to resynchronize.
+ * <p>
+ * The outboxes of project shards are compacted the same way after the default one.
+ */
+@Component
+public class OutboxCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxCompactor.class);
+
+    private final OutboxEventRepository repo;
+    private final TaskChangeRelay relay;
+    private final ProjectShards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean projectsEnabled;
+    private final Duration retention;
+    private final int batchSize;
+
+    public OutboxCompactor(OutboxEventRepository repo,
+                           TaskChangeRelay relay,
+                           ProjectShards shards,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${taskflow.outbox.compaction.enabled:true}") boolean enabled,
+                           @Value("${taskflow.projects.enabled:true}") boolean projectsEnabled,
+                           @Value("${taskflow.outbox.retention:P7D}") Duration retention,
+                           @Value("${taskflow.outbox.compaction.batch-size:1000}") int batchSize) {
+        this.repo = repo;
+        this.relay = relay;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.projectsEnabled = projectsEnabled;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${taskflow.outbox.compaction.interval:PT1H}",
+               initialDelayString = "${taskflow.outbox.compaction.interval:PT1H}")
+    public void compactScheduled() {
+        if (!enabled) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(retention);
+        try {
+            compact(cutoff);
+        } catch (IOException e) {
+            logger.atError().setMessage("Outbox compaction skipped, relay cursor unreadable").setCause(e).log();
+        }
+        if (projectsEnabled) {
+            compactProjects(cutoff);
+        }
+    }
+
+    /**
+     * Compacts the outbox of every project shard; a failing shard does not stop the others.
+     */
+    public void compactProjects(Instant cutoff) {
+        List<String> projects;
+        try {
+            projects = shards.list();
+        } catch (IOException e) {
+            logger.atError().setMessage("Project outbox compaction skipped, projects unreadable").setCause(e).log();
+            return;
+        }
+        for (String project : projects) {
+            try {
+                ProjectContext.call(project, () -> compact(cutoff));
+            } catch (Exception e) {
+                logger.atError()
+                        .setMessage("Project outbox compaction failed, retrying on the next run")
+                        .addKeyValue("project", project)
+                        .setCause(e)
+                        .log();
+            }
+        }
+    }
+
+    /**
+     * Deletes events created before {@code cutoff} from the outbox of the bound project
+     * (or the default database), within the limits described above.
+     *
+     * @return number of events deleted
+     */
+    public int compact(Instant cutoff) throws IOException {
+        long cap = repo.findMaxId() - 1;
+        if (relay.isEnabled() && ProjectContext.current() == null) {
+            cap = Math.min(cap, relay.cursor());
+        }
+        long maxId = cap;
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = repo.findIdsCreatedBefore(cutoff, maxId, Limit.of(batchSize));
+                if (!ids.isEmpty()) {
+                    repo.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            total += deleted;
+        }
+        if (total > 0) {
+            logger.atInfo()
+                    .setMessage("Compacted task event outbox")
+                    .addKeyValue("project", ProjectContext.current())
+                    .addKeyValue("deleted", total)
+                    .addKeyValue("before", cutoff)
+                    .log();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,8 @@
+package erdem.taskflow.event;
+
+/**
+ * A {@link TaskEvent} with its position in the outbox. Sequences increase with every
+ * event; for a single task they follow the order of its changes.
+ */
+public record StoredTaskEvent(long sequence, TaskEvent event) {
+}
@@ -0,0 +1,147 @@
+package erdem.taskflow.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import erdem.taskflow.dto.TaskChangeDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Copies the change feed from the outbox to a local newline-delimited JSON file, for
+ * consumers that would rather tail a file than poll {@code GET /api/changes}.
+ * <p>
+ * Each run reads batches after a cursor, appends them and forces the file once per
+ * batch, then advances the cursor, which is kept next to the file in
+ * {@code <path>.cursor}. A crash between the two repeats the batch on restart, so
+ * delivery is at least once; every line carries its sequence for deduplication.
+ * {@link OutboxCompactor} never removes events the relay has not written yet.
+ */
+@Component
+public class TaskChangeRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskChangeRelay.class);
+
+    private final TaskEventOutbox outbox;
+    private final ObjectWriter writer;
+    private final boolean enabled;
+    private final Path path;
+    private final Path cursorPath;
+    private final int batchSize;
+    private long cursor = -1;
+
+    public TaskChangeRelay(TaskEventOutbox outbox,
+                           ObjectMapper objectMapper,
+                           @Value("${taskflow.outbox.file-sink.enabled:false}") boolean enabled,
+                           @Value("${taskflow.outbox.file-sink.path:changes.ndjson}") Path path,
+                           @Value("${taskflow.outbox.relay.batch-size:500}") int batchSize) {
+        this.outbox = outbox;
+        this.writer = objectMapper.writerFor(TaskChangeDTO.class);
+        this.enabled = enabled;
+        this.path = path.toAbsolutePath();
+        this.cursorPath = this.path.resolveSibling(this.path.getFileName() + ".cursor");
+        this.batchSize = batchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled && outbox.isEnabled();
+    }
+
+    @Scheduled(fixedDelayString = "${taskflow.outbox.relay.interval:PT5S}",
+               initialDelayString = "${taskflow.outbox.relay.interval:PT5S}")
+    public void relayScheduled() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            relay();
+        } catch (IOException | UncheckedIOException e) {
+            logger.atError()
+                    .setMessage("Change relay failed, retrying on the next run")
+                    .addKeyValue("path", path)
+                    .setCause(e)
+                    .log();
+        }
+    }
+
+    /**
+     * Writes every change after the cursor to the file.
+     *
+     * @return number of changes written
+     */
+    public synchronized int relay() throws IOException {
+        long from = cursor();
+        int total = 0;
+        while (true) {
+            List<TaskChangeDTO> batch = outbox.changesAfter(from, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            append(batch);
+            from = batch.get(batch.size() - 1).getSequence();
+            saveCursor(from);
+            total += batch.size();
+        }
+        if (total > 0) {
+            logger.atDebug()
+                    .setMessage("Relayed changes")
+                    .addKeyValue("count", total)
+                    .addKeyValue("cursor", from)
+                    .log();
+        }
+        return total;
+    }
+
+    /**
+     * Sequence of the last change written to the file, or 0.
+     */
+    public synchronized long cursor() throws IOException {
+        if (cursor < 0) {
+            cursor = Files.exists(cursorPath)
+                    ? Long.parseLong(Files.readString(cursorPath, StandardCharsets.US_ASCII).trim())
+                    : 0;
+        }
+        return cursor;
+    }
+
+    private void append(List<TaskChangeDTO> batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.size() * 256);
+        for (TaskChangeDTO change : batch) {
+            writer.writeValue(bytes, change);
+            bytes.write('\n');
+        }
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private void saveCursor(long sequence) throws IOException {
+        Path temp = cursorPath.resolveSibling(cursorPath.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(sequence), StandardCharsets.US_ASCII);
+        Files.move(temp, cursorPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        cursor = sequence;
+    }
+}
@@ -0,0 +1,112 @@
+package erdem.taskflow.event;
+
+import erdem.taskflow.model.Status;
+import erdem.taskflow.service.TaskService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the number of tasks per status as the {@code taskflow.tasks} gauge, seeded from
+ * the database at startup and then maintained from events, so scraping it never touches
+ * the database.
+ * <p>
+ * The seed reads the counts and the outbox head in one transaction, and events up to
+ * that head are skipped: they are already in the counts, even when they are delivered
+ * after the seed.
+ * <p>
+ * Events only reach the instance that made the change. Instances sharing a database set
+ * {@code taskflow.task-counts.refresh.enabled=true} to seed again every
+ * {@code taskflow.task-counts.refresh.interval}, which picks up the other instances' changes.
+ */
+@Component
+public class TaskCountsConsumer implements TaskEventConsumer {
+
+    private final TaskService taskService;
+    private final TaskEventOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean refreshEnabled;
+    private final Map<Status, AtomicLong> counts = new EnumMap<>(Status.class);
+    /** Outbox sequence the counts were seeded at. */
+    private long seededAt;
+
+    public TaskCountsConsumer(TaskService taskService, TaskEventOutbox outbox,
+                              PlatformTransactionManager transactionManager, MeterRegistry registry,
+                              @Value("${taskflow.task-counts.refresh.enabled:false}") boolean refreshEnabled) {
+        this.taskService = taskService;
+        this.refreshEnabled = refreshEnabled;
+        this.outbox = outbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // One snapshot for both reads, also on PostgreSQL
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate.setReadOnly(true);
+        for (Status status : Status.values()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder("taskflow.tasks", count, AtomicLong::get)
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.countByStatus().forEach((taskStatus, count) -> counts.get(taskStatus).set(count));
+            seededAt = outbox.isEnabled() ? outbox.head() : 0;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${taskflow.task-counts.refresh.interval:PT15S}",
+               initialDelayString = "${taskflow.task-counts.refresh.interval:PT15S}")
+    public void refreshScheduled() {
+        if (refreshEnabled) {
+            seed();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "task-counts";
+    }
+
+    @Override
+    public synchronized void accept(List<StoredTaskEvent> events) {
+        for (StoredTaskEvent stored : events) {
+            if (stored.sequence() <= seededAt) {
+                continue;
+            }
+            TaskEvent event = stored.event();
+            if (event instanceof TaskEvent.Created created) {
+                increment(created.task().getStatus(), 1);
+            } else if (event instanceof TaskEvent.StatusChanged changed) {
+                increment(changed.from(), -1);
+                increment(changed.to(), 1);
+            } else if (event instanceof TaskEvent.Deleted deleted) {
+                increment(deleted.status(), -1);
+            }
+        }
+    }
+
+    long count(Status status) {
+        return counts.get(status).get();
+    }
+
+    private void increment(Status status, long delta) {
+        if (status != null) {
+            counts.get(status).addAndGet(delta);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package erdem.taskflow.event;
+
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A committed change to one task, published by {@code TaskService} for derived data
+ * (counters, indexes, change feeds) to follow.
+ */
+public sealed interface TaskEvent {
+
+    UUID taskId();
+
+    Instant occurredAt();
+
+    record Created(UUID taskId, Instant occurredAt, TaskResponseDTO task) implements TaskEvent {
+    }
+
+    record Updated(UUID taskId, Instant occurredAt, TaskResponseDTO task) implements TaskEvent {
+    }
+
+    /**
+     * @param since    when the task entered {@code from}
+     * @param priority the task's priority at the time of the change
+     */
+    record StatusChanged(UUID taskId, Instant occurredAt, Status from, Status to,
+                         Instant since, Priority priority) implements TaskEvent {
+    }
+
+    /**
+     * @param status the status the task had when it was deleted
+     */
+    record Deleted(UUID taskId, Instant occurredAt, Status status) implements TaskEvent {
+    }
+}
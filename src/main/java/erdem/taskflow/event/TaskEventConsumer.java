@@ -0,0 +1,24 @@
+package erdem.taskflow.event;
+
+import java.util.List;
+
+/**
+ * Receives task events from the {@link TaskEventDispatcher}. Any bean implementing this
+ * interface is registered.
+ * <p>
+ * Events of one task arrive in order, in batches that may mix tasks; different tasks
+ * are delivered concurrently. Delivery is at least once, so consumers must tolerate
+ * seeing an event again.
+ */
+public interface TaskEventConsumer {
+
+    /**
+     * Name used in metrics and logs.
+     */
+    String name();
+
+    /**
+     * @param events in sequence order per task; only valid during the call
+     */
+    void accept(List<StoredTaskEvent> events);
+}
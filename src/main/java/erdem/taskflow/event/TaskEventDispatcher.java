@@ -0,0 +1,316 @@
+package erdem.taskflow.event;
+
+import erdem.taskflow.project.ProjectContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers committed task events to every {@link TaskEventConsumer} off the request
+ * thread.
+ * <p>
+ * Events are routed by task id to a fixed number of lanes, each a bounded queue drained
+ * by one thread in batches, so a task's events are handled in order while different
+ * tasks proceed in parallel. The write path never waits: when a lane is full, live
+ * delivery stops and a replay thread reads the missed events back from the outbox,
+ * blocking on the lanes instead, until it has caught up. Events seen twice during that
+ * hand-over are filtered per task by sequence.
+ */
+@Component
+public class TaskEventDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventDispatcher.class);
+    private static final int DEDUPLICATION_ENTRIES = 16_384;
+    private static final Duration REPLAY_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final TaskEventOutbox outbox;
+    private final List<ConsumerState> consumers = new ArrayList<>();
+    private final Lane[] lanes;
+    private final int batchSize;
+    private final Counter overflows;
+    private final ExecutorService replayExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-events-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object modeLock = new Object();
+    private boolean replaying;
+    private long replayCursor;
+    private long latestSequence;
+
+    public TaskEventDispatcher(List<TaskEventConsumer> consumers,
+                               TaskEventOutbox outbox,
+                               MeterRegistry registry,
+                               @Value("${taskflow.events.lanes:2}") int lanes,
+                               @Value("${taskflow.events.queue-capacity:10000}") int queueCapacity,
+                               @Value("${taskflow.events.batch-size:100}") int batchSize) {
+        this.outbox = outbox;
+        this.batchSize = batchSize;
+        for (TaskEventConsumer consumer : consumers) {
+            this.consumers.add(new ConsumerState(consumer, registry));
+        }
+        this.lanes = new Lane[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new Lane(i, queueCapacity);
+        }
+        this.overflows = Counter.builder("taskflow.events.overflows").register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (consumers.isEmpty()) {
+            return;
+        }
+        for (Lane lane : lanes) {
+            lane.thread.start();
+        }
+        logger.atInfo()
+                .setMessage("Task event dispatcher started")
+                .addKeyValue("consumers", consumers.stream().map(state -> state.consumer.name()).toList())
+                .addKeyValue("lanes", lanes.length)
+                .log();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        replayExecutor.shutdownNow();
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+        for (Lane lane : lanes) {
+            lane.thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Runs after the publishing transaction commits (or right away without one). Events
+     * of project shards are skipped: their sequences belong to the shard's outbox, and
+     * consumers follow the default database.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(StoredTaskEvent event) {
+        if (consumers.isEmpty() || ProjectContext.current() != null) {
+            return;
+        }
+        synchronized (modeLock) {
+            latestSequence = Math.max(latestSequence, event.sequence());
+            if (replaying && event.sequence() > replayCursor) {
+                // Still ahead of the replay, which will read it from the outbox
+                return;
+            }
+            if (!laneFor(event).offer(event)) {
+                overflows.increment();
+                startReplay(event.sequence() - 1);
+            }
+        }
+    }
+
+    /**
+     * Events accepted but not yet processed by {@code consumer}, including those still
+     * waiting to be replayed.
+     */
+    public long lag(String consumer) {
+        for (ConsumerState state : consumers) {
+            if (state.consumer.name().equals(consumer)) {
+                return state.lag();
+            }
+        }
+        throw new IllegalArgumentException("Unknown task event consumer " + consumer);
+    }
+
+    private void startReplay(long sequence) {
+        if (replaying) {
+            replayCursor = Math.min(replayCursor, sequence);
+            return;
+        }
+        replaying = true;
+        replayCursor = sequence;
+        logger.atWarn()
+                .setMessage("Task event lanes full, replaying from the outbox")
+                .addKeyValue("after", sequence)
+                .log();
+        replayExecutor.execute(this::runReplay);
+    }
+
+    private void runReplay() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long from;
+            synchronized (modeLock) {
+                from = replayCursor;
+            }
+            try {
+                List<StoredTaskEvent> batch = outbox.readAfter(from, batchSize);
+                for (StoredTaskEvent event : batch) {
+                    laneFor(event).put(event);
+                }
+                synchronized (modeLock) {
+                    if (!batch.isEmpty()) {
+                        long last = batch.get(batch.size() - 1).sequence();
+                        latestSequence = Math.max(latestSequence, last);
+                        if (replayCursor == from) {
+                            replayCursor = last;
+                        }
+                    } else if (replayCursor == from && latestSequence <= from) {
+                        replaying = false;
+                        logger.atInfo().setMessage("Task event replay caught up").addKeyValue("at", from).log();
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.atError()
+                        .setMessage("Task event replay failed, retrying")
+                        .addKeyValue("after", from)
+                        .setCause(e)
+                        .log();
+                try {
+                    Thread.sleep(REPLAY_RETRY_DELAY.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private long replayBacklog() {
+        synchronized (modeLock) {
+            return replaying ? Math.max(0, latestSequence - replayCursor) : 0;
+        }
+    }
+
+    private Lane laneFor(StoredTaskEvent event) {
+        return lanes[Math.floorMod(event.event().taskId().hashCode(), lanes.length)];
+    }
+
+    private final class ConsumerState {
+
+        final TaskEventConsumer consumer;
+        final AtomicLong pending = new AtomicLong();
+        final Timer timer;
+        final Counter failures;
+
+        ConsumerState(TaskEventConsumer consumer, MeterRegistry registry) {
+            this.consumer = consumer;
+            this.timer = Timer.builder("taskflow.events.consume").tag("consumer", consumer.name()).register(registry);
+            this.failures = Counter.builder("taskflow.events.failures").tag("consumer", consumer.name()).register(registry);
+            Gauge.builder("taskflow.events.lag", this, ConsumerState::lag)
+                    .tag("consumer", consumer.name())
+                    .register(registry);
+        }
+
+        long lag() {
+            return pending.get() + replayBacklog();
+        }
+
+        void deliver(List<StoredTaskEvent> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                timer.record(() -> consumer.accept(batch));
+            } catch (RuntimeException e) {
+                failures.increment();
+                logger.atWarn()
+                        .setMessage("Task event consumer failed")
+                        .addKeyValue("consumer", consumer.name())
+                        .addKeyValue("from", batch.get(0).sequence())
+                        .addKeyValue("events", batch.size())
+                        .setCause(e)
+                        .log();
+            }
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        final BlockingQueue<StoredTaskEvent> queue;
+        final Thread thread;
+        /** Last sequence delivered per task, to drop events that were both replayed and delivered live. */
+        final Map<UUID, Long> delivered = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+                return size() > DEDUPLICATION_ENTRIES;
+            }
+        };
+
+        Lane(int index, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "task-events-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        boolean offer(StoredTaskEvent event) {
+            consumers.forEach(state -> state.pending.incrementAndGet());
+            if (queue.offer(event)) {
+                return true;
+            }
+            consumers.forEach(state -> state.pending.decrementAndGet());
+            return false;
+        }
+
+        void put(StoredTaskEvent event) throws InterruptedException {
+            consumers.forEach(state -> state.pending.incrementAndGet());
+            try {
+                queue.put(event);
+            } catch (InterruptedException e) {
+                consumers.forEach(state -> state.pending.decrementAndGet());
+                throw e;
+            }
+        }
+
+        @Override
+        public void run() {
+            List<StoredTaskEvent> batch = new ArrayList<>(batchSize);
+            List<StoredTaskEvent> readOnly = Collections.unmodifiableList(batch);
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    batch.add(queue.take());
+                    queue.drainTo(batch, batchSize - 1);
+                    int taken = batch.size();
+                    batch.removeIf(this::isDuplicate);
+                    for (ConsumerState state : consumers) {
+                        state.deliver(readOnly);
+                        state.pending.addAndGet(-taken);
+                    }
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean isDuplicate(StoredTaskEvent event) {
+            UUID taskId = event.event().taskId();
+            Long last = delivered.get(taskId);
+            if (last != null && event.sequence() <= last) {
+                return true;
+            }
+            delivered.put(taskId, event.sequence());
+            return false;
+        }
+    }
+}
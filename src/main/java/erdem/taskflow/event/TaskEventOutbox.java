@@ -0,0 +1,135 @@
+package erdem.taskflow.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erdem.taskflow.dto.TaskChangeDTO;
+import erdem.taskflow.model.OutboxEvent;
+import erdem.taskflow.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists every {@link TaskEvent} to the {@code task_event} table as it is published,
+ * inside the transaction of the change, so an event exists exactly when its change was
+ * committed. The stored event is then republished as a {@link StoredTaskEvent} for the
+ * {@link TaskEventDispatcher}, and can be read back in sequence order for replay.
+ * <p>
+ * The change feed pages by sequence, which is only safe once no lower sequence can still
+ * commit. A single writer (SQLite) commits in sequence order. With concurrent writers
+ * (PostgreSQL) a transaction can commit after one holding a higher sequence, so the feed
+ * holds back events younger than {@code taskflow.outbox.settle-time}. Because an event's
+ * time is taken inside its transaction, the settle time must exceed twice the longest
+ * write transaction.
+ */
+@Component
+public class TaskEventOutbox {
+
+    private static final Map<String, Class<? extends TaskEvent>> TYPES = Map.of(
+            "Created", TaskEvent.Created.class,
+            "Updated", TaskEvent.Updated.class,
+            "StatusChanged", TaskEvent.StatusChanged.class,
+            "Deleted", TaskEvent.Deleted.class);
+
+    private final OutboxEventRepository repo;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher publisher;
+    private final boolean enabled;
+    private final Duration settleTime;
+
+    public TaskEventOutbox(OutboxEventRepository repo,
+                           ObjectMapper objectMapper,
+                           ApplicationEventPublisher publisher,
+                           @Value("${taskflow.events.enabled:true}") boolean enabled,
+                           @Value("${taskflow.outbox.settle-time:PT0S}") Duration settleTime) {
+        this.repo = repo;
+        this.objectMapper = objectMapper;
+        this.publisher = publisher;
+        this.enabled = enabled;
+        this.settleTime = settleTime;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener
+    public void append(TaskEvent event) {
+        if (!enabled) {
+            return;
+        }
+        OutboxEvent row = new OutboxEvent();
+        row.setTaskId(event.taskId());
+        row.setType(event.getClass().getSimpleName());
+        row.setCreatedAt(event.occurredAt());
+        try {
+            row.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event, e);
+        }
+        OutboxEvent saved = repo.save(row);
+        publisher.publishEvent(new StoredTaskEvent(saved.getId(), event));
+    }
+
+    /**
+     * Up to {@code limit} events with a sequence above {@code sequence}, in order.
+     */
+    public List<StoredTaskEvent> readAfter(long sequence, int limit) {
+        return repo.findByIdGreaterThanOrderByIdAsc(sequence, Limit.of(limit)).stream()
+                .map(this::toStoredEvent)
+                .toList();
+    }
+
+    /**
+     * {@link #readAfter} as change feed entries, ending before the first event younger
+     * than the settle time, so that a cursor never passes a sequence that may still commit.
+     */
+    public List<TaskChangeDTO> changesAfter(long sequence, int limit) {
+        Instant settled = Instant.now().minus(settleTime);
+        List<TaskChangeDTO> changes = new ArrayList<>();
+        for (StoredTaskEvent stored : readAfter(sequence, limit)) {
+            if (!settleTime.isZero() && stored.event().occurredAt().isAfter(settled)) {
+                break;
+            }
+            changes.add(new TaskChangeDTO(stored.sequence(), stored.event().getClass().getSimpleName(),
+                    stored.event().taskId(), stored.event().occurredAt(), stored.event()));
+        }
+        return changes;
+    }
+
+    /**
+     * Sequence of the newest stored event, or 0.
+     */
+    public long head() {
+        return repo.findMaxId();
+    }
+
+    /**
+     * Sequence below the oldest stored event: everything up to it has been compacted
+     * away, so reading after an older sequence would miss events.
+     */
+    public long horizon() {
+        long oldest = repo.findMinId();
+        return oldest == 0 ? head() : oldest - 1;
+    }
+
+    private StoredTaskEvent toStoredEvent(OutboxEvent row) {
+        Class<? extends TaskEvent> type = TYPES.get(row.getType());
+        if (type == null) {
+            throw new IllegalStateException("Unknown task event type " + row.getType() + " at " + row.getId());
+        }
+        try {
+            return new StoredTaskEvent(row.getId(), objectMapper.readValue(row.getPayload(), type));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read task event " + row.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package erdem.taskflow.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Enables DEBUG/TRACE output of application loggers for requests that were picked
+ * by the trace sampler, regardless of the configured level. For everything else it
+ * stays neutral, so an unsampled {@code logger.atDebug()} costs one level comparison.
+ */
+public class SampledTraceTurboFilter extends TurboFilter {
+
+    public static final String SAMPLED_KEY = "traceSampled";
+
+    private String loggerPrefix = "erdem.taskflow";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.toInt() > Level.DEBUG_INT) {
+            return FilterReply.NEUTRAL;
+        }
+        if (MDC.get(SAMPLED_KEY) == null || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.ACCEPT;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+}
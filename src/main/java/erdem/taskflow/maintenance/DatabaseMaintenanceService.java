@@ -0,0 +1,291 @@
+package erdem.taskflow.maintenance;
+
+import erdem.taskflow.project.ProjectContext;
+import erdem.taskflow.project.ProjectShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the SQLite database in shape without downtime. Every run refreshes the size and
+ * free-page gauges; inside the low-traffic window ({@code taskflow.maintenance.window},
+ * local time) it also:
+ * <ul>
+ *   <li>once per window, runs {@code ANALYZE} with an {@code analysis_limit}, so the query
+ *       planner has current statistics at a bounded cost (what {@code PRAGMA optimize}
+ *       does, for all tables);</li>
+ *   <li>once per window, runs {@code PRAGMA quick_check} and logs and counts any
+ *       corruption it reports;</li>
+ *   <li>returns free pages to the file system with {@code PRAGMA incremental_vacuum}, in
+ *       batches of {@code vacuum-batch-pages}, each its own short write transaction, so
+ *       writers interleave.</li>
+ * </ul>
+ * Incremental vacuum needs {@code auto_vacuum=INCREMENTAL}, which
+ * {@link erdem.taskflow.config.SchemaMigrations} sets. Other databases are skipped.
+ * <p>
+ * Project shards get the same treatment after the default database, each with its own
+ * once-per-window tasks; the gauges report the default database.
+ */
+@Service
+public class DatabaseMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseMaintenanceService.class);
+
+    private static final int ANALYSIS_LIMIT = 1000;
+    private static final Duration VACUUM_BUDGET = Duration.ofSeconds(30);
+
+    private final DataSource dataSource;
+    private final ProjectShards shards;
+    private final boolean enabled;
+    private final boolean projectsEnabled;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final int vacuumBatchPages;
+    private final Timer analyzeTimer;
+    private final Timer vacuumTimer;
+    private final Timer checkTimer;
+    private final Counter checkFailures;
+    private volatile long sizeBytes;
+    private volatile long freePages;
+    private Boolean sqlite;
+    /** Window of the last analyze and quick check, per project or {@link ProjectContext#DEFAULT}. */
+    private final Map<String, LocalDate> lastWindows = new HashMap<>();
+
+    public DatabaseMaintenanceService(DataSource dataSource,
+                                      ProjectShards shards,
+                                      MeterRegistry registry,
+                                      @Value("${taskflow.maintenance.enabled:true}") boolean enabled,
+                                      @Value("${taskflow.projects.enabled:true}") boolean projectsEnabled,
+                                      @Value("${taskflow.maintenance.window:02:00-05:00}") String window,
+                                      @Value("${taskflow.maintenance.vacuum-batch-pages:1000}") int vacuumBatchPages) {
+        this.dataSource = dataSource;
+        this.shards = shards;
+        this.enabled = enabled;
+        this.projectsEnabled = projectsEnabled;
+        String[] bounds = window.split("-");
+        if (bounds.length != 2) {
+            throw new IllegalArgumentException("taskflow.maintenance.window must be HH:mm-HH:mm: " + window);
+        }
+        this.windowStart = LocalTime.parse(bounds[0].trim());
+        this.windowEnd = LocalTime.parse(bounds[1].trim());
+        this.vacuumBatchPages = vacuumBatchPages;
+        this.analyzeTimer = Timer.builder("taskflow.maintenance").tag("task", "analyze").register(registry);
+        this.vacuumTimer = Timer.builder("taskflow.maintenance").tag("task", "incremental_vacuum").register(registry);
+        this.checkTimer = Timer.builder("taskflow.maintenance").tag("task", "quick_check").register(registry);
+        this.checkFailures = Counter.builder("taskflow.maintenance.check.failures").register(registry);
+        Gauge.builder("taskflow.db.size", this, service -> service.sizeBytes).baseUnit("bytes").register(registry);
+        Gauge.builder("taskflow.db.free.pages", this, service -> service.freePages).register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${taskflow.maintenance.interval:PT15M}",
+               initialDelayString = "${taskflow.maintenance.interval:PT15M}")
+    public void maintainScheduled() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            maintain(now);
+        } catch (SQLException | RuntimeException e) {
+            logger.atError().setMessage("Database maintenance failed, retrying on the next run").setCause(e).log();
+        }
+        if (projectsEnabled) {
+            maintainProjects(now);
+        }
+    }
+
+    /**
+     * Runs {@link #maintain} on every project shard; a failing shard does not stop the others.
+     */
+    public void maintainProjects(LocalDateTime now) {
+        List<String> projects;
+        try {
+            projects = shards.list();
+        } catch (IOException e) {
+            logger.atError().setMessage("Project maintenance skipped, projects unreadable").setCause(e).log();
+            return;
+        }
+        for (String project : projects) {
+            try {
+                ProjectContext.call(project, () -> {
+                    maintain(now);
+                    return null;
+                });
+            } catch (Exception e) {
+                logger.atError()
+                        .setMessage("Project maintenance failed, retrying on the next run")
+                        .addKeyValue("project", project)
+                        .setCause(e)
+                        .log();
+            }
+        }
+    }
+
+    /**
+     * One maintenance run as of {@code now}, as described above, on the project bound to
+     * the thread or the default database.
+     */
+    public synchronized void maintain(LocalDateTime now) throws SQLException {
+        String project = ProjectContext.current();
+        try (Connection connection = dataSource.getConnection()) {
+            if (project == null && sqlite == null) {
+                sqlite = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("sqlite");
+            }
+            if (project == null && !sqlite) {
+                return;
+            }
+            long free = refreshStats(connection, project);
+            LocalDate window = windowOf(now);
+            if (window == null) {
+                return;
+            }
+            String key = project == null ? ProjectContext.DEFAULT : project;
+            if (!window.equals(lastWindows.get(key))) {
+                analyze(connection);
+                quickCheck(connection);
+                lastWindows.put(key, window);
+            }
+            incrementalVacuum(connection, free);
+            refreshStats(connection, project);
+        }
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public long getFreePages() {
+        return freePages;
+    }
+
+    /**
+     * The date the window containing {@code now} started on, or {@code null} outside the
+     * window. A window ending before it starts spans midnight.
+     */
+    LocalDate windowOf(LocalDateTime now) {
+        LocalTime time = now.toLocalTime();
+        if (!windowStart.isAfter(windowEnd)) {
+            return !time.isBefore(windowStart) && time.isBefore(windowEnd) ? now.toLocalDate() : null;
+        }
+        if (!time.isBefore(windowStart)) {
+            return now.toLocalDate();
+        }
+        return time.isBefore(windowEnd) ? now.toLocalDate().minusDays(1) : null;
+    }
+
+    private void analyze(Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA analysis_limit = " + ANALYSIS_LIMIT);
+            statement.execute("ANALYZE");
+        }
+        long nanos = System.nanoTime() - start;
+        analyzeTimer.record(nanos, TimeUnit.NANOSECONDS);
+        logger.atInfo()
+                .setMessage("Database statistics refreshed")
+                .addKeyValue("project", ProjectContext.current())
+                .addKeyValue("ms", nanos / 1_000_000)
+                .log();
+    }
+
+    private void quickCheck(Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        List<String> problems = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA quick_check(10)")) {
+            while (rs.next()) {
+                String line = rs.getString(1);
+                if (!"ok".equals(line)) {
+                    problems.add(line);
+                }
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        checkTimer.record(nanos, TimeUnit.NANOSECONDS);
+        if (problems.isEmpty()) {
+            logger.atInfo()
+                    .setMessage("Database quick check passed")
+                    .addKeyValue("project", ProjectContext.current())
+                    .addKeyValue("ms", nanos / 1_000_000)
+                    .log();
+        } else {
+            checkFailures.increment();
+            logger.atError()
+                    .setMessage("Database quick check found problems, restore from a backup")
+                    .addKeyValue("project", ProjectContext.current())
+                    .addKeyValue("problems", problems)
+                    .log();
+        }
+    }
+
+    /**
+     * Frees pages in batches until none are left or the time budget of a run is spent.
+     */
+    private void incrementalVacuum(Connection connection, long freePages) throws SQLException {
+        if (freePages == 0 || queryLong(connection, "PRAGMA auto_vacuum") != 2) {
+            return;
+        }
+        long start = System.nanoTime();
+        long before = freePages;
+        long free = before;
+        long deadline = start + VACUUM_BUDGET.toNanos();
+        try (Statement statement = connection.createStatement()) {
+            while (free > 0 && System.nanoTime() < deadline) {
+                // executeUpdate steps the pragma to completion; execute would free one page
+                statement.executeUpdate("PRAGMA incremental_vacuum(" + vacuumBatchPages + ")");
+                free = queryLong(connection, "PRAGMA freelist_count");
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        vacuumTimer.record(nanos, TimeUnit.NANOSECONDS);
+        logger.atInfo()
+                .setMessage("Database pages freed")
+                .addKeyValue("project", ProjectContext.current())
+                .addKeyValue("pages", before - free)
+                .addKeyValue("remaining", free)
+                .addKeyValue("ms", nanos / 1_000_000)
+                .log();
+    }
+
+    /**
+     * @return the number of free pages; the gauges are updated for the default database only
+     */
+    private long refreshStats(Connection connection, String project) throws SQLException {
+        long free = queryLong(connection, "PRAGMA freelist_count");
+        if (project == null) {
+            sizeBytes = queryLong(connection, "PRAGMA page_count") * queryLong(connection, "PRAGMA page_size");
+            freePages = free;
+        }
+        return free;
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
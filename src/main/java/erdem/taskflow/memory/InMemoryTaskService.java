@@ -0,0 +1,519 @@
+package erdem.taskflow.memory;
+
+import erdem.taskflow.dto.TaskPageDTO;
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.dto.TaskStatsDTO;
+import erdem.taskflow.event.TaskEvent;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.model.Task;
+import erdem.taskflow.model.TimeOrderedUuidGenerator;
+import erdem.taskflow.repository.TaskRepository;
+import erdem.taskflow.service.TaskArchiveService;
+import erdem.taskflow.service.TaskDataVersion;
+import erdem.taskflow.service.TaskService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link TaskService} that serves every read from memory ({@link TaskIndex}) and makes
+ * writes durable through a write-ahead log with periodic snapshots ({@link TaskJournal})
+ * instead of the database. Enabled by the {@code inmemory} profile.
+ * <p>
+ * Writers append to the log and swap in a new task instance under a write lock; readers
+ * share a read lock. Stored tasks are never mutated, so DTOs can be built after the lock
+ * is released. Change events are published after it too; the database-backed event
+ * outbox and flow analytics are switched off by the profile.
+ */
+@Service
+@Primary
+@Profile("inmemory")
+@Transactional(Transactional.TxType.SUPPORTS)
+@Timed(value = "taskflow.service", histogram = true)
+public class InMemoryTaskService extends TaskService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTaskService.class);
+
+    /**
+     * Order of {@link TaskRepository#findAllByOrderByPriorityDescDueDateAsc()}: priority
+     * name descending, then due date with missing dates first.
+     */
+    private static final Comparator<Task> DEFAULT_ORDER = Comparator
+            .comparing((Task t) -> t.getPriority() == null ? "" : t.getPriority().name(), Comparator.reverseOrder())
+            .thenComparing(Task::getDueDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final TaskIndex index = new TaskIndex();
+    private final TaskJournal journal;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<TaskEvent> pending = new ConcurrentLinkedQueue<>();
+    private final Object publishMonitor = new Object();
+    private final Object snapshotMonitor = new Object();
+
+    public InMemoryTaskService(TaskRepository repo,
+                               TaskArchiveService archive,
+                               TaskDataVersion dataVersion,
+                               ApplicationEventPublisher events,
+                               @Value("${taskflow.memory.dir:data/memory}") Path directory,
+                               @Value("${taskflow.memory.sync-writes:true}") boolean syncWrites) {
+        super(repo, archive, dataVersion, events, null, null);
+        this.journal = new TaskJournal(directory, syncWrites);
+        try {
+            journal.recover(index::put, index::remove);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover task journal from " + directory, e);
+        }
+        logger.info("In-memory task engine loaded {} tasks", index.size());
+    }
+
+    @Override
+    public List<TaskResponseDTO> getAll(String sortBy, String sortOrder) {
+        List<Task> tasks;
+        lock.readLock().lock();
+        try {
+            tasks = index.all();
+        } finally {
+            lock.readLock().unlock();
+        }
+        Comparator<Task> comparator = comparatorFor(sortBy, sortOrder);
+        tasks.sort(comparator != null ? comparator : DEFAULT_ORDER);
+        return toResponseDTOs(tasks);
+    }
+
+    @Override
+    public TaskResponseDTO getById(UUID id) {
+        return toResponseDTO(find(id));
+    }
+
+    @Override
+    public TaskResponseDTO create(TaskRequestDTO requestDTO) {
+        Task task = new Task();
+        task.setId(TimeOrderedUuidGenerator.next());
+        task.setTitle(requestDTO.getTitle());
+        task.setDescription(requestDTO.getDescription());
+        task.setPriority(requestDTO.getPriority() != null ? requestDTO.getPriority() : Priority.MEDIUM);
+        task.setDueDate(requestDTO.getDueDate());
+        task.setCreatedAt(Instant.now());
+        task.updateStatus(Status.OPEN);
+
+        write(task, new TaskEvent.Created(task.getId(), task.getCreatedAt(), toResponseDTO(task)));
+        publishPending();
+        logger.atDebug().setMessage("create")
+                .addKeyValue("id", task.getId())
+                .addKeyValue("priority", task.getPriority())
+                .addKeyValue("dueDate", task.getDueDate())
+                .log();
+        return toResponseDTO(task);
+    }
+
+    /**
+     * Journals the tasks one by one; there is no statement batching to gain here.
+     */
+    @Override
+    public List<UUID> createAll(List<TaskRequestDTO> requests) {
+        List<UUID> ids = new ArrayList<>(requests.size());
+        for (TaskRequestDTO request : requests) {
+            ids.add(create(request).getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public TaskResponseDTO update(UUID id, TaskRequestDTO requestDTO, Long expectedVersion) {
+        Task saved;
+        lock.writeLock().lock();
+        try {
+            Task current = find(id);
+            checkVersion(current, expectedVersion);
+            Task task = copyOf(current);
+            task.setTitle(requestDTO.getTitle());
+            task.setDescription(requestDTO.getDescription());
+            task.setPriority(requestDTO.getPriority() != null ? requestDTO.getPriority() : task.getPriority());
+            task.setDueDate(requestDTO.getDueDate());
+            saved = write(task, new TaskEvent.Updated(id, Instant.now(), toResponseDTO(task)));
+        } finally {
+            lock.writeLock().unlock();
+            publishPending();
+        }
+        logger.atDebug().setMessage("update").addKeyValue("id", id).log();
+        return toResponseDTO(saved);
+    }
+
+    @Override
+    public TaskResponseDTO updateStatus(UUID id, Status newStatus, Long expectedVersion) {
+        Task saved;
+        Status oldStatus;
+        lock.writeLock().lock();
+        try {
+            Task current = find(id);
+            checkVersion(current, expectedVersion);
+            Task task = copyOf(current);
+            oldStatus = task.getStatus();
+            Instant since = task.getStatusUpdatedAt();
+            task.updateStatus(newStatus);
+            saved = write(task, oldStatus == newStatus ? null
+                    : new TaskEvent.StatusChanged(id, task.getStatusUpdatedAt(), oldStatus, newStatus,
+                            since, task.getPriority()));
+        } finally {
+            lock.writeLock().unlock();
+            publishPending();
+        }
+        logger.atDebug().setMessage("updateStatus")
+                .addKeyValue("id", id)
+                .addKeyValue("from", oldStatus)
+                .addKeyValue("to", newStatus)
+                .log();
+        return toResponseDTO(saved);
+    }
+
+    @Override
+    public void delete(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Task current = find(id);
+            journal.appendDelete(id);
+            index.remove(id);
+            dataChanged();
+            pending.add(new TaskEvent.Deleted(id, Instant.now(), current.getStatus()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+            publishPending();
+        }
+        logger.atDebug().setMessage("delete").addKeyValue("id", id).log();
+    }
+
+    @Override
+    public List<TaskResponseDTO> filterTasks(Status status, Priority priority,
+                                             LocalDate dueDateFrom, LocalDate dueDateTo,
+                                             String searchTerm, String sortBy, String sortOrder) {
+        List<Task> tasks = select(status, priority, dueDateFrom, dueDateTo, searchTerm);
+        Comparator<Task> comparator = comparatorFor(sortBy, sortOrder);
+        if (comparator != null) {
+            tasks.sort(comparator);
+        }
+        List<TaskResponseDTO> result = toResponseDTOs(tasks);
+        logger.atDebug().setMessage("filterTasks")
+                .addKeyValue("status", status)
+                .addKeyValue("priority", priority)
+                .addKeyValue("results", result.size())
+                .log();
+        return result;
+    }
+
+    @Override
+    public TaskPageDTO getTitlePage(Status status, Priority priority, String sortOrder, String after, int limit) {
+        boolean descending = "DESC".equalsIgnoreCase(sortOrder);
+        Comparator<Task> order = Comparator.comparing(Task::getTitleKey, Task.TITLE_KEY_ORDER).thenComparing(Task::getId);
+        Stream<Task> tasks = select(status, priority, null, null, null).stream();
+        if (after != null) {
+            TitleCursor cursor = TitleCursor.parse(after);
+            tasks = tasks.filter(task -> {
+                int c = Task.TITLE_KEY_ORDER.compare(task.getTitleKey(), cursor.key());
+                if (c == 0) {
+                    c = task.getId().compareTo(cursor.id());
+                }
+                return descending ? c < 0 : c > 0;
+            });
+        }
+        List<Task> page = tasks.sorted(descending ? order.reversed() : order)
+                .limit(limit + 1L)
+                .collect(Collectors.toList());
+        return titlePage(page, limit);
+    }
+
+    @Override
+    public void streamTasks(Status status, Priority priority,
+                            LocalDate dueDateFrom, LocalDate dueDateTo,
+                            String searchTerm, String sortBy, String sortOrder,
+                            Consumer<TaskResponseDTO> consumer) {
+        if (status == null && priority == null && dueDateFrom == null && dueDateTo == null && searchTerm == null) {
+            getAll(sortBy, sortOrder).forEach(consumer);
+        } else {
+            filterTasks(status, priority, dueDateFrom, dueDateTo, searchTerm, sortBy, sortOrder).forEach(consumer);
+        }
+    }
+
+    @Override
+    public TaskStatsDTO getStatistics() {
+        lock.readLock().lock();
+        try {
+            return new TaskStatsDTO(
+                    index.count(Status.OPEN),
+                    index.count(Status.IN_PROGRESS),
+                    index.count(Status.COMPLETED),
+                    index.overdue(LocalDate.now()).cardinality(),
+                    index.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Status, Long> countByStatus() {
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        lock.readLock().lock();
+        try {
+            for (Status status : Status.values()) {
+                counts.put(status, (long) index.count(status));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    @Override
+    public List<TaskResponseDTO> getOverdueTasks() {
+        List<Task> tasks = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet matches = index.overdue(LocalDate.now());
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                tasks.add(index.at(i));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return toResponseDTOs(tasks);
+    }
+
+    /**
+     * Deletes the matching tasks one by one under the write lock; see
+     * {@link TaskService#deleteMatching}.
+     */
+    @Override
+    public long deleteMatching(Status status, Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo) {
+        lock.writeLock().lock();
+        try {
+            List<Task> tasks = selectForBulk(status, priority, dueDateFrom, dueDateTo);
+            tasks.forEach(task -> delete(task.getId()));
+            return tasks.size();
+        } finally {
+            lock.writeLock().unlock();
+            publishPending();
+        }
+    }
+
+    @Override
+    public long updateStatusMatching(Status status, Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo,
+                                     Status newStatus) {
+        lock.writeLock().lock();
+        try {
+            long changed = 0;
+            for (Task task : selectForBulk(status, priority, dueDateFrom, dueDateTo)) {
+                if (task.getStatus() != newStatus) {
+                    updateStatus(task.getId(), newStatus, null);
+                    changed++;
+                }
+            }
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+            publishPending();
+        }
+    }
+
+    /**
+     * Compacts the log into a snapshot once it has grown. The task set is captured and a
+     * new log segment started under the write lock; the snapshot is written outside it.
+     */
+    @Scheduled(fixedDelayString = "${taskflow.memory.snapshot-interval:PT5M}",
+               initialDelayString = "${taskflow.memory.snapshot-interval:PT5M}")
+    public void snapshot() {
+        synchronized (snapshotMonitor) {
+            List<Task> tasks;
+            long generation;
+            lock.writeLock().lock();
+            try {
+                if (journal.segmentBytes() == 0) {
+                    return;
+                }
+                tasks = index.all();
+                generation = journal.rotate();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                journal.writeSnapshot(generation, tasks);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        snapshot();
+        journal.close();
+    }
+
+    @Override
+    public Map<UUID, Status> findStatuses(Collection<UUID> ids) {
+        Map<UUID, Status> statuses = new HashMap<>(ids.size() * 2);
+        lock.readLock().lock();
+        try {
+            for (UUID id : ids) {
+                Task task = index.get(id);
+                if (task != null) {
+                    statuses.put(id, task.getStatus());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return statuses;
+    }
+
+    private Task find(UUID id) {
+        lock.readLock().lock();
+        try {
+            Task task = index.get(id);
+            if (task == null) {
+                throw new RuntimeException("Task not found with id: " + id);
+            }
+            return task;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Logs and then publishes the task; the log is written first so a visible change is
+     * never lost. The event, if any, is queued under the same lock, so events queue in
+     * the order of the changes, and published by {@link #publishPending()}.
+     */
+    private Task write(Task task, TaskEvent event) {
+        lock.writeLock().lock();
+        try {
+            journal.appendPut(task);
+            index.put(task);
+            dataChanged();
+            if (event != null) {
+                pending.add(event);
+            }
+            return task;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Publishes queued events in queue order once the write lock is released, so event
+     * listeners never hold up readers and writers. Nested writes leave the queue to the
+     * outermost one; whichever thread gets here first publishes the events of the others.
+     */
+    private void publishPending() {
+        if (lock.isWriteLockedByCurrentThread()) {
+            return;
+        }
+        synchronized (publishMonitor) {
+            TaskEvent event;
+            while ((event = pending.poll()) != null) {
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Mirrors {@link TaskRepository#findWithFilters}, including hiding completed tasks
+     * when {@code dueDateTo} lies in the past.
+     */
+    private List<Task> select(Status status, Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo,
+                              String searchTerm) {
+        return select(status, priority, dueDateFrom, dueDateTo, searchTerm,
+                dueDateTo != null && dueDateTo.isBefore(LocalDate.now()));
+    }
+
+    private List<Task> select(Status status, Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo,
+                              String searchTerm, boolean hideCompleted) {
+        String term = searchTerm == null ? null : searchTerm.toLowerCase(Locale.ROOT);
+        List<Task> tasks = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet matches = index.select(status, priority, dueDateFrom, dueDateTo);
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                Task task = index.at(i);
+                if (hideCompleted && task.getStatus() == Status.COMPLETED) {
+                    continue;
+                }
+                if (term != null && !contains(task.getTitle(), term) && !contains(task.getDescription(), term)) {
+                    continue;
+                }
+                tasks.add(task);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return tasks;
+    }
+
+    private List<Task> selectForBulk(Status status, Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo) {
+        return select(status, priority, dueDateFrom, dueDateTo, null, status != Status.COMPLETED
+                && dueDateTo != null && dueDateTo.isBefore(LocalDate.now()));
+    }
+
+    private List<TaskResponseDTO> toResponseDTOs(List<Task> tasks) {
+        return tasks.stream()
+                .map(this::toResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean contains(String value, String lowerCaseTerm) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseTerm);
+    }
+
+    /**
+     * Next version of {@code task}, to be modified and then {@link #write written}.
+     */
+    private static Task copyOf(Task task) {
+        Task copy = new Task();
+        copy.setId(task.getId());
+        copy.setTitle(task.getTitle());
+        copy.setDescription(task.getDescription());
+        copy.setPriority(task.getPriority());
+        copy.setDueDate(task.getDueDate());
+        copy.setStatus(task.getStatus());
+        copy.setCreatedAt(task.getCreatedAt());
+        copy.setStatusUpdatedAt(task.getStatusUpdatedAt());
+        copy.setStatusHistory(new ArrayList<>(task.getStatusHistory()));
+        copy.setVersion(task.getVersion() + 1);
+        return copy;
+    }
+}
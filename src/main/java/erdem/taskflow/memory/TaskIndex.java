@@ -0,0 +1,171 @@
+package erdem.taskflow.memory;
+
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.model.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * All tasks held in memory, addressed by dense slot ordinals. Status and priority are
+ * indexed by one bitset per enum constant, due dates by a sorted map of bitsets, ids by
+ * a hash map; filters combine bitsets and only touch the matching tasks.
+ * <p>
+ * Stored tasks are never modified: {@link #put} replaces the previous instance, so the
+ * index can unhook its old values. Not thread-safe; callers synchronize.
+ */
+class TaskIndex {
+
+    private Task[] tasks = new Task[1024];
+    private final BitSet live = new BitSet();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final BitSet[] byStatus = newBitSets(Status.values().length);
+    private final BitSet[] byPriority = newBitSets(Priority.values().length);
+    private final NavigableMap<LocalDate, BitSet> byDueDate = new TreeMap<>();
+
+    Task get(UUID id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal == null ? null : tasks[ordinal];
+    }
+
+    Task at(int ordinal) {
+        return tasks[ordinal];
+    }
+
+    /**
+     * Inserts the task, or replaces the stored task with the same id.
+     */
+    void put(Task task) {
+        Integer ordinal = ordinals.get(task.getId());
+        if (ordinal == null) {
+            ordinal = live.nextClearBit(0);
+            if (ordinal == tasks.length) {
+                tasks = Arrays.copyOf(tasks, tasks.length * 2);
+            }
+            ordinals.put(task.getId(), ordinal);
+            live.set(ordinal);
+        } else {
+            unindex(ordinal, tasks[ordinal]);
+        }
+        tasks[ordinal] = task;
+        index(ordinal, task);
+    }
+
+    Task remove(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return null;
+        }
+        Task task = tasks[ordinal];
+        unindex(ordinal, task);
+        tasks[ordinal] = null;
+        live.clear(ordinal);
+        return task;
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    int count(Status status) {
+        return byStatus[status.ordinal()].cardinality();
+    }
+
+    /**
+     * Ordinals of tasks matching every non-null argument. A due-date bound excludes tasks
+     * without a due date, as it does in SQL.
+     */
+    BitSet select(Status status, Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo) {
+        BitSet result = (BitSet) live.clone();
+        if (status != null) {
+            result.and(byStatus[status.ordinal()]);
+        }
+        if (priority != null) {
+            result.and(byPriority[priority.ordinal()]);
+        }
+        if (dueDateFrom != null || dueDateTo != null) {
+            NavigableMap<LocalDate, BitSet> range = byDueDate;
+            if (dueDateFrom != null) {
+                range = range.tailMap(dueDateFrom, true);
+            }
+            if (dueDateTo != null) {
+                range = range.headMap(dueDateTo, true);
+            }
+            result.and(union(range));
+        }
+        return result;
+    }
+
+    /**
+     * Ordinals of tasks due before {@code date} that are not completed.
+     */
+    BitSet overdue(LocalDate date) {
+        BitSet result = union(byDueDate.headMap(date, false));
+        result.andNot(byStatus[Status.COMPLETED.ordinal()]);
+        return result;
+    }
+
+    /**
+     * Every stored task, in ordinal order.
+     */
+    List<Task> all() {
+        List<Task> result = new ArrayList<>(size());
+        for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) {
+            result.add(tasks[i]);
+        }
+        return result;
+    }
+
+    private void index(int ordinal, Task task) {
+        if (task.getStatus() != null) {
+            byStatus[task.getStatus().ordinal()].set(ordinal);
+        }
+        if (task.getPriority() != null) {
+            byPriority[task.getPriority().ordinal()].set(ordinal);
+        }
+        if (task.getDueDate() != null) {
+            byDueDate.computeIfAbsent(task.getDueDate(), date -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private void unindex(int ordinal, Task task) {
+        if (task.getStatus() != null) {
+            byStatus[task.getStatus().ordinal()].clear(ordinal);
+        }
+        if (task.getPriority() != null) {
+            byPriority[task.getPriority().ordinal()].clear(ordinal);
+        }
+        if (task.getDueDate() != null) {
+            BitSet bits = byDueDate.get(task.getDueDate());
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                byDueDate.remove(task.getDueDate());
+            }
+        }
+    }
+
+    private static BitSet union(Map<LocalDate, BitSet> buckets) {
+        BitSet result = new BitSet();
+        for (BitSet bits : buckets.values()) {
+            result.or(bits);
+        }
+        return result;
+    }
+
+    private static BitSet[] newBitSets(int count) {
+        BitSet[] sets = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            sets[i] = new BitSet();
+        }
+        return sets;
+    }
+}
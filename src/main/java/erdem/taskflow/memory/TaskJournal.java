@@ -0,0 +1,361 @@
+package erdem.taskflow.memory;
+
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable storage for {@link InMemoryTaskService}: an append-only write-ahead log of
+ * task upserts and deletes, compacted by periodic snapshots of the full task set.
+ * <p>
+ * Log segments are numbered by generation ({@code wal-<generation>.log}). A snapshot of
+ * generation {@code g} holds the state at the moment segment {@code g} was started, so
+ * recovery loads the snapshot and replays segments {@code >= g}. Files are read through
+ * memory mappings. Every record carries its length and a CRC32; a torn record at the end
+ * of the last segment (crash during append) is truncated away.
+ */
+class TaskJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskJournal.class);
+
+    private static final String SNAPSHOT = "snapshot.bin";
+    private static final Pattern SEGMENT = Pattern.compile("wal-(\\p{XDigit}{16})\\.log");
+    private static final int SNAPSHOT_MAGIC = 0x54465331;
+    private static final int SNAPSHOT_HEADER = Integer.BYTES + Long.BYTES;
+    private static final int RECORD_HEADER = Integer.BYTES + Integer.BYTES;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    /** {@link #PUT} followed by the task version; plain PUT records replay as version 0. */
+    private static final byte PUT_VERSIONED = 3;
+
+    private final Path directory;
+    private final boolean syncWrites;
+    private FileChannel segment;
+    private long generation;
+    private long segmentBytes;
+
+    TaskJournal(Path directory, boolean syncWrites) {
+        this.directory = directory;
+        this.syncWrites = syncWrites;
+    }
+
+    /**
+     * Loads the latest snapshot and replays the log after it, then opens the log for
+     * appending. Must be called once before any append.
+     *
+     * @return number of records applied
+     */
+    long recover(Consumer<Task> onPut, Consumer<UUID> onDelete) throws IOException {
+        Files.createDirectories(directory);
+        long records = 0;
+        Path snapshot = directory.resolve(SNAPSHOT);
+        if (Files.exists(snapshot)) {
+            try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = map(channel);
+                if (buffer.remaining() < SNAPSHOT_HEADER || buffer.getInt() != SNAPSHOT_MAGIC) {
+                    throw new IllegalStateException("Not a task snapshot: " + snapshot);
+                }
+                generation = buffer.getLong();
+                records += replay(buffer, onPut, onDelete);
+                if (buffer.hasRemaining()) {
+                    throw new IllegalStateException("Corrupt task snapshot: " + snapshot);
+                }
+            }
+        }
+
+        List<Long> segments = segments();
+        long last = generation;
+        for (long g : segments) {
+            Path file = segmentPath(g);
+            if (g < generation) {
+                Files.delete(file);
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = map(channel);
+                records += replay(buffer, onPut, onDelete);
+                if (buffer.hasRemaining()) {
+                    logger.warn("Truncating {} bytes of incomplete records from {}", buffer.remaining(), file);
+                    channel.truncate(buffer.position());
+                }
+            }
+            last = g;
+        }
+        generation = last;
+        openSegment();
+        logger.info("Recovered task journal from {} ({} records, generation {})", directory, records, generation);
+        return records;
+    }
+
+    void appendPut(Task task) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PUT_VERSIONED);
+        writeTask(out, task);
+        append(bytes.toByteArray());
+    }
+
+    void appendDelete(UUID id) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(17);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(DELETE);
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+        append(bytes.toByteArray());
+    }
+
+    /**
+     * Bytes appended since the current segment was started.
+     */
+    long segmentBytes() {
+        return segmentBytes;
+    }
+
+    /**
+     * Starts a new log segment. The caller must capture the task set to snapshot at the
+     * same instant, with appends excluded, and pass both to {@link #writeSnapshot}.
+     *
+     * @return generation of the new segment
+     */
+    long rotate() throws IOException {
+        segment.force(false);
+        segment.close();
+        generation++;
+        openSegment();
+        return generation;
+    }
+
+    /**
+     * Writes {@code tasks} as the snapshot for {@code snapshotGeneration} and drops the log
+     * segments it supersedes. Safe to run concurrently with appends.
+     */
+    void writeSnapshot(long snapshotGeneration, Collection<Task> tasks) throws IOException {
+        Path temp = directory.resolve(SNAPSHOT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER);
+            header.putInt(SNAPSHOT_MAGIC).putLong(snapshotGeneration).flip();
+            writeFully(channel, header);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (Task task : tasks) {
+                bytes.reset();
+                out.writeByte(PUT_VERSIONED);
+                writeTask(out, task);
+                writeFully(channel, frame(bytes.toByteArray()));
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (long g : segments()) {
+            if (g < snapshotGeneration) {
+                Files.deleteIfExists(segmentPath(g));
+            }
+        }
+        logger.info("Wrote task snapshot generation {} ({} tasks)", snapshotGeneration, tasks.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (segment != null && segment.isOpen()) {
+            segment.force(false);
+            segment.close();
+        }
+    }
+
+    private void append(byte[] payload) throws IOException {
+        ByteBuffer record = frame(payload);
+        int length = record.remaining();
+        writeFully(segment, record);
+        if (syncWrites) {
+            segment.force(false);
+        }
+        segmentBytes += length;
+    }
+
+    private void openSegment() throws IOException {
+        segment = FileChannel.open(segmentPath(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segment.position(segment.size());
+        segmentBytes = segment.size();
+    }
+
+    private Path segmentPath(long g) {
+        return directory.resolve(String.format("wal-%016x.log", g));
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> result = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    result.add(Long.parseUnsignedLong(matcher.group(1), 16));
+                }
+            });
+        }
+        result.sort(null);
+        return result;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Journal file larger than 2 GB; snapshot more often");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * Applies records from the buffer's position, stopping before the first incomplete or
+     * corrupt one; the buffer is left positioned there.
+     */
+    private static long replay(ByteBuffer buffer, Consumer<Task> onPut, Consumer<UUID> onDelete) {
+        long records = 0;
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                break;
+            }
+            byte type = payload.get();
+            if (type == PUT || type == PUT_VERSIONED) {
+                Task task = readTask(payload);
+                if (type == PUT_VERSIONED) {
+                    task.setVersion(payload.getLong());
+                }
+                onPut.accept(task);
+            } else if (type == DELETE) {
+                onDelete.accept(new UUID(payload.getLong(), payload.getLong()));
+            } else {
+                throw new IllegalStateException("Unknown journal record type " + type);
+            }
+            buffer.position(buffer.position() + length);
+            records++;
+        }
+        return records;
+    }
+
+    private static ByteBuffer frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        return record;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        out.writeLong(task.getId().getMostSignificantBits());
+        out.writeLong(task.getId().getLeastSignificantBits());
+        writeString(out, task.getTitle());
+        writeString(out, task.getDescription());
+        out.writeByte(task.getPriority() == null ? -1 : task.getPriority().ordinal());
+        out.writeLong(task.getDueDate() == null ? Long.MIN_VALUE : task.getDueDate().toEpochDay());
+        out.writeByte(task.getStatus() == null ? -1 : task.getStatus().ordinal());
+        writeInstant(out, task.getCreatedAt());
+        writeInstant(out, task.getStatusUpdatedAt());
+        List<String> history = task.getStatusHistory();
+        out.writeInt(history == null ? 0 : history.size());
+        if (history != null) {
+            for (String entry : history) {
+                writeString(out, entry);
+            }
+        }
+        out.writeLong(task.getVersion());
+    }
+
+    private static Task readTask(ByteBuffer in) {
+        Task task = new Task();
+        task.setId(new UUID(in.getLong(), in.getLong()));
+        task.setTitle(readString(in));
+        task.setDescription(readString(in));
+        byte priority = in.get();
+        task.setPriority(priority < 0 ? null : Priority.values()[priority]);
+        long dueDate = in.getLong();
+        task.setDueDate(dueDate == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(dueDate));
+        byte status = in.get();
+        task.setStatus(status < 0 ? null : Status.values()[status]);
+        task.setCreatedAt(readInstant(in));
+        task.setStatusUpdatedAt(readInstant(in));
+        int entries = in.getInt();
+        List<String> history = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            history.add(readString(in));
+        }
+        task.setStatusHistory(history);
+        return task;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = StandardCharsets.UTF_8.decode(in.slice(in.position(), length)).toString();
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static Instant readInstant(ByteBuffer in) {
+        return in.get() == 0 ? null : Instant.ofEpochSecond(in.getLong(), in.getInt());
+    }
+}
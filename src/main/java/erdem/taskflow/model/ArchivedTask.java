@@ -0,0 +1,73 @@
+package erdem.taskflow.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A completed task moved out of the hot {@code task} table by the archiver. Rows are
+ * copied column for column, so the id and status history are preserved and the task
+ * can be moved back unchanged.
+ */
+@Entity
+@Table(name = "task_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArchivedTask {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private String titleKey;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private Priority priority;
+
+    private LocalDate dueDate;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private Instant createdAt;
+    private Instant statusUpdatedAt;
+    private Instant archivedAt;
+    private long version;
+
+    @ElementCollection
+    @CollectionTable(name = "task_archive_status_history", joinColumns = @JoinColumn(name = "task_id"),
+            indexes = @Index(name = "idx_task_archive_status_history_task_id", columnList = "task_id"))
+    @Column(name = "status_change")
+    private List<String> statusHistory = new ArrayList<>();
+
+    /**
+     * Detached {@link Task} view of this row for read paths that return tasks.
+     */
+    public Task toTask() {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setPriority(priority);
+        task.setDueDate(dueDate);
+        task.setStatus(status);
+        task.setCreatedAt(createdAt);
+        task.setStatusUpdatedAt(statusUpdatedAt);
+        task.setStatusHistory(new ArrayList<>(statusHistory));
+        task.setVersion(version);
+        return task;
+    }
+}
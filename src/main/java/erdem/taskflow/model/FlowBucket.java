@@ -0,0 +1,58 @@
+package erdem.taskflow.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated status transitions for flow analytics, one row per UTC day, priority,
+ * status and duration bin. A row with bin {@link #ARRIVALS} counts tasks that entered
+ * the status that day; any other bin counts tasks that left it that day after spending
+ * a time in the bin's range, with the summed time in {@code totalSeconds}.
+ */
+@Entity
+@Table(name = "task_flow_bucket")
+@IdClass(FlowBucket.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class FlowBucket {
+
+    public static final int ARRIVALS = -1;
+
+    /** {@code day} is reserved in H2. */
+    @Id
+    @Column(name = "utc_day")
+    private LocalDate day;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Priority priority;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Id
+    private int durationBin;
+
+    private long tasks;
+
+    private long totalSeconds;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Priority priority;
+        private Status status;
+        private int durationBin;
+    }
+}
@@ -0,0 +1,42 @@
+package erdem.taskflow.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A task event as written to the outbox, in the same transaction as the change it
+ * describes. The id is the event's sequence number.
+ */
+@Entity
+@Table(name = "task_event")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    /**
+     * Declared {@code integer} because SQLite only assigns ids to an {@code INTEGER}
+     * primary key (an alias of the 64-bit rowid); PostgreSQL's schema uses {@code bigint}.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(columnDefinition = "integer")
+    private Long id;
+
+    @Column(nullable = false)
+    private UUID taskId;
+
+    @Column(nullable = false, length = 32)
+    private String type;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
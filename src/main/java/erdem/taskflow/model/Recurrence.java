@@ -0,0 +1,195 @@
+package erdem.taskflow.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Cadence of a {@link TaskTemplate}, written as a subset of an iCalendar RRULE with day
+ * granularity, for example {@code FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH}:
+ * <ul>
+ *   <li>{@code FREQ}: {@code DAILY}, {@code WEEKLY}, {@code MONTHLY} or {@code YEARLY} (required)</li>
+ *   <li>{@code INTERVAL}: every n-th day, week, month or year (default 1)</li>
+ *   <li>{@code BYDAY}: weekdays for {@code WEEKLY} (default the start date's weekday)</li>
+ *   <li>{@code BYMONTHDAY}: day for {@code MONTHLY}, negative counting from the end of the
+ *       month (default the start date's day)</li>
+ *   <li>{@code UNTIL}: last possible date, {@code YYYYMMDD}</li>
+ * </ul>
+ * Periods are counted from the start date. As in RFC 5545, months without the requested
+ * day (the 31st, February 29th) are skipped rather than clamped.
+ */
+public final class Recurrence {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    /** Periods tried before giving up on a rule that no longer matches any date. */
+    private static final int MAX_PERIODS = 1000;
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> byDay;
+    private final Integer byMonthDay;
+    private final LocalDate until;
+
+    private Recurrence(Frequency frequency, int interval, Set<DayOfWeek> byDay, Integer byMonthDay,
+                       LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.byMonthDay = byMonthDay;
+        this.until = until;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the rule is malformed or uses unsupported parts
+     */
+    public static Recurrence parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is required");
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        Integer byMonthDay = null;
+        LocalDate until = null;
+        String body = rule.trim().toUpperCase(Locale.ROOT);
+        if (body.startsWith("RRULE:")) {
+            body = body.substring("RRULE:".length());
+        }
+        for (String part : body.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Malformed recurrence part: " + part);
+            }
+            String name = part.substring(0, eq).trim();
+            String value = part.substring(eq + 1).trim();
+            try {
+                switch (name) {
+                    case "FREQ" -> frequency = Frequency.valueOf(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "BYDAY" -> {
+                        for (String day : value.split(",")) {
+                            byDay.add(weekday(day.trim()));
+                        }
+                    }
+                    case "BYMONTHDAY" -> byMonthDay = Integer.parseInt(value);
+                    case "UNTIL" -> until = LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value,
+                            DateTimeFormatter.BASIC_ISO_DATE);
+                    default -> throw new IllegalArgumentException("Unsupported recurrence part: " + name);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Malformed recurrence part: " + part, e);
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule needs FREQ: " + rule);
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("INTERVAL must be positive: " + rule);
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY: " + rule);
+        }
+        if (byMonthDay != null && (frequency != Frequency.MONTHLY || byMonthDay == 0
+                || byMonthDay < -31 || byMonthDay > 31)) {
+            throw new IllegalArgumentException("BYMONTHDAY must be 1..31 or -31..-1 with FREQ=MONTHLY: " + rule);
+        }
+        return new Recurrence(frequency, interval, byDay, byMonthDay, until);
+    }
+
+    /**
+     * First occurrence on or after {@code from} for a series starting at {@code start},
+     * or {@code null} when the series has ended.
+     */
+    public LocalDate next(LocalDate start, LocalDate from) {
+        if (from.isBefore(start)) {
+            from = start;
+        }
+        LocalDate next = switch (frequency) {
+            case DAILY -> nextDaily(start, from);
+            case WEEKLY -> nextWeekly(start, from);
+            case MONTHLY -> nextMonthly(start, from);
+            case YEARLY -> nextYearly(start, from);
+        };
+        return next == null || (until != null && next.isAfter(until)) ? null : next;
+    }
+
+    private LocalDate nextDaily(LocalDate start, LocalDate from) {
+        long days = ChronoUnit.DAYS.between(start, from);
+        return start.plusDays(ceil(days, interval));
+    }
+
+    private LocalDate nextWeekly(LocalDate start, LocalDate from) {
+        Set<DayOfWeek> days = byDay.isEmpty() ? EnumSet.of(start.getDayOfWeek()) : byDay;
+        LocalDate firstWeek = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        long weeks = ChronoUnit.WEEKS.between(firstWeek, from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+        LocalDate week = firstWeek.plusWeeks(weeks - weeks % interval);
+        for (int i = 0; i < MAX_PERIODS; i++, week = week.plusWeeks(interval)) {
+            for (DayOfWeek day : days) {
+                LocalDate date = week.with(TemporalAdjusters.nextOrSame(day));
+                if (!date.isBefore(from)) {
+                    return date;
+                }
+            }
+        }
+        return null;
+    }
+
+    private LocalDate nextMonthly(LocalDate start, LocalDate from) {
+        int day = byMonthDay != null ? byMonthDay : start.getDayOfMonth();
+        YearMonth first = YearMonth.from(start);
+        long months = ChronoUnit.MONTHS.between(first, YearMonth.from(from));
+        YearMonth month = first.plusMonths(months - months % interval);
+        for (int i = 0; i < MAX_PERIODS; i++, month = month.plusMonths(interval)) {
+            int length = month.lengthOfMonth();
+            int dayOfMonth = day > 0 ? day : length + day + 1;
+            if (dayOfMonth >= 1 && dayOfMonth <= length) {
+                LocalDate date = month.atDay(dayOfMonth);
+                if (!date.isBefore(from)) {
+                    return date;
+                }
+            }
+        }
+        return null;
+    }
+
+    private LocalDate nextYearly(LocalDate start, LocalDate from) {
+        long years = from.getYear() - start.getYear();
+        int year = start.getYear() + (int) (years - years % interval);
+        for (int i = 0; i < MAX_PERIODS; i++, year += interval) {
+            if (start.getMonthValue() == 2 && start.getDayOfMonth() == 29 && !Year.isLeap(year)) {
+                continue;
+            }
+            LocalDate date = start.withYear(year);
+            if (!date.isBefore(from)) {
+                return date;
+            }
+        }
+        return null;
+    }
+
+    private static long ceil(long value, int step) {
+        return (value + step - 1) / step * step;
+    }
+
+    private static DayOfWeek weekday(String code) {
+        return switch (code) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> throw new IllegalArgumentException("Unknown weekday: " + code);
+        };
+    }
+}
@@ -2,32 +2,59 @@ package erdem.taskflow.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.text.Normalizer;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_status_updated_at", columnList = "status, status_updated_at"),
+        @Index(name = "idx_task_due_date", columnList = "due_date"),
+        @Index(name = "idx_task_title_key", columnList = "title_key, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
 
+    /** Column length of {@code title_key}; longer keys are cut, which only affects ties. */
+    private static final int TITLE_KEY_LENGTH = 255;
+
+    /**
+     * Order of title keys in memory, matching {@code ORDER BY title_key}: by code point, as
+     * SQLite and PostgreSQL ({@code COLLATE "C"}) compare the keys' UTF-8 bytes.
+     * {@link String#compareTo} compares UTF-16 units instead, which puts characters beyond
+     * U+FFFF before U+E000-U+FFFF.
+     */
+    public static final Comparator<String> TITLE_KEY_ORDER = Task::compareTitleKeys;
+
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @Getter
     @NotBlank
     private String title;
 
+    /**
+     * {@link #titleKey(String) Sort key} of the title, kept in step by {@link #setTitle}.
+     * Title ordering compares it as is, in SQL and in memory.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false)
+    private String titleKey = "";
+
     @Getter
     private String description;
 
@@ -44,8 +71,16 @@ public class Task {
     private Instant createdAt;
     private Instant statusUpdatedAt;
 
+    /**
+     * Incremented on every update; concurrent read-modify-write cycles fail instead of
+     * overwriting each other.
+     */
+    @Version
+    private long version;
+
     @ElementCollection
-    @CollectionTable(name = "task_status_history", joinColumns = @JoinColumn(name = "task_id"))
+    @CollectionTable(name = "task_status_history", joinColumns = @JoinColumn(name = "task_id"),
+            indexes = @Index(name = "idx_task_status_history_task_id", columnList = "task_id"))
     @Column(name = "status_change")
     private List<String> statusHistory = new ArrayList<>();
 
@@ -66,7 +101,7 @@ public class Task {
         }
         // Add initial status to history if empty
         if (statusHistory.isEmpty() && status != null) {
-            statusHistory.add(createStatusHistoryEntry(status, now));
+            statusHistory.add(statusHistoryEntry(status, now));
         }
     }
 
@@ -82,11 +117,54 @@ public class Task {
             if (statusHistory == null) {
                 statusHistory = new ArrayList<>();
             }
-            statusHistory.add(createStatusHistoryEntry(newStatus, Instant.now()));
+            statusHistory.add(statusHistoryEntry(newStatus, Instant.now()));
+        }
+    }
+
+    /**
+     * The title folded for ordering: compatibility-decomposed, without diacritics, case
+     * folded and trimmed, so "Éclair", "eclair" and " ECLAIR" sort together and plain
+     * binary comparison of keys gives case-insensitive title order in every database.
+     * Compare keys with {@link #TITLE_KEY_ORDER}.
+     */
+    public static String titleKey(String title) {
+        if (title == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(title.strip(), Normalizer.Form.NFKD);
+        StringBuilder key = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); ) {
+            int codePoint = decomposed.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+                if (key.length() + Character.charCount(codePoint) > TITLE_KEY_LENGTH) {
+                    break;
+                }
+                key.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+            }
         }
+        return key.toString();
     }
 
-    private String createStatusHistoryEntry(Status status, Instant timestamp) {
+    private static int compareTitleKeys(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    }
+
+    /**
+     * A {@code statusHistory} entry, {@code STATUS|timestamp}.
+     */
+    public static String statusHistoryEntry(Status status, Instant timestamp) {
         return status.name() + "|" + timestamp.toString();
     }
 
@@ -105,6 +183,11 @@ public class Task {
 
     public void setTitle(String title) {
         this.title = title;
+        this.titleKey = titleKey(title);
+    }
+
+    public String getTitleKey() {
+        return titleKey;
     }
 
     public String getDescription() {
@@ -163,6 +246,14 @@ public class Task {
         this.statusHistory = statusHistory;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 //    public Status getStatus() {
 //        return status;
 //    }
@@ -0,0 +1,41 @@
+package erdem.taskflow.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * An edge of the task dependency graph: {@code taskId} cannot start before
+ * {@code dependsOnId} is completed. Rows only record the edges; the graph itself is
+ * kept in memory by {@code TaskDependencyGraph}.
+ */
+@Entity
+@Table(name = "task_dependency",
+        indexes = @Index(name = "idx_task_dependency_task_id", columnList = "task_id"))
+@IdClass(TaskDependency.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDependency {
+
+    @Id
+    private UUID taskId;
+
+    @Id
+    private UUID dependsOnId;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID taskId;
+        private UUID dependsOnId;
+    }
+}
@@ -0,0 +1,61 @@
+package erdem.taskflow.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A recurring task: every occurrence of {@link #recurrence} from {@link #startDate} on
+ * becomes a task with this title, description and priority, due {@link #dueOffsetDays}
+ * after the occurrence.
+ * <p>
+ * {@link #nextFireDate} is the first occurrence not yet turned into a task, or
+ * {@code null} once the series has ended. It is advanced in the transaction that creates
+ * the tasks, so each occurrence is generated exactly once, and the generator finds due
+ * templates through its index instead of evaluating every rule.
+ */
+@Entity
+@Table(name = "task_template",
+        indexes = @Index(name = "idx_task_template_next_fire_date", columnList = "next_fire_date"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class TaskTemplate {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(nullable = false)
+    private String title;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private Priority priority;
+
+    /** RRULE subset understood by {@link Recurrence}. */
+    @Column(nullable = false)
+    private String recurrence;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    private int dueOffsetDays;
+
+    private LocalDate nextFireDate;
+
+    private Instant createdAt;
+
+    /**
+     * Concurrent generator runs for the same template conflict instead of both creating
+     * its occurrences.
+     */
+    @Version
+    private long version;
+}
@@ -0,0 +1,38 @@
+package erdem.taskflow.profiling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals for one distinct statement or request mapping.
+ */
+final class OperationStats {
+
+    private final String key;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    OperationStats(String key) {
+        this.key = key;
+    }
+
+    void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    Summary summarize() {
+        long n = count.sum();
+        long total = totalNanos.sum();
+        return new Summary(key, n, total / 1e6, n == 0 ? 0 : total / 1e6 / n, maxNanos.get() / 1e6);
+    }
+
+    public record Summary(String key, long count, double totalMs, double meanMs, double maxMs) {
+    }
+}
@@ -0,0 +1,44 @@
+package erdem.taskflow.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin view of the profiler at {@code /actuator/profiler}: recent slow statements with
+ * bind parameters and query plans, recent slow requests, and the top-N statements and
+ * requests by total time. {@code DELETE} clears everything.
+ */
+@Component
+@Endpoint(id = "profiler")
+public class ProfilerEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final SlowOperationLog log;
+
+    public ProfilerEndpoint(SlowOperationLog log) {
+        this.log = log;
+    }
+
+    @ReadOperation
+    public Map<String, Object> profile(@Nullable Integer top) {
+        int n = top != null && top > 0 ? top : DEFAULT_TOP;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("slowQueries", log.slowQueries());
+        result.put("slowRequests", log.slowRequests());
+        result.put("topQueries", log.topQueries(n));
+        result.put("topRequests", log.topRequests(n));
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        log.reset();
+    }
+}
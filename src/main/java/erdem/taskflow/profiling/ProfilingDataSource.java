@@ -0,0 +1,303 @@
+package erdem.taskflow.profiling;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * DataSource decorator that times every JDBC statement issued through it, including
+ * all {@code TaskRepository} queries, and hands the result to {@link SlowOperationLog}.
+ * For a query the time runs from execution until its ResultSet is closed, so row
+ * fetching is included and the row count is known. When a statement is slow its bind
+ * parameters are kept and the database is asked for the query plan on the same
+ * connection.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<SlowOperationLog> logProvider;
+    private volatile SlowOperationLog log;
+    private volatile String explainPrefix;
+
+    public ProfilingDataSource(DataSource target, ObjectProvider<SlowOperationLog> logProvider) {
+        super(target);
+        this.logProvider = logProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) throws SQLException {
+        SlowOperationLog operationLog = log();
+        if (operationLog == null || !operationLog.isEnabled()) {
+            return connection;
+        }
+        if (explainPrefix == null) {
+            explainPrefix = explainPrefixFor(connection.getMetaData().getDatabaseProductName());
+        }
+        return proxy(Connection.class, new ConnectionHandler(connection, operationLog));
+    }
+
+    private SlowOperationLog log() {
+        SlowOperationLog current = log;
+        if (current == null) {
+            current = logProvider.getIfAvailable();
+            log = current;
+        }
+        return current;
+    }
+
+    static String explainPrefixFor(String productName) {
+        String product = productName == null ? "" : productName.toLowerCase(Locale.ROOT);
+        if (product.contains("sqlite")) {
+            return "EXPLAIN QUERY PLAN ";
+        }
+        if (product.contains("h2") || product.contains("postgres")) {
+            return "EXPLAIN ";
+        }
+        return "";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object unwrap(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        Class<?> iface = (Class<?>) args[0];
+        if ("unwrap".equals(method.getName())) {
+            return iface.isInstance(proxy) ? proxy : invoke(target, method, args);
+        }
+        return iface.isInstance(proxy) || (Boolean) invoke(target, method, args);
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final SlowOperationLog operationLog;
+
+        ConnectionHandler(Connection target, SlowOperationLog operationLog) {
+            this.target = target;
+            this.operationLog = operationLog;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("unwrap".equals(name) || "isWrapperFor".equals(name)) {
+                return unwrap(proxy, target, method, args);
+            }
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            if ("prepareStatement".equals(name)) {
+                return proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0], this));
+            }
+            if ("createStatement".equals(name)) {
+                return proxy(Statement.class, new StatementHandler((Statement) result, null, this));
+            }
+            return result;
+        }
+
+        void finish(String sql, List<Object> parameters, long rows, long nanos) {
+            if (sql == null || !operationLog.recordQuery(sql, nanos)) {
+                return;
+            }
+            List<String> rendered = new ArrayList<>(parameters.size());
+            for (Object parameter : parameters) {
+                rendered.add(parameter instanceof byte[] bytes ? "<" + bytes.length + " bytes>" : String.valueOf(parameter));
+            }
+            operationLog.addSlowQuery(sql, rendered, rows, nanos, explain(sql, parameters));
+        }
+
+        private String explain(String sql, List<Object> parameters) {
+            String prefix = explainPrefix;
+            String verb = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (prefix == null || prefix.isEmpty()
+                    || !(verb.startsWith("select") || verb.startsWith("with") || verb.startsWith("update")
+                    || verb.startsWith("delete") || verb.startsWith("insert"))) {
+                return null;
+            }
+            try (PreparedStatement explain = target.prepareStatement(prefix + sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    explain.setObject(i + 1, parameters.get(i));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = explain.executeQuery()) {
+                    int detailColumn = rs.getMetaData().getColumnCount();
+                    while (rs.next()) {
+                        if (plan.length() > 0) {
+                            plan.append('\n');
+                        }
+                        plan.append(rs.getString(detailColumn));
+                    }
+                }
+                return plan.toString();
+            } catch (SQLException e) {
+                return "unavailable: " + e.getMessage();
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final ConnectionHandler connection;
+        private final List<Object> parameters = new ArrayList<>();
+        private String sql;
+        private ResultSetHandler openResultSet;
+
+        StatementHandler(Statement target, String sql, ConnectionHandler connection) {
+            this.target = target;
+            this.sql = sql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("unwrap".equals(name) || "isWrapperFor".equals(name)) {
+                return unwrap(proxy, target, method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, "setNull".equals(name) ? null : args[1]);
+                return ProfilingDataSource.invoke(target, method, args);
+            }
+            if ("clearParameters".equals(name)) {
+                parameters.clear();
+                return ProfilingDataSource.invoke(target, method, args);
+            }
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if ("getResultSet".equals(name)) {
+                Object result = ProfilingDataSource.invoke(target, method, args);
+                return result == null || openResultSet != null ? result : track((ResultSet) result, System.nanoTime());
+            }
+            if ("close".equals(name)) {
+                finishResultSet();
+            }
+            return ProfilingDataSource.invoke(target, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            if (args != null && args.length > 0 && args[0] instanceof String statementSql) {
+                sql = statementSql;
+            }
+            finishResultSet();
+            long start = System.nanoTime();
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            if (result instanceof ResultSet resultSet) {
+                return track(resultSet, start);
+            }
+            long rows = -1;
+            if (result instanceof Number count) {
+                rows = count.longValue();
+            } else if (result instanceof int[] counts) {
+                rows = Arrays.stream(counts).filter(c -> c > 0).asLongStream().sum();
+            } else if (result instanceof long[] counts) {
+                rows = Arrays.stream(counts).filter(c -> c > 0).sum();
+            } else if (Boolean.FALSE.equals(result)) {
+                rows = target.getUpdateCount();
+            } else if (Boolean.TRUE.equals(result)) {
+                // Result set will be picked up through getResultSet()
+                return result;
+            }
+            connection.finish(sql, parameters, rows, System.nanoTime() - start);
+            return result;
+        }
+
+        private ResultSet track(ResultSet resultSet, long start) {
+            openResultSet = new ResultSetHandler(resultSet, this, start);
+            return proxy(ResultSet.class, openResultSet);
+        }
+
+        private void finishResultSet() {
+            if (openResultSet != null) {
+                openResultSet.finish();
+            }
+        }
+
+        void resultSetFinished(ResultSetHandler handler, long rows, long nanos) {
+            if (openResultSet == handler) {
+                openResultSet = null;
+            }
+            connection.finish(sql, parameters, rows, nanos);
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final StatementHandler statement;
+        private final long start;
+        private long rows;
+        private boolean finished;
+
+        ResultSetHandler(ResultSet target, StatementHandler statement, long start) {
+            this.target = target;
+            this.statement = statement;
+            this.start = start;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("unwrap".equals(name) || "isWrapperFor".equals(name)) {
+                return unwrap(proxy, target, method, args);
+            }
+            if ("next".equals(name)) {
+                Object hasRow = ProfilingDataSource.invoke(target, method, args);
+                if (Boolean.TRUE.equals(hasRow)) {
+                    rows++;
+                }
+                return hasRow;
+            }
+            if ("close".equals(name)) {
+                finish();
+            }
+            return ProfilingDataSource.invoke(target, method, args);
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                statement.resultSetFinished(this, rows, System.nanoTime() - start);
+            }
+        }
+    }
+}
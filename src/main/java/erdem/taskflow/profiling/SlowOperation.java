@@ -0,0 +1,27 @@
+package erdem.taskflow.profiling;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A single request or SQL statement that exceeded its profiler threshold.
+ *
+ * @param type       {@code QUERY} or {@code REQUEST}
+ * @param text       SQL text, or method and URI for requests
+ * @param parameters bind parameters in index order (empty for requests)
+ * @param rows       rows read or affected, {@code null} for requests
+ * @param status     HTTP status of a request, {@code null} for queries
+ * @param plan       query plan reported by the database, {@code null} if not captured
+ */
+public record SlowOperation(
+        String type,
+        String text,
+        List<String> parameters,
+        Long rows,
+        Integer status,
+        double durationMs,
+        String plan,
+        String requestId,
+        Instant timestamp
+) {
+}
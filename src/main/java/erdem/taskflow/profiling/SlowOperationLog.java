@@ -0,0 +1,145 @@
+package erdem.taskflow.profiling;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the most recent slow requests and SQL statements in bounded ring buffers and
+ * aggregates timings of every statement and request so the top-N by total time can be
+ * reported. Memory use is fixed by {@code capacity} and {@code max-distinct}.
+ */
+@Component
+public class SlowOperationLog {
+
+    static final String OTHER_KEY = "(other)";
+
+    private final boolean enabled;
+    private final long queryThresholdNanos;
+    private final long requestThresholdNanos;
+    private final int maxDistinct;
+
+    private final Ring queries;
+    private final Ring requests;
+    private final Map<String, OperationStats> queryStats = new ConcurrentHashMap<>();
+    private final Map<String, OperationStats> requestStats = new ConcurrentHashMap<>();
+
+    public SlowOperationLog(@Value("${taskflow.profiler.enabled:true}") boolean enabled,
+                            @Value("${taskflow.profiler.slow-query-threshold:100ms}") Duration queryThreshold,
+                            @Value("${taskflow.profiler.slow-request-threshold:500ms}") Duration requestThreshold,
+                            @Value("${taskflow.profiler.capacity:200}") int capacity,
+                            @Value("${taskflow.profiler.max-distinct:500}") int maxDistinct) {
+        this.enabled = enabled;
+        this.queryThresholdNanos = queryThreshold.toNanos();
+        this.requestThresholdNanos = requestThreshold.toNanos();
+        this.maxDistinct = maxDistinct;
+        this.queries = new Ring(capacity);
+        this.requests = new Ring(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records one statement execution; returns {@code true} when it crossed the slow
+     * threshold and the caller should capture details with {@link #addSlowQuery}.
+     */
+    public boolean recordQuery(String sql, long nanos) {
+        stats(queryStats, sql).record(nanos);
+        return nanos >= queryThresholdNanos;
+    }
+
+    public void addSlowQuery(String sql, List<String> parameters, long rows, long nanos, String plan) {
+        queries.add(new SlowOperation("QUERY", sql, parameters, rows, null, nanos / 1e6, plan,
+                MDC.get("requestId"), Instant.now()));
+    }
+
+    public void recordRequest(String mapping, String uri, int status, long nanos) {
+        stats(requestStats, mapping).record(nanos);
+        if (nanos >= requestThresholdNanos) {
+            requests.add(new SlowOperation("REQUEST", uri, List.of(), null, status, nanos / 1e6, null,
+                    MDC.get("requestId"), Instant.now()));
+        }
+    }
+
+    public List<SlowOperation> slowQueries() {
+        return queries.snapshot();
+    }
+
+    public List<SlowOperation> slowRequests() {
+        return requests.snapshot();
+    }
+
+    public List<OperationStats.Summary> topQueries(int n) {
+        return top(queryStats, n);
+    }
+
+    public List<OperationStats.Summary> topRequests(int n) {
+        return top(requestStats, n);
+    }
+
+    public void reset() {
+        queries.clear();
+        requests.clear();
+        queryStats.clear();
+        requestStats.clear();
+    }
+
+    private OperationStats stats(Map<String, OperationStats> map, String key) {
+        OperationStats stats = map.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (map.size() >= maxDistinct) {
+            key = OTHER_KEY;
+        }
+        return map.computeIfAbsent(key, OperationStats::new);
+    }
+
+    private static List<OperationStats.Summary> top(Map<String, OperationStats> map, int n) {
+        return map.values().stream()
+                .sorted(Comparator.comparingLong(OperationStats::totalNanos).reversed())
+                .limit(n)
+                .map(OperationStats::summarize)
+                .toList();
+    }
+
+    private static final class Ring {
+
+        private final SlowOperation[] items;
+        private long next;
+
+        Ring(int capacity) {
+            this.items = new SlowOperation[Math.max(1, capacity)];
+        }
+
+        synchronized void add(SlowOperation op) {
+            items[(int) (next++ % items.length)] = op;
+        }
+
+        /** Newest first. */
+        synchronized List<SlowOperation> snapshot() {
+            int size = (int) Math.min(next, items.length);
+            List<SlowOperation> result = new ArrayList<>(size);
+            for (long i = next - 1; i >= next - size; i--) {
+                result.add(items[(int) (i % items.length)]);
+            }
+            return result;
+        }
+
+        synchronized void clear() {
+            Arrays.fill(items, null);
+            next = 0;
+        }
+    }
+}
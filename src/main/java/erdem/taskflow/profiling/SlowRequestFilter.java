@@ -0,0 +1,112 @@
+package erdem.taskflow.profiling;
+
+import erdem.taskflow.web.RequestTracingFilter;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Feeds request timings for {@code /api/**} into the {@link SlowOperationLog}.
+ * Runs right after the tracing filter so slow requests carry the correlation id
+ * shared with the statements they issued. Streamed responses are timed when the async
+ * request completes, after the last line is written.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private final SlowOperationLog log;
+
+    public SlowRequestFilter(SlowOperationLog log) {
+        this.log = log;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !log.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streaming responses are written after this returns; time them once complete
+                request.getAsyncContext().addListener(new RecordingListener(request, response, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                record(request, response, start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long start) {
+        long nanos = System.nanoTime() - start;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String mapping = request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+        String query = request.getQueryString();
+        String uri = request.getMethod() + " " + request.getRequestURI() + (query != null ? "?" + query : "");
+        log.recordRequest(mapping, uri, response.getStatus(), nanos);
+    }
+
+    private final class RecordingListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+        /** The completion runs on another thread, without the request's MDC. */
+        private final String requestId = MDC.get(RequestTracingFilter.REQUEST_ID_KEY);
+
+        RecordingListener(HttpServletRequest request, HttpServletResponse response, long start) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            String previous = MDC.get(RequestTracingFilter.REQUEST_ID_KEY);
+            if (requestId != null) {
+                MDC.put(RequestTracingFilter.REQUEST_ID_KEY, requestId);
+            }
+            try {
+                record(request, response, start);
+            } finally {
+                if (previous != null) {
+                    MDC.put(RequestTracingFilter.REQUEST_ID_KEY, previous);
+                } else {
+                    MDC.remove(RequestTracingFilter.REQUEST_ID_KEY);
+                }
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
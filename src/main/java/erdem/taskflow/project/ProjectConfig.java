@@ -0,0 +1,44 @@
+package erdem.taskflow.project;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link ProjectRoutingDataSource} when
+ * {@code taskflow.projects.enabled}. Runs before the profiling wrapper, so statements on
+ * project shards are profiled too.
+ */
+@Configuration
+public class ProjectConfig {
+
+    @Bean
+    public static BeanPostProcessor projectRoutingDataSourcePostProcessor(Environment environment,
+                                                                          ObjectProvider<ProjectShards> shards) {
+        return new RoutingPostProcessor(
+                environment.getProperty("taskflow.projects.enabled", Boolean.class, true), shards);
+    }
+
+    private record RoutingPostProcessor(boolean enabled, ObjectProvider<ProjectShards> shards)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (enabled && bean instanceof DataSource dataSource && !(bean instanceof ProjectRoutingDataSource)
+                    && "dataSource".equals(beanName)) {
+                return new ProjectRoutingDataSource(dataSource, shards);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
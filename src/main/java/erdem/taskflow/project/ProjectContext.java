@@ -0,0 +1,61 @@
+package erdem.taskflow.project;
+
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+/**
+ * The project the current thread works on. {@link ProjectRoutingDataSource} sends its
+ * connections to that project's shard; with no project bound they go to the default
+ * database.
+ */
+public final class ProjectContext {
+
+    /** The default database, in aggregate views; not usable as a project name. */
+    public static final String DEFAULT = "default";
+
+    private static final Pattern NAME = Pattern.compile("[a-z0-9][a-z0-9_-]{0,62}");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ProjectContext() {
+    }
+
+    /**
+     * @return the bound project, {@code null} for the default database
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static boolean isValidName(String project) {
+        return project != null && NAME.matcher(project).matches() && !DEFAULT.equals(project);
+    }
+
+    /**
+     * Runs {@code work} with {@code project} bound, {@code null} meaning the default
+     * database, and restores the previous binding afterwards.
+     */
+    public static <T> T call(String project, Callable<T> work) throws Exception {
+        String previous = CURRENT.get();
+        set(project);
+        try {
+            return work.call();
+        } finally {
+            set(previous);
+        }
+    }
+
+    /**
+     * Binds {@code project} to the current thread until {@link #clear()}.
+     */
+    public static void set(String project) {
+        if (project == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(project);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
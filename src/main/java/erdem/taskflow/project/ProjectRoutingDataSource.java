@@ -0,0 +1,35 @@
+package erdem.taskflow.project;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Routes connections by {@link ProjectContext}: to the bound project's shard, or to the
+ * default database when no project is bound. Transactions take their connection when
+ * they begin, so a transaction stays on one shard.
+ */
+public class ProjectRoutingDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<ProjectShards> shards;
+
+    public ProjectRoutingDataSource(DataSource defaultDataSource, ObjectProvider<ProjectShards> shards) {
+        super(defaultDataSource);
+        this.shards = shards;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String project = ProjectContext.current();
+        return project == null ? super.getConnection() : shards.getObject().getConnection(project);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        String project = ProjectContext.current();
+        return project == null ? super.getConnection(username, password) : shards.getObject().getConnection(project);
+    }
+}
@@ -0,0 +1,310 @@
+package erdem.taskflow.project;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import erdem.taskflow.config.SchemaMigrations;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * One SQLite file per project under {@code taskflow.projects.dir}, so projects do not
+ * share a writer lock or each other's table scans.
+ * <p>
+ * Shards are opened on first use, each with its own small connection pool, and kept in
+ * least-recently-used order. Once more than {@code max-open} are open, the least recently
+ * used shards without connections in use are closed; busy ones stay open until released.
+ * A shard is opened outside the lock, so a slow open only holds up requests for that
+ * project. Opening a shard runs {@link SchemaMigrations} and the SQLite schema script, so shards
+ * follow schema changes like the default database.
+ */
+@Component
+public class ProjectShards {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectShards.class);
+
+    private static final ClassPathResource SCHEMA =
+            new ClassPathResource("db/schema-sqlite.sql", ProjectShards.class.getClassLoader());
+
+    private final Path dir;
+    private final int maxOpen;
+    private final int poolSize;
+    /** Open and opening shards in access order; guards the lease counts too. */
+    private final LinkedHashMap<String, Shard> open = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static final class Shard {
+        final String project;
+        /** Completed by the request that opens the shard; the others wait on it. */
+        final CompletableFuture<HikariDataSource> dataSource = new CompletableFuture<>();
+        /** Connections handed out and not yet closed, plus ones being acquired. */
+        int leases;
+
+        Shard(String project) {
+            this.project = project;
+        }
+
+        HikariDataSource dataSource() throws SQLException {
+            try {
+                return dataSource.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof SQLException cause) {
+                    throw cause;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        /** Closes the pool now, or once it is opened. */
+        void close() {
+            dataSource.thenAccept(HikariDataSource::close);
+        }
+    }
+
+    public ProjectShards(MeterRegistry registry,
+                         @Value("${taskflow.projects.dir:data/projects}") Path dir,
+                         @Value("${taskflow.projects.max-open:16}") int maxOpen,
+                         @Value("${taskflow.projects.pool-size:4}") int poolSize) {
+        this.dir = dir.toAbsolutePath();
+        this.maxOpen = maxOpen;
+        this.poolSize = poolSize;
+        Gauge.builder("taskflow.projects.open", this, ProjectShards::openCount).register(registry);
+    }
+
+    public boolean exists(String project) {
+        return ProjectContext.isValidName(project) && Files.exists(file(project));
+    }
+
+    /**
+     * Project names, sorted.
+     */
+    public List<String> list() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        List<String> projects = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".db") && ProjectContext.isValidName(name.substring(0, name.length() - 3))) {
+                    projects.add(name.substring(0, name.length() - 3));
+                }
+            }
+        }
+        projects.sort(null);
+        return projects;
+    }
+
+    /**
+     * Creates the project's database file with the full schema. The file is built under a
+     * temporary name and moved into place, so the project never exists without its tables.
+     *
+     * @return {@code false} if the project already existed
+     * @throws IllegalArgumentException if the name is not a valid project name
+     */
+    public synchronized boolean create(String project) throws IOException, SQLException {
+        if (!ProjectContext.isValidName(project)) {
+            throw new IllegalArgumentException("Invalid project name: " + project);
+        }
+        if (exists(project)) {
+            return false;
+        }
+        Files.createDirectories(dir);
+        Path temporary = dir.resolve(project + ".db.creating");
+        Files.deleteIfExists(temporary);
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + temporary)) {
+            initialize(connection);
+        }
+        Files.move(temporary, file(project), StandardCopyOption.ATOMIC_MOVE);
+        logger.atInfo().setMessage("Project created").addKeyValue("project", project).log();
+        return true;
+    }
+
+    /**
+     * Closes the project's shard and deletes its files.
+     *
+     * @return {@code false} if there was no such project
+     * @throws IllegalStateException if the shard has connections in use
+     */
+    public synchronized boolean delete(String project) throws IOException {
+        if (!exists(project)) {
+            return false;
+        }
+        synchronized (open) {
+            Shard shard = open.get(project);
+            if (shard != null) {
+                if (shard.leases > 0) {
+                    throw new IllegalStateException("Project " + project + " is in use");
+                }
+                open.remove(project);
+                shard.close();
+            }
+            Files.deleteIfExists(file(project));
+            Files.deleteIfExists(dir.resolve(project + ".db-wal"));
+            Files.deleteIfExists(dir.resolve(project + ".db-shm"));
+        }
+        logger.atInfo().setMessage("Project deleted").addKeyValue("project", project).log();
+        return true;
+    }
+
+    /**
+     * A connection to the project's shard, opening the shard if needed.
+     *
+     * @throws SQLException if the project does not exist
+     */
+    Connection getConnection(String project) throws SQLException {
+        Shard shard;
+        boolean opening = false;
+        synchronized (open) {
+            shard = open.get(project);
+            if (shard == null) {
+                if (!exists(project)) {
+                    throw new SQLException("Unknown project: " + project);
+                }
+                shard = new Shard(project);
+                open.put(project, shard);
+                opening = true;
+            }
+            shard.leases++;
+            closeIdle();
+        }
+        try {
+            if (opening) {
+                openShard(shard);
+            }
+            return lease(shard, shard.dataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            release(shard);
+            throw e;
+        }
+    }
+
+    int openCount() {
+        synchronized (open) {
+            return open.size();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (open) {
+            open.values().forEach(Shard::close);
+            open.clear();
+        }
+    }
+
+    /**
+     * Opens the shard's pool and brings its schema up to date. A shard that fails to open
+     * is dropped, so the next request tries again.
+     */
+    private void openShard(Shard shard) throws SQLException {
+        try {
+            shard.dataSource.complete(openDataSource(shard.project));
+        } catch (SQLException | RuntimeException e) {
+            shard.dataSource.completeExceptionally(e);
+            synchronized (open) {
+                open.remove(shard.project, shard);
+            }
+            throw e;
+        }
+    }
+
+    private HikariDataSource openDataSource(String project) throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:sqlite:" + file(project));
+        config.setPoolName("shard-" + project);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(1);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        try (Connection connection = dataSource.getConnection()) {
+            initialize(connection);
+        } catch (SQLException | RuntimeException e) {
+            dataSource.close();
+            throw e;
+        }
+        logger.atDebug().setMessage("Project shard opened").addKeyValue("project", project).log();
+        return dataSource;
+    }
+
+    /**
+     * Brings a shard's schema up to date: migrations first, then the tables and indexes
+     * that are missing.
+     */
+    private static void initialize(Connection connection) throws SQLException {
+        SchemaMigrations.migrate(connection);
+        new ResourceDatabasePopulator(SCHEMA).populate(connection);
+    }
+
+    /**
+     * Closes least recently used shards without leases while more than {@code max-open}
+     * are open. Caller holds the {@code open} lock.
+     */
+    private void closeIdle() {
+        Iterator<Shard> shards = open.values().iterator();
+        while (open.size() > maxOpen && shards.hasNext()) {
+            Shard shard = shards.next();
+            if (shard.leases == 0) {
+                shards.remove();
+                shard.close();
+                logger.atDebug().setMessage("Project shard closed").addKeyValue("project", shard.project).log();
+            }
+        }
+    }
+
+    private void release(Shard shard) {
+        synchronized (open) {
+            shard.leases--;
+            closeIdle();
+        }
+    }
+
+    /**
+     * Wraps a pooled connection so that closing it releases the shard's lease.
+     */
+    private Connection lease(Shard shard, Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ProjectShards.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            release(shard);
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private Path file(String project) {
+        return dir.resolve(project + ".db");
+    }
+}
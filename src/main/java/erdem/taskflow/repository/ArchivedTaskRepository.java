@@ -0,0 +1,119 @@
+package erdem.taskflow.repository;
+
+import erdem.taskflow.model.ArchivedTask;
+import erdem.taskflow.model.Priority;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Archive of completed tasks. The move statements copy rows between the hot and
+ * archive tables in SQL, so no entity is loaded while (un)archiving.
+ */
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, UUID> {
+
+    @Query("SELECT a FROM ArchivedTask a WHERE " +
+           "(:priority IS NULL OR a.priority = :priority) AND " +
+           "(:dueDateFrom IS NULL OR a.dueDate >= :dueDateFrom) AND " +
+           "(:dueDateTo IS NULL OR a.dueDate <= :dueDateTo) AND " +
+           "(:searchTerm IS NULL OR task_search(a.title, a.description, :searchTerm))")
+    List<ArchivedTask> findWithFilters(
+            @Param("priority") Priority priority,
+            @Param("dueDateFrom") LocalDate dueDateFrom,
+            @Param("dueDateTo") LocalDate dueDateTo,
+            @Param("searchTerm") String searchTerm
+    );
+
+    @Query("SELECT a.id FROM ArchivedTask a WHERE " +
+           "(:priority IS NULL OR a.priority = :priority) AND " +
+           "(:dueDateFrom IS NULL OR a.dueDate >= :dueDateFrom) AND " +
+           "(:dueDateTo IS NULL OR a.dueDate <= :dueDateTo)")
+    List<UUID> findIdsWithFilters(@Param("priority") Priority priority,
+                                  @Param("dueDateFrom") LocalDate dueDateFrom,
+                                  @Param("dueDateTo") LocalDate dueDateTo,
+                                  Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM ArchivedTask t WHERE " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:dueDateFrom IS NULL OR t.dueDate >= :dueDateFrom) AND " +
+           "(:dueDateTo IS NULL OR t.dueDate <= :dueDateTo) AND " +
+           "(:searchTerm IS NULL OR task_search(t.title, t.description, :searchTerm))")
+    Stream<ArchivedTask> streamWithFilters(
+            @Param("priority") Priority priority,
+            @Param("dueDateFrom") LocalDate dueDateFrom,
+            @Param("dueDateTo") LocalDate dueDateTo,
+            @Param("searchTerm") String searchTerm,
+            Sort sort
+    );
+
+    @Modifying
+    @Query(value = "INSERT INTO task_archive (id, created_at, description, due_date, priority, status, status_updated_at, title, title_key, version) " +
+                   "SELECT id, created_at, description, due_date, priority, status, status_updated_at, title, title_key, version FROM task WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyFromTasks(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_archive_status_history (task_id, status_change) " +
+                   "SELECT task_id, status_change FROM task_status_history WHERE task_id IN (:ids)",
+           nativeQuery = true)
+    int copyHistoryFromTasks(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO task (id, created_at, description, due_date, priority, status, status_updated_at, title, title_key, version) " +
+                   "SELECT id, created_at, description, due_date, priority, status, status_updated_at, title, title_key, version FROM task_archive WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyToTasks(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_status_history (task_id, status_change) " +
+                   "SELECT task_id, status_change FROM task_archive_status_history WHERE task_id IN (:ids)",
+           nativeQuery = true)
+    int copyHistoryToTasks(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_status_history WHERE task_id IN (:ids)", nativeQuery = true)
+    int deleteTaskHistory(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM task WHERE id IN (:ids)", nativeQuery = true)
+    int deleteTasks(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_archive_status_history WHERE task_id IN (:ids)", nativeQuery = true)
+    int deleteArchivedHistory(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_archive WHERE id IN (:ids)", nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE ArchivedTask a SET a.archivedAt = :archivedAt WHERE a.id IN :ids")
+    int markArchived(@Param("ids") Collection<UUID> ids, @Param("archivedAt") Instant archivedAt);
+
+    /**
+     * {@code [id, priority, statusChange]} for every archived history entry, grouped by task.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1024"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id, a.priority, h FROM ArchivedTask a JOIN a.statusHistory h ORDER BY a.id")
+    Stream<Object[]> streamStatusHistory();
+}
@@ -0,0 +1,60 @@
+package erdem.taskflow.repository;
+
+import erdem.taskflow.model.FlowBucket;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface FlowBucketRepository extends JpaRepository<FlowBucket, FlowBucket.Key> {
+
+    @Modifying
+    @Query("UPDATE FlowBucket b SET b.tasks = b.tasks + :tasks, b.totalSeconds = b.totalSeconds + :seconds " +
+           "WHERE b.day = :day AND b.priority = :priority AND b.status = :status AND b.durationBin = :bin")
+    int increment(@Param("day") LocalDate day,
+                  @Param("priority") Priority priority,
+                  @Param("status") Status status,
+                  @Param("bin") int bin,
+                  @Param("tasks") long tasks,
+                  @Param("seconds") long seconds);
+
+    /**
+     * Creates an empty bucket unless it exists. {@code ON CONFLICT DO NOTHING} is
+     * understood by SQLite, PostgreSQL and H2, and makes a concurrent first insert wait
+     * for the other one instead of failing.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_flow_bucket (utc_day, priority, status, duration_bin, tasks, total_seconds) " +
+                   "VALUES (:day, :priority, :status, :bin, 0, 0) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("day") LocalDate day,
+                       @Param("priority") String priority,
+                       @Param("status") String status,
+                       @Param("bin") int bin);
+
+    /**
+     * Takes a PostgreSQL advisory lock held until the transaction ends. Only valid on
+     * PostgreSQL.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) locked", nativeQuery = true)
+    int lockTransaction(@Param("key") long key);
+
+    /**
+     * Buckets in the range summed over priorities (or for one), as
+     * {@code [day, status, durationBin, tasks, totalSeconds]} ordered by day. Reads one
+     * primary key range.
+     */
+    @Query("SELECT b.day, b.status, b.durationBin, SUM(b.tasks), SUM(b.totalSeconds) FROM FlowBucket b WHERE " +
+           "(:priority IS NULL OR b.priority = :priority) AND " +
+           "(:from IS NULL OR b.day >= :from) AND " +
+           "(:to IS NULL OR b.day <= :to) " +
+           "GROUP BY b.day, b.status, b.durationBin ORDER BY b.day")
+    List<Object[]> sumByDay(@Param("priority") Priority priority,
+                            @Param("from") LocalDate from,
+                            @Param("to") LocalDate to);
+}
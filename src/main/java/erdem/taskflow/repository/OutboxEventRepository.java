@@ -0,0 +1,31 @@
+package erdem.taskflow.repository;
+
+import erdem.taskflow.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The next page of events after {@code id}, in sequence order (primary key range scan).
+     */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+
+    @Query("SELECT COALESCE(MIN(e.id), 0) FROM OutboxEvent e")
+    long findMinId();
+
+    /**
+     * Ids of the oldest events up to {@code maxId} created before {@code cutoff}, in
+     * sequence order. Ids follow creation order, so the matches are a prefix of the table.
+     */
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.id <= :maxId AND e.createdAt < :cutoff ORDER BY e.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") Instant cutoff, @Param("maxId") long maxId, Limit limit);
+}
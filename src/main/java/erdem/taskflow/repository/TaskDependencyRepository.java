@@ -0,0 +1,28 @@
+package erdem.taskflow.repository;
+
+import erdem.taskflow.model.TaskDependency;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, TaskDependency.Key> {
+
+    /**
+     * Removes every edge from or to the task.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TaskDependency d WHERE d.taskId = :id OR d.dependsOnId = :id")
+    int deleteAllOf(@Param("id") UUID id);
+
+    /**
+     * Takes a PostgreSQL advisory lock held until the transaction ends. Only valid on
+     * PostgreSQL.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) locked", nativeQuery = true)
+    int lockTransaction(@Param("key") long key);
+}
@@ -3,13 +3,27 @@ package erdem.taskflow.repository;
 import erdem.taskflow.model.Priority;
 import erdem.taskflow.model.Status;
 import erdem.taskflow.model.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<Task, UUID> {
 
@@ -24,7 +38,7 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
            "(:priority IS NULL OR t.priority = :priority) AND " +
            "(:dueDateFrom IS NULL OR t.dueDate >= :dueDateFrom) AND " +
            "(:dueDateTo IS NULL OR t.dueDate <= :dueDateTo) AND " +
-           "(:searchTerm IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
+           "(:searchTerm IS NULL OR task_search(t.title, t.description, :searchTerm)) AND " +
            "(:today IS NULL OR :dueDateTo IS NULL OR :dueDateTo >= :today OR t.status != 'COMPLETED')")
     List<Task> findWithFilters(
             @Param("status") Status status,
@@ -35,6 +49,176 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
             @Param("today") LocalDate today
     );
 
+    /**
+     * Cursor variant of {@link #findWithFilters} for streaming: rows are fetched in
+     * batches and must be consumed inside a transaction, closing the stream after use.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t WHERE " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:dueDateFrom IS NULL OR t.dueDate >= :dueDateFrom) AND " +
+           "(:dueDateTo IS NULL OR t.dueDate <= :dueDateTo) AND " +
+           "(:searchTerm IS NULL OR task_search(t.title, t.description, :searchTerm)) AND " +
+           "(:today IS NULL OR :dueDateTo IS NULL OR :dueDateTo >= :today OR t.status != 'COMPLETED')")
+    Stream<Task> streamWithFilters(
+            @Param("status") Status status,
+            @Param("priority") Priority priority,
+            @Param("dueDateFrom") LocalDate dueDateFrom,
+            @Param("dueDateTo") LocalDate dueDateTo,
+            @Param("searchTerm") String searchTerm,
+            @Param("today") LocalDate today,
+            Sort sort
+    );
+
+    /**
+     * First page of tasks in title order: {@code sort} is {@code titleKey, id}, read from
+     * the {@code (title_key, id)} index.
+     */
+    @Query("SELECT t FROM Task t WHERE " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority)")
+    List<Task> findTitlePage(@Param("status") Status status,
+                             @Param("priority") Priority priority,
+                             Sort sort,
+                             Limit limit);
+
+    /**
+     * The tasks after {@code (key, id)} in ascending title order. The bare range on
+     * {@code titleKey} lets the index seek straight to the cursor.
+     */
+    @Query("SELECT t FROM Task t WHERE " +
+           "t.titleKey >= :key AND (t.titleKey > :key OR t.id > :id) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) " +
+           "ORDER BY t.titleKey, t.id")
+    List<Task> findTitlePageAfter(@Param("status") Status status,
+                                  @Param("priority") Priority priority,
+                                  @Param("key") String key,
+                                  @Param("id") UUID id,
+                                  Limit limit);
+
+    /**
+     * {@link #findTitlePageAfter} in descending title order.
+     */
+    @Query("SELECT t FROM Task t WHERE " +
+           "t.titleKey <= :key AND (t.titleKey < :key OR t.id < :id) AND " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) " +
+           "ORDER BY t.titleKey DESC, t.id DESC")
+    List<Task> findTitlePageBefore(@Param("status") Status status,
+                                   @Param("priority") Priority priority,
+                                   @Param("key") String key,
+                                   @Param("id") UUID id,
+                                   Limit limit);
+
+    /**
+     * {@code [id, status, priority, dueDate]} of every task, to build the filter index.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1024"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.id, t.status, t.priority, t.dueDate FROM Task t")
+    Stream<Object[]> streamFilterKeys();
+
+    /**
+     * {@code [id, status, priority, statusUpdatedAt]} of up to {@code limit} tasks matching
+     * the filters of {@link #findWithFilters} (without search) whose status is not
+     * {@code except}, in id order after {@code after}, for bulk changes.
+     */
+    @Query("SELECT t.id, t.status, t.priority, t.statusUpdatedAt FROM Task t WHERE " +
+           "(:status IS NULL OR t.status = :status) AND " +
+           "(:priority IS NULL OR t.priority = :priority) AND " +
+           "(:dueDateFrom IS NULL OR t.dueDate >= :dueDateFrom) AND " +
+           "(:dueDateTo IS NULL OR t.dueDate <= :dueDateTo) AND " +
+           "(:today IS NULL OR :dueDateTo IS NULL OR :dueDateTo >= :today OR t.status != 'COMPLETED') AND " +
+           "(:except IS NULL OR t.status <> :except) AND " +
+           "(:after IS NULL OR t.id > :after) ORDER BY t.id")
+    List<Object[]> findBulkKeys(@Param("status") Status status,
+                                @Param("priority") Priority priority,
+                                @Param("dueDateFrom") LocalDate dueDateFrom,
+                                @Param("dueDateTo") LocalDate dueDateTo,
+                                @Param("today") LocalDate today,
+                                @Param("except") Status except,
+                                @Param("after") UUID after,
+                                Limit limit);
+
+    /**
+     * {@link #findBulkKeys} for known ids.
+     */
+    @Query("SELECT t.id, t.status, t.priority, t.statusUpdatedAt FROM Task t WHERE t.id IN :ids")
+    List<Object[]> findBulkKeysById(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_status_history WHERE task_id IN (:ids)", nativeQuery = true)
+    int deleteStatusHistoryByIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Deletes the rows only; delete their {@link #deleteStatusHistoryByIds history} first.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Moves the tasks to {@code status} in one statement; append the history entry with
+     * {@link #appendStatusHistory}.
+     */
+    @Modifying
+    @Query(value = "UPDATE task SET status = :status, status_updated_at = :at, version = version + 1 " +
+                   "WHERE id IN (:ids)",
+           nativeQuery = true)
+    int updateStatusByIds(@Param("ids") Collection<UUID> ids,
+                          @Param("status") String status,
+                          @Param("at") Instant at);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_status_history (task_id, status_change) " +
+                   "SELECT id, :entry FROM task WHERE id IN (:ids)",
+           nativeQuery = true)
+    int appendStatusHistory(@Param("ids") Collection<UUID> ids, @Param("entry") String entry);
+
     @Query("SELECT COUNT(t) FROM Task t WHERE t.dueDate < :today AND t.status != 'COMPLETED'")
     long countOverdueTasks(@Param("today") LocalDate today);
+
+    /**
+     * Claims a batch of archivable tasks. Rows are locked with {@code SKIP LOCKED} where the
+     * database supports it, so concurrent instances archive disjoint batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT t.id FROM Task t WHERE t.status = 'COMPLETED' AND t.statusUpdatedAt < :cutoff ORDER BY t.statusUpdatedAt")
+    List<UUID> findIdsCompletedBefore(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    /**
+     * {@code [status, statusUpdatedAt]} of every task not yet completed, read from the
+     * {@code (status, status_updated_at)} index when no priority is given.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.status, t.statusUpdatedAt FROM Task t WHERE t.status <> 'COMPLETED' AND " +
+           "(:priority IS NULL OR t.priority = :priority)")
+    Stream<Object[]> streamWorkInProgress(@Param("priority") Priority priority);
+
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND " +
+           "(:priority IS NULL OR t.priority = :priority) ORDER BY t.statusUpdatedAt")
+    List<Task> findLongestInStatus(@Param("status") Status status,
+                                   @Param("priority") Priority priority,
+                                   Limit limit);
+
+    /**
+     * {@code [id, priority, statusChange]} for every history entry, grouped by task.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1024"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.id, t.priority, h FROM Task t JOIN t.statusHistory h ORDER BY t.id")
+    Stream<Object[]> streamStatusHistory();
 }
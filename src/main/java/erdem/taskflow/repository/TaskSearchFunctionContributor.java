@@ -0,0 +1,39 @@
+package erdem.taskflow.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code task_search(title, description, term)} for JPQL, so repository
+ * queries stay the same on every backend. PostgreSQL matches words through
+ * {@code tsvector}/{@code tsquery}, served by the GIN index in {@code schema-postgres.sql};
+ * every other database falls back to a case-insensitive substring match.
+ */
+public class TaskSearchFunctionContributor implements FunctionContributor {
+
+    public static final String FUNCTION_NAME = "task_search";
+
+    /**
+     * Indexed expression; must stay identical to the GIN index definitions for the planner to use them.
+     */
+    public static final String POSTGRES_DOCUMENT = "to_tsvector('simple', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+
+    /**
+     * The term is cast because a null one is bound untyped (as {@code bytea}), for which
+     * {@code plainto_tsquery} has no overload.
+     */
+    static final String POSTGRES_PATTERN = "(" + POSTGRES_DOCUMENT + " @@ plainto_tsquery('simple', cast(?3 as text)))";
+
+    static final String SUBSTRING_PATTERN =
+            "(lower(?1) like lower('%' || ?3 || '%') or lower(?2) like lower('%' || ?3 || '%'))";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        String pattern = functionContributions.getDialect() instanceof PostgreSQLDialect
+                ? POSTGRES_PATTERN : SUBSTRING_PATTERN;
+        functionContributions.getFunctionRegistry().registerPattern(FUNCTION_NAME, pattern,
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -0,0 +1,23 @@
+package erdem.taskflow.repository;
+
+import erdem.taskflow.model.TaskTemplate;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskTemplateRepository extends JpaRepository<TaskTemplate, UUID> {
+
+    /**
+     * Templates with an occurrence due by {@code horizon}, earliest first; a range scan of
+     * {@code idx_task_template_next_fire_date}.
+     */
+    @Query("SELECT t FROM TaskTemplate t WHERE t.nextFireDate <= :horizon ORDER BY t.nextFireDate, t.id")
+    List<TaskTemplate> findDue(@Param("horizon") LocalDate horizon, Limit limit);
+
+    List<TaskTemplate> findAllByOrderByCreatedAtAsc();
+}
@@ -0,0 +1,418 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.dto.FlowAnalyticsDTO;
+import erdem.taskflow.event.TaskEvent;
+import erdem.taskflow.model.FlowBucket;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.model.Task;
+import erdem.taskflow.repository.ArchivedTaskRepository;
+import erdem.taskflow.repository.FlowBucketRepository;
+import erdem.taskflow.repository.TaskRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Cycle-time and flow analytics from pre-aggregated {@link FlowBucket}s.
+ * <p>
+ * Every status change adds to two buckets of its UTC day in the same transaction: the
+ * time the task spent in its previous status, binned by duration, and an arrival in
+ * its new status. Additions are summed per bucket and written as the transaction
+ * commits. Queries sum the buckets of the range instead of reading status
+ * history, so a year of history is a few hundred rows whatever the number of tasks.
+ * Aging work in progress is read from the {@code (status, status_updated_at)} index.
+ * <p>
+ * An empty bucket table is filled from the status history of all hot and archived
+ * tasks at startup, using each task's current priority. On PostgreSQL, where several
+ * instances may start together, the check and the fill run under an advisory lock, so
+ * only the first instance fills the table. With
+ * {@code taskflow.analytics.enabled=false} events are not recorded and nothing is filled.
+ */
+@Service
+@Transactional
+public class FlowAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlowAnalyticsService.class);
+
+    /** Exclusive upper bounds of the duration bins; a last bin holds anything longer. */
+    static final List<Duration> BIN_BOUNDS = List.of(
+            Duration.ofHours(1), Duration.ofHours(4), Duration.ofDays(1), Duration.ofDays(2),
+            Duration.ofDays(4), Duration.ofDays(7), Duration.ofDays(14), Duration.ofDays(28),
+            Duration.ofDays(56));
+    private static final int BINS = BIN_BOUNDS.size() + 1;
+    private static final int OLDEST_WIP_TASKS = 5;
+    /** Advisory lock key of the startup fill ("flow" in ASCII). */
+    private static final long BACKFILL_LOCK = 0x666c6f77L;
+
+    private final FlowBucketRepository bucketRepo;
+    private final TaskRepository taskRepo;
+    private final ArchivedTaskRepository archiveRepo;
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private Boolean postgres;
+
+    public FlowAnalyticsService(FlowBucketRepository bucketRepo,
+                                TaskRepository taskRepo,
+                                ArchivedTaskRepository archiveRepo,
+                                DataSource dataSource,
+                                @Value("${taskflow.analytics.enabled:true}") boolean enabled) {
+        this.bucketRepo = bucketRepo;
+        this.taskRepo = taskRepo;
+        this.archiveRepo = archiveRepo;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs inside the transaction of the change, like the outbox write; the buckets are
+     * written when it commits.
+     */
+    @EventListener
+    public void record(TaskEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event instanceof TaskEvent.Created created) {
+            add(created.occurredAt(), created.task().getPriority(), created.task().getStatus(), FlowBucket.ARRIVALS, 0);
+        } else if (event instanceof TaskEvent.StatusChanged changed) {
+            if (changed.since() != null) {
+                Duration spent = Duration.between(changed.since(), changed.occurredAt());
+                add(changed.occurredAt(), changed.priority(), changed.from(), binOf(spent), spent.toSeconds());
+            }
+            add(changed.occurredAt(), changed.priority(), changed.to(), FlowBucket.ARRIVALS, 0);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        if (isPostgres()) {
+            // Held until commit: an instance waiting here then finds the table filled
+            bucketRepo.lockTransaction(BACKFILL_LOCK);
+        }
+        if (bucketRepo.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes all buckets from the status history of existing tasks. Deleted tasks
+     * no longer count afterwards.
+     *
+     * @return number of buckets written
+     */
+    public int rebuild() {
+        long started = System.nanoTime();
+        bucketRepo.deleteAllInBatch();
+        Map<BucketKey, long[]> totals = new HashMap<>();
+        try (Stream<Object[]> rows = taskRepo.streamStatusHistory()) {
+            accumulate(rows, totals);
+        }
+        try (Stream<Object[]> rows = archiveRepo.streamStatusHistory()) {
+            accumulate(rows, totals);
+        }
+        totals.forEach((key, sums) -> add(key, sums[0], sums[1]));
+        logger.atInfo()
+                .setMessage("Rebuilt flow analytics buckets")
+                .addKeyValue("buckets", totals.size())
+                .addKeyValue("ms", (System.nanoTime() - started) / 1_000_000)
+                .log();
+        return totals.size();
+    }
+
+    /**
+     * @param priority    only tasks of this priority, or all
+     * @param from        first day (UTC) of the range, or unbounded
+     * @param to          last day (UTC) of the range, or unbounded
+     * @param granularity {@link ChronoUnit#DAYS} or {@link ChronoUnit#WEEKS} (starting Monday)
+     */
+    public FlowAnalyticsDTO getFlow(Priority priority, LocalDate from, LocalDate to, ChronoUnit granularity) {
+        Map<Status, long[]> binCounts = new EnumMap<>(Status.class);
+        Map<Status, Long> seconds = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            binCounts.put(status, new long[BINS]);
+            seconds.put(status, 0L);
+        }
+        TreeMap<LocalDate, long[]> periods = new TreeMap<>();
+        for (Object[] row : bucketRepo.sumByDay(priority, from, to)) {
+            LocalDate day = (LocalDate) row[0];
+            Status status = (Status) row[1];
+            int bin = (Integer) row[2];
+            long tasks = ((Number) row[3]).longValue();
+            if (bin == FlowBucket.ARRIVALS) {
+                periods.computeIfAbsent(periodStart(day, granularity), key -> new long[3])[status.ordinal()] += tasks;
+            } else {
+                binCounts.get(status)[bin] += tasks;
+                seconds.merge(status, ((Number) row[4]).longValue(), Long::sum);
+            }
+        }
+
+        List<FlowAnalyticsDTO.TimeInStatus> timeInStatus = new ArrayList<>();
+        for (Status status : Status.values()) {
+            long[] counts = binCounts.get(status);
+            long tasks = sum(counts);
+            timeInStatus.add(new FlowAnalyticsDTO.TimeInStatus(status, tasks,
+                    tasks == 0 ? null : seconds.get(status) / tasks,
+                    percentile(counts, tasks, 0.50), percentile(counts, tasks, 0.85), histogram(counts)));
+        }
+        return new FlowAnalyticsDTO(from, to, priority, timeInStatus,
+                throughput(periods, from, to, granularity), agingWorkInProgress(priority));
+    }
+
+    private boolean isPostgres() throws SQLException {
+        if (postgres == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                postgres = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+            }
+        }
+        return postgres;
+    }
+
+    private List<FlowAnalyticsDTO.WorkInProgress> agingWorkInProgress(Priority priority) {
+        Instant now = Instant.now();
+        Map<Status, long[]> binCounts = new EnumMap<>(Status.class);
+        try (Stream<Object[]> rows = taskRepo.streamWorkInProgress(priority)) {
+            rows.forEach(row -> {
+                if (row[1] != null) {
+                    binCounts.computeIfAbsent((Status) row[0], key -> new long[BINS])
+                            [binOf(Duration.between((Instant) row[1], now))]++;
+                }
+            });
+        }
+        List<FlowAnalyticsDTO.WorkInProgress> result = new ArrayList<>();
+        for (Status status : Status.values()) {
+            if (status == Status.COMPLETED) {
+                continue;
+            }
+            long[] counts = binCounts.getOrDefault(status, new long[BINS]);
+            List<FlowAnalyticsDTO.AgingTask> oldest = taskRepo
+                    .findLongestInStatus(status, priority, Limit.of(OLDEST_WIP_TASKS)).stream()
+                    .map(task -> agingTask(task, now))
+                    .toList();
+            result.add(new FlowAnalyticsDTO.WorkInProgress(status, sum(counts), histogram(counts), oldest));
+        }
+        return result;
+    }
+
+    private static FlowAnalyticsDTO.AgingTask agingTask(Task task, Instant now) {
+        Instant since = task.getStatusUpdatedAt();
+        return new FlowAnalyticsDTO.AgingTask(task.getId(), task.getTitle(), task.getPriority(), since,
+                since == null ? 0 : Duration.between(since, now).toSeconds());
+    }
+
+    private static List<FlowAnalyticsDTO.Throughput> throughput(TreeMap<LocalDate, long[]> periods,
+                                                                LocalDate from, LocalDate to,
+                                                                ChronoUnit granularity) {
+        LocalDate first = from != null ? periodStart(from, granularity) : periods.isEmpty() ? null : periods.firstKey();
+        LocalDate last = to != null ? periodStart(to, granularity) : periods.isEmpty() ? null : periods.lastKey();
+        List<FlowAnalyticsDTO.Throughput> result = new ArrayList<>();
+        if (first == null || last == null) {
+            return result;
+        }
+        for (LocalDate period = first; !period.isAfter(last); period = period.plus(1, granularity)) {
+            long[] counts = periods.getOrDefault(period, new long[3]);
+            result.add(new FlowAnalyticsDTO.Throughput(period,
+                    counts[Status.OPEN.ordinal()], counts[Status.IN_PROGRESS.ordinal()],
+                    counts[Status.COMPLETED.ordinal()]));
+        }
+        return result;
+    }
+
+    private void add(Instant at, Priority priority, Status status, int bin, long seconds) {
+        BucketKey key = new BucketKey(LocalDate.ofInstant(at, ZoneOffset.UTC), orDefault(priority), status, bin);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(key, 1, seconds);
+            return;
+        }
+        long[] sums = pendingIncrements().computeIfAbsent(key, k -> new long[2]);
+        sums[0]++;
+        sums[1] += seconds;
+    }
+
+    /**
+     * Increments recorded in the current transaction, summed per bucket and written just
+     * before it commits, so a bulk change of many tasks updates a few buckets once each.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<BucketKey, long[]> pendingIncrements() {
+        Map<BucketKey, long[]> pending = (Map<BucketKey, long[]>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Map<BucketKey, long[]> created = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                created.forEach((key, sums) -> add(key, sums[0], sums[1]));
+                created.clear();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(FlowAnalyticsService.this);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Increments the bucket, creating it on the first change of its day.
+     */
+    private void add(BucketKey key, long tasks, long seconds) {
+        if (bucketRepo.increment(key.day(), key.priority(), key.status(), key.bin(), tasks, seconds) == 0) {
+            bucketRepo.insertIfAbsent(key.day(), key.priority().name(), key.status().name(), key.bin());
+            bucketRepo.increment(key.day(), key.priority(), key.status(), key.bin(), tasks, seconds);
+        }
+    }
+
+    /**
+     * Adds rows of {@code [taskId, priority, statusChange]}, grouped by task, to {@code totals}.
+     */
+    private static void accumulate(Stream<Object[]> rows, Map<BucketKey, long[]> totals) {
+        UUID[] current = new UUID[1];
+        Priority[] priority = new Priority[1];
+        List<String> history = new ArrayList<>();
+        rows.forEach(row -> {
+            UUID id = (UUID) row[0];
+            if (!id.equals(current[0])) {
+                addHistory(priority[0], history, totals);
+                history.clear();
+                current[0] = id;
+                priority[0] = (Priority) row[1];
+            }
+            history.add((String) row[2]);
+        });
+        addHistory(priority[0], history, totals);
+    }
+
+    /**
+     * Adds one task's history entries ({@code STATUS|timestamp}, in any order) to
+     * {@code totals}; malformed entries are skipped.
+     */
+    static void addHistory(Priority priority, List<String> history, Map<BucketKey, long[]> totals) {
+        Priority effective = orDefault(priority);
+        List<Map.Entry<Status, Instant>> changes = new ArrayList<>(history.size());
+        for (String entry : history) {
+            int separator = entry == null ? -1 : entry.indexOf('|');
+            if (separator < 0) {
+                continue;
+            }
+            try {
+                changes.add(Map.entry(Status.valueOf(entry.substring(0, separator)),
+                        Instant.parse(entry.substring(separator + 1))));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                // Written by hand or by an older format; not worth failing the rebuild for
+            }
+        }
+        changes.sort(Map.Entry.comparingByValue(Comparator.naturalOrder()));
+        for (int i = 0; i < changes.size(); i++) {
+            Map.Entry<Status, Instant> change = changes.get(i);
+            LocalDate day = LocalDate.ofInstant(change.getValue(), ZoneOffset.UTC);
+            if (i > 0) {
+                Map.Entry<Status, Instant> previous = changes.get(i - 1);
+                Duration spent = Duration.between(previous.getValue(), change.getValue());
+                long[] left = totals.computeIfAbsent(
+                        new BucketKey(day, effective, previous.getKey(), binOf(spent)), key -> new long[2]);
+                left[0]++;
+                left[1] += spent.toSeconds();
+            }
+            totals.computeIfAbsent(new BucketKey(day, effective, change.getKey(), FlowBucket.ARRIVALS),
+                    key -> new long[2])[0]++;
+        }
+    }
+
+    /**
+     * Events stored before priorities were recorded, and tasks created without one.
+     */
+    private static Priority orDefault(Priority priority) {
+        return priority != null ? priority : Priority.MEDIUM;
+    }
+
+    static int binOf(Duration duration) {
+        for (int i = 0; i < BIN_BOUNDS.size(); i++) {
+            if (duration.compareTo(BIN_BOUNDS.get(i)) < 0) {
+                return i;
+            }
+        }
+        return BIN_BOUNDS.size();
+    }
+
+    private static LocalDate periodStart(LocalDate day, ChronoUnit granularity) {
+        return granularity == ChronoUnit.WEEKS ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+    }
+
+    /**
+     * Upper bound of the bin holding the {@code quantile}, in seconds.
+     */
+    private static Long percentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < BIN_BOUNDS.size() ? BIN_BOUNDS.get(i).toSeconds() : null;
+            }
+        }
+        return null;
+    }
+
+    private static List<FlowAnalyticsDTO.Bin> histogram(long[] counts) {
+        List<FlowAnalyticsDTO.Bin> bins = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            bins.add(new FlowAnalyticsDTO.Bin(i < BIN_BOUNDS.size() ? BIN_BOUNDS.get(i).toSeconds() : null, counts[i]));
+        }
+        return bins;
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    record BucketKey(LocalDate day, Priority priority, Status status, int bin) {
+    }
+}
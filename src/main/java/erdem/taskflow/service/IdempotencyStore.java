@@ -0,0 +1,123 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.dto.TaskResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the outcome of {@code POST /api/tasks} per {@code Idempotency-Key}, so a
+ * client retrying after a timeout gets the original task back instead of creating a
+ * duplicate. Keys expire after {@code taskflow.idempotency.ttl}; at most
+ * {@code taskflow.idempotency.max-entries} are kept, dropping the oldest first.
+ * Keys are local to this instance.
+ */
+@Component
+public class IdempotencyStore {
+
+    public enum State {
+        /** The caller owns the key and must {@link #complete} or {@link #release} it. */
+        ACQUIRED,
+        /** The key was used before with the same request; {@link Claim#response()} is its result. */
+        REPLAY,
+        /** A request with the key is still being processed. */
+        IN_PROGRESS,
+        /** The key was used before with a different request. */
+        MISMATCH
+    }
+
+    public record Claim(State state, TaskResponseDTO response) {
+    }
+
+    private static final class Entry {
+        final Object request;
+        final long expiresAt;
+        TaskResponseDTO response;
+
+        Entry(Object request, long expiresAt) {
+            this.request = request;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, Entry> entries;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    @Autowired
+    public IdempotencyStore(@Value("${taskflow.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${taskflow.idempotency.max-entries:10000}") int maxEntries) {
+        this(ttl, maxEntries, Clock.systemUTC());
+    }
+
+    IdempotencyStore(Duration ttl, int maxEntries, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Looks up {@code key}, reserving it for the caller if it is unused or expired.
+     *
+     * @param request the request body, compared with {@code equals} against the original
+     */
+    public synchronized Claim claim(String key, Object request) {
+        long now = clock.millis();
+        evictExpired(now);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entries.put(key, new Entry(request, now + ttlMillis));
+            return new Claim(State.ACQUIRED, null);
+        }
+        if (!Objects.equals(entry.request, request)) {
+            return new Claim(State.MISMATCH, null);
+        }
+        if (entry.response == null) {
+            return new Claim(State.IN_PROGRESS, null);
+        }
+        return new Claim(State.REPLAY, entry.response);
+    }
+
+    public synchronized void complete(String key, TaskResponseDTO response) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.response = response;
+        }
+    }
+
+    /**
+     * Gives up an acquired key after a failed request, so that a retry runs again.
+     */
+    public synchronized void release(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.response == null) {
+            entries.remove(key);
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Entries are in insertion order and share one TTL, so expired ones are at the head.
+     */
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt <= now) {
+            iterator.remove();
+        }
+    }
+}
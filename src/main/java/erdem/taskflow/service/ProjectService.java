@@ -0,0 +1,126 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.dto.ProjectStatsDTO;
+import erdem.taskflow.dto.TaskStatsDTO;
+import erdem.taskflow.project.ProjectContext;
+import erdem.taskflow.project.ProjectShards;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Projects, each with its own database shard ({@link ProjectShards}), and statistics
+ * across all of them.
+ */
+@Service
+public class ProjectService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectService.class);
+
+    private final ProjectShards shards;
+    private final TaskService taskService;
+    private final boolean enabled;
+    private final ExecutorService statsExecutor;
+
+    public ProjectService(ProjectShards shards,
+                          TaskService taskService,
+                          @Value("${taskflow.projects.enabled:true}") boolean enabled,
+                          @Value("${taskflow.projects.stats-parallelism:4}") int statsParallelism) {
+        this.shards = shards;
+        this.taskService = taskService;
+        this.enabled = enabled;
+        AtomicInteger threads = new AtomicInteger();
+        this.statsExecutor = Executors.newFixedThreadPool(statsParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "project-stats-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<String> getAll() throws IOException {
+        return enabled ? shards.list() : List.of();
+    }
+
+    /**
+     * @return {@code false} if the project already existed
+     * @throws IllegalArgumentException if the name is not a valid project name
+     */
+    public boolean create(String project) throws IOException, SQLException {
+        boolean created = shards.create(project);
+        logger.atDebug().setMessage("create").addKeyValue("project", project).addKeyValue("created", created).log();
+        return created;
+    }
+
+    /**
+     * Deletes the project with all its tasks.
+     *
+     * @return {@code false} if there was no such project
+     * @throws IllegalStateException if the project's shard is in use
+     */
+    public boolean delete(String project) throws IOException {
+        return shards.delete(project);
+    }
+
+    /**
+     * Statistics of the default database and of every project, read in parallel on up to
+     * {@code taskflow.projects.stats-parallelism} threads, and their sum.
+     */
+    public ProjectStatsDTO getStatistics() throws IOException {
+        List<String> names = new ArrayList<>();
+        names.add(ProjectContext.DEFAULT);
+        names.addAll(getAll());
+        List<Future<TaskStatsDTO>> futures = new ArrayList<>(names.size());
+        for (String name : names) {
+            String project = ProjectContext.DEFAULT.equals(name) ? null : name;
+            futures.add(statsExecutor.submit(() -> ProjectContext.call(project, taskService::getStatistics)));
+        }
+        Map<String, TaskStatsDTO> projects = new LinkedHashMap<>();
+        TaskStatsDTO total = new TaskStatsDTO();
+        for (int i = 0; i < names.size(); i++) {
+            TaskStatsDTO stats = join(futures.get(i));
+            projects.put(names.get(i), stats);
+            total.setOpenTasks(total.getOpenTasks() + stats.getOpenTasks());
+            total.setInProgressTasks(total.getInProgressTasks() + stats.getInProgressTasks());
+            total.setCompletedTasks(total.getCompletedTasks() + stats.getCompletedTasks());
+            total.setOverdueTasks(total.getOverdueTasks() + stats.getOverdueTasks());
+            total.setTotalTasks(total.getTotalTasks() + stats.getTotalTasks());
+        }
+        return new ProjectStatsDTO(total, projects);
+    }
+
+    @PreDestroy
+    void stop() {
+        statsExecutor.shutdownNow();
+    }
+
+    private static TaskStatsDTO join(Future<TaskStatsDTO> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading project statistics", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException("Reading project statistics failed", e.getCause());
+        }
+    }
+}
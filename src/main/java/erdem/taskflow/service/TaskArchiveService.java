@@ -0,0 +1,242 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.model.ArchivedTask;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Task;
+import erdem.taskflow.project.ProjectContext;
+import erdem.taskflow.repository.ArchivedTaskRepository;
+import erdem.taskflow.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Hot/cold split for completed tasks. A background job moves tasks completed longer
+ * than {@code taskflow.archive.completed-after} ago from {@code task} into
+ * {@code task_archive}, in chunks of {@code taskflow.archive.batch-size} with one
+ * transaction per chunk. {@link TaskService} reads the archive only for queries on
+ * completed tasks, id lookups that miss the hot table, and statistics (which use a
+ * cached row count).
+ */
+@Service
+@Transactional
+public class TaskArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiveService.class);
+
+    private final TaskRepository taskRepo;
+    private final ArchivedTaskRepository archiveRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskDataVersion dataVersion;
+    private final TaskFilterIndex filterIndex;
+    private final boolean enabled;
+    private final Duration completedAfter;
+    private final int batchSize;
+    private final AtomicLong archivedCount = new AtomicLong(-1);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TaskArchiveService(TaskRepository taskRepo,
+                              ArchivedTaskRepository archiveRepo,
+                              PlatformTransactionManager transactionManager,
+                              TaskDataVersion dataVersion,
+                              TaskFilterIndex filterIndex,
+                              @Value("${taskflow.archive.enabled:true}") boolean enabled,
+                              @Value("${taskflow.archive.completed-after:P30D}") Duration completedAfter,
+                              @Value("${taskflow.archive.batch-size:500}") int batchSize) {
+        this.taskRepo = taskRepo;
+        this.archiveRepo = archiveRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataVersion = dataVersion;
+        this.filterIndex = filterIndex;
+        this.enabled = enabled;
+        this.completedAfter = completedAfter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${taskflow.archive.interval:PT1H}",
+               initialDelayString = "${taskflow.archive.interval:PT1H}")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void archiveScheduled() {
+        if (enabled) {
+            archiveCompletedBefore(Instant.now().minus(completedAfter));
+        }
+    }
+
+    /**
+     * Moves every task completed before {@code cutoff} into the archive.
+     *
+     * @return number of tasks archived
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public int archiveCompletedBefore(Instant cutoff) {
+        int total = 0;
+        while (true) {
+            List<UUID> moved = transactionTemplate.execute(status -> {
+                List<UUID> ids = taskRepo.findIdsCompletedBefore(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return ids;
+                }
+                archiveRepo.copyFromTasks(ids);
+                archiveRepo.copyHistoryFromTasks(ids);
+                archiveRepo.markArchived(ids, Instant.now());
+                archiveRepo.deleteTaskHistory(ids);
+                archiveRepo.deleteTasks(ids);
+                return ids;
+            });
+            if (moved == null || moved.isEmpty()) {
+                break;
+            }
+            total += moved.size();
+            filterIndex.remove(moved);
+            adjustCount(moved.size());
+            dataVersion.changed();
+        }
+        if (total > 0) {
+            logger.info("Archived {} tasks completed before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    public Optional<Task> findById(UUID id) {
+        return archiveRepo.findById(id).map(ArchivedTask::toTask);
+    }
+
+    public List<Task> findWithFilters(Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo, String searchTerm) {
+        return archiveRepo.findWithFilters(priority, dueDateFrom, dueDateTo, searchTerm).stream()
+                .map(ArchivedTask::toTask)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Cursor over archived tasks; see {@link TaskService#streamTasks}.
+     */
+    public Stream<Task> streamWithFilters(Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo,
+                                          String searchTerm, Sort sort) {
+        return archiveRepo.streamWithFilters(priority, dueDateFrom, dueDateTo, searchTerm, sort)
+                .map(archived -> {
+                    Task task = archived.toTask();
+                    entityManager.detach(archived);
+                    return task;
+                });
+    }
+
+    /**
+     * Moves an archived task back into the hot table, unchanged.
+     *
+     * @return {@code false} if the id is not archived
+     */
+    public boolean rehydrate(UUID id) {
+        return rehydrate(List.of(id)) > 0;
+    }
+
+    /**
+     * Moves up to {@code limit} archived tasks matching the filters back into the hot
+     * table, within the current transaction.
+     *
+     * @return the ids moved
+     */
+    public List<UUID> rehydrateMatching(Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo, int limit) {
+        List<UUID> ids = archiveRepo.findIdsWithFilters(priority, dueDateFrom, dueDateTo, Limit.of(limit));
+        if (!ids.isEmpty()) {
+            rehydrate(ids);
+        }
+        return ids;
+    }
+
+    public boolean delete(UUID id) {
+        return delete(List.of(id)) > 0;
+    }
+
+    /**
+     * Deletes up to {@code limit} archived tasks matching the filters, with their
+     * history, within the current transaction.
+     *
+     * @return the ids deleted
+     */
+    public List<UUID> deleteMatching(Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo, int limit) {
+        List<UUID> ids = archiveRepo.findIdsWithFilters(priority, dueDateFrom, dueDateTo, Limit.of(limit));
+        if (!ids.isEmpty()) {
+            delete(ids);
+        }
+        return ids;
+    }
+
+    private int rehydrate(List<UUID> ids) {
+        int moved = archiveRepo.copyToTasks(ids);
+        if (moved == 0) {
+            return 0;
+        }
+        archiveRepo.copyHistoryToTasks(ids);
+        archiveRepo.deleteArchivedHistory(ids);
+        archiveRepo.deleteArchived(ids);
+        adjustCountAfterCommit(-moved);
+        filterIndex.refreshAfterCommit(ids);
+        return moved;
+    }
+
+    private int delete(List<UUID> ids) {
+        archiveRepo.deleteArchivedHistory(ids);
+        int deleted = archiveRepo.deleteArchived(ids);
+        if (deleted > 0) {
+            adjustCountAfterCommit(-deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Number of archived tasks, counted once and then maintained in memory. The cached
+     * count is the default database's; project shards are counted on each call.
+     */
+    public long count() {
+        if (ProjectContext.current() != null) {
+            return archiveRepo.count();
+        }
+        long count = archivedCount.get();
+        if (count < 0) {
+            count = archiveRepo.count();
+            archivedCount.compareAndSet(-1, count);
+        }
+        return count;
+    }
+
+    private void adjustCountAfterCommit(long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adjustCount(delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adjustCount(delta);
+            }
+        });
+    }
+
+    private void adjustCount(long delta) {
+        archivedCount.updateAndGet(current -> current < 0 ? current : current + delta);
+    }
+}
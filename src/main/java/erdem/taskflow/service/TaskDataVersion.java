@@ -0,0 +1,39 @@
+package erdem.taskflow.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global counter of task data changes. Anything derived from task data (such as cached
+ * list responses) is valid only while the version it was computed at is current.
+ * Readers take the version before querying; writers bump it after their change is
+ * committed, so a result is never stored under a version newer than its data.
+ */
+@Component
+public class TaskDataVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Bumps the version once the current transaction commits, or immediately outside one.
+     */
+    public void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.model.Status;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Task dependencies as adjacency arrays over dense ordinals. Only tasks with at least one
+ * edge are nodes. Each node keeps the number of its dependencies that are not completed,
+ * updated as statuses change, so whether a task is blocked is a single array read.
+ * <p>
+ * Not thread-safe; {@link TaskDependencyService} guards it with a read-write lock.
+ */
+final class TaskDependencyGraph {
+
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Unfinished tasks in dependency order, most critical first, and the longest chain of
+     * unfinished tasks.
+     */
+    record Plan(List<UUID> order, List<UUID> criticalPath) {
+    }
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final ArrayDeque<Integer> free = new ArrayDeque<>();
+    private UUID[] ids = new UUID[16];
+    private Status[] statuses = new Status[16];
+    /** Ordinals each task waits for. */
+    private int[][] dependsOn = new int[16][];
+    /** Ordinals waiting for each task. */
+    private int[][] dependents = new int[16][];
+    /** Dependencies of each task that are not completed. */
+    private int[] blocking = new int[16];
+    private int next;
+
+    int size() {
+        return ordinals.size();
+    }
+
+    boolean hasEdges(UUID id) {
+        return ordinals.containsKey(id);
+    }
+
+    /**
+     * Whether {@code id} has a dependency that is not completed.
+     */
+    boolean isBlocked(UUID id) {
+        Integer node = ordinals.get(id);
+        return node != null && blocking[node] > 0;
+    }
+
+    List<UUID> dependenciesOf(UUID id) {
+        Integer node = ordinals.get(id);
+        if (node == null) {
+            return List.of();
+        }
+        List<UUID> result = new ArrayList<>(dependsOn[node].length);
+        for (int dependency : dependsOn[node]) {
+            result.add(ids[dependency]);
+        }
+        return result;
+    }
+
+    boolean hasEdge(UUID task, UUID dependsOnId) {
+        Integer from = ordinals.get(task);
+        Integer to = ordinals.get(dependsOnId);
+        return from != null && to != null && indexOf(dependsOn[from], to) >= 0;
+    }
+
+    /**
+     * Whether {@code task} depending on {@code dependsOnId} would close a cycle, that is
+     * whether {@code task} is already reachable from {@code dependsOnId}.
+     */
+    boolean wouldCycle(UUID task, UUID dependsOnId) {
+        if (task.equals(dependsOnId)) {
+            return true;
+        }
+        Integer target = ordinals.get(task);
+        Integer start = ordinals.get(dependsOnId);
+        if (target == null || start == null) {
+            return false;
+        }
+        boolean[] seen = new boolean[next];
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        stack.push(start);
+        seen[start] = true;
+        while (!stack.isEmpty()) {
+            int node = stack.pop();
+            for (int dependency : dependsOn[node]) {
+                if (dependency == target) {
+                    return true;
+                }
+                if (!seen[dependency]) {
+                    seen[dependency] = true;
+                    stack.push(dependency);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the edge; statuses are used for tasks that are not nodes yet.
+     *
+     * @return {@code false} if the edge already existed
+     */
+    boolean addEdge(UUID task, Status taskStatus, UUID dependsOnId, Status dependsOnStatus) {
+        int from = node(task, taskStatus);
+        int to = node(dependsOnId, dependsOnStatus);
+        if (indexOf(dependsOn[from], to) >= 0) {
+            return false;
+        }
+        dependsOn[from] = append(dependsOn[from], to);
+        dependents[to] = append(dependents[to], from);
+        if (statuses[to] != Status.COMPLETED) {
+            blocking[from]++;
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code false} if there was no such edge
+     */
+    boolean removeEdge(UUID task, UUID dependsOnId) {
+        Integer from = ordinals.get(task);
+        Integer to = ordinals.get(dependsOnId);
+        if (from == null || to == null || indexOf(dependsOn[from], to) < 0) {
+            return false;
+        }
+        unlink(from, to);
+        releaseIfIsolated(from);
+        releaseIfIsolated(to);
+        return true;
+    }
+
+    /**
+     * Moves a task to {@code status}, unblocking or blocking its dependents when it
+     * enters or leaves {@code COMPLETED}.
+     *
+     * @return whether the graph changed
+     */
+    boolean setStatus(UUID id, Status status) {
+        Integer node = ordinals.get(id);
+        if (node == null || statuses[node] == status) {
+            return false;
+        }
+        boolean wasCompleted = statuses[node] == Status.COMPLETED;
+        statuses[node] = status;
+        if (wasCompleted != (status == Status.COMPLETED)) {
+            int delta = wasCompleted ? 1 : -1;
+            for (int dependent : dependents[node]) {
+                blocking[dependent] += delta;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops a deleted task and all its edges; its dependents no longer wait for it.
+     *
+     * @return whether the graph changed
+     */
+    boolean remove(UUID id) {
+        Integer node = ordinals.get(id);
+        if (node == null) {
+            return false;
+        }
+        for (int dependency : dependsOn[node].clone()) {
+            unlink(node, dependency);
+            releaseIfIsolated(dependency);
+        }
+        for (int dependent : dependents[node].clone()) {
+            unlink(dependent, node);
+            releaseIfIsolated(dependent);
+        }
+        releaseIfIsolated(node);
+        return true;
+    }
+
+    /**
+     * Orders the unfinished tasks so that each comes after its dependencies (Kahn's
+     * algorithm, where the blocking counters are the in-degrees). Among tasks that are
+     * free to go, the one heading the longest chain of unfinished dependents comes first.
+     */
+    Plan plan() {
+        int[] indegree = Arrays.copyOf(blocking, next);
+        List<Integer> topological = new ArrayList<>();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int node = 0; node < next; node++) {
+            if (isUnfinished(node) && indegree[node] == 0) {
+                queue.add(node);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            topological.add(node);
+            for (int dependent : dependents[node]) {
+                if (isUnfinished(dependent) && --indegree[dependent] == 0) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        // Length of the longest chain of unfinished tasks starting at each task
+        int[] chain = new int[next];
+        int[] successor = new int[next];
+        for (int i = topological.size() - 1; i >= 0; i--) {
+            int node = topological.get(i);
+            chain[node] = 1;
+            successor[node] = -1;
+            for (int dependent : dependents[node]) {
+                if (isUnfinished(dependent) && chain[dependent] + 1 > chain[node]) {
+                    chain[node] = chain[dependent] + 1;
+                    successor[node] = dependent;
+                }
+            }
+        }
+
+        indegree = Arrays.copyOf(blocking, next);
+        PriorityQueue<Integer> ready = new PriorityQueue<>((a, b) ->
+                chain[a] != chain[b] ? Integer.compare(chain[b], chain[a]) : ids[a].compareTo(ids[b]));
+        for (int node : topological) {
+            if (indegree[node] == 0) {
+                ready.add(node);
+            }
+        }
+        List<UUID> order = new ArrayList<>(topological.size());
+        int head = ready.isEmpty() ? -1 : ready.peek();
+        while (!ready.isEmpty()) {
+            int node = ready.poll();
+            order.add(ids[node]);
+            for (int dependent : dependents[node]) {
+                if (isUnfinished(dependent) && --indegree[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        List<UUID> criticalPath = new ArrayList<>();
+        for (int node = head; node >= 0; node = successor[node]) {
+            criticalPath.add(ids[node]);
+        }
+        return new Plan(order, criticalPath);
+    }
+
+    private boolean isUnfinished(int node) {
+        return ids[node] != null && statuses[node] != Status.COMPLETED;
+    }
+
+    private int node(UUID id, Status status) {
+        Integer existing = ordinals.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        int node = free.isEmpty() ? next++ : free.pop();
+        if (node >= ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            dependsOn = Arrays.copyOf(dependsOn, capacity);
+            dependents = Arrays.copyOf(dependents, capacity);
+            blocking = Arrays.copyOf(blocking, capacity);
+        }
+        ordinals.put(id, node);
+        ids[node] = id;
+        statuses[node] = status;
+        dependsOn[node] = NONE;
+        dependents[node] = NONE;
+        blocking[node] = 0;
+        return node;
+    }
+
+    private void unlink(int from, int to) {
+        dependsOn[from] = without(dependsOn[from], to);
+        dependents[to] = without(dependents[to], from);
+        if (statuses[to] != Status.COMPLETED) {
+            blocking[from]--;
+        }
+    }
+
+    private void releaseIfIsolated(int node) {
+        if (ids[node] != null && dependsOn[node].length == 0 && dependents[node].length == 0) {
+            ordinals.remove(ids[node]);
+            ids[node] = null;
+            statuses[node] = null;
+            free.push(node);
+        }
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    private static int[] without(int[] values, int value) {
+        int i = indexOf(values, value);
+        if (i < 0) {
+            return values;
+        }
+        if (values.length == 1) {
+            return NONE;
+        }
+        int[] result = new int[values.length - 1];
+        System.arraycopy(values, 0, result, 0, i);
+        System.arraycopy(values, i + 1, result, i, values.length - i - 1);
+        return result;
+    }
+}
@@ -0,0 +1,327 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.dto.TaskPlanDTO;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.event.TaskEvent;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.model.TaskDependency;
+import erdem.taskflow.repository.TaskDependencyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Dependencies between tasks. Edges are stored in {@code task_dependency}; the graph is
+ * held in memory ({@link TaskDependencyGraph}) and follows committed status changes and
+ * deletes through task events, so neither the ready list nor the plan reads the edge
+ * table or walks the graph per request:
+ * <ul>
+ *   <li>A task is ready when it is {@code OPEN} and its counter of dependencies that are
+ *       not completed is zero.</li>
+ *   <li>The plan (dependency order and critical path) is computed on first use and kept
+ *       until the graph changes.</li>
+ *   <li>Adding an edge that would close a cycle is rejected.</li>
+ * </ul>
+ * With {@code taskflow.dependencies.cached=false}, for instances sharing a database, the
+ * graph is rebuilt from the database before each use instead, since edges and statuses
+ * changed by other instances raise no event here. On PostgreSQL the cycle check and the
+ * insert then hold an advisory lock, so instances add edges one at a time.
+ */
+@Service
+public class TaskDependencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskDependencyService.class);
+    /** Advisory lock key serializing edge inserts across instances ("deps"). */
+    private static final long ADD_LOCK = 0x64657073L;
+
+    private final TaskDependencyRepository repo;
+    private final TaskService taskService;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+    private final boolean cached;
+    /** Replaced when rebuilt; guarded by the lock. */
+    private TaskDependencyGraph graph = new TaskDependencyGraph();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Bumped on every graph change; guarded by the write lock. */
+    private long graphVersion;
+    private volatile CachedPlan cachedPlan;
+    private Boolean postgres;
+
+    private record CachedPlan(long graphVersion, TaskPlanDTO plan) {
+    }
+
+    public TaskDependencyService(TaskDependencyRepository repo,
+                                 TaskService taskService,
+                                 PlatformTransactionManager transactionManager,
+                                 DataSource dataSource,
+                                 @Value("${taskflow.dependencies.cached:true}") boolean cached) {
+        this.repo = repo;
+        this.taskService = taskService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataSource = dataSource;
+        this.cached = cached;
+    }
+
+    /**
+     * Builds the graph from the stored edges. Status changes committed meanwhile wait for
+     * the lock and are applied on top.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            int edges = rebuild();
+            logger.atInfo().setMessage("Task dependency graph loaded")
+                    .addKeyValue("edges", edges)
+                    .addKeyValue("tasks", graph.size())
+                    .addKeyValue("ms", (System.nanoTime() - start) / 1_000_000)
+                    .log();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @throws RuntimeException if the task does not exist
+     */
+    public List<UUID> getDependencies(UUID taskId) {
+        taskService.getById(taskId);
+        refreshIfShared();
+        lock.readLock().lock();
+        try {
+            return graph.dependenciesOf(taskId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Makes {@code taskId} wait for {@code dependsOnId}. Edges are added one at a time,
+     * so the cycle check always sees every committed edge; without the cache, the check
+     * and the insert share one transaction.
+     *
+     * @return {@code false} if the dependency already existed
+     * @throws IllegalArgumentException if the dependency would close a cycle
+     * @throws RuntimeException if either task does not exist
+     */
+    public synchronized boolean addDependency(UUID taskId, UUID dependsOnId) {
+        taskService.getById(taskId);
+        taskService.getById(dependsOnId);
+        if (cached) {
+            if (!checkNewEdge(taskId, dependsOnId)) {
+                return false;
+            }
+            transactionTemplate.executeWithoutResult(status -> repo.save(new TaskDependency(taskId, dependsOnId)));
+        } else {
+            boolean shared = isPostgres();
+            Boolean added = transactionTemplate.execute(status -> {
+                if (shared) {
+                    // Held until commit: another instance's check then sees this edge
+                    repo.lockTransaction(ADD_LOCK);
+                }
+                refresh();
+                if (!checkNewEdge(taskId, dependsOnId)) {
+                    return false;
+                }
+                repo.save(new TaskDependency(taskId, dependsOnId));
+                return true;
+            });
+            if (!Boolean.TRUE.equals(added)) {
+                return false;
+            }
+        }
+        // Statuses are read under the write lock: a status change committed after the read
+        // waits for it in onTaskEvent and is applied on top, as during load()
+        update(() -> {
+            Map<UUID, Status> statuses = taskService.findStatuses(List.of(taskId, dependsOnId));
+            return graph.addEdge(taskId, statuses.getOrDefault(taskId, Status.COMPLETED),
+                    dependsOnId, statuses.getOrDefault(dependsOnId, Status.COMPLETED));
+        });
+        logger.atDebug().setMessage("addDependency")
+                .addKeyValue("id", taskId)
+                .addKeyValue("dependsOn", dependsOnId)
+                .log();
+        return true;
+    }
+
+    /**
+     * @return {@code false} if there was no such dependency
+     */
+    public synchronized boolean removeDependency(UUID taskId, UUID dependsOnId) {
+        TaskDependency.Key key = new TaskDependency.Key(taskId, dependsOnId);
+        Boolean existed = transactionTemplate.execute(status -> {
+            if (!repo.existsById(key)) {
+                return false;
+            }
+            repo.deleteById(key);
+            return true;
+        });
+        update(() -> graph.removeEdge(taskId, dependsOnId));
+        return Boolean.TRUE.equals(existed);
+    }
+
+    /**
+     * Open tasks whose dependencies are all completed, in the order of
+     * {@link TaskService#filterTasks}.
+     */
+    public List<TaskResponseDTO> getReady(String sortBy, String sortOrder) {
+        refreshIfShared();
+        List<TaskResponseDTO> open = taskService.filterTasks(Status.OPEN, null, null, null, null, sortBy, sortOrder);
+        lock.readLock().lock();
+        try {
+            return open.stream()
+                    .filter(task -> !graph.isBlocked(task.getId()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public TaskPlanDTO getPlan() {
+        refreshIfShared();
+        CachedPlan cached = cachedPlan;
+        lock.readLock().lock();
+        try {
+            if (cached == null || cached.graphVersion() != graphVersion) {
+                TaskDependencyGraph.Plan plan = graph.plan();
+                cached = new CachedPlan(graphVersion, new TaskPlanDTO(plan.order(), plan.criticalPath()));
+                cachedPlan = cached;
+            }
+            return cached.plan();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the stored edges of a task being deleted, in the deleting transaction. Tasks
+     * without edges cost no statement, unless the graph is not cached: other instances may
+     * have added edges this one has not seen.
+     */
+    @EventListener
+    public void onTaskDeleting(TaskEvent.Deleted event) {
+        boolean hasEdges = !cached;
+        lock.readLock().lock();
+        try {
+            hasEdges |= graph.hasEdges(event.taskId());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (hasEdges) {
+            repo.deleteAllOf(event.taskId());
+        }
+    }
+
+    /**
+     * Follows committed changes; runs right away when published outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        if (event instanceof TaskEvent.StatusChanged changed) {
+            update(() -> graph.setStatus(changed.taskId(), changed.to()));
+        } else if (event instanceof TaskEvent.Deleted deleted) {
+            update(() -> graph.remove(deleted.taskId()));
+        }
+    }
+
+    /**
+     * @return {@code false} if the edge already exists
+     * @throws IllegalArgumentException if the edge would close a cycle
+     */
+    private boolean checkNewEdge(UUID taskId, UUID dependsOnId) {
+        lock.readLock().lock();
+        try {
+            if (graph.hasEdge(taskId, dependsOnId)) {
+                return false;
+            }
+            if (graph.wouldCycle(taskId, dependsOnId)) {
+                throw new IllegalArgumentException("Task " + taskId + " depending on " + dependsOnId
+                        + " would create a cycle");
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void refreshIfShared() {
+        if (!cached) {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        lock.writeLock().lock();
+        try {
+            rebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the graph with one built from the stored edges; runs under the write lock.
+     *
+     * @return the number of edges
+     */
+    private int rebuild() {
+        List<TaskDependency> edges = repo.findAll();
+        Set<UUID> ids = new HashSet<>();
+        for (TaskDependency edge : edges) {
+            ids.add(edge.getTaskId());
+            ids.add(edge.getDependsOnId());
+        }
+        // Tasks missing from the hot table are archived, hence completed
+        Map<UUID, Status> statuses = taskService.findStatuses(ids);
+        TaskDependencyGraph rebuilt = new TaskDependencyGraph();
+        for (TaskDependency edge : edges) {
+            rebuilt.addEdge(edge.getTaskId(), statuses.getOrDefault(edge.getTaskId(), Status.COMPLETED),
+                    edge.getDependsOnId(), statuses.getOrDefault(edge.getDependsOnId(), Status.COMPLETED));
+        }
+        graph = rebuilt;
+        graphVersion++;
+        return edges.size();
+    }
+
+    private synchronized boolean isPostgres() {
+        if (postgres == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                postgres = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot read the database product", e);
+            }
+        }
+        return postgres;
+    }
+
+    private void update(BooleanSupplier change) {
+        lock.writeLock().lock();
+        try {
+            if (change.getAsBoolean()) {
+                graphVersion++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
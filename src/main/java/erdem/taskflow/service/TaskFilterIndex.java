@@ -0,0 +1,460 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.event.TaskEvent;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.model.Task;
+import erdem.taskflow.project.ProjectContext;
+import erdem.taskflow.repository.TaskRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-process secondary index over the filter columns of the hot {@code task} table.
+ * Tasks are mapped to dense ordinals; status and priority keep one compressed bitmap
+ * per value and due dates one per day, so {@link TaskService#filterTasks} and
+ * {@link TaskService#getStatistics} combine bitmaps instead of scanning the table and
+ * fetch only the matching rows by primary key.
+ * <p>
+ * Built from a projection of the table once the application is ready, then kept current
+ * from {@link TaskEvent}s after their transaction commits, and by
+ * {@link TaskArchiveService} as tasks move to and from the archive. Changes arriving
+ * during a rebuild are replayed onto the new bitmaps before they are swapped in. Until
+ * the first build completes, or with {@code taskflow.filter-index.enabled=false},
+ * {@link #isReady()} is {@code false} and callers query the database.
+ */
+@Component
+public class TaskFilterIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskFilterIndex.class);
+
+    private final TaskRepository repo;
+    private final TransactionTemplate readOnlyTemplate;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Guarded by {@link #lock}. */
+    private Bitmaps current;
+    /** Changes applied while a rebuild is reading the table; guarded by {@link #lock}. */
+    private List<Consumer<Bitmaps>> pending;
+
+    public TaskFilterIndex(TaskRepository repo,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${taskflow.filter-index.enabled:true}") boolean enabled) {
+        this.repo = repo;
+        this.enabled = enabled;
+        if (transactionManager != null) {
+            this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+            this.readOnlyTemplate.setReadOnly(true);
+        } else {
+            this.readOnlyTemplate = null;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the bitmaps from the {@code task} table. Queries keep using the previous
+     * bitmaps until the new ones are complete.
+     */
+    public void rebuild() {
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = repo.streamFilterKeys()) {
+                rebuild(rows);
+            }
+        });
+    }
+
+    /**
+     * @param rows {@code [id, status, priority, dueDate]} of every hot task
+     */
+    void rebuild(Stream<Object[]> rows) {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Bitmaps bitmaps = new Bitmaps();
+        try {
+            rows.forEach(row -> bitmaps.put((UUID) row[0], (Status) row[1], (Priority) row[2], (LocalDate) row[3]));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            replayed = pending.size();
+            pending.forEach(change -> change.accept(bitmaps));
+            pending = null;
+            bitmaps.runOptimize();
+            current = bitmaps;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.atInfo()
+                .setMessage("Built task filter index")
+                .addKeyValue("tasks", bitmaps.size())
+                .addKeyValue("replayed", replayed)
+                .addKeyValue("bytes", bitmaps.sizeInBytes())
+                .addKeyValue("ms", (System.nanoTime() - started) / 1_000_000)
+                .log();
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return current != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Follows committed changes; runs right away when published outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        if (ProjectContext.current() != null) {
+            // Project tasks live in their shard, not in the indexed default database
+            return;
+        }
+        if (event instanceof TaskEvent.Created created) {
+            put(created.task());
+        } else if (event instanceof TaskEvent.Updated updated) {
+            put(updated.task());
+        } else if (event instanceof TaskEvent.StatusChanged changed) {
+            apply(bitmaps -> bitmaps.setStatus(changed.taskId(), changed.to()));
+        } else if (event instanceof TaskEvent.Deleted deleted) {
+            apply(bitmaps -> bitmaps.remove(deleted.taskId()));
+        }
+    }
+
+    /**
+     * Drops tasks that have left the hot table.
+     */
+    public void remove(Collection<UUID> ids) {
+        apply(bitmaps -> ids.forEach(bitmaps::remove));
+    }
+
+    /**
+     * Re-reads tasks that have (re)entered the hot table once the current transaction
+     * commits.
+     */
+    public void refreshAfterCommit(Collection<UUID> ids) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh(ids);
+            }
+        });
+    }
+
+    private void refresh(Collection<UUID> ids) {
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (Task task : repo.findAllById(ids)) {
+            rows.add(new Object[]{task.getId(), task.getStatus(), task.getPriority(), task.getDueDate()});
+        }
+        apply(bitmaps -> {
+            ids.forEach(bitmaps::remove);
+            rows.forEach(row -> bitmaps.put((UUID) row[0], (Status) row[1], (Priority) row[2], (LocalDate) row[3]));
+        });
+    }
+
+    private void put(TaskResponseDTO task) {
+        apply(bitmaps -> bitmaps.put(task.getId(), task.getStatus(), task.getPriority(), task.getDueDate()));
+    }
+
+    private void apply(Consumer<Bitmaps> change) {
+        lock.writeLock().lock();
+        try {
+            if (current != null) {
+                change.accept(current);
+            }
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of hot tasks matching the filters of {@link TaskRepository#findWithFilters},
+     * without the search term, in ordinal order.
+     *
+     * @throws IllegalStateException if the index is not {@link #isReady() ready}
+     */
+    public List<UUID> select(Status status, Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo,
+                             LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return ready().ids(ready().select(status, priority, dueDateFrom, dueDateTo, today));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of hot tasks due before {@code today} and not completed.
+     */
+    public List<UUID> overdue(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return ready().ids(ready().overdue(today));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(Status status) {
+        lock.readLock().lock();
+        try {
+            return ready().byStatus[status.ordinal()].getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countOverdue(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return ready().overdue(today).getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of hot tasks.
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return ready().size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether a task fetched after {@link #select} still matches, so that a change
+     * committed in between does not leak into the result.
+     */
+    public static boolean matches(Task task, Status status, Priority priority,
+                                  LocalDate dueDateFrom, LocalDate dueDateTo, LocalDate today) {
+        LocalDate due = task.getDueDate();
+        return (status == null || task.getStatus() == status)
+                && (priority == null || task.getPriority() == priority)
+                && (dueDateFrom == null || (due != null && !due.isBefore(dueDateFrom)))
+                && (dueDateTo == null || (due != null && !due.isAfter(dueDateTo)))
+                && (dueDateTo == null || !dueDateTo.isBefore(today) || task.getStatus() != Status.COMPLETED);
+    }
+
+    private Bitmaps ready() {
+        if (current == null) {
+            throw new IllegalStateException("Task filter index is not loaded");
+        }
+        return current;
+    }
+
+    /**
+     * The bitmaps and the per-ordinal values needed to unhook a task from them. Not
+     * thread-safe; guarded by the index lock.
+     */
+    private static final class Bitmaps {
+
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private UUID[] ids = new UUID[1024];
+        private Status[] statuses = new Status[1024];
+        private Priority[] priorities = new Priority[1024];
+        private LocalDate[] dueDates = new LocalDate[1024];
+        private final RoaringBitmap live = new RoaringBitmap();
+        private final RoaringBitmap[] byStatus = newBitmaps(Status.values().length);
+        private final RoaringBitmap[] byPriority = newBitmaps(Priority.values().length);
+        private final NavigableMap<LocalDate, RoaringBitmap> byDueDate = new TreeMap<>();
+
+        void put(UUID id, Status status, Priority priority, LocalDate dueDate) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal == null) {
+                ordinal = (int) live.nextAbsentValue(0);
+                if (ordinal == ids.length) {
+                    grow();
+                }
+                ordinals.put(id, ordinal);
+                ids[ordinal] = id;
+                live.add(ordinal);
+            } else {
+                unindex(ordinal);
+            }
+            statuses[ordinal] = status;
+            priorities[ordinal] = priority;
+            dueDates[ordinal] = dueDate;
+            index(ordinal);
+        }
+
+        void setStatus(UUID id, Status status) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal == null || statuses[ordinal] == status) {
+                return;
+            }
+            unindex(ordinal);
+            statuses[ordinal] = status;
+            index(ordinal);
+        }
+
+        void remove(UUID id) {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal == null) {
+                return;
+            }
+            unindex(ordinal);
+            ids[ordinal] = null;
+            statuses[ordinal] = null;
+            priorities[ordinal] = null;
+            dueDates[ordinal] = null;
+            live.remove(ordinal);
+        }
+
+        int size() {
+            return ordinals.size();
+        }
+
+        RoaringBitmap select(Status status, Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo,
+                             LocalDate today) {
+            RoaringBitmap result = (status != null ? byStatus[status.ordinal()] : live).clone();
+            if (priority != null) {
+                result.and(byPriority[priority.ordinal()]);
+            }
+            if (dueDateFrom != null || dueDateTo != null) {
+                NavigableMap<LocalDate, RoaringBitmap> days = byDueDate;
+                if (dueDateFrom != null) {
+                    days = days.tailMap(dueDateFrom, true);
+                }
+                if (dueDateTo != null) {
+                    days = days.headMap(dueDateTo, true);
+                }
+                result.and(RoaringBitmap.or(days.values().iterator()));
+            }
+            if (dueDateTo != null && dueDateTo.isBefore(today)) {
+                result.andNot(byStatus[Status.COMPLETED.ordinal()]);
+            }
+            return result;
+        }
+
+        RoaringBitmap overdue(LocalDate today) {
+            RoaringBitmap result = RoaringBitmap.or(byDueDate.headMap(today, false).values().iterator());
+            result.andNot(byStatus[Status.COMPLETED.ordinal()]);
+            return result;
+        }
+
+        List<UUID> ids(RoaringBitmap selected) {
+            List<UUID> result = new ArrayList<>(selected.getCardinality());
+            selected.forEach((int ordinal) -> result.add(ids[ordinal]));
+            return result;
+        }
+
+        void runOptimize() {
+            live.runOptimize();
+            Stream.of(byStatus).forEach(RoaringBitmap::runOptimize);
+            Stream.of(byPriority).forEach(RoaringBitmap::runOptimize);
+            byDueDate.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        long sizeInBytes() {
+            return Stream.concat(Stream.of(live), Stream.concat(Stream.concat(Stream.of(byStatus),
+                            Stream.of(byPriority)), byDueDate.values().stream()))
+                    .mapToLong(RoaringBitmap::getLongSizeInBytes)
+                    .sum();
+        }
+
+        private void index(int ordinal) {
+            if (statuses[ordinal] != null) {
+                byStatus[statuses[ordinal].ordinal()].add(ordinal);
+            }
+            if (priorities[ordinal] != null) {
+                byPriority[priorities[ordinal].ordinal()].add(ordinal);
+            }
+            if (dueDates[ordinal] != null) {
+                byDueDate.computeIfAbsent(dueDates[ordinal], date -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+
+        private void unindex(int ordinal) {
+            if (statuses[ordinal] != null) {
+                byStatus[statuses[ordinal].ordinal()].remove(ordinal);
+            }
+            if (priorities[ordinal] != null) {
+                byPriority[priorities[ordinal].ordinal()].remove(ordinal);
+            }
+            LocalDate due = dueDates[ordinal];
+            if (due != null) {
+                RoaringBitmap day = byDueDate.get(due);
+                day.remove(ordinal);
+                if (day.isEmpty()) {
+                    byDueDate.remove(due);
+                }
+            }
+        }
+
+        private void grow() {
+            int length = ids.length * 2;
+            ids = Arrays.copyOf(ids, length);
+            statuses = Arrays.copyOf(statuses, length);
+            priorities = Arrays.copyOf(priorities, length);
+            dueDates = Arrays.copyOf(dueDates, length);
+        }
+
+        private static RoaringBitmap[] newBitmaps(int count) {
+            RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+            for (int i = 0; i < count; i++) {
+                bitmaps[i] = new RoaringBitmap();
+            }
+            return bitmaps;
+        }
+    }
+}
@@ -1,58 +1,215 @@
 package erdem.taskflow.service;
 
+import erdem.taskflow.dto.TaskFacetsDTO;
+import erdem.taskflow.dto.TaskListDTO;
+import erdem.taskflow.dto.TaskPageDTO;
 import erdem.taskflow.dto.TaskRequestDTO;
 import erdem.taskflow.dto.TaskResponseDTO;
 import erdem.taskflow.dto.TaskStatsDTO;
 import erdem.taskflow.dto.StatusChangeDTO;
+import erdem.taskflow.event.TaskEvent;
 import erdem.taskflow.model.Priority;
 import erdem.taskflow.model.Status;
 import erdem.taskflow.model.Task;
+import erdem.taskflow.project.ProjectContext;
 import erdem.taskflow.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed(value = "taskflow.service", histogram = true)
 public class TaskService {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+    /** Ids per {@code IN} list when loading index matches by primary key. */
+    private static final int FETCH_CHUNK = 500;
+    /** Tasks per transaction in bulk changes, bounding how long the write lock is held. */
+    private static final int BULK_CHUNK = 1000;
+    /** JDBC batch size for {@link #createAll}. */
+    private static final int INSERT_BATCH = 100;
     private final TaskRepository repo;
+    private final TaskArchiveService archive;
+    private final TaskDataVersion dataVersion;
+    private final ApplicationEventPublisher events;
+    private final TaskFilterIndex filterIndex;
+    private final TransactionTemplate transactionTemplate;
 
-    public TaskService(TaskRepository repo) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TaskService(TaskRepository repo, TaskArchiveService archive, TaskDataVersion dataVersion,
+                       ApplicationEventPublisher events, TaskFilterIndex filterIndex,
+                       TransactionTemplate transactionTemplate) {
         this.repo = repo;
+        this.archive = archive;
+        this.dataVersion = dataVersion;
+        this.events = events;
+        this.filterIndex = filterIndex;
+        this.transactionTemplate = transactionTemplate;
         logger.debug("TaskService initialized");
     }
 
     public List<TaskResponseDTO> getAll(String sortBy, String sortOrder) {
-        logger.debug("getAll() called with sortBy={}, sortOrder={}", sortBy, sortOrder);
         List<Task> tasks = repo.findAllByOrderByPriorityDescDueDateAsc();
-        logger.debug("Retrieved {} tasks from repository", tasks.size());
         tasks = applySorting(tasks, sortBy, sortOrder);
-        logger.debug("After sorting: {} tasks", tasks.size());
         List<TaskResponseDTO> result = tasks.stream()
                 .map(this::toResponseDTO)
                 .collect(Collectors.toList());
-        logger.debug("Converted to {} DTOs", result.size());
+        logger.atDebug().setMessage("getAll")
+                .addKeyValue("sortBy", sortBy)
+                .addKeyValue("sortOrder", sortOrder)
+                .addKeyValue("results", result.size())
+                .log();
         return result;
     }
 
+    /**
+     * Tasks in title order, {@code limit} at a time, by keyset pagination over the
+     * {@code (title_key, id)} index: each page starts where the previous one ended, at
+     * the same cost however deep it is. {@code after} is the previous page's
+     * {@code next}, {@code null} for the first page. Like {@link #getAll}, pages cover
+     * tasks that are not archived.
+     *
+     * @throws IllegalArgumentException if {@code after} is not a cursor of this method
+     */
+    public TaskPageDTO getTitlePage(Status status, Priority priority, String sortOrder, String after, int limit) {
+        boolean descending = "DESC".equalsIgnoreCase(sortOrder);
+        Limit fetch = Limit.of(limit + 1);
+        List<Task> tasks;
+        if (after == null) {
+            Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+            tasks = repo.findTitlePage(status, priority, Sort.by(direction, "titleKey", "id"), fetch);
+        } else {
+            TitleCursor cursor = TitleCursor.parse(after);
+            tasks = descending
+                    ? repo.findTitlePageBefore(status, priority, cursor.key(), cursor.id(), fetch)
+                    : repo.findTitlePageAfter(status, priority, cursor.key(), cursor.id(), fetch);
+        }
+        return titlePage(tasks, limit);
+    }
+
+    /**
+     * The page of {@code tasks}, which hold up to one task more than {@code limit} to
+     * tell whether another page follows.
+     */
+    protected TaskPageDTO titlePage(List<Task> tasks, int limit) {
+        boolean hasMore = tasks.size() > limit;
+        List<Task> page = hasMore ? tasks.subList(0, limit) : tasks;
+        String next = hasMore ? TitleCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new TaskPageDTO(page.stream().map(this::toResponseDTO).collect(Collectors.toList()), next, hasMore);
+    }
+
+    /**
+     * Position of a task in title order: its title key, with the id breaking ties.
+     * Encoded as the Base64url of the key, a dot and the id.
+     */
+    protected record TitleCursor(String key, UUID id) {
+
+        public static TitleCursor of(Task task) {
+            return new TitleCursor(task.getTitleKey(), task.getId());
+        }
+
+        public static TitleCursor parse(String cursor) {
+            int dot = cursor.lastIndexOf('.');
+            if (dot < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new TitleCursor(
+                    new String(Base64.getUrlDecoder().decode(cursor.substring(0, dot)), StandardCharsets.UTF_8),
+                    UUID.fromString(cursor.substring(dot + 1)));
+        }
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8))
+                    + "." + id;
+        }
+    }
+
     public TaskResponseDTO getById(UUID id) {
         Task task = repo.findById(id)
+                .or(() -> archive.findById(id))
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
         return toResponseDTO(task);
     }
 
     public TaskResponseDTO create(TaskRequestDTO requestDTO) {
-        logger.debug("create() called for task: {}", requestDTO.getTitle());
+        Task saved = repo.save(newTask(requestDTO));
+        dataVersion.changed();
+        TaskResponseDTO response = toResponseDTO(saved);
+        publish(new TaskEvent.Created(saved.getId(), saved.getCreatedAt(), response));
+        logger.atDebug().setMessage("create")
+                .addKeyValue("id", saved.getId())
+                .addKeyValue("priority", saved.getPriority())
+                .addKeyValue("dueDate", saved.getDueDate())
+                .log();
+        return response;
+    }
+
+    /**
+     * Creates the tasks in the caller's transaction, with their inserts sent to the
+     * database in JDBC batches of {@value #INSERT_BATCH}, and publishes a
+     * {@link TaskEvent.Created} for each.
+     *
+     * @return ids of the created tasks, in request order
+     */
+    public List<UUID> createAll(List<TaskRequestDTO> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        if (entityManager != null) {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(INSERT_BATCH);
+        }
+        List<Task> tasks = new ArrayList<>(requests.size());
+        for (TaskRequestDTO request : requests) {
+            tasks.add(newTask(request));
+        }
+        List<Task> saved = repo.saveAll(tasks);
+        // Write the tasks before the outbox inserts of their events, which would otherwise
+        // force the queued inserts out one at a time
+        repo.flush();
+        dataVersion.changed();
+        List<UUID> ids = new ArrayList<>(saved.size());
+        for (Task task : saved) {
+            publish(new TaskEvent.Created(task.getId(), task.getCreatedAt(), toResponseDTO(task)));
+            ids.add(task.getId());
+        }
+        logger.atDebug().setMessage("createAll").addKeyValue("tasks", ids.size()).log();
+        return ids;
+    }
+
+    private static Task newTask(TaskRequestDTO requestDTO) {
         Task task = new Task();
         task.setTitle(requestDTO.getTitle());
         task.setDescription(requestDTO.getDescription());
@@ -61,21 +218,21 @@ public class TaskService {
         task.setStatus(Status.OPEN);
         task.setCreatedAt(Instant.now());
         task.setStatusUpdatedAt(Instant.now());
-        
-        logger.debug("Saving task to repository: title={}, priority={}, dueDate={}", 
-                task.getTitle(), task.getPriority(), task.getDueDate());
-        Task saved = repo.save(task);
-        logger.debug("Task saved with ID: {}", saved.getId());
-        logger.debug("Status history after creation: {} entries", saved.getStatusHistory() != null ? saved.getStatusHistory().size() : 0);
-        if (saved.getStatusHistory() != null && !saved.getStatusHistory().isEmpty()) {
-            logger.debug("Status history entries: {}", saved.getStatusHistory());
-        }
-        return toResponseDTO(saved);
+        return task;
     }
 
     public TaskResponseDTO update(UUID id, TaskRequestDTO requestDTO) {
-        Task task = repo.findById(id)
+        return update(id, requestDTO, null);
+    }
+
+    /**
+     * @param expectedVersion version the client last saw, or {@code null} to skip the check
+     * @throws OptimisticLockingFailureException if the task has changed since
+     */
+    public TaskResponseDTO update(UUID id, TaskRequestDTO requestDTO, Long expectedVersion) {
+        Task task = findHotOrRehydrate(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+        checkVersion(task, expectedVersion);
 
         task.setTitle(requestDTO.getTitle());
         task.setDescription(requestDTO.getDescription());
@@ -83,72 +240,372 @@ public class TaskService {
         task.setDueDate(requestDTO.getDueDate());
 
         Task saved = repo.save(task);
-        return toResponseDTO(saved);
+        repo.flush();
+        dataVersion.changed();
+        TaskResponseDTO response = toResponseDTO(saved);
+        publish(new TaskEvent.Updated(id, Instant.now(), response));
+        logger.atDebug().setMessage("update").addKeyValue("id", id).log();
+        return response;
     }
 
     public TaskResponseDTO updateStatus(UUID id, Status newStatus) {
-        logger.debug("updateStatus() called for task {} to status {}", id, newStatus);
-        Task task = repo.findById(id)
+        return updateStatus(id, newStatus, null);
+    }
+
+    /**
+     * @param expectedVersion version the client last saw, or {@code null} to skip the check
+     * @throws OptimisticLockingFailureException if the task has changed since
+     */
+    public TaskResponseDTO updateStatus(UUID id, Status newStatus, Long expectedVersion) {
+        Task task = findHotOrRehydrate(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
-        
+        checkVersion(task, expectedVersion);
+
         Status oldStatus = task.getStatus();
-        logger.debug("Current status: {}, New status: {}", oldStatus, newStatus);
-        
+        Instant since = task.getStatusUpdatedAt();
         task.updateStatus(newStatus);
-        logger.debug("Status history after update: {} entries", task.getStatusHistory() != null ? task.getStatusHistory().size() : 0);
-        
+
         Task saved = repo.save(task);
-        logger.debug("Task saved with status history: {} entries", saved.getStatusHistory() != null ? saved.getStatusHistory().size() : 0);
+        repo.flush();
+        dataVersion.changed();
+        if (oldStatus != newStatus) {
+            publish(new TaskEvent.StatusChanged(id, saved.getStatusUpdatedAt(), oldStatus, newStatus,
+                    since, saved.getPriority()));
+        }
+        logger.atDebug().setMessage("updateStatus")
+                .addKeyValue("id", id)
+                .addKeyValue("from", oldStatus)
+                .addKeyValue("to", newStatus)
+                .log();
         return toResponseDTO(saved);
     }
 
     public void delete(UUID id) {
-        if (!repo.existsById(id)) {
-            throw new RuntimeException("Task not found with id: " + id);
+        Optional<Task> task = repo.findById(id);
+        Status status;
+        if (task.isEmpty()) {
+            if (!archive.delete(id)) {
+                throw new RuntimeException("Task not found with id: " + id);
+            }
+            status = Status.COMPLETED;
+        } else {
+            status = task.get().getStatus();
+            repo.delete(task.get());
+        }
+        dataVersion.changed();
+        publish(new TaskEvent.Deleted(id, Instant.now(), status));
+        logger.atDebug().setMessage("delete").addKeyValue("id", id).log();
+    }
+
+    /**
+     * Deletes the tasks {@link #filterTasks} returns for the same filters (without a search
+     * term), with their status history, in set-based statements of up to
+     * {@value #BULK_CHUNK} tasks per transaction. Each task gets a {@link TaskEvent.Deleted}.
+     * An explicit {@code COMPLETED} status also matches completed tasks due before a past
+     * {@code dueDateTo}, which listings hide.
+     *
+     * @return number of tasks deleted
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public long deleteMatching(Status status, Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo) {
+        LocalDate today = status == Status.COMPLETED ? null : LocalDate.now();
+        long deleted = 0;
+        int chunk;
+        UUID[] after = {null};
+        do {
+            chunk = inChunk(() -> {
+                List<Object[]> keys = repo.findBulkKeys(status, priority, dueDateFrom, dueDateTo, today, null,
+                        after[0], Limit.of(BULK_CHUNK));
+                if (keys.isEmpty()) {
+                    return 0;
+                }
+                List<UUID> ids = idsOf(keys);
+                after[0] = ids.get(ids.size() - 1);
+                repo.deleteStatusHistoryByIds(ids);
+                repo.deleteByIds(ids);
+                Instant now = Instant.now();
+                keys.forEach(key -> publish(new TaskEvent.Deleted((UUID) key[0], now, (Status) key[1])));
+                return ids.size();
+            });
+            deleted += chunk;
+        } while (chunk > 0);
+        if (status == Status.COMPLETED) {
+            do {
+                chunk = inChunk(() -> {
+                    List<UUID> ids = archive.deleteMatching(priority, dueDateFrom, dueDateTo, BULK_CHUNK);
+                    Instant now = Instant.now();
+                    ids.forEach(id -> publish(new TaskEvent.Deleted(id, now, Status.COMPLETED)));
+                    return ids.size();
+                });
+                deleted += chunk;
+            } while (chunk > 0);
+        }
+        logger.atInfo().setMessage("deleteMatching")
+                .addKeyValue("status", status)
+                .addKeyValue("priority", priority)
+                .addKeyValue("dueDateFrom", dueDateFrom)
+                .addKeyValue("dueDateTo", dueDateTo)
+                .addKeyValue("deleted", deleted)
+                .log();
+        return deleted;
+    }
+
+    /**
+     * Moves the tasks matched as in {@link #deleteMatching} to {@code newStatus}, appending
+     * a history entry and publishing a {@link TaskEvent.StatusChanged} for each, in
+     * set-based statements of up to {@value #BULK_CHUNK} tasks per transaction. Tasks
+     * already in {@code newStatus} are left alone; archived tasks move back to the hot
+     * table first.
+     *
+     * @return number of tasks changed
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public long updateStatusMatching(Status status, Priority priority, LocalDate dueDateFrom, LocalDate dueDateTo,
+                                     Status newStatus) {
+        LocalDate today = status == Status.COMPLETED ? null : LocalDate.now();
+        long changed = 0;
+        int chunk;
+        if (status == Status.COMPLETED && newStatus != Status.COMPLETED) {
+            do {
+                chunk = inChunk(() -> {
+                    List<UUID> ids = archive.rehydrateMatching(priority, dueDateFrom, dueDateTo, BULK_CHUNK);
+                    return ids.isEmpty() ? 0 : changeStatus(repo.findBulkKeysById(ids), newStatus);
+                });
+                changed += chunk;
+            } while (chunk > 0);
         }
-        repo.deleteById(id);
+        UUID[] after = {null};
+        do {
+            chunk = inChunk(() -> {
+                List<Object[]> keys = repo.findBulkKeys(status, priority, dueDateFrom, dueDateTo, today,
+                        newStatus, after[0], Limit.of(BULK_CHUNK));
+                if (!keys.isEmpty()) {
+                    after[0] = (UUID) keys.get(keys.size() - 1)[0];
+                }
+                return changeStatus(keys, newStatus);
+            });
+            changed += chunk;
+        } while (chunk > 0);
+        logger.atInfo().setMessage("updateStatusMatching")
+                .addKeyValue("status", status)
+                .addKeyValue("priority", priority)
+                .addKeyValue("dueDateFrom", dueDateFrom)
+                .addKeyValue("dueDateTo", dueDateTo)
+                .addKeyValue("newStatus", newStatus)
+                .addKeyValue("changed", changed)
+                .log();
+        return changed;
+    }
+
+    /**
+     * @param keys {@code [id, status, priority, statusUpdatedAt]} of the tasks to change
+     */
+    private int changeStatus(List<Object[]> keys, Status newStatus) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = idsOf(keys);
+        Instant now = Instant.now();
+        repo.updateStatusByIds(ids, newStatus.name(), now);
+        repo.appendStatusHistory(ids, Task.statusHistoryEntry(newStatus, now));
+        for (Object[] key : keys) {
+            publish(new TaskEvent.StatusChanged((UUID) key[0], now, (Status) key[1], newStatus,
+                    (Instant) key[3], (Priority) key[2]));
+        }
+        return ids.size();
+    }
+
+    /**
+     * Runs one chunk of a bulk change in its own transaction.
+     */
+    private int inChunk(Supplier<Integer> chunk) {
+        Integer changed = transactionTemplate.execute(tx -> chunk.get());
+        if (changed != null && changed > 0) {
+            dataVersion.changed();
+            return changed;
+        }
+        return 0;
+    }
+
+    private static List<UUID> idsOf(List<Object[]> keys) {
+        List<UUID> ids = new ArrayList<>(keys.size());
+        for (Object[] key : keys) {
+            ids.add((UUID) key[0]);
+        }
+        return ids;
     }
 
     public List<TaskResponseDTO> filterTasks(Status status, Priority priority, 
                                              LocalDate dueDateFrom, LocalDate dueDateTo, 
                                              String searchTerm, String sortBy, String sortOrder) {
-        logger.debug("filterTasks() called with: status={}, priority={}, dueDateFrom={}, dueDateTo={}, searchTerm={}, sortBy={}, sortOrder={}", 
-                status, priority, dueDateFrom, dueDateTo, searchTerm, sortBy, sortOrder);
         LocalDate today = LocalDate.now();
-        logger.debug("Today's date: {}", today);
-        logger.debug("Checking overdue filter: dueDateTo < today = {}", dueDateTo != null && dueDateTo.isBefore(today));
-        
-        List<Task> tasks = repo.findWithFilters(status, priority, dueDateFrom, dueDateTo, searchTerm, today);
-        logger.debug("Repository returned {} tasks after filtering", tasks.size());
-        
+        List<Task> tasks;
+        if (searchTerm == null && indexReady()) {
+            tasks = findAllInOrder(filterIndex.select(status, priority, dueDateFrom, dueDateTo, today)).stream()
+                    .filter(task -> TaskFilterIndex.matches(task, status, priority, dueDateFrom, dueDateTo, today))
+                    .collect(Collectors.toList());
+        } else {
+            tasks = repo.findWithFilters(status, priority, dueDateFrom, dueDateTo, searchTerm, today);
+        }
+        if (status == Status.COMPLETED) {
+            // Completed tasks may have been archived; only this query needs the cold store
+            tasks = new ArrayList<>(tasks);
+            tasks.addAll(archive.findWithFilters(priority, dueDateFrom, dueDateTo, searchTerm));
+        }
         tasks = applySorting(tasks, sortBy, sortOrder);
-        logger.debug("After sorting: {} tasks", tasks.size());
-        
+
         List<TaskResponseDTO> result = tasks.stream()
                 .map(this::toResponseDTO)
                 .collect(Collectors.toList());
-        logger.debug("Converted to {} DTOs", result.size());
+        logger.atDebug().setMessage("filterTasks")
+                .addKeyValue("status", status)
+                .addKeyValue("priority", priority)
+                .addKeyValue("dueDateFrom", dueDateFrom)
+                .addKeyValue("dueDateTo", dueDateTo)
+                .addKeyValue("searchTerm", searchTerm)
+                .addKeyValue("sortBy", sortBy)
+                .addKeyValue("sortOrder", sortOrder)
+                .addKeyValue("results", result.size())
+                .log();
         return result;
     }
 
+    /**
+     * Streams matching tasks to {@code consumer} as they come off a database cursor,
+     * ordered in SQL, detaching each entity once it has been handed over. Memory use does
+     * not grow with the result size. Completed-task queries also stream the archive,
+     * merged in the same order.
+     */
+    public void streamTasks(Status status, Priority priority,
+                            LocalDate dueDateFrom, LocalDate dueDateTo,
+                            String searchTerm, String sortBy, String sortOrder,
+                            Consumer<TaskResponseDTO> consumer) {
+        boolean unfiltered = status == null && priority == null && dueDateFrom == null
+                && dueDateTo == null && searchTerm == null;
+        Sort sort = sqlSortFor(sortBy, sortOrder, unfiltered);
+        LocalDate today = LocalDate.now();
+        try (Stream<Task> hot = repo.streamWithFilters(status, priority, dueDateFrom, dueDateTo, searchTerm, today, sort)) {
+            if (status != Status.COMPLETED) {
+                hot.forEach(task -> emit(task, consumer));
+                return;
+            }
+            try (Stream<Task> cold = archive.streamWithFilters(priority, dueDateFrom, dueDateTo, searchTerm, sort)) {
+                Comparator<Task> comparator = comparatorFor(sortBy, sortOrder);
+                if (comparator == null) {
+                    Stream.concat(hot, cold).forEach(task -> emit(task, consumer));
+                } else {
+                    mergeSorted(hot.iterator(), cold.iterator(), comparator, task -> emit(task, consumer));
+                }
+            }
+        }
+    }
+
+    private void emit(Task task, Consumer<TaskResponseDTO> consumer) {
+        consumer.accept(toResponseDTO(task));
+        if (entityManager != null && entityManager.contains(task)) {
+            entityManager.detach(task);
+        }
+    }
+
+    private static void mergeSorted(Iterator<Task> left, Iterator<Task> right, Comparator<Task> comparator,
+                                    Consumer<Task> consumer) {
+        Task l = left.hasNext() ? left.next() : null;
+        Task r = right.hasNext() ? right.next() : null;
+        while (l != null || r != null) {
+            if (r == null || (l != null && comparator.compare(l, r) <= 0)) {
+                consumer.accept(l);
+                l = left.hasNext() ? left.next() : null;
+            } else {
+                consumer.accept(r);
+                r = right.hasNext() ? right.next() : null;
+            }
+        }
+    }
+
+    /**
+     * The result of {@link #filterTasks} (or {@link #getAll} without filters) with its
+     * facet counts, tallied over the loaded tasks rather than by further queries.
+     */
+    public TaskListDTO getTasksWithFacets(Status status, Priority priority,
+                                          LocalDate dueDateFrom, LocalDate dueDateTo,
+                                          String searchTerm, String sortBy, String sortOrder) {
+        List<TaskResponseDTO> tasks = status == null && priority == null && dueDateFrom == null
+                && dueDateTo == null && searchTerm == null
+                ? getAll(sortBy, sortOrder)
+                : filterTasks(status, priority, dueDateFrom, dueDateTo, searchTerm, sortBy, sortOrder);
+        return new TaskListDTO(tasks, countFacets(tasks, LocalDate.now()));
+    }
+
+    static TaskFacetsDTO countFacets(List<TaskResponseDTO> tasks, LocalDate today) {
+        long[] statuses = new long[Status.values().length];
+        long[] priorities = new long[Priority.values().length];
+        long[] dueDates = new long[TaskFacetsDTO.DueBucket.values().length];
+        LocalDate nextWeek = today.plusDays(7);
+        for (TaskResponseDTO task : tasks) {
+            if (task.getStatus() != null) {
+                statuses[task.getStatus().ordinal()]++;
+            }
+            if (task.getPriority() != null) {
+                priorities[task.getPriority().ordinal()]++;
+            }
+            LocalDate due = task.getDueDate();
+            TaskFacetsDTO.DueBucket bucket = due == null ? TaskFacetsDTO.DueBucket.NONE
+                    : due.isBefore(today) ? TaskFacetsDTO.DueBucket.PAST
+                    : due.isEqual(today) ? TaskFacetsDTO.DueBucket.TODAY
+                    : due.isAfter(nextWeek) ? TaskFacetsDTO.DueBucket.LATER
+                    : TaskFacetsDTO.DueBucket.NEXT_7_DAYS;
+            dueDates[bucket.ordinal()]++;
+        }
+        return new TaskFacetsDTO(toMap(Status.class, statuses), toMap(Priority.class, priorities),
+                toMap(TaskFacetsDTO.DueBucket.class, dueDates));
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> toMap(Class<E> type, long[] counts) {
+        Map<E, Long> map = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            map.put(value, counts[value.ordinal()]);
+        }
+        return map;
+    }
+
     public TaskStatsDTO getStatistics() {
-        logger.debug("getStatistics() called");
+        if (indexReady()) {
+            long archivedTasks = archive.count();
+            return new TaskStatsDTO(filterIndex.count(Status.OPEN), filterIndex.count(Status.IN_PROGRESS),
+                    filterIndex.count(Status.COMPLETED) + archivedTasks, filterIndex.countOverdue(LocalDate.now()),
+                    filterIndex.size() + archivedTasks);
+        }
         long openTasks = repo.countByStatus(Status.OPEN);
         long inProgressTasks = repo.countByStatus(Status.IN_PROGRESS);
-        long completedTasks = repo.countByStatus(Status.COMPLETED);
+        long archivedTasks = archive.count();
+        long completedTasks = repo.countByStatus(Status.COMPLETED) + archivedTasks;
         long overdueTasks = repo.countOverdueTasks(LocalDate.now());
-        long totalTasks = repo.count();
-        
-        logger.debug("Statistics calculated - Total: {}, Open: {}, InProgress: {}, Completed: {}, Overdue: {}", 
-                totalTasks, openTasks, inProgressTasks, completedTasks, overdueTasks);
+        long totalTasks = repo.count() + archivedTasks;
 
         return new TaskStatsDTO(openTasks, inProgressTasks, completedTasks, overdueTasks, totalTasks);
     }
 
+    /**
+     * Tasks per status, archived ones counted as completed. Always read from the database,
+     * so the counts belong to the caller's transaction.
+     */
+    public Map<Status, Long> countByStatus() {
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, repo.countByStatus(status));
+        }
+        counts.merge(Status.COMPLETED, archive.count(), Long::sum);
+        return counts;
+    }
+
     public List<TaskResponseDTO> getOverdueTasks() {
-        List<Task> overdueTasks = repo.findByDueDateBefore(LocalDate.now());
+        LocalDate today = LocalDate.now();
+        List<Task> overdueTasks = indexReady()
+                ? findAllInOrder(filterIndex.overdue(today))
+                : repo.findByDueDateBefore(today);
         return overdueTasks.stream()
                 .filter(task -> task.getStatus() != Status.COMPLETED)
+                .filter(task -> task.getDueDate() != null && task.getDueDate().isBefore(today))
                 .map(this::toResponseDTO)
                 .collect(Collectors.toList());
     }
@@ -158,21 +615,111 @@ public class TaskService {
         return filterTasks(null, null, today, today, null, null, null);
     }
 
+    /**
+     * Current status of each task in {@code ids} that is in the hot table. Archived
+     * tasks, which are all completed, and deleted ones are left out.
+     */
+    public Map<UUID, Status> findStatuses(Collection<UUID> ids) {
+        List<UUID> list = new ArrayList<>(ids);
+        Map<UUID, Status> statuses = new HashMap<>(list.size() * 2);
+        for (int from = 0; from < list.size(); from += FETCH_CHUNK) {
+            for (Object[] key : repo.findBulkKeysById(list.subList(from, Math.min(from + FETCH_CHUNK, list.size())))) {
+                statuses.put((UUID) key[0], (Status) key[1]);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * The filter index covers the default database only; project shards are queried.
+     */
+    private boolean indexReady() {
+        return filterIndex != null && filterIndex.isReady() && ProjectContext.current() == null;
+    }
+
+    /**
+     * Loads tasks by primary key in chunks, in the order of {@code ids}. Ids that no
+     * longer exist are skipped.
+     */
+    private List<Task> findAllInOrder(List<UUID> ids) {
+        Map<UUID, Task> found = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += FETCH_CHUNK) {
+            repo.findAllById(ids.subList(from, Math.min(from + FETCH_CHUNK, ids.size())))
+                    .forEach(task -> found.put(task.getId(), task));
+        }
+        List<Task> tasks = new ArrayList<>(found.size());
+        for (UUID id : ids) {
+            Task task = found.get(id);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Marks task data as changed, invalidating anything derived from it.
+     */
+    protected void dataChanged() {
+        dataVersion.changed();
+    }
+
+    /**
+     * Publishes a change event; it is written to the outbox within the current
+     * transaction and delivered to consumers once that commits. Events of a project go to
+     * the outbox and flow buckets of its shard; the in-memory consumers, which follow the
+     * default database, skip them.
+     */
+    protected void publish(TaskEvent event) {
+        events.publishEvent(event);
+    }
+
+    /**
+     * Rejects the write when the client's copy of the task is stale. Concurrent writers
+     * that pass this check are still caught by {@code @Version} when the update is flushed.
+     */
+    protected static void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != task.getVersion()) {
+            throw new OptimisticLockingFailureException("Task " + task.getId() + " is at version "
+                    + task.getVersion() + ", expected " + expectedVersion);
+        }
+    }
+
+    /**
+     * Looks the task up in the hot table and, failing that, moves it back from the
+     * archive so that edits and status changes apply to a live row.
+     */
+    private Optional<Task> findHotOrRehydrate(UUID id) {
+        Optional<Task> task = repo.findById(id);
+        if (task.isPresent() || !archive.rehydrate(id)) {
+            return task;
+        }
+        return repo.findById(id);
+    }
+
     private List<Task> applySorting(List<Task> tasks, String sortBy, String sortOrder) {
-        logger.debug("applySorting() called with sortBy={}, sortOrder={}, tasks count={}", sortBy, sortOrder, tasks.size());
-        
-        if (sortBy == null || sortBy.isEmpty()) {
-            logger.debug("No sorting applied - using default order");
+        Comparator<Task> comparator = comparatorFor(sortBy, sortOrder);
+        if (comparator == null) {
             return tasks;
         }
+        return tasks.stream()
+                .sorted(comparator)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * In-memory ordering for {@code sortBy}, or {@code null} to keep the query order.
+     */
+    protected Comparator<Task> comparatorFor(String sortBy, String sortOrder) {
+        if (sortBy == null || sortBy.isEmpty()) {
+            return null;
+        }
 
         boolean ascending = sortOrder == null || !sortOrder.equalsIgnoreCase("DESC");
-        logger.debug("Sort order: {}", ascending ? "ASC" : "DESC");
-        Comparator<Task> comparator = null;
+        Comparator<Task> comparator;
 
         switch (sortBy.toLowerCase()) {
             case "priority":
-                logger.debug("Sorting by Priority");
                 comparator = Comparator.comparing((Task t) -> {
                     if (t.getPriority() == null) return 4;
                     return switch (t.getPriority()) {
@@ -185,7 +732,6 @@ public class TaskService {
                 break;
 
             case "duedate":
-                logger.debug("Sorting by Due Date");
                 comparator = Comparator.comparing(
                     (Task t) -> t.getDueDate() == null ? LocalDate.MAX : t.getDueDate(),
                     ascending ? Comparator.naturalOrder() : Comparator.reverseOrder()
@@ -193,15 +739,13 @@ public class TaskService {
                 break;
 
             case "title":
-                logger.debug("Sorting by Title");
                 comparator = Comparator.comparing(
-                    (Task t) -> t.getTitle() == null ? "" : t.getTitle().toLowerCase(),
-                    ascending ? Comparator.naturalOrder() : Comparator.reverseOrder()
+                    Task::getTitleKey,
+                    ascending ? Task.TITLE_KEY_ORDER : Task.TITLE_KEY_ORDER.reversed()
                 );
                 break;
 
             case "createdat":
-                logger.debug("Sorting by Created Date");
                 comparator = Comparator.comparing(
                     (Task t) -> t.getCreatedAt() == null ? Instant.MIN : t.getCreatedAt(),
                     ascending ? Comparator.naturalOrder() : Comparator.reverseOrder()
@@ -210,17 +754,36 @@ public class TaskService {
 
             default:
                 logger.warn("Unknown sortBy value: {}, using default order", sortBy);
-                return tasks;
+                return null;
         }
+        return comparator;
+    }
 
-        List<Task> sorted = tasks.stream()
-                .sorted(comparator)
-                .collect(Collectors.toList());
-        logger.debug("Sorting completed - {} tasks sorted", sorted.size());
-        return sorted;
+    /**
+     * The ordering of {@link #comparatorFor} expressed as ORDER BY terms, so a cursor
+     * returns rows already sorted. {@code unfiltered} falls back to the order of
+     * {@link TaskRepository#findAllByOrderByPriorityDescDueDateAsc()}.
+     */
+    private Sort sqlSortFor(String sortBy, String sortOrder, boolean unfiltered) {
+        Sort fallback = unfiltered ? Sort.by(Sort.Order.desc("priority"), Sort.Order.asc("dueDate")) : Sort.unsorted();
+        if (sortBy == null || sortBy.isEmpty()) {
+            return fallback;
+        }
+        Sort.Direction direction = sortOrder == null || !sortOrder.equalsIgnoreCase("DESC")
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return switch (sortBy.toLowerCase()) {
+            case "priority" -> JpaSort.unsafe(direction,
+                    "CASE t.priority WHEN 'HIGH' THEN 1 WHEN 'MEDIUM' THEN 2 WHEN 'LOW' THEN 3 ELSE 4 END");
+            case "duedate" -> JpaSort.unsafe(direction,
+                    "CASE WHEN t.dueDate IS NULL THEN 1 ELSE 0 END", "t.dueDate");
+            case "title" -> Sort.by(direction, "titleKey");
+            case "createdat" -> JpaSort.unsafe(direction,
+                    "CASE WHEN t.createdAt IS NULL THEN 0 ELSE 1 END", "t.createdAt");
+            default -> fallback;
+        };
     }
 
-    private TaskResponseDTO toResponseDTO(Task task) {
+    protected TaskResponseDTO toResponseDTO(Task task) {
         TaskResponseDTO dto = new TaskResponseDTO();
         dto.setId(task.getId());
         dto.setTitle(task.getTitle());
@@ -230,6 +793,7 @@ public class TaskService {
         dto.setStatus(task.getStatus());
         dto.setCreatedAt(task.getCreatedAt());
         dto.setStatusUpdatedAt(task.getStatusUpdatedAt());
+        dto.setVersion(task.getVersion());
         
         // Parse status history
         List<StatusChangeDTO> history = null;
@@ -237,7 +801,6 @@ public class TaskService {
             history = task.getStatusHistory().stream()
                     .map(this::parseStatusHistoryEntry)
                     .collect(Collectors.toList());
-            logger.debug("Parsed {} status history entries for task {}", history.size(), task.getId());
         }
         dto.setStatusHistory(history);
         
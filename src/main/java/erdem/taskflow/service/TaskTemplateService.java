@@ -0,0 +1,205 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.dto.TaskTemplateDTO;
+import erdem.taskflow.dto.TaskTemplateRequestDTO;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Recurrence;
+import erdem.taskflow.model.TaskTemplate;
+import erdem.taskflow.repository.TaskTemplateRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring task templates and the generator that turns their occurrences into tasks
+ * ahead of time. Every {@code taskflow.templates.interval} the generator creates the
+ * tasks of all occurrences up to {@code taskflow.templates.lookahead} from today:
+ * <ul>
+ *   <li>Due templates are found through the {@code next_fire_date} index, so a run costs
+ *       the templates with work to do, not the number of templates.</li>
+ *   <li>Up to {@code taskflow.templates.batch-size} tasks are created per transaction,
+ *       with batched inserts, and the templates' next fire dates advance in the same
+ *       transaction. A crash either keeps both or neither, so no occurrence is created
+ *       twice or skipped.</li>
+ *   <li>Occurrences missed while the service was down are created on the next run,
+ *       oldest first, with their original due dates.</li>
+ * </ul>
+ */
+@Service
+@Transactional
+public class TaskTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskTemplateService.class);
+
+    private final TaskTemplateRepository repo;
+    private final TaskService taskService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration lookahead;
+    private final int batchSize;
+
+    public TaskTemplateService(TaskTemplateRepository repo,
+                               TaskService taskService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${taskflow.templates.enabled:true}") boolean enabled,
+                               @Value("${taskflow.templates.lookahead:P14D}") Duration lookahead,
+                               @Value("${taskflow.templates.batch-size:500}") int batchSize) {
+        this.repo = repo;
+        this.taskService = taskService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.lookahead = lookahead;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<TaskTemplateDTO> getAll() {
+        return repo.findAllByOrderByCreatedAtAsc().stream()
+                .map(TaskTemplateService::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public TaskTemplateDTO getById(UUID id) {
+        return repo.findById(id)
+                .map(TaskTemplateService::toDTO)
+                .orElseThrow(() -> new RuntimeException("Template not found with id: " + id));
+    }
+
+    /**
+     * Saves the template and creates the tasks of its first occurrences within the
+     * lookahead (at most one batch; a long catch-up is left to the generator).
+     *
+     * @throws IllegalArgumentException if the recurrence rule is invalid
+     */
+    public TaskTemplateDTO create(TaskTemplateRequestDTO requestDTO) {
+        Recurrence recurrence = Recurrence.parse(requestDTO.getRecurrence());
+        TaskTemplate template = new TaskTemplate();
+        template.setTitle(requestDTO.getTitle());
+        template.setDescription(requestDTO.getDescription());
+        template.setPriority(requestDTO.getPriority() != null ? requestDTO.getPriority() : Priority.MEDIUM);
+        template.setRecurrence(requestDTO.getRecurrence());
+        template.setStartDate(requestDTO.getStartDate());
+        template.setDueOffsetDays(requestDTO.getDueOffsetDays());
+        template.setNextFireDate(recurrence.next(requestDTO.getStartDate(), requestDTO.getStartDate()));
+        template.setCreatedAt(Instant.now());
+        List<TaskRequestDTO> requests = new ArrayList<>();
+        materialize(template, recurrence, horizon(LocalDate.now()), batchSize, requests);
+        TaskTemplate saved = repo.save(template);
+        taskService.createAll(requests);
+        logger.atInfo().setMessage("Created task template")
+                .addKeyValue("id", saved.getId())
+                .addKeyValue("recurrence", saved.getRecurrence())
+                .addKeyValue("tasks", requests.size())
+                .log();
+        return toDTO(saved);
+    }
+
+    /**
+     * Stops the series. Tasks already created are kept.
+     */
+    public void delete(UUID id) {
+        TaskTemplate template = repo.findById(id)
+                .orElseThrow(() -> new RuntimeException("Template not found with id: " + id));
+        repo.delete(template);
+    }
+
+    @Scheduled(fixedDelayString = "${taskflow.templates.interval:PT1H}",
+               initialDelayString = "${taskflow.templates.initial-delay:PT1M}")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void generateScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            generate(LocalDate.now());
+        } catch (OptimisticLockingFailureException e) {
+            logger.atWarn().setMessage("Template generation raced another run, retrying next interval")
+                    .addKeyValue("error", e.getMessage())
+                    .log();
+        }
+    }
+
+    /**
+     * Creates the tasks of every occurrence up to the lookahead from {@code today} that
+     * has none yet, one transaction per batch.
+     *
+     * @return number of tasks created
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public int generate(LocalDate today) {
+        LocalDate horizon = horizon(today);
+        int total = 0;
+        while (true) {
+            Integer created = transactionTemplate.execute(status -> {
+                List<TaskRequestDTO> requests = new ArrayList<>();
+                for (TaskTemplate template : repo.findDue(horizon, Limit.of(batchSize))) {
+                    if (requests.size() >= batchSize) {
+                        break;
+                    }
+                    materialize(template, Recurrence.parse(template.getRecurrence()), horizon,
+                            batchSize - requests.size(), requests);
+                }
+                taskService.createAll(requests);
+                return requests.size();
+            });
+            if (created == null || created == 0) {
+                break;
+            }
+            total += created;
+        }
+        if (total > 0) {
+            logger.atInfo().setMessage("Generated tasks from templates")
+                    .addKeyValue("tasks", total)
+                    .addKeyValue("horizon", horizon)
+                    .log();
+        }
+        return total;
+    }
+
+    /**
+     * Adds a task request for each occurrence of the template from its next fire date up
+     * to {@code horizon}, at most {@code limit}, and advances the next fire date past them.
+     */
+    private static void materialize(TaskTemplate template, Recurrence recurrence, LocalDate horizon, int limit,
+                                    List<TaskRequestDTO> requests) {
+        LocalDate occurrence = template.getNextFireDate();
+        int added = 0;
+        while (occurrence != null && !occurrence.isAfter(horizon) && added < limit) {
+            requests.add(new TaskRequestDTO(template.getTitle(), template.getDescription(), template.getPriority(),
+                    occurrence.plusDays(template.getDueOffsetDays())));
+            added++;
+            occurrence = recurrence.next(template.getStartDate(), occurrence.plusDays(1));
+        }
+        template.setNextFireDate(occurrence);
+    }
+
+    private LocalDate horizon(LocalDate today) {
+        return today.plusDays(lookahead.toDays());
+    }
+
+    private static TaskTemplateDTO toDTO(TaskTemplate template) {
+        return new TaskTemplateDTO(template.getId(), template.getTitle(), template.getDescription(),
+                template.getPriority(), template.getRecurrence(), template.getStartDate(),
+                template.getDueOffsetDays(), template.getNextFireDate(), template.getCreatedAt(),
+                template.getVersion());
+    }
+}
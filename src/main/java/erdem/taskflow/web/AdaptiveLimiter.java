@@ -0,0 +1,217 @@
+package erdem.taskflow.web;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit with a bounded FIFO wait queue. Callers beyond the limit wait up to
+ * {@code maxWait}; once {@code maxQueue} callers are waiting, new ones are rejected
+ * immediately.
+ * <p>
+ * An adaptive limiter adjusts its limit from observed latency, TCP Vegas style: the
+ * fastest round trip seen is taken as the no-load latency, and
+ * {@code limit * (1 - noLoad / sample)} estimates how many of the in-flight calls are
+ * only queueing inside the service. While that estimate is small the limit grows (fast
+ * when there is no queueing at all, and only when the limit is actually in use); above
+ * {@code 6 * log10(limit)} it shrinks. The no-load latency is re-measured every
+ * {@code 30 * maxLimit} samples so that it follows lasting changes such as data growth.
+ */
+public class AdaptiveLimiter {
+
+    private static final int PROBE_MULTIPLIER = 30;
+
+    /**
+     * Thrown when a caller is not admitted. Preallocated and stackless, so rejecting
+     * under overload costs next to nothing.
+     */
+    public static final class RejectedException extends Exception {
+
+        private final boolean timedOut;
+
+        private RejectedException(String message, boolean timedOut) {
+            super(message, null, false, false);
+            this.timedOut = timedOut;
+        }
+
+        /**
+         * {@code true} if the caller waited {@code maxWait} in vain, {@code false} if the
+         * queue was full.
+         */
+        public boolean timedOut() {
+            return timedOut;
+        }
+    }
+
+    /**
+     * An admitted call. Exactly one of {@link #release()} or {@link #abandon()} must be called.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private boolean done;
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Ends the call and feeds its latency to the limit.
+         */
+        public void release() {
+            finish(this, true);
+        }
+
+        /**
+         * Ends the call without a latency sample (it failed or was rejected elsewhere).
+         */
+        public void abandon() {
+            finish(this, false);
+        }
+    }
+
+    private final String name;
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+    private final RejectedException queueFull;
+    private final RejectedException timedOut;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long noLoadRtt;
+    private long samples;
+
+    public AdaptiveLimiter(String name, boolean adaptive, int minLimit, int maxLimit, int maxQueue, Duration maxWait) {
+        this(name, adaptive, minLimit, maxLimit, maxQueue, maxWait, System::nanoTime);
+    }
+
+    AdaptiveLimiter(String name, boolean adaptive, int minLimit, int maxLimit, int maxQueue, Duration maxWait,
+                    LongSupplier nanoClock) {
+        this.name = name;
+        this.adaptive = adaptive;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.nanoClock = nanoClock;
+        this.limit = this.maxLimit;
+        this.queueFull = new RejectedException(name + ": queue full", false);
+        this.timedOut = new RejectedException(name + ": timed out waiting", true);
+    }
+
+    public Permit acquire() throws RejectedException, InterruptedException {
+        lock.lock();
+        try {
+            if (queued > 0 || inFlight >= currentLimit()) {
+                if (queued >= maxQueue) {
+                    throw queueFull;
+                }
+                queued++;
+                try {
+                    long remaining = maxWaitNanos;
+                    while (inFlight >= currentLimit()) {
+                        if (remaining <= 0) {
+                            throw timedOut;
+                        }
+                        remaining = available.awaitNanos(remaining);
+                    }
+                } finally {
+                    queued--;
+                }
+            }
+            inFlight++;
+            return new Permit(nanoClock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private void finish(Permit permit, boolean sample) {
+        long rtt = nanoClock.getAsLong() - permit.startNanos;
+        lock.lock();
+        try {
+            if (permit.done) {
+                return;
+            }
+            permit.done = true;
+            int before = currentLimit();
+            if (adaptive && sample) {
+                update(rtt, inFlight);
+            }
+            inFlight--;
+            if (currentLimit() > before) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rtt, int concurrent) {
+        if (++samples % ((long) PROBE_MULTIPLIER * maxLimit) == 0) {
+            noLoadRtt = 0;
+        }
+        if (noLoadRtt == 0 || rtt < noLoadRtt) {
+            noLoadRtt = Math.max(1, rtt);
+            return;
+        }
+        double log = Math.max(1, Math.log10(limit));
+        double queue = Math.ceil(limit * (1 - (double) noLoadRtt / rtt));
+        double next = limit;
+        if (queue > 6 * log) {
+            next = limit - log;
+        } else if (concurrent >= limit / 2) {
+            if (queue <= log) {
+                next = limit + 6 * log;
+            } else if (queue < 3 * log) {
+                next = limit + log;
+            }
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
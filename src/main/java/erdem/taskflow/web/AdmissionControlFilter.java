@@ -0,0 +1,326 @@
+package erdem.taskflow.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admission control for {@code /api/tasks} and its project-scoped form
+ * {@code /api/projects/{project}/tasks}, which share the limits. Every request is classified into an
+ * {@link Endpoint}, which has its own adaptive concurrency limit and wait queue, and
+ * each endpoint belongs to one of three fixed-size bulkheads:
+ * <ul>
+ *   <li>{@code read}: lookups by id, statistics and selective (indexed) filters,</li>
+ *   <li>{@code write}: single-task create, update, status change and delete,</li>
+ *   <li>{@code bulk}: unfiltered or search-only lists, NDJSON streams and anything
+ *       operating on many tasks at once.</li>
+ * </ul>
+ * An overloaded bulk endpoint therefore queues and sheds its own requests, while
+ * {@code GET /api/tasks/{id}} and status updates keep their latency. A full queue is
+ * answered with 429 right away, a request that waited {@code max-wait} in vain with 503;
+ * both carry {@code Retry-After}.
+ * <p>
+ * Runs after the response cache, so cache hits are never held back.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    static final String PATH = "/api/tasks";
+    private static final String PROJECTS = "/api/projects/";
+    private static final String TASKS = "/tasks";
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String[] SELECTIVE_PARAMS = {"status", "priority", "dueDateFrom", "dueDateTo"};
+
+    enum Bulkhead {
+        READ, WRITE, BULK
+    }
+
+    enum Endpoint {
+        GET(Bulkhead.READ),
+        STATS(Bulkhead.READ),
+        QUERY(Bulkhead.READ),
+        LIST(Bulkhead.BULK),
+        STREAM(Bulkhead.BULK),
+        CREATE(Bulkhead.WRITE),
+        UPDATE(Bulkhead.WRITE),
+        DELETE(Bulkhead.WRITE),
+        BATCH(Bulkhead.BULK);
+
+        final Bulkhead bulkhead;
+
+        Endpoint(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+    }
+
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final Map<Bulkhead, AdaptiveLimiter> bulkheads = new EnumMap<>(Bulkhead.class);
+    private final Map<Endpoint, AdaptiveLimiter> endpoints = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> queueFull = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> timedOut = new EnumMap<>(Endpoint.class);
+
+    public AdmissionControlFilter(MeterRegistry registry,
+                                  @Value("${taskflow.admission.enabled:true}") boolean enabled,
+                                  @Value("${taskflow.admission.read.max-concurrent:64}") int readLimit,
+                                  @Value("${taskflow.admission.write.max-concurrent:8}") int writeLimit,
+                                  @Value("${taskflow.admission.bulk.max-concurrent:4}") int bulkLimit,
+                                  @Value("${taskflow.admission.max-queue:50}") int maxQueue,
+                                  @Value("${taskflow.admission.max-wait:1s}") Duration maxWait) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = Math.max(1, maxWait.toSeconds());
+        Map<Bulkhead, Integer> limits = Map.of(Bulkhead.READ, readLimit, Bulkhead.WRITE, writeLimit, Bulkhead.BULK, bulkLimit);
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            int limit = limits.get(bulkhead);
+            AdaptiveLimiter limiter = new AdaptiveLimiter(name(bulkhead), false, limit, limit, maxQueue, maxWait);
+            bulkheads.put(bulkhead, limiter);
+            register(registry, "taskflow.admission.bulkhead", "bulkhead", limiter);
+        }
+        for (Endpoint endpoint : Endpoint.values()) {
+            int limit = limits.get(endpoint.bulkhead);
+            AdaptiveLimiter limiter = new AdaptiveLimiter(name(endpoint), true, 1, limit, maxQueue, maxWait);
+            endpoints.put(endpoint, limiter);
+            register(registry, "taskflow.admission.endpoint", "endpoint", limiter);
+            queueFull.put(endpoint, rejections(registry, endpoint, "queue_full"));
+            timedOut.put(endpoint, rejections(registry, endpoint, "timeout"));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || taskPath(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Endpoint endpoint = classify(request);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveLimiter.Permit endpointPermit;
+        AdaptiveLimiter.Permit bulkheadPermit;
+        try {
+            endpointPermit = endpoints.get(endpoint).acquire();
+            try {
+                bulkheadPermit = bulkheads.get(endpoint.bulkhead).acquire();
+            } catch (AdaptiveLimiter.RejectedException | InterruptedException e) {
+                endpointPermit.abandon();
+                throw e;
+            }
+        } catch (AdaptiveLimiter.RejectedException e) {
+            reject(response, endpoint, e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        boolean async = false;
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+            if (request.isAsyncStarted()) {
+                // Streaming responses hold their permits until the body is written
+                request.getAsyncContext().addListener(new ReleasingListener(endpointPermit, bulkheadPermit));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                release(endpointPermit, bulkheadPermit, completed && response.getStatus() < 500);
+            }
+        }
+    }
+
+    /**
+     * Maps a request to its endpoint, or {@code null} for paths outside the task API.
+     */
+    static Endpoint classify(HttpServletRequest request) {
+        String rest = taskPath(request.getRequestURI());
+        if (rest == null) {
+            return null;
+        }
+        if (rest.endsWith("/")) {
+            rest = rest.substring(0, rest.length() - 1);
+        }
+        if (!rest.isEmpty() && !rest.startsWith("/")) {
+            return null;
+        }
+        int segments = rest.isEmpty() ? 0 : rest.substring(1).split("/").length;
+        switch (request.getMethod()) {
+            case "GET":
+                if (segments == 0) {
+                    if (acceptsNdjson(request)) {
+                        return Endpoint.STREAM;
+                    }
+                    return isSelective(request) ? Endpoint.QUERY : Endpoint.LIST;
+                }
+                if (rest.equals("/stats")) {
+                    return Endpoint.STATS;
+                }
+                if (rest.equals("/ready") || rest.equals("/plan")) {
+                    return Endpoint.LIST;
+                }
+                return segments == 1 || (segments == 2 && rest.endsWith("/dependencies")) ? Endpoint.GET : Endpoint.BATCH;
+            case "POST":
+                return segments == 0 ? Endpoint.CREATE : Endpoint.BATCH;
+            case "PUT":
+            case "PATCH":
+                return segments == 1 || (segments == 2 && rest.endsWith("/status")) || isDependency(rest, segments)
+                        ? Endpoint.UPDATE : Endpoint.BATCH;
+            case "DELETE":
+                if (isDependency(rest, segments)) {
+                    return Endpoint.UPDATE;
+                }
+                return segments == 1 ? Endpoint.DELETE : Endpoint.BATCH;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * The part of a task API path after {@code /tasks}, for both the default and the
+     * project-scoped form, or {@code null} for other paths.
+     */
+    private static String taskPath(String uri) {
+        if (uri.startsWith(PATH)) {
+            return uri.substring(PATH.length());
+        }
+        if (!uri.startsWith(PROJECTS)) {
+            return null;
+        }
+        int slash = uri.indexOf('/', PROJECTS.length());
+        return slash > PROJECTS.length() && uri.startsWith(TASKS, slash)
+                ? uri.substring(slash + TASKS.length()) : null;
+    }
+
+    /**
+     * {@code /{id}/dependencies/{dependsOnId}}: a single edge of the dependency graph.
+     */
+    private static boolean isDependency(String rest, int segments) {
+        return segments == 3 && rest.contains("/dependencies/");
+    }
+
+    AdaptiveLimiter endpointLimiter(Endpoint endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    private void reject(HttpServletResponse response, Endpoint endpoint, AdaptiveLimiter.RejectedException e)
+            throws IOException {
+        (e.timedOut() ? timedOut : queueFull).get(endpoint).increment();
+        logger.atDebug()
+                .setMessage("Request rejected by admission control")
+                .addKeyValue("endpoint", name(endpoint))
+                .addKeyValue("reason", e.getMessage())
+                .log();
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(e.timedOut() ? HttpServletResponse.SC_SERVICE_UNAVAILABLE : 429);
+    }
+
+    private static void release(AdaptiveLimiter.Permit endpointPermit, AdaptiveLimiter.Permit bulkheadPermit,
+                                boolean success) {
+        bulkheadPermit.release();
+        if (success) {
+            endpointPermit.release();
+        } else {
+            endpointPermit.abandon();
+        }
+    }
+
+    private static boolean isSelective(HttpServletRequest request) {
+        for (String param : SELECTIVE_PARAMS) {
+            String value = request.getParameter(param);
+            if (value != null && !value.isBlank()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsNdjson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(APPLICATION_NDJSON::equalsTypeAndSubtype);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String name(Enum<?> value) {
+        return value.name().toLowerCase();
+    }
+
+    private static void register(MeterRegistry registry, String prefix, String tag, AdaptiveLimiter limiter) {
+        Gauge.builder(prefix + ".limit", limiter, AdaptiveLimiter::limit).tag(tag, limiter.name()).register(registry);
+        Gauge.builder(prefix + ".in-flight", limiter, AdaptiveLimiter::inFlight).tag(tag, limiter.name()).register(registry);
+        Gauge.builder(prefix + ".queued", limiter, AdaptiveLimiter::queued).tag(tag, limiter.name()).register(registry);
+    }
+
+    private static Counter rejections(MeterRegistry registry, Endpoint endpoint, String reason) {
+        return Counter.builder("taskflow.admission.rejected")
+                .tag("endpoint", name(endpoint))
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static final class ReleasingListener implements AsyncListener {
+
+        private final AdaptiveLimiter.Permit endpointPermit;
+        private final AdaptiveLimiter.Permit bulkheadPermit;
+
+        ReleasingListener(AdaptiveLimiter.Permit endpointPermit, AdaptiveLimiter.Permit bulkheadPermit) {
+            this.endpointPermit = endpointPermit;
+            this.bulkheadPermit = bulkheadPermit;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(endpointPermit, bulkheadPermit, true);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(endpointPermit, bulkheadPermit, false);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(endpointPermit, bulkheadPermit, false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
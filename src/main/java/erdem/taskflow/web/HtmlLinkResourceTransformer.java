@@ -0,0 +1,44 @@
+package erdem.taskflow.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+import org.springframework.web.servlet.resource.ResourceTransformerSupport;
+import org.springframework.web.servlet.resource.TransformedResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites {@code src} and {@code href} attributes pointing at {@code /js/} or
+ * {@code /css/} in HTML pages to their content-hashed URLs (e.g.
+ * {@code /js/app-3f2a....js}), so the assets themselves can be cached indefinitely.
+ * Links that do not resolve to a versioned resource are left as they are.
+ */
+public class HtmlLinkResourceTransformer extends ResourceTransformerSupport {
+
+    private static final Pattern LINK = Pattern.compile("(\\s(?:src|href)=\")(/(?:js|css)/[^\"?#]+)(\")");
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource, ResourceTransformerChain chain)
+            throws IOException {
+        resource = chain.transform(request, resource);
+        String filename = resource.getFilename();
+        if (filename == null || !filename.endsWith(".html")) {
+            return resource;
+        }
+
+        String html = resource.getContentAsString(StandardCharsets.UTF_8);
+        Matcher matcher = LINK.matcher(html);
+        StringBuilder result = new StringBuilder(html.length() + 256);
+        while (matcher.find()) {
+            String url = resolveUrlPath(matcher.group(2), request, resource, chain);
+            String replacement = matcher.group(1) + (url != null ? url : matcher.group(2)) + matcher.group(3);
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return new TransformedResource(resource, result.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,203 @@
+package erdem.taskflow.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records request and response body sizes for {@code /api/**} as distribution summaries.
+ * Response bytes are counted as they pass through, so nothing is buffered.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100) // outside ResponseCacheFilter, so cache hits are counted
+public class PayloadSizeMetricsFilter extends OncePerRequestFilter {
+
+    static final String METRIC_NAME = "taskflow.http.payload";
+
+    private final MeterRegistry registry;
+    /** Registered summaries, so a request only does a map lookup per size it records. */
+    private final Map<Key, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    private record Key(String direction, String method, String uri) {
+    }
+
+    public PayloadSizeMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingResponseWrapper counting = new CountingResponseWrapper(response);
+        boolean async = false;
+        try {
+            chain.doFilter(request, counting);
+            if (request.isAsyncStarted()) {
+                // Streaming responses are written after this returns; count them once complete
+                request.getAsyncContext().addListener(new RecordingListener(request, counting));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                record(request, counting);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, CountingResponseWrapper counting) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        long requestBytes = request.getContentLengthLong();
+        if (requestBytes > 0) {
+            summary("request", request.getMethod(), uri).record(requestBytes);
+        }
+        summary("response", request.getMethod(), uri).record(counting.getByteCount());
+    }
+
+    private DistributionSummary summary(String direction, String method, String uri) {
+        return summaries.computeIfAbsent(new Key(direction, method, uri), key -> DistributionSummary.builder(METRIC_NAME)
+                .baseUnit("bytes")
+                .description("HTTP payload size for the task API")
+                .tag("direction", key.direction())
+                .tag("method", key.method())
+                .tag("uri", key.uri())
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private final class RecordingListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final CountingResponseWrapper counting;
+
+        RecordingListener(HttpServletRequest request, CountingResponseWrapper counting) {
+            this.request = request;
+            this.counting = counting;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, counting);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private static final class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+        private CountingOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+
+        long getByteCount() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return outputStream != null ? outputStream.count : 0;
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
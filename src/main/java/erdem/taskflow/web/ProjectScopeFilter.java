@@ -0,0 +1,64 @@
+package erdem.taskflow.web;
+
+import erdem.taskflow.project.ProjectContext;
+import erdem.taskflow.project.ProjectShards;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the project of {@code /api/projects/{project}/...} requests to the request
+ * thread, so everything the task API does for them runs against that project's shard.
+ * Unknown projects get 404, as does every such request when projects are disabled.
+ * Requests on {@code /api/projects} itself pass through unbound.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ProjectScopeFilter extends OncePerRequestFilter {
+
+    static final String PREFIX = "/api/projects/";
+
+    private final ProjectShards shards;
+    private final boolean enabled;
+
+    public ProjectScopeFilter(ProjectShards shards,
+                              @Value("${taskflow.projects.enabled:true}") boolean enabled) {
+        this.shards = shards;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String rest = request.getRequestURI().substring(PREFIX.length());
+        int slash = rest.indexOf('/');
+        if (slash < 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String project = rest.substring(0, slash);
+        if (!enabled || !shards.exists(project)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        ProjectContext.set(project);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ProjectContext.clear();
+        }
+    }
+}
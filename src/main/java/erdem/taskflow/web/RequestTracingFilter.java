@@ -0,0 +1,73 @@
+package erdem.taskflow.web;
+
+import erdem.taskflow.logging.SampledTraceTurboFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Assigns every request a correlation id, exposes it to log patterns through the MDC
+ * and echoes it in the response. The caller's {@code X-Request-Id} is kept when it is
+ * up to 64 letters, digits, dots, dashes and underscores.
+ * A configurable fraction of requests is marked as sampled, which turns on DEBUG output
+ * of the application loggers for that request only.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTracingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_KEY = "requestId";
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestTracingFilter.class);
+    /** Incoming ids outside this set are replaced, so they cannot forge log lines or headers. */
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final double sampleRate;
+
+    public RequestTracingFilter(@Value("${taskflow.tracing.sample-rate:0.0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+
+        MDC.put(REQUEST_ID_KEY, requestId);
+        if (sampled) {
+            MDC.put(SampledTraceTurboFilter.SAMPLED_KEY, "true");
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            logger.atDebug().setMessage("request")
+                    .addKeyValue("method", request.getMethod())
+                    .addKeyValue("uri", request.getRequestURI())
+                    .addKeyValue("status", response.getStatus())
+                    .addKeyValue("durationMs", (System.nanoTime() - start) / 1_000_000)
+                    .log();
+            MDC.remove(REQUEST_ID_KEY);
+            MDC.remove(SampledTraceTurboFilter.SAMPLED_KEY);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package erdem.taskflow.web;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serialized responses keyed by request, valid for a single data version. Looking up or
+ * storing under a newer version drops everything cached for older ones; results
+ * computed at an older version are not stored. Least recently used entries are evicted
+ * once the total size exceeds {@code maxBytes}.
+ */
+class ResponseCache {
+
+    record Entry(byte[] body, byte[] gzipped, String contentType, Map<String, String> headers) {
+
+        long size() {
+            return body.length + (gzipped != null ? gzipped.length : 0);
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long version = Long.MIN_VALUE;
+    private long bytes;
+
+    ResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized Entry get(String key, long currentVersion) {
+        advance(currentVersion);
+        return currentVersion == version ? entries.get(key) : null;
+    }
+
+    synchronized void put(String key, long computedAtVersion, Entry entry) {
+        advance(computedAtVersion);
+        if (computedAtVersion != version || entry.size() > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.size();
+        }
+        bytes += entry.size();
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void advance(long newVersion) {
+        if (newVersion > version) {
+            entries.clear();
+            bytes = 0;
+            version = newVersion;
+        }
+    }
+}
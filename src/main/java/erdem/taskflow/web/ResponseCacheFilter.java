@@ -0,0 +1,174 @@
+package erdem.taskflow.web;
+
+import erdem.taskflow.service.TaskDataVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves repeated {@code GET /api/tasks} list queries from already-serialized bytes.
+ * Entries are keyed by the normalized query parameters and are valid only for the
+ * {@link TaskDataVersion} they were computed at, so any task mutation invalidates them
+ * all. Bodies above 1 KB are also stored gzip-compressed for clients that accept it.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 50)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    static final String PATH = "/api/tasks";
+    private static final int GZIP_THRESHOLD = 1024;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final List<String> REPLAYED_HEADERS = List.of(
+            HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, HttpHeaders.VARY);
+
+    private final TaskDataVersion dataVersion;
+    private final ResponseCache cache;
+    private final boolean enabled;
+    private final boolean gzip;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResponseCacheFilter(TaskDataVersion dataVersion,
+                               MeterRegistry registry,
+                               @Value("${taskflow.response-cache.enabled:true}") boolean enabled,
+                               @Value("${taskflow.response-cache.max-size:16MB}") DataSize maxSize,
+                               @Value("${taskflow.response-cache.gzip:true}") boolean gzip) {
+        this.dataVersion = dataVersion;
+        this.cache = new ResponseCache(maxSize.toBytes());
+        this.enabled = enabled;
+        this.gzip = gzip;
+        this.hits = Counter.builder("taskflow.response.cache").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("taskflow.response.cache").tag("result", "miss").register(registry);
+        Gauge.builder("taskflow.response.cache.size", cache, ResponseCache::bytes).baseUnit("bytes").register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"GET".equals(request.getMethod())
+                || !PATH.equals(request.getRequestURI())
+                || !acceptsJson(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = key(request);
+        long version = dataVersion.current();
+        ResponseCache.Entry entry = cache.get(key, version);
+        if (entry != null) {
+            hits.increment();
+            writeHit(request, response, entry);
+            return;
+        }
+
+        misses.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && !request.isAsyncStarted()) {
+            byte[] body = wrapper.getContentAsByteArray();
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (String name : REPLAYED_HEADERS) {
+                if (wrapper.getHeader(name) != null) {
+                    headers.put(name, wrapper.getHeader(name));
+                }
+            }
+            byte[] gzipped = gzip && body.length >= GZIP_THRESHOLD ? gzip(body) : null;
+            cache.put(key, version, new ResponseCache.Entry(body, gzipped, wrapper.getContentType(), headers));
+            if (gzipped != null) {
+                wrapper.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void writeHit(HttpServletRequest request, HttpServletResponse response, ResponseCache.Entry entry)
+            throws IOException {
+        // Keep http.server.requests and payload metrics tagged as the controller would
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PATH);
+        ServerHttpObservationFilter.findObservationContext(request)
+                .ifPresent(context -> context.setPathPattern(PATH));
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(entry.contentType());
+        entry.headers().forEach(response::setHeader);
+        byte[] body = entry.body();
+        if (entry.gzipped() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                body = entry.gzipped();
+            }
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Sorted query parameters with blank values dropped and case-insensitive values
+     * folded, plus the date ({@code findWithFilters} compares with today) and the CORS
+     * origin, which changes response headers.
+     */
+    static String key(HttpServletRequest request) {
+        Map<String, String> params = new TreeMap<>();
+        request.getParameterMap().forEach((name, values) -> {
+            String value = String.join(",", Arrays.stream(values).filter(v -> !v.isBlank()).toList());
+            if (!value.isEmpty()) {
+                params.put(name, name.equals("sortBy") || name.equals("sortOrder") ? value.toLowerCase(Locale.ROOT) : value);
+            }
+        });
+        return params + "|" + LocalDate.now() + "|" + request.getHeader(HttpHeaders.ORIGIN);
+    }
+
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            List<MediaType> types = MediaType.parseMediaTypes(accept);
+            return types.stream().noneMatch(APPLICATION_NDJSON::equalsTypeAndSubtype)
+                    && types.stream().anyMatch(type -> type.includes(MediaType.APPLICATION_JSON));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+}
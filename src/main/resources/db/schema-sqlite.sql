@@ -0,0 +1,91 @@
+-- SQLite schema matching the JPA mapping. Used by the faststart profile, which
+-- validates the schema instead of letting Hibernate diff and update it on boot.
+CREATE TABLE IF NOT EXISTS task (
+    id blob not null,
+    created_at timestamp,
+    description varchar(255),
+    due_date date,
+    priority varchar(255) check (priority in ('HIGH','LOW','MEDIUM')),
+    status varchar(255) check (status in ('OPEN','IN_PROGRESS','COMPLETED')),
+    status_updated_at timestamp,
+    title varchar(255) not null,
+    title_key varchar(255) not null,
+    version bigint not null,
+    primary key (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_status_updated_at ON task (status, status_updated_at);
+CREATE INDEX IF NOT EXISTS idx_task_due_date ON task (due_date);
+CREATE INDEX IF NOT EXISTS idx_task_title_key ON task (title_key, id);
+
+CREATE TABLE IF NOT EXISTS task_status_history (
+    task_id blob not null,
+    status_change varchar(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_status_history_task_id ON task_status_history (task_id);
+
+CREATE TABLE IF NOT EXISTS task_archive (
+    id blob not null,
+    archived_at timestamp,
+    created_at timestamp,
+    description varchar(255),
+    due_date date,
+    priority varchar(255) check (priority in ('HIGH','LOW','MEDIUM')),
+    status varchar(255) check (status in ('OPEN','IN_PROGRESS','COMPLETED')),
+    status_updated_at timestamp,
+    title varchar(255) not null,
+    title_key varchar(255) not null,
+    version bigint not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS task_archive_status_history (
+    task_id blob not null,
+    status_change varchar(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_archive_status_history_task_id ON task_archive_status_history (task_id);
+
+CREATE TABLE IF NOT EXISTS task_event (
+    id integer,
+    created_at timestamp not null,
+    payload text not null,
+    task_id blob not null,
+    type varchar(32) not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS task_flow_bucket (
+    duration_bin integer not null,
+    priority varchar(255) not null check (priority in ('HIGH','LOW','MEDIUM')),
+    status varchar(255) not null check (status in ('OPEN','IN_PROGRESS','COMPLETED')),
+    tasks bigint not null,
+    total_seconds bigint not null,
+    utc_day date not null,
+    primary key (utc_day, duration_bin, priority, status)
+);
+
+CREATE TABLE IF NOT EXISTS task_template (
+    id blob not null,
+    created_at timestamp,
+    description varchar(255),
+    due_offset_days integer not null,
+    next_fire_date date,
+    priority varchar(255) check (priority in ('HIGH','LOW','MEDIUM')),
+    recurrence varchar(255) not null,
+    start_date date not null,
+    title varchar(255) not null,
+    version bigint not null,
+    primary key (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_template_next_fire_date ON task_template (next_fire_date);
+
+CREATE TABLE IF NOT EXISTS task_dependency (
+    depends_on_id blob not null,
+    task_id blob not null,
+    primary key (depends_on_id, task_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_dependency_task_id ON task_dependency (task_id);
@@ -0,0 +1,205 @@
+package erdem.taskflow.backup;
+
+import erdem.taskflow.dto.BackupDTO;
+import erdem.taskflow.dto.BackupRestoreDTO;
+import erdem.taskflow.project.ProjectContext;
+import erdem.taskflow.project.ProjectRoutingDataSource;
+import erdem.taskflow.project.ProjectShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseBackupServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("live.db"));
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode = WAL");
+            statement.execute("CREATE TABLE item (id integer primary key, payload text not null)");
+        }
+        insert(0, 2000);
+    }
+
+    @Test
+    void testIncrementalChainRestoresEveryBackup() throws Exception {
+        DatabaseBackupService service = service(4, true);
+
+        BackupDTO full = service.backup(false);
+        String atFull = contents();
+        update(10);
+        BackupDTO small = service.backup(false);
+        String atSmall = contents();
+        // Deleting and vacuuming shrinks the file; the restore has to truncate it
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM item WHERE id >= 1000");
+            statement.execute("VACUUM");
+        }
+        BackupDTO shrunk = service.backup(false);
+        String atShrunk = contents();
+
+        assertEquals("full", full.getType());
+        assertEquals("incremental", small.getType());
+        assertEquals("incremental", shrunk.getType());
+        assertTrue(small.getSize() * 5 < full.getSize(), small.getSize() + " vs " + full.getSize());
+        assertEquals(List.of(full, small, shrunk), service.list());
+
+        assertEquals(atFull, restoredContents(service.restore(full.getName())));
+        assertEquals(atSmall, restoredContents(service.restore(small.getName())));
+        assertEquals(atShrunk, restoredContents(service.restore(shrunk.getName())));
+    }
+
+    @Test
+    void testChainsStartOverAndArePrunedWhole() throws Exception {
+        DatabaseBackupService service = service(2, false);
+        service.backup(false);
+        update(1);
+        service.backup(false);
+        update(2);
+        BackupDTO third = service.backup(false);
+        update(3);
+        BackupDTO forced = service.backup(true);
+
+        assertEquals("full", third.getType());
+        assertEquals("full", forced.getType());
+        assertTrue(forced.getName().endsWith("-full.db"));
+
+        // Nothing old enough yet; then every chain but the newest goes
+        assertEquals(0, service.prune(Instant.now()));
+        assertEquals(3, service.prune(Instant.now().plus(Duration.ofDays(8))));
+        assertEquals(List.of(forced.getName()), service.list().stream().map(BackupDTO::getName).toList());
+        assertEquals(contents(), restoredContents(service.restore(forced.getName())));
+    }
+
+    @Test
+    void testUnchangedDatabaseWritesNoIncrementalBackup() throws Exception {
+        DatabaseBackupService service = service(4, true);
+        BackupDTO full = service.backup(false);
+
+        assertEquals(full, service.backup(false));
+        update(5);
+        BackupDTO changed = service.backup(false);
+        assertEquals(changed, service.backup(false));
+
+        assertEquals(List.of(full, changed), service.list());
+        assertEquals(contents(), restoredContents(service.restore(changed.getName())));
+    }
+
+    @Test
+    void testRejectsUnknownBackups() {
+        DatabaseBackupService service = service(4, true);
+
+        assertThrows(IllegalArgumentException.class, () -> service.restore("../live.db"));
+        assertThrows(RuntimeException.class, () -> service.restore("taskflow-20250101T000000000Z-full.db.gz"));
+    }
+
+    @Test
+    void testScheduledRunBacksUpProjectShards() throws Exception {
+        ProjectShards shards = new ProjectShards(new SimpleMeterRegistry(), tempDir.resolve("projects"), 4, 2);
+        try {
+            shards.create("alpha");
+            DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+            beans.registerSingleton("projectShards", shards);
+            DataSource routing = new ProjectRoutingDataSource(dataSource, beans.getBeanProvider(ProjectShards.class));
+            String shardContents = ProjectContext.call("alpha", () -> {
+                try (Connection connection = routing.getConnection(); Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE TABLE item (id integer primary key, payload text not null)");
+                    statement.execute("INSERT INTO item VALUES (1, 'changed in alpha')");
+                    return contents(connection);
+                }
+            });
+            DatabaseBackupService service = service(routing, shards, 4, true);
+
+            service.backupScheduled();
+
+            assertEquals(1, service.list().size());
+            List<BackupDTO> alpha = ProjectContext.call("alpha", service::list);
+            assertEquals(1, alpha.size());
+            assertTrue(Files.exists(tempDir.resolve("backups/projects/alpha").resolve(alpha.get(0).getName())));
+            BackupRestoreDTO restored = ProjectContext.call("alpha", () -> service.restore(alpha.get(0).getName()));
+            assertEquals(shardContents, restoredContents(restored));
+            assertNotEquals(contents(), shardContents);
+        } finally {
+            shards.close();
+        }
+    }
+
+    private DatabaseBackupService service(int fullEvery, boolean compress) {
+        return service(dataSource, null, fullEvery, compress);
+    }
+
+    private DatabaseBackupService service(DataSource dataSource, ProjectShards shards, int fullEvery, boolean compress) {
+        return new DatabaseBackupService(dataSource, shards, new SimpleMeterRegistry(), true, shards != null,
+                tempDir.resolve("backups"), fullEvery, Duration.ofDays(7), compress);
+    }
+
+    private void insert(int from, int count) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("INSERT INTO item VALUES (?, ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = from; i < from + count; i++) {
+                statement.setInt(1, i);
+                statement.setString(2, "item " + i + " " + "x".repeat(200));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void update(int id) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE item SET payload = 'changed " + id + "' WHERE id = " + id);
+        }
+    }
+
+    private String contents() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            return contents(connection);
+        }
+    }
+
+    private static String restoredContents(BackupRestoreDTO restored) throws Exception {
+        assertTrue(Files.size(Path.of(restored.getPath())) > 0);
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + restored.getPath());
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA integrity_check")) {
+            assertTrue(rs.next());
+            assertEquals("ok", rs.getString(1));
+            return contents(connection);
+        }
+    }
+
+    private static String contents(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT COUNT(*), SUM(length(payload)), MAX(id), "
+                             + "(SELECT GROUP_CONCAT(payload) FROM item WHERE payload LIKE 'changed%') FROM item")) {
+            rs.next();
+            return rs.getLong(1) + "/" + rs.getLong(2) + "/" + rs.getLong(3) + "/" + rs.getString(4);
+        }
+    }
+}
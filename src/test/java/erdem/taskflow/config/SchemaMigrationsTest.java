@@ -0,0 +1,67 @@
+package erdem.taskflow.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigrationsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testConvertsTextIdsToBlobs() throws Exception {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("legacy.db"));
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE task (id varchar(255) not null, title varchar(255), primary key (id))");
+            statement.execute("CREATE TABLE task_status_history (task_id varchar(255) not null, status_change varchar(255))");
+            statement.execute("INSERT INTO task VALUES ('0192e4c8-7b3a-7c00-8000-000000000001', 'Legacy')");
+            statement.execute("INSERT INTO task_status_history VALUES ('0192e4c8-7b3a-7c00-8000-000000000001', 'OPEN|2024-01-01T00:00:00Z')");
+        }
+
+        new SchemaMigrations(dataSource).afterPropertiesSet();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT typeof(id), length(id), hex(id) FROM task")) {
+                assertTrue(rs.next());
+                assertEquals("blob", rs.getString(1));
+                assertEquals(16, rs.getInt(2));
+                assertEquals("0192E4C87B3A7C008000000000000001", rs.getString(3));
+            }
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT COUNT(*) FROM task t JOIN task_status_history h ON h.task_id = t.id")) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT version, title_key FROM task")) {
+                assertTrue(rs.next());
+                assertEquals(0, rs.getLong(1));
+                assertEquals("legacy", rs.getString(2));
+            }
+            try (ResultSet rs = statement.executeQuery("PRAGMA auto_vacuum")) {
+                assertTrue(rs.next());
+                assertEquals(2, rs.getInt(1));
+            }
+            try (ResultSet rs = statement.executeQuery("PRAGMA journal_mode")) {
+                assertTrue(rs.next());
+                assertEquals("wal", rs.getString(1));
+            }
+        }
+    }
+
+    @Test
+    void testEmptyDatabaseIsLeftAlone() throws Exception {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("empty.db"));
+
+        assertDoesNotThrow(() -> new SchemaMigrations(dataSource).afterPropertiesSet());
+    }
+}
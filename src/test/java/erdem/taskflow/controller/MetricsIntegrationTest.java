@@ -0,0 +1,69 @@
+package erdem.taskflow.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void testPrometheusEndpointExposesTaskMetrics() throws Exception {
+        mockMvc.perform(get("/api/tasks")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("taskflow_service_seconds_bucket")))
+                .andExpect(content().string(containsString("taskflow_http_payload_bytes_count")))
+                .andExpect(content().string(containsString("hikaricp_connections")))
+                .andExpect(content().string(containsString("hibernate_query_executions")));
+    }
+
+    @Test
+    void testProfilerIsNotExposedByDefault() throws Exception {
+        mockMvc.perform(get("/actuator/profiler")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testStreamedResponseSizeIsRecordedWhenComplete() throws Exception {
+        double before = responseBytes();
+
+        MvcResult started = mockMvc.perform(get("/api/tasks").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        int length = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+
+        assertEquals(before + length, responseBytes());
+    }
+
+    private double responseBytes() {
+        DistributionSummary summary = registry.find("taskflow.http.payload")
+                .tags("direction", "response", "method", "GET", "uri", "/api/tasks")
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+}
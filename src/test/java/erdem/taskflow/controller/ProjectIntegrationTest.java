@@ -0,0 +1,97 @@
+package erdem.taskflow.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.model.Priority;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testTasksAreScopedToTheirProject() throws Exception {
+        String project = "it-" + Integer.toHexString(ThreadLocalRandom.current().nextInt());
+        mockMvc.perform(put("/api/projects/" + project)).andExpect(status().isCreated());
+        try {
+            mockMvc.perform(put("/api/projects/" + project)).andExpect(status().isNoContent());
+            mockMvc.perform(put("/api/projects/Not Valid")).andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/projects")).andExpect(jsonPath("$", hasItem(project)));
+
+            String tasks = "/api/projects/" + project + "/tasks";
+            String first = create(tasks, "Shard task one");
+            create(tasks, "Shard task two");
+
+            mockMvc.perform(get(tasks + "/" + first)).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.title").value("Shard task one"));
+            mockMvc.perform(get("/api/tasks/" + first)).andExpect(status().isNotFound());
+            mockMvc.perform(get(tasks)).andExpect(jsonPath("$.length()").value(2));
+            MvcResult streaming = mockMvc.perform(get(tasks).accept("application/x-ndjson"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            assertEquals(2, mockMvc.perform(asyncDispatch(streaming))
+                    .andReturn().getResponse().getContentAsString().split("\n").length);
+            mockMvc.perform(get("/api/projects/missing-" + project + "/tasks")).andExpect(status().isNotFound());
+
+            // Events go to the shard's outbox, not the default one
+            mockMvc.perform(get("/api/projects/" + project + "/changes"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.changes.length()").value(2))
+                    .andExpect(jsonPath("$.changes[0].type").value("Created"))
+                    .andExpect(jsonPath("$.changes[0].taskId").value(first));
+            mockMvc.perform(get("/api/changes?limit=1000"))
+                    .andExpect(jsonPath("$.changes[*].taskId", not(hasItem(first))));
+            mockMvc.perform(get("/api/projects/" + project + "/analytics/flow"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.throughput[0].opened").value(2));
+
+            JsonNode stats = objectMapper.readTree(mockMvc.perform(get("/api/projects/stats"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertEquals(2, stats.at("/projects/" + project + "/totalTasks").asLong());
+            assertEquals(2, stats.at("/projects/" + project + "/openTasks").asLong());
+            long sum = 0;
+            for (JsonNode perProject : stats.get("projects")) {
+                sum += perProject.get("totalTasks").asLong();
+            }
+            assertEquals(sum, stats.at("/total/totalTasks").asLong());
+        } finally {
+            mockMvc.perform(delete("/api/projects/" + project)).andExpect(status().isNoContent());
+        }
+        mockMvc.perform(get("/api/projects/" + project + "/tasks")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/projects/" + project)).andExpect(status().isNotFound());
+    }
+
+    private String create(String tasks, String title) throws Exception {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setPriority(Priority.MEDIUM);
+        String response = mockMvc.perform(post(tasks)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asText();
+    }
+}
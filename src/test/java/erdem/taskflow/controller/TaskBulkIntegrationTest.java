@@ -0,0 +1,131 @@
+package erdem.taskflow.controller;
+
+import erdem.taskflow.dto.FlowAnalyticsDTO;
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.service.FlowAnalyticsService;
+import erdem.taskflow.service.TaskArchiveService;
+import erdem.taskflow.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskBulkIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Autowired
+    private FlowAnalyticsService analytics;
+
+    @Test
+    void testBulkStatusChangeAndDeleteSpanSeveralChunks() throws Exception {
+        LocalDate due = uniqueDueDate();
+        for (int i = 0; i < 1050; i++) {
+            taskService.create(request("Bulk " + i, i % 2 == 0 ? Priority.HIGH : Priority.LOW, due));
+        }
+        UUID sample = taskService.filterTasks(null, null, due, due, null, null, null).get(0).getId();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        long started = analytics.getFlow(null, today, today, ChronoUnit.DAYS).getThroughput().get(0).started();
+        String range = "dueDateFrom=" + due + "&dueDateTo=" + due;
+
+        mockMvc.perform(patch("/api/tasks?status=OPEN&" + range + "&newStatus=IN_PROGRESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1050));
+        mockMvc.perform(patch("/api/tasks?priority=HIGH&" + range + "&newStatus=IN_PROGRESS"))
+                .andExpect(jsonPath("$.affected").value(0));
+
+        assertEquals(1050, taskService.filterTasks(Status.IN_PROGRESS, null, due, due, null, null, null).size());
+        TaskResponseDTO changed = taskService.getById(sample);
+        assertEquals(Status.IN_PROGRESS, changed.getStatus());
+        assertEquals(1, changed.getVersion());
+        assertEquals(List.of("OPEN", "IN_PROGRESS"),
+                changed.getStatusHistory().stream().map(entry -> entry.getStatus()).toList());
+        FlowAnalyticsDTO.Throughput after = analytics.getFlow(null, today, today, ChronoUnit.DAYS).getThroughput().get(0);
+        assertEquals(started + 1050, after.started());
+
+        mockMvc.perform(delete("/api/tasks?priority=LOW&" + range))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(525));
+        mockMvc.perform(delete("/api/tasks?" + range))
+                .andExpect(jsonPath("$.affected").value(525));
+
+        assertTrue(taskService.filterTasks(null, null, due, due, null, null, null).isEmpty());
+        assertThrows(RuntimeException.class, () -> taskService.getById(sample));
+    }
+
+    @Test
+    void testBulkChangesReachArchivedTasks() throws Exception {
+        LocalDate due = uniqueDueDate();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            UUID id = taskService.create(request("Archived bulk " + i, Priority.MEDIUM, due)).getId();
+            taskService.updateStatus(id, Status.COMPLETED);
+            ids.add(id);
+        }
+        taskArchiveService.archiveCompletedBefore(Instant.now().plusSeconds(60));
+        long archived = taskArchiveService.count();
+        String range = "dueDateFrom=" + due + "&dueDateTo=" + due;
+
+        mockMvc.perform(patch("/api/tasks?status=COMPLETED&" + range + "&newStatus=OPEN"))
+                .andExpect(jsonPath("$.affected").value(4));
+        assertEquals(archived - 4, taskArchiveService.count());
+        assertEquals(4, taskService.filterTasks(Status.OPEN, null, due, due, null, null, null).size());
+        assertEquals(3, taskService.getById(ids.get(0)).getStatusHistory().size());
+
+        taskService.updateStatus(ids.get(0), Status.COMPLETED);
+        taskArchiveService.archiveCompletedBefore(Instant.now().plusSeconds(60));
+        mockMvc.perform(delete("/api/tasks?status=COMPLETED&" + range))
+                .andExpect(jsonPath("$.affected").value(1));
+        assertThrows(RuntimeException.class, () -> taskService.getById(ids.get(0)));
+        assertEquals(3, taskService.filterTasks(null, null, due, due, null, null, null).size());
+        taskService.deleteMatching(null, null, due, due);
+    }
+
+    @Test
+    void testBulkChangesRequireAFilter() throws Exception {
+        mockMvc.perform(delete("/api/tasks")).andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/tasks?newStatus=COMPLETED")).andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/tasks?status=OPEN")).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * A due date no other test uses, so bulk filters only match this test's tasks.
+     */
+    private static LocalDate uniqueDueDate() {
+        return LocalDate.of(2300, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(100_000));
+    }
+
+    private static TaskRequestDTO request(String title, Priority priority, LocalDate dueDate) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setPriority(priority);
+        request.setDueDate(dueDate);
+        return request;
+    }
+}
@@ -88,7 +88,7 @@ class TaskControllerTest {
         responseDTO.setTitle("New Task");
         when(taskService.create(any(TaskRequestDTO.class))).thenReturn(responseDTO);
 
-        ResponseEntity<TaskResponseDTO> response = taskController.createTask(requestDTO);
+        ResponseEntity<TaskResponseDTO> response = taskController.createTask(requestDTO, null);
 
         assertEquals(201, response.getStatusCode().value());
         assertNotNull(response.getBody());
@@ -104,28 +104,28 @@ class TaskControllerTest {
 
         TaskResponseDTO responseDTO = createTestTaskResponse();
         responseDTO.setTitle("Updated Task");
-        when(taskService.update(eq(testTaskId), any(TaskRequestDTO.class))).thenReturn(responseDTO);
+        when(taskService.update(eq(testTaskId), any(TaskRequestDTO.class), isNull())).thenReturn(responseDTO);
 
-        ResponseEntity<TaskResponseDTO> response = taskController.updateTask(testTaskId, requestDTO);
+        ResponseEntity<TaskResponseDTO> response = taskController.updateTask(testTaskId, requestDTO, null);
 
         assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
         assertEquals("Updated Task", response.getBody().getTitle());
-        verify(taskService).update(eq(testTaskId), any(TaskRequestDTO.class));
+        verify(taskService).update(eq(testTaskId), any(TaskRequestDTO.class), isNull());
     }
 
     @Test
     void testUpdateTaskStatus() {
         TaskResponseDTO responseDTO = createTestTaskResponse();
         responseDTO.setStatus(Status.IN_PROGRESS);
-        when(taskService.updateStatus(testTaskId, Status.IN_PROGRESS)).thenReturn(responseDTO);
+        when(taskService.updateStatus(testTaskId, Status.IN_PROGRESS, null)).thenReturn(responseDTO);
 
-        ResponseEntity<TaskResponseDTO> response = taskController.updateTaskStatus(testTaskId, Status.IN_PROGRESS);
+        ResponseEntity<TaskResponseDTO> response = taskController.updateTaskStatus(testTaskId, Status.IN_PROGRESS, null);
 
         assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
         assertEquals(Status.IN_PROGRESS, response.getBody().getStatus());
-        verify(taskService).updateStatus(testTaskId, Status.IN_PROGRESS);
+        verify(taskService).updateStatus(testTaskId, Status.IN_PROGRESS, null);
     }
 
     @Test
@@ -0,0 +1,102 @@
+package erdem.taskflow.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erdem.taskflow.dto.TaskPlanDTO;
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskDependencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void testReadinessFollowsDependencies() throws Exception {
+        LocalDate due = LocalDate.of(2300, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(100_000));
+        UUID a = create("Design", due);
+        UUID b = create("Budget", due);
+        UUID c = create("Build", due);
+        UUID d = create("Launch", due);
+        try {
+            mockMvc.perform(put("/api/tasks/" + c + "/dependencies/" + a)).andExpect(status().isCreated());
+            mockMvc.perform(put("/api/tasks/" + c + "/dependencies/" + a)).andExpect(status().isNoContent());
+            mockMvc.perform(put("/api/tasks/" + c + "/dependencies/" + b)).andExpect(status().isCreated());
+            mockMvc.perform(put("/api/tasks/" + d + "/dependencies/" + c)).andExpect(status().isCreated());
+            mockMvc.perform(put("/api/tasks/" + a + "/dependencies/" + d)).andExpect(status().isConflict());
+            mockMvc.perform(put("/api/tasks/" + a + "/dependencies/" + a)).andExpect(status().isConflict());
+            mockMvc.perform(put("/api/tasks/" + a + "/dependencies/" + UUID.randomUUID()))
+                    .andExpect(status().isNotFound());
+
+            assertEquals(List.of(true, true, false, false), readiness(a, b, c, d));
+            TaskPlanDTO plan = objectMapper.readValue(mockMvc.perform(get("/api/tasks/plan"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(), TaskPlanDTO.class);
+            List<UUID> order = plan.getOrder();
+            assertTrue(order.indexOf(a) < order.indexOf(c) && order.indexOf(b) < order.indexOf(c));
+            assertTrue(order.indexOf(c) < order.indexOf(d));
+            assertTrue(plan.getCriticalPath().size() >= 3);
+
+            taskService.updateStatus(a, Status.COMPLETED);
+            assertEquals(List.of(false, true, false, false), readiness(a, b, c, d));
+            taskService.updateStatus(b, Status.COMPLETED);
+            assertEquals(List.of(false, false, true, false), readiness(a, b, c, d));
+            assertFalse(objectMapper.readValue(mockMvc.perform(get("/api/tasks/plan"))
+                    .andReturn().getResponse().getContentAsString(), TaskPlanDTO.class).getOrder().contains(a));
+
+            // Reopening a dependency blocks its dependents again
+            taskService.updateStatus(b, Status.OPEN);
+            assertEquals(List.of(false, true, false, false), readiness(a, b, c, d));
+
+            taskService.delete(c);
+            assertEquals(List.of(false, true, false, true), readiness(a, b, c, d));
+            mockMvc.perform(get("/api/tasks/" + d + "/dependencies"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$").isEmpty());
+            mockMvc.perform(delete("/api/tasks/" + d + "/dependencies/" + c)).andExpect(status().isNotFound());
+        } finally {
+            taskService.deleteMatching(null, null, due, due);
+        }
+    }
+
+    private UUID create(String title, LocalDate dueDate) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDueDate(dueDate);
+        return taskService.create(request).getId();
+    }
+
+    /**
+     * Whether each task is listed by {@code GET /api/tasks/ready}.
+     */
+    private List<Boolean> readiness(UUID... ids) throws Exception {
+        List<UUID> ready = List.of(objectMapper.readValue(mockMvc.perform(get("/api/tasks/ready"))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString(), TaskResponseDTO[].class))
+                .stream().map(TaskResponseDTO::getId).toList();
+        return List.of(ids).stream().map(ready::contains).toList();
+    }
+}
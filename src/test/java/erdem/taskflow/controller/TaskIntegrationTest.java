@@ -3,6 +3,7 @@ package erdem.taskflow.controller;
 import erdem.taskflow.dto.TaskRequestDTO;
 import erdem.taskflow.model.Priority;
 import erdem.taskflow.model.Status;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,10 +14,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -57,4 +62,151 @@ public class TaskIntegrationTest {
                     .andExpect(jsonPath("$.status").value(Status.OPEN.name()));
         }
     }
+
+    @Test
+    void testStreamTasksAsNdjson() throws Exception {
+        String marker = "ndjson-" + System.nanoTime();
+        for (String title : new String[]{"b " + marker, "a " + marker, "c " + marker}) {
+            TaskRequestDTO request = new TaskRequestDTO();
+            request.setTitle(title);
+            request.setPriority(Priority.LOW);
+            mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult started = mockMvc.perform(get("/api/tasks?searchTerm=" + marker + "&sortBy=title")
+                .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("a " + marker, objectMapper.readTree(lines[0]).get("title").asText());
+        assertEquals("c " + marker, objectMapper.readTree(lines[2]).get("title").asText());
+    }
+
+    @Test
+    void testIfMatchRejectsStaleUpdate() throws Exception {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Versioned task");
+        MvcResult created = mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn();
+        String taskId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asText();
+
+        mockMvc.perform(put("/api/tasks/" + taskId + "/status?status=IN_PROGRESS").header("If-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        request.setTitle("Stale edit");
+        mockMvc.perform(put("/api/tasks/" + taskId)
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/tasks/" + taskId))
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.title").value("Versioned task"))
+                .andExpect(jsonPath("$.statusHistory.length()").value(2));
+    }
+
+    @Test
+    void testIdempotencyKeyReplaysCreate() throws Exception {
+        String key = "create-" + System.nanoTime();
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Created once");
+        String body = objectMapper.writeValueAsString(request);
+
+        String first = mockMvc.perform(post("/api/tasks").header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String retry = mockMvc.perform(post("/api/tasks").header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(
+                objectMapper.readTree(first).get("id"), objectMapper.readTree(retry).get("id"));
+
+        request.setTitle("Different body");
+        mockMvc.perform(post("/api/tasks").header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void testFacetsAreReturnedWithFilteredTasks() throws Exception {
+        String marker = "facets-" + System.nanoTime();
+        for (Priority priority : new Priority[]{Priority.HIGH, Priority.HIGH, Priority.LOW}) {
+            TaskRequestDTO request = new TaskRequestDTO();
+            request.setTitle(marker);
+            request.setPriority(priority);
+            request.setDueDate(LocalDate.now());
+            mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/tasks?facets=true&searchTerm=" + marker))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(3)))
+                .andExpect(jsonPath("$.facets.status.OPEN").value(3))
+                .andExpect(jsonPath("$.facets.status.COMPLETED").value(0))
+                .andExpect(jsonPath("$.facets.priority.HIGH").value(2))
+                .andExpect(jsonPath("$.facets.priority.LOW").value(1))
+                .andExpect(jsonPath("$.facets.dueDate.TODAY").value(3));
+
+        mockMvc.perform(get("/api/tasks?searchTerm=" + marker))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    void testTitlePagesWalkEveryTaskOnce() throws Exception {
+        String marker = "page-" + System.nanoTime();
+        String[] ids = new String[3];
+        String[] titles = {"b " + marker, "A " + marker, "Ç " + marker};
+        for (int i = 0; i < titles.length; i++) {
+            TaskRequestDTO request = new TaskRequestDTO();
+            request.setTitle(titles[i]);
+            ids[i] = objectMapper.readTree(mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString()).get("id").asText();
+        }
+
+        List<String> seen = new ArrayList<>();
+        String after = null;
+        do {
+            String url = "/api/tasks?limit=50" + (after == null ? "" : "&after=" + after);
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("tasks").forEach(task -> seen.add(task.get("id").asText()));
+            after = page.get("hasMore").asBoolean() ? page.get("next").asText() : null;
+        } while (after != null);
+
+        assertEquals(seen.size(), new HashSet<>(seen).size());
+        assertTrue(seen.indexOf(ids[1]) >= 0);
+        assertTrue(seen.indexOf(ids[1]) < seen.indexOf(ids[0]));
+        assertTrue(seen.indexOf(ids[0]) < seen.indexOf(ids[2]));
+
+        mockMvc.perform(get("/api/tasks?limit=10&after=bogus")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks?limit=0")).andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,160 @@
+package erdem.taskflow.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.repository.OutboxEventRepository;
+import erdem.taskflow.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The relay and compaction only run when called here; their schedules are an hour out.
+ */
+@SpringBootTest(properties = {
+        "taskflow.outbox.file-sink.enabled=true",
+        "taskflow.outbox.file-sink.path=target/change-feed-test/changes.ndjson",
+        "taskflow.outbox.relay.interval=PT1H",
+        "taskflow.outbox.compaction.batch-size=2"})
+@AutoConfigureMockMvc
+class TaskChangeFeedIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskEventOutbox outbox;
+
+    @Autowired
+    private TaskChangeRelay relay;
+
+    @Autowired
+    private OutboxCompactor compactor;
+
+    @Autowired
+    private OutboxEventRepository outboxRepo;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Test
+    void testFeedPagesThroughChangesWithCursor() throws Exception {
+        long before = outbox.head();
+        UUID id = taskService.create(request("Feed")).getId();
+        taskService.updateStatus(id, Status.IN_PROGRESS);
+        taskService.delete(id);
+
+        JsonNode first = page("/api/changes?after=" + before + "&limit=2");
+        assertEquals(List.of("Created", "StatusChanged"), types(first));
+        assertEquals(id.toString(), first.get("changes").get(0).get("taskId").asText());
+        assertEquals("IN_PROGRESS", first.get("changes").get(1).get("event").get("to").asText());
+        assertTrue(first.get("hasMore").asBoolean());
+
+        JsonNode second = page("/api/changes?after=" + first.get("next").asLong() + "&limit=2");
+        assertEquals(List.of("Deleted"), types(second));
+        assertFalse(second.get("hasMore").asBoolean());
+        assertEquals(outbox.head(), second.get("next").asLong());
+
+        JsonNode empty = page("/api/changes?after=" + second.get("next").asLong());
+        assertEquals(List.of(), types(empty));
+        assertEquals(second.get("next").asLong(), empty.get("next").asLong());
+    }
+
+    @Test
+    void testCompactionKeepsNewestEventAndExpiresOldCursors() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            taskService.create(request("Compacted " + i));
+        }
+        relay.relay();
+        long head = outbox.head();
+
+        assertTrue(compactor.compact(Instant.now().plus(Duration.ofDays(1))) > 0);
+        assertEquals(head - 1, outbox.horizon());
+        assertEquals(head, outbox.head());
+
+        mockMvc.perform(get("/api/changes?after=" + (head - 2))).andExpect(status().isGone());
+        assertEquals(List.of("Created"), types(page("/api/changes?after=" + (head - 1))));
+        assertEquals(head, page("/api/changes").get("changes").get(0).get("sequence").asLong());
+    }
+
+    @Test
+    void testCompactionWaitsForRelayAndRelayAppendsEveryChange() throws Exception {
+        relay.relay();
+        long cursor = relay.cursor();
+        UUID id = taskService.create(request("Relayed")).getId();
+        taskService.updateStatus(id, Status.COMPLETED);
+
+        compactor.compact(Instant.now().plus(Duration.ofDays(1)));
+        assertTrue(outbox.horizon() <= cursor);
+
+        assertEquals(2, relay.relay());
+        assertEquals(outbox.head(), relay.cursor());
+        List<String> lines = Files.readAllLines(Path.of("target/change-feed-test/changes.ndjson"));
+        List<JsonNode> relayed = lines.subList(lines.size() - 2, lines.size()).stream()
+                .map(this::readTree)
+                .toList();
+        assertEquals(List.of("Created", "StatusChanged"), relayed.stream().map(node -> node.get("type").asText()).toList());
+        assertEquals(outbox.head(), relayed.get(1).get("sequence").asLong());
+        assertEquals(id.toString(), relayed.get(1).get("taskId").asText());
+    }
+
+    @Test
+    void testFeedHoldsBackEventsYoungerThanSettleTime() {
+        long before = outbox.head();
+        taskService.create(request("Settling"));
+        TaskEventOutbox settling = new TaskEventOutbox(outboxRepo, objectMapper, publisher, true, Duration.ofHours(1));
+
+        assertEquals(List.of(), settling.changesAfter(before, 10));
+        assertEquals(1, outbox.changesAfter(before, 10).size());
+    }
+
+    private JsonNode page(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static List<String> types(JsonNode page) {
+        List<String> types = new ArrayList<>();
+        page.get("changes").forEach(change -> types.add(change.get("type").asText()));
+        return types;
+    }
+
+    private static TaskRequestDTO request(String title) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        return request;
+    }
+}
@@ -0,0 +1,192 @@
+package erdem.taskflow.event;
+
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.service.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs with one lane of two slots, so a blocked consumer overflows it quickly.
+ */
+@SpringBootTest(properties = {"taskflow.events.lanes=1", "taskflow.events.queue-capacity=2"})
+class TaskEventIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskEventOutbox outbox;
+
+    @Autowired
+    private TaskEventDispatcher dispatcher;
+
+    @Autowired
+    private RecordingConsumer recorder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private TaskCountsConsumer counts;
+
+    @Test
+    void testChangesAreStoredAndDeliveredInOrder() throws Exception {
+        long before = outbox.head();
+        UUID id = taskService.create(request("Evented")).getId();
+        recorder.track(id);
+        taskService.updateStatus(id, Status.IN_PROGRESS);
+        taskService.update(id, request("Evented, renamed"));
+        taskService.updateStatus(id, Status.IN_PROGRESS);
+        taskService.delete(id);
+
+        List<Class<?>> expected = List.of(TaskEvent.Created.class, TaskEvent.StatusChanged.class,
+                TaskEvent.Updated.class, TaskEvent.Deleted.class);
+        assertEquals(expected, outbox.readAfter(before, 100).stream()
+                .filter(stored -> stored.event().taskId().equals(id))
+                .map(stored -> (Class<?>) stored.event().getClass())
+                .toList());
+        await(() -> recorder.events(id).size() == 4);
+        assertEquals(expected, recorder.events(id).stream().map(stored -> (Class<?>) stored.event().getClass()).toList());
+        TaskEvent.Deleted deleted = (TaskEvent.Deleted) recorder.events(id).get(3).event();
+        assertEquals(Status.IN_PROGRESS, deleted.status());
+    }
+
+    @Test
+    void testRolledBackChangeLeavesNoEvent() {
+        long before = outbox.head();
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            taskService.create(request("Rolled back"));
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals(before, outbox.head());
+    }
+
+    @Test
+    void testFullLaneFallsBackToReplayWithoutLosingOrDuplicatingEvents() throws Exception {
+        double overflowsBefore = registry.get("taskflow.events.overflows").counter().count();
+        CountDownLatch gate = new CountDownLatch(1);
+        recorder.gate = gate;
+
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            TaskResponseDTO task = taskService.create(request("Burst " + i));
+            recorder.track(task.getId());
+            ids.add(task.getId());
+            taskService.updateStatus(task.getId(), Status.COMPLETED);
+        }
+        assertTrue(registry.get("taskflow.events.overflows").counter().count() > overflowsBefore);
+        assertTrue(dispatcher.lag(recorder.name()) > 0);
+
+        gate.countDown();
+        await(() -> ids.stream().allMatch(id -> recorder.events(id).size() == 2));
+        for (UUID id : ids) {
+            List<StoredTaskEvent> events = recorder.events(id);
+            assertInstanceOf(TaskEvent.Created.class, events.get(0).event());
+            assertInstanceOf(TaskEvent.StatusChanged.class, events.get(1).event());
+        }
+        await(() -> dispatcher.lag(recorder.name()) == 0);
+    }
+
+    @Test
+    void testCountsSkipEventsAlreadyInTheirSeed() throws Exception {
+        long before = outbox.head();
+        UUID id = taskService.create(request("Seeded")).getId();
+        recorder.track(id);
+        taskService.updateStatus(id, Status.IN_PROGRESS);
+        await(() -> recorder.events(id).size() == 2);
+        counts.seed();
+        long open = counts.count(Status.OPEN);
+        long inProgress = counts.count(Status.IN_PROGRESS);
+
+        // Delivered again after the seed, as a lane still holding them would
+        counts.accept(outbox.readAfter(before, 100));
+
+        assertEquals(open, counts.count(Status.OPEN));
+        assertEquals(inProgress, counts.count(Status.IN_PROGRESS));
+        taskService.delete(id);
+        await(() -> counts.count(Status.IN_PROGRESS) == inProgress - 1);
+    }
+
+    private static TaskRequestDTO request(String title) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        return request;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for event delivery");
+            Thread.sleep(10);
+        }
+    }
+
+    static class RecordingConsumer implements TaskEventConsumer {
+
+        private final Set<UUID> tracked = ConcurrentHashMap.newKeySet();
+        private final List<StoredTaskEvent> received = new ArrayList<>();
+        volatile CountDownLatch gate;
+
+        void track(UUID id) {
+            tracked.add(id);
+        }
+
+        synchronized List<StoredTaskEvent> events(UUID id) {
+            return received.stream().filter(stored -> stored.event().taskId().equals(id)).toList();
+        }
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void accept(List<StoredTaskEvent> events) {
+            CountDownLatch current = gate;
+            if (current != null) {
+                try {
+                    current.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized (this) {
+                // The task id is only tracked once create() has returned
+                events.stream()
+                        .filter(stored -> tracked.contains(stored.event().taskId())
+                                || stored.event() instanceof TaskEvent.Created)
+                        .forEach(received::add);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        RecordingConsumer recordingConsumer() {
+            return new RecordingConsumer();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package erdem.taskflow.maintenance;
+
+import erdem.taskflow.project.ProjectContext;
+import erdem.taskflow.project.ProjectRoutingDataSource;
+import erdem.taskflow.project.ProjectShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseMaintenanceServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteDataSource dataSource;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("maintained.db"));
+        registry = new SimpleMeterRegistry();
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                statement.execute("PRAGMA journal_mode = WAL");
+            }
+            fill(connection);
+        }
+    }
+
+    @Test
+    void testOutsideWindowOnlyRefreshesStats() throws Exception {
+        DatabaseMaintenanceService service = service(dataSource, null, "02:00-05:00", 100);
+
+        service.maintain(DAY.atTime(12, 0));
+
+        assertTrue(service.getFreePages() > 100, "free pages " + service.getFreePages());
+        assertEquals(service.getFreePages(), registry.get("taskflow.db.free.pages").gauge().value());
+        assertFalse(hasStatistics());
+        assertEquals(0, registry.get("taskflow.maintenance").tag("task", "quick_check").timer().count());
+    }
+
+    @Test
+    void testWindowRunAnalyzesChecksAndFreesPages() throws Exception {
+        DatabaseMaintenanceService service = service(dataSource, null, "02:00-05:00", 100);
+        service.maintain(DAY.atTime(12, 0));
+        long sizeBefore = service.getSizeBytes();
+
+        service.maintain(DAY.atTime(2, 30));
+
+        assertEquals(0, service.getFreePages());
+        assertTrue(service.getSizeBytes() < sizeBefore / 2, service.getSizeBytes() + " vs " + sizeBefore);
+        assertTrue(hasStatistics());
+        assertEquals(1, registry.get("taskflow.maintenance").tag("task", "quick_check").timer().count());
+        assertEquals(0, registry.get("taskflow.maintenance.check.failures").counter().count());
+
+        // Analyze and check run once per window
+        service.maintain(DAY.atTime(4, 0));
+        assertEquals(1, registry.get("taskflow.maintenance").tag("task", "analyze").timer().count());
+        service.maintain(DAY.plusDays(1).atTime(2, 0));
+        assertEquals(2, registry.get("taskflow.maintenance").tag("task", "analyze").timer().count());
+    }
+
+    @Test
+    void testWindowAcrossMidnight() {
+        DatabaseMaintenanceService service = service(dataSource, null, "23:00-01:00", 100);
+
+        assertEquals(DAY, service.windowOf(LocalDateTime.of(DAY, LocalTime.of(23, 30))));
+        assertEquals(DAY, service.windowOf(LocalDateTime.of(DAY.plusDays(1), LocalTime.of(0, 30))));
+        assertNull(service.windowOf(LocalDateTime.of(DAY, LocalTime.of(1, 0))));
+        assertNull(service.windowOf(LocalDateTime.of(DAY, LocalTime.of(12, 0))));
+    }
+
+    @Test
+    void testProjectShardsAreMaintainedToo() throws Exception {
+        ProjectShards shards = new ProjectShards(new SimpleMeterRegistry(), tempDir.resolve("projects"), 4, 2);
+        try {
+            shards.create("alpha");
+            DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+            beans.registerSingleton("projectShards", shards);
+            DataSource routing = new ProjectRoutingDataSource(dataSource, beans.getBeanProvider(ProjectShards.class));
+            ProjectContext.call("alpha", () -> {
+                try (Connection connection = routing.getConnection()) {
+                    fill(connection);
+                }
+                return null;
+            });
+            assertTrue(ProjectContext.call("alpha", () -> freePages(routing)) > 100);
+            DatabaseMaintenanceService service = service(routing, shards, "02:00-05:00", 100);
+
+            service.maintainProjects(DAY.atTime(2, 30));
+
+            assertEquals(0, ProjectContext.call("alpha", () -> freePages(routing)));
+            assertEquals(1, registry.get("taskflow.maintenance").tag("task", "analyze").timer().count());
+            // The default database and its gauges are left to maintain()
+            assertTrue(freePages(dataSource) > 100);
+            assertEquals(0, service.getFreePages());
+        } finally {
+            shards.close();
+        }
+    }
+
+    private DatabaseMaintenanceService service(DataSource dataSource, ProjectShards shards, String window, int batchPages) {
+        return new DatabaseMaintenanceService(dataSource, shards, registry, true, true, window, batchPages);
+    }
+
+    private static void fill(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE item (id integer primary key, status text not null, payload text not null)");
+            statement.execute("CREATE INDEX idx_item_status ON item (status)");
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO item VALUES (?, ?, ?)")) {
+                for (int i = 0; i < 5000; i++) {
+                    insert.setInt(1, i);
+                    insert.setString(2, i % 10 == 0 ? "OPEN" : "COMPLETED");
+                    insert.setString(3, "x".repeat(300));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            statement.execute("DELETE FROM item WHERE id >= 1000");
+            connection.commit();
+        }
+    }
+
+    private static long freePages(DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA freelist_count")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private boolean hasStatistics() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM sqlite_master WHERE name = 'sqlite_stat1'")) {
+            return rs.next() && rs.getInt(1) > 0;
+        }
+    }
+}
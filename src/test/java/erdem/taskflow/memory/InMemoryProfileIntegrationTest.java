@@ -0,0 +1,96 @@
+package erdem.taskflow.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.repository.FlowBucketRepository;
+import erdem.taskflow.repository.OutboxEventRepository;
+import erdem.taskflow.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("inmemory")
+class InMemoryProfileIntegrationTest {
+
+    @TempDir
+    static Path dir;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("taskflow.memory.dir", dir::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private OutboxEventRepository outboxRepo;
+
+    @Autowired
+    private FlowBucketRepository bucketRepo;
+
+    @Test
+    void testRestApiServedFromMemory() throws Exception {
+        assertInstanceOf(InMemoryTaskService.class, AopProxyUtils.getSingletonTarget(taskService));
+
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Edge task");
+        request.setPriority(Priority.HIGH);
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/tasks?priority=HIGH"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Edge task"));
+        mockMvc.perform(get("/api/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTasks").value(1));
+    }
+
+    @Test
+    void testWritesLeaveDatabaseAlone() throws Exception {
+        long events = outboxRepo.count();
+        long buckets = bucketRepo.count();
+
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Offline task");
+        UUID id = taskService.create(request).getId();
+        taskService.updateStatus(id, Status.COMPLETED);
+        taskService.delete(id);
+
+        assertEquals(events, outboxRepo.count());
+        assertEquals(buckets, bucketRepo.count());
+        mockMvc.perform(get("/api/changes")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/analytics/flow")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/templates")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,70 @@
+package erdem.taskflow.memory;
+
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.service.TaskDataVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Read latency of the in-memory engine and its recovery time.
+ * Run with {@code mvn test -Dtest=InMemoryTaskBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=N]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InMemoryTaskBenchmarkTest {
+
+    private static final int ITERATIONS = 2_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void benchmarkReads() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 100_000);
+        InMemoryTaskService service = new InMemoryTaskService(null, null, new TaskDataVersion(), event -> { }, dir, false);
+        Priority[] priorities = Priority.values();
+        UUID last = null;
+        for (int i = 0; i < rows; i++) {
+            TaskRequestDTO request = new TaskRequestDTO();
+            request.setTitle("Task " + i);
+            request.setPriority(priorities[i % priorities.length]);
+            request.setDueDate(LocalDate.now().plusDays(i % 365 - 30));
+            last = service.create(request).getId();
+            if (i % 3 == 0) {
+                service.updateStatus(last, Status.COMPLETED);
+            }
+        }
+        LocalDate today = LocalDate.now();
+        UUID id = last;
+
+        System.out.printf("%-34s %12s%n", "operation (" + rows + " tasks)", "us/op");
+        time("getStatistics", service::getStatistics);
+        time("getById", () -> service.getById(id));
+        time("filter status+priority+week", () -> service.filterTasks(Status.OPEN, Priority.HIGH, today, today.plusDays(7), null, null, null));
+        time("filter due today", () -> service.filterTasks(null, null, today, today, null, null, null));
+
+        service.close();
+        long start = System.nanoTime();
+        InMemoryTaskService restarted = new InMemoryTaskService(null, null, new TaskDataVersion(), event -> { }, dir, false);
+        System.out.printf("%-34s %12.1f%n", "recover from snapshot (ms)", (System.nanoTime() - start) / 1e6);
+        restarted.close();
+    }
+
+    private static void time(String name, Supplier<?> operation) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.get();
+        }
+        System.out.printf("%-34s %12.1f%n", name, (System.nanoTime() - start) / 1e3 / ITERATIONS);
+    }
+}
@@ -0,0 +1,127 @@
+package erdem.taskflow.memory;
+
+import erdem.taskflow.dto.TaskPageDTO;
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.dto.TaskStatsDTO;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.service.TaskDataVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTaskServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testFiltersStatisticsAndRecovery() throws IOException {
+        InMemoryTaskService service = new InMemoryTaskService(null, null, new TaskDataVersion(), event -> { }, dir, false);
+        UUID overdue = create(service, "Pay invoice", Priority.HIGH, LocalDate.now().minusDays(1));
+        UUID upcoming = create(service, "Book flights", Priority.LOW, LocalDate.now().plusDays(3));
+        UUID undated = create(service, "Read invoice notes", Priority.LOW, null);
+        service.updateStatus(upcoming, Status.IN_PROGRESS);
+
+        assertEquals(List.of(upcoming, undated), ids(service.filterTasks(null, Priority.LOW, null, null, null, null, null)));
+        assertEquals(List.of(undated, overdue),
+                ids(service.filterTasks(null, null, null, null, "INVOICE", "title", "desc")));
+        assertEquals(List.of(overdue, upcoming),
+                ids(service.filterTasks(null, null, LocalDate.now().minusDays(7), LocalDate.now().plusDays(7), null, "dueDate", "asc")));
+        assertEquals(List.of(upcoming), ids(service.filterTasks(Status.IN_PROGRESS, null, null, null, null, null, null)));
+        assertEquals(List.of(overdue), ids(service.getOverdueTasks()));
+        assertStats(service.getStatistics(), 2, 1, 0, 1, 3);
+
+        service.updateStatus(overdue, Status.COMPLETED);
+        TaskRequestDTO edit = new TaskRequestDTO();
+        edit.setTitle("Book trains");
+        edit.setPriority(Priority.HIGH);
+        service.update(upcoming, edit);
+        service.delete(undated);
+        assertStats(service.getStatistics(), 0, 1, 1, 0, 2);
+        assertThrows(RuntimeException.class, () -> service.getById(undated));
+        service.snapshot();
+        create(service, "After snapshot", Priority.MEDIUM, null);
+        service.close();
+
+        InMemoryTaskService restarted = new InMemoryTaskService(null, null, new TaskDataVersion(), event -> { }, dir, false);
+        TaskResponseDTO reloaded = restarted.getById(upcoming);
+        assertEquals("Book trains", reloaded.getTitle());
+        assertNull(reloaded.getDueDate());
+        assertEquals(2, reloaded.getStatusHistory().size());
+        assertEquals(Status.COMPLETED, restarted.getById(overdue).getStatus());
+        assertEquals(List.of(upcoming), ids(restarted.filterTasks(null, Priority.HIGH, null, null, null, null, null).stream()
+                .filter(t -> t.getStatus() != Status.COMPLETED).toList()));
+        assertStats(restarted.getStatistics(), 1, 1, 1, 0, 3);
+        restarted.close();
+    }
+
+    @Test
+    void testTitlePagesFollowFoldedTitleOrder() throws IOException {
+        InMemoryTaskService service = new InMemoryTaskService(null, null, new TaskDataVersion(), event -> { }, dir, false);
+        UUID zebra = create(service, "zebra", Priority.LOW, null);
+        UUID eclair = create(service, "Éclair", Priority.LOW, null);
+        UUID apple = create(service, "  apple", Priority.LOW, null);
+        UUID banana = create(service, "BANANA", Priority.LOW, null);
+        UUID ecole = create(service, "ecole", Priority.LOW, null);
+
+        TaskPageDTO first = service.getTitlePage(null, null, null, null, 2);
+        assertEquals(List.of(apple, banana), ids(first.getTasks()));
+        assertTrue(first.isHasMore());
+        TaskPageDTO second = service.getTitlePage(null, null, null, first.getNext(), 2);
+        assertEquals(List.of(eclair, ecole), ids(second.getTasks()));
+        TaskPageDTO last = service.getTitlePage(null, null, null, second.getNext(), 2);
+        assertEquals(List.of(zebra), ids(last.getTasks()));
+        assertFalse(last.isHasMore());
+        assertNull(last.getNext());
+
+        TaskPageDTO descending = service.getTitlePage(null, null, "desc", null, 3);
+        assertEquals(List.of(zebra, ecole, eclair), ids(descending.getTasks()));
+        assertEquals(List.of(banana, apple), ids(service.getTitlePage(null, null, "desc", descending.getNext(), 3).getTasks()));
+        assertThrows(IllegalArgumentException.class, () -> service.getTitlePage(null, null, null, "not-a-cursor", 2));
+        service.close();
+    }
+
+    @Test
+    void testTitleKeysCompareByCodePointLikeSql() throws IOException {
+        InMemoryTaskService service = new InMemoryTaskService(null, null, new TaskDataVersion(), event -> { }, dir, false);
+        // U+1F389 is a surrogate pair in UTF-16 (below U+FFFD) but sorts after U+FFFD in UTF-8
+        UUID party = create(service, "\uD83C\uDF89 party", Priority.LOW, null);
+        UUID replacement = create(service, "\uFFFD note", Priority.LOW, null);
+        UUID zebra = create(service, "zebra", Priority.LOW, null);
+
+        TaskPageDTO first = service.getTitlePage(null, null, null, null, 2);
+        assertEquals(List.of(zebra, replacement), ids(first.getTasks()));
+        assertEquals(List.of(party), ids(service.getTitlePage(null, null, null, first.getNext(), 2).getTasks()));
+        assertEquals(List.of(zebra, replacement, party), ids(service.getAll("title", "asc")));
+        service.close();
+    }
+
+    private static UUID create(InMemoryTaskService service, String title, Priority priority, LocalDate dueDate) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setPriority(priority);
+        request.setDueDate(dueDate);
+        return service.create(request).getId();
+    }
+
+    private static List<UUID> ids(List<TaskResponseDTO> tasks) {
+        return tasks.stream().map(TaskResponseDTO::getId).toList();
+    }
+
+    private static void assertStats(TaskStatsDTO stats, long open, long inProgress, long completed, long overdue, long total) {
+        assertEquals(open, stats.getOpenTasks());
+        assertEquals(inProgress, stats.getInProgressTasks());
+        assertEquals(completed, stats.getCompletedTasks());
+        assertEquals(overdue, stats.getOverdueTasks());
+        assertEquals(total, stats.getTotalTasks());
+    }
+}
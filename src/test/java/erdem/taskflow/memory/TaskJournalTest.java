@@ -0,0 +1,129 @@
+package erdem.taskflow.memory;
+
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.model.Task;
+import erdem.taskflow.model.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRecoverReplaysPutsAndDeletes() throws IOException {
+        Task kept = task("Kept", LocalDate.of(2030, 1, 2));
+        Task deleted = task("Deleted", null);
+        try (TaskJournal journal = new TaskJournal(dir, true)) {
+            journal.recover(t -> {}, id -> {});
+            journal.appendPut(kept);
+            journal.appendPut(deleted);
+            journal.appendDelete(deleted.getId());
+        }
+
+        Map<UUID, Task> state = recover();
+
+        assertEquals(List.of(kept.getId()), new ArrayList<>(state.keySet()));
+        Task restored = state.get(kept.getId());
+        assertEquals("Kept", restored.getTitle());
+        assertNull(restored.getDescription());
+        assertEquals(Priority.HIGH, restored.getPriority());
+        assertEquals(LocalDate.of(2030, 1, 2), restored.getDueDate());
+        assertEquals(Status.OPEN, restored.getStatus());
+        assertEquals(kept.getCreatedAt(), restored.getCreatedAt());
+        assertEquals(kept.getStatusHistory(), restored.getStatusHistory());
+    }
+
+    @Test
+    void testTornTailIsTruncated() throws IOException {
+        Task first = task("First", null);
+        try (TaskJournal journal = new TaskJournal(dir, false)) {
+            journal.recover(t -> {}, id -> {});
+            journal.appendPut(first);
+            journal.appendPut(task("Torn", null));
+        }
+        Path segment = segments().get(0);
+        long size = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        Map<UUID, Task> state = recover();
+
+        assertEquals(List.of(first.getId()), new ArrayList<>(state.keySet()));
+        assertTrue(Files.size(segment) < size - 5);
+    }
+
+    @Test
+    void testSnapshotCompactsLog() throws IOException {
+        Task before = task("Before", null);
+        Task after = task("After", null);
+        try (TaskJournal journal = new TaskJournal(dir, false)) {
+            journal.recover(t -> {}, id -> {});
+            journal.appendPut(before);
+            long generation = journal.rotate();
+            journal.appendPut(after);
+            journal.writeSnapshot(generation, List.of(before));
+        }
+
+        assertEquals(1, segments().size());
+        assertEquals(List.of(before.getId(), after.getId()), new ArrayList<>(recover().keySet()));
+    }
+
+    @Test
+    void testCrashBeforeSnapshotReplaysAllSegments() throws IOException {
+        Task before = task("Before", null);
+        Task after = task("After", null);
+        try (TaskJournal journal = new TaskJournal(dir, false)) {
+            journal.recover(t -> {}, id -> {});
+            journal.appendPut(before);
+            journal.rotate();
+            journal.appendPut(after);
+        }
+
+        assertEquals(List.of(before.getId(), after.getId()), new ArrayList<>(recover().keySet()));
+    }
+
+    private Map<UUID, Task> recover() throws IOException {
+        Map<UUID, Task> state = new LinkedHashMap<>();
+        try (TaskJournal journal = new TaskJournal(dir, false)) {
+            journal.recover(t -> state.put(t.getId(), t), state::remove);
+        }
+        return state;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith("wal-")).sorted().toList();
+        }
+    }
+
+    private static Task task(String title, LocalDate dueDate) {
+        Task task = new Task();
+        task.setId(TimeOrderedUuidGenerator.next());
+        task.setTitle(title);
+        task.setPriority(Priority.HIGH);
+        task.setDueDate(dueDate);
+        task.setCreatedAt(Instant.now());
+        task.updateStatus(Status.OPEN);
+        return task;
+    }
+}
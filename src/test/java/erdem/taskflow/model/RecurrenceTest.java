@@ -0,0 +1,67 @@
+package erdem.taskflow.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceTest {
+
+    // A Wednesday
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void testDailyIntervalCountsFromStart() {
+        Recurrence rule = Recurrence.parse("FREQ=DAILY;INTERVAL=3");
+
+        assertEquals(START, rule.next(START, START.minusDays(10)));
+        assertEquals(LocalDate.of(2025, 1, 4), rule.next(START, START.plusDays(1)));
+        assertEquals(LocalDate.of(2025, 1, 7), rule.next(START, LocalDate.of(2025, 1, 7)));
+    }
+
+    @Test
+    void testWeeklyByDayEveryOtherWeek() {
+        Recurrence rule = Recurrence.parse("RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH");
+
+        // The first week only has Thursday left after the start
+        assertEquals(LocalDate.of(2025, 1, 2), rule.next(START, START));
+        assertEquals(LocalDate.of(2025, 1, 13), rule.next(START, LocalDate.of(2025, 1, 3)));
+        assertEquals(LocalDate.of(2025, 1, 16), rule.next(START, LocalDate.of(2025, 1, 14)));
+        assertEquals(LocalDate.of(2025, 1, 27), rule.next(START, LocalDate.of(2025, 1, 17)));
+        assertEquals(LocalDate.of(2025, 1, 8), Recurrence.parse("FREQ=WEEKLY").next(START, START.plusDays(1)));
+    }
+
+    @Test
+    void testMonthlySkipsMonthsWithoutTheDay() {
+        LocalDate start = LocalDate.of(2025, 1, 31);
+        Recurrence rule = Recurrence.parse("FREQ=MONTHLY");
+
+        assertEquals(LocalDate.of(2025, 3, 31), rule.next(start, LocalDate.of(2025, 2, 1)));
+        assertEquals(LocalDate.of(2025, 2, 28),
+                Recurrence.parse("FREQ=MONTHLY;BYMONTHDAY=-1").next(start, LocalDate.of(2025, 2, 1)));
+        assertEquals(LocalDate.of(2025, 4, 15),
+                Recurrence.parse("FREQ=MONTHLY;INTERVAL=3;BYMONTHDAY=15").next(start, LocalDate.of(2025, 2, 1)));
+    }
+
+    @Test
+    void testYearlyOnLeapDayAndUntil() {
+        LocalDate leapDay = LocalDate.of(2024, 2, 29);
+
+        assertEquals(LocalDate.of(2028, 2, 29), Recurrence.parse("FREQ=YEARLY").next(leapDay, leapDay.plusDays(1)));
+        Recurrence limited = Recurrence.parse("FREQ=DAILY;UNTIL=20250103");
+        assertEquals(LocalDate.of(2025, 1, 3), limited.next(START, LocalDate.of(2025, 1, 3)));
+        assertNull(limited.next(START, LocalDate.of(2025, 1, 4)));
+    }
+
+    @Test
+    void testRejectsUnsupportedRules() {
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("INTERVAL=2"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=HOURLY"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=DAILY;INTERVAL=0"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=DAILY;BYDAY=MO"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=WEEKLY;BYDAY=XX"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=DAILY;COUNT=3"));
+    }
+}
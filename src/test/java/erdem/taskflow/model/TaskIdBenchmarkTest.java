@@ -0,0 +1,83 @@
+package erdem.taskflow.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput and file size of the task schema for different primary key layouts.
+ * Run with {@code mvn test -Dtest=TaskIdBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=N]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskIdBenchmarkTest {
+
+    private static final int BATCH = 1_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void benchmarkPrimaryKeyLayouts() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 200_000);
+        System.out.printf("%-14s %12s %12s%n", "layout", "rows/s", "db size KB");
+        run("uuid4-text", rows, "varchar(36)", () -> UUID.randomUUID().toString());
+        run("uuid4-blob", rows, "blob", () -> bytes(UUID.randomUUID()));
+        run("uuid7-blob", rows, "blob", () -> bytes(TimeOrderedUuidGenerator.next()));
+    }
+
+    private void run(String name, int rows, String idType, Supplier<Object> ids) throws Exception {
+        Path file = tempDir.resolve(name + ".db");
+        long elapsed;
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE task (id " + idType + " not null, created_at timestamp, "
+                        + "title varchar(255) not null, status varchar(255), primary key (id))");
+                statement.execute("CREATE TABLE task_status_history (task_id " + idType + " not null, "
+                        + "status_change varchar(255))");
+                statement.execute("CREATE INDEX idx_task_status_history_task_id ON task_status_history (task_id)");
+            }
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+            try (PreparedStatement task = connection.prepareStatement("INSERT INTO task VALUES (?, ?, ?, 'OPEN')");
+                 PreparedStatement history = connection.prepareStatement("INSERT INTO task_status_history VALUES (?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    Object id = ids.get();
+                    task.setObject(1, id);
+                    task.setLong(2, System.currentTimeMillis());
+                    task.setString(3, "Task " + i);
+                    task.addBatch();
+                    history.setObject(1, id);
+                    history.setString(2, "OPEN|2024-01-01T00:00:00Z");
+                    history.addBatch();
+                    if ((i + 1) % BATCH == 0) {
+                        task.executeBatch();
+                        history.executeBatch();
+                        connection.commit();
+                    }
+                }
+                task.executeBatch();
+                history.executeBatch();
+                connection.commit();
+            }
+            elapsed = System.nanoTime() - start;
+        }
+        System.out.printf("%-14s %12.0f %12d%n", name, rows / (elapsed / 1e9), Files.size(file) / 1024);
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,56 @@
+package erdem.taskflow.profiling;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "taskflow.profiler.slow-query-threshold=0ms",
+        "taskflow.profiler.slow-request-threshold=0ms",
+        "management.endpoints.web.exposure.include=profiler"
+})
+@AutoConfigureMockMvc
+public class ProfilerEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testFilteredRequestIsCapturedWithQueryPlan() throws Exception {
+        mockMvc.perform(get("/api/tasks?status=OPEN")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/profiler"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slowRequests[*].text", hasItem(containsString("/api/tasks?status=OPEN"))))
+                .andExpect(jsonPath("$.slowRequests[0].status").value(200))
+                .andExpect(jsonPath("$.slowRequests[0].rows").doesNotExist())
+                .andExpect(jsonPath("$.slowQueries[0].plan", not(startsWith("unavailable"))))
+                .andExpect(jsonPath("$.topQueries", not(empty())))
+                .andExpect(jsonPath("$.topRequests[*].key", hasItem("GET /api/tasks")));
+    }
+
+    @Test
+    void testStreamedRequestIsRecordedWhenComplete() throws Exception {
+        String uri = "/api/tasks?searchTerm=stream-" + System.nanoTime();
+        MvcResult started = mockMvc.perform(get(uri).accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(get("/actuator/profiler"))
+                .andExpect(jsonPath("$.slowRequests[*].text", not(hasItem(containsString(uri)))));
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/profiler"))
+                .andExpect(jsonPath("$.slowRequests[*].text", hasItem(containsString(uri))));
+    }
+}
@@ -0,0 +1,84 @@
+package erdem.taskflow.profiling;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingDataSourceTest {
+
+    private SlowOperationLog log;
+    private ProfilingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        log = new SlowOperationLog(true, Duration.ZERO, Duration.ofSeconds(10), 10, 100);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:profiling;DB_CLOSE_DELAY=-1");
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("slowOperationLog", log);
+        dataSource = new ProfilingDataSource(h2, beans.getBeanProvider(SlowOperationLog.class));
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("DROP TABLE IF EXISTS item");
+            connection.createStatement().execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(20))");
+            connection.createStatement().executeUpdate("INSERT INTO item VALUES (1, 'a'), (2, 'b'), (3, 'c')");
+        }
+        log.reset();
+    }
+
+    @Test
+    void testCapturesParametersRowsAndPlanForSlowQuery() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT * FROM item WHERE id >= ?")) {
+            statement.setInt(1, 2);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    assertNotNull(rs.getString("name"));
+                }
+            }
+        }
+
+        List<SlowOperation> slow = log.slowQueries();
+        assertEquals(1, slow.size());
+        assertEquals("SELECT * FROM item WHERE id >= ?", slow.get(0).text());
+        assertEquals(List.of("2"), slow.get(0).parameters());
+        assertEquals(2, slow.get(0).rows());
+        assertNotNull(slow.get(0).plan());
+        assertFalse(slow.get(0).plan().startsWith("unavailable"));
+    }
+
+    @Test
+    void testAggregatesTopStatementsByTotalTime() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement statement = connection.prepareStatement("UPDATE item SET name = ? WHERE id = ?")) {
+                    statement.setString(1, "x" + i);
+                    statement.setInt(2, 1);
+                    assertEquals(1, statement.executeUpdate());
+                }
+            }
+        }
+
+        List<OperationStats.Summary> top = log.topQueries(5);
+        assertEquals(1, top.size());
+        assertEquals(3, top.get(0).count());
+        assertEquals(1, log.slowQueries().get(0).rows());
+    }
+
+    @Test
+    void testUnwrapReachesUnderlyingConnection() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(connection.isWrapperFor(org.h2.jdbc.JdbcConnection.class));
+            assertNotNull(connection.unwrap(org.h2.jdbc.JdbcConnection.class));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package erdem.taskflow.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectShardsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProjectShards shards;
+
+    @BeforeEach
+    void setUp() {
+        shards = new ProjectShards(new SimpleMeterRegistry(), tempDir, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shards.close();
+    }
+
+    @Test
+    void testCreateBuildsSchemaAndListsProjects() throws Exception {
+        assertTrue(shards.create("beta"));
+        assertTrue(shards.create("alpha"));
+        assertFalse(shards.create("alpha"));
+        assertThrows(IllegalArgumentException.class, () -> shards.create("Bad Name"));
+        assertThrows(IllegalArgumentException.class, () -> shards.create(ProjectContext.DEFAULT));
+
+        assertEquals(List.of("alpha", "beta"), shards.list());
+        try (Connection connection = shards.getConnection("alpha"); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM task")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+        assertThrows(SQLException.class, () -> shards.getConnection("missing"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedIdleShardsAreClosed() throws Exception {
+        for (String project : List.of("a", "b", "c")) {
+            shards.create(project);
+        }
+        Connection busy = shards.getConnection("a");
+        try {
+            query("b");
+            query("c");
+            // "a" is the least recently used but busy, so "b" is closed instead
+            assertEquals(2, shards.openCount());
+            query("a");
+        } finally {
+            busy.close();
+        }
+        query("b");
+        assertEquals(2, shards.openCount());
+
+        assertThrows(IllegalStateException.class, () -> {
+            try (Connection ignored = shards.getConnection("c")) {
+                shards.delete("c");
+            }
+        });
+        assertTrue(shards.delete("c"));
+        assertFalse(Files.exists(tempDir.resolve("c.db")));
+        assertEquals(List.of("a", "b"), shards.list());
+    }
+
+    @Test
+    void testSlowOpenDoesNotHoldUpOtherShards() throws Exception {
+        shards.create("slow");
+        shards.create("fast");
+        // Without WAL an exclusive lock keeps readers out, so opening "slow" waits on it
+        try (Connection blocker = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("slow.db"));
+             Statement statement = blocker.createStatement()) {
+            statement.execute("PRAGMA journal_mode = DELETE");
+            blocker.setAutoCommit(false);
+            statement.execute("PRAGMA locking_mode = EXCLUSIVE");
+            statement.execute("DELETE FROM task");
+            CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> {
+                try {
+                    query("slow");
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                while (shards.openCount() == 0) {
+                    Thread.onSpinWait();
+                }
+            });
+
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> query("fast"));
+            assertFalse(slow.isDone());
+            blocker.commit();
+            statement.execute("PRAGMA locking_mode = NORMAL");
+            statement.executeQuery("SELECT COUNT(*) FROM task").close();
+            blocker.setAutoCommit(true);
+            slow.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(2, shards.openCount());
+    }
+
+    private void query(String project) throws SQLException {
+        try (Connection connection = shards.getConnection(project); Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT COUNT(*) FROM task").close();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package erdem.taskflow.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One embedded PostgreSQL server for the postgres profile tests, started on first use
+ * from binaries shipped as a Maven artifact, so no Docker or network is needed. Every
+ * call to {@link #newDatabase} creates a fresh one; contexts given the same URL share it.
+ */
+public final class EmbeddedPostgresServer {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static EmbeddedPostgres server;
+
+    private EmbeddedPostgresServer() {
+    }
+
+    /**
+     * Points the context at a new, empty database on the shared server.
+     */
+    public static void register(DynamicPropertyRegistry registry) throws IOException, SQLException {
+        register(registry, newDatabase());
+    }
+
+    public static void register(DynamicPropertyRegistry registry, String url) {
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    /**
+     * @return the JDBC URL of a new, empty database, user {@code postgres} without password
+     */
+    public static synchronized String newDatabase() throws IOException, SQLException {
+        if (server == null) {
+            server = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException ignored) {
+                    // the JVM is exiting anyway
+                }
+            }));
+        }
+        String name = "taskflow_" + DATABASES.incrementAndGet();
+        try (Connection connection = server.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        }
+        return server.getJdbcUrl("postgres", name);
+    }
+}
@@ -0,0 +1,188 @@
+package erdem.taskflow.repository;
+
+import erdem.taskflow.dto.TaskPageDTO;
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.dto.TaskTemplateRequestDTO;
+import erdem.taskflow.event.TaskEventOutbox;
+import erdem.taskflow.model.FlowBucket;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.service.FlowAnalyticsService;
+import erdem.taskflow.service.TaskArchiveService;
+import erdem.taskflow.service.TaskDependencyService;
+import erdem.taskflow.service.TaskService;
+import erdem.taskflow.service.TaskTemplateService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the postgres profile unchanged against an {@link EmbeddedPostgresServer embedded
+ * PostgreSQL}: the schema comes from {@code schema-postgres.sql} and is validated by
+ * Hibernate, search goes through {@code tsvector}, and archiving claims rows with
+ * {@code SKIP LOCKED}.
+ */
+@SpringBootTest
+@ActiveProfiles("postgres")
+class PostgresIntegrationTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) throws Exception {
+        EmbeddedPostgresServer.register(registry);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Autowired
+    private FlowAnalyticsService flowAnalyticsService;
+
+    @Autowired
+    private TaskDependencyService dependencyService;
+
+    @Autowired
+    private TaskTemplateService templateService;
+
+    @Autowired
+    private TaskEventOutbox outbox;
+
+    @Autowired
+    private FlowBucketRepository bucketRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testUsesPostgresDialect() {
+        assertInstanceOf(PostgreSQLDialect.class,
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect());
+    }
+
+    @Test
+    void testSearchMatchesWordsThroughFullTextIndex() {
+        UUID match = create("Quarterly report", "numbers for finance", Priority.HIGH);
+        UUID other = create("Groceries", "milk and report cards", Priority.LOW);
+        create("Reporting backlog", null, Priority.LOW);
+
+        List<TaskResponseDTO> found = taskService.filterTasks(null, null, null, null, "REPORT", "title", "asc");
+        assertEquals(List.of(other, match), found.stream().map(TaskResponseDTO::getId).toList());
+        assertTrue(taskService.filterTasks(null, null, null, null, "repo", null, null).isEmpty());
+    }
+
+    @Test
+    void testOptionalDateFiltersBindTypedParameters() {
+        LocalDate today = LocalDate.now();
+        UUID due = create("Dated soon", null, Priority.MEDIUM, today.plusDays(2));
+        create("Dated later", null, Priority.MEDIUM, today.plusDays(30));
+
+        assertEquals(List.of(due), taskService.filterTasks(null, null, today, today.plusDays(7), "dated", null, null)
+                .stream().map(TaskResponseDTO::getId).toList());
+        assertNotNull(flowAnalyticsService.getFlow(null, today.minusDays(7), today, ChronoUnit.DAYS));
+    }
+
+    @Test
+    void testTitlePagesTemplatesDependenciesAndChangesRun() {
+        long head = outbox.head();
+        UUID first = create("Alpha step", null, Priority.LOW);
+        UUID second = create("Beta step", null, Priority.LOW);
+        assertTrue(dependencyService.addDependency(second, first));
+        assertEquals(List.of(first), dependencyService.getDependencies(second));
+        assertTrue(dependencyService.getReady(null, null).stream().anyMatch(task -> task.getId().equals(first)));
+
+        TaskTemplateRequestDTO template = new TaskTemplateRequestDTO();
+        template.setTitle("Standup");
+        template.setRecurrence("FREQ=DAILY");
+        template.setStartDate(LocalDate.now());
+        assertNotNull(templateService.create(template).getNextFireDate());
+        templateService.generate(LocalDate.now());
+
+        TaskPageDTO page = taskService.getTitlePage(null, Priority.LOW, null, null, 1);
+        assertTrue(page.isHasMore());
+        assertFalse(taskService.getTitlePage(null, Priority.LOW, null, page.getNext(), 1).getTasks().isEmpty());
+        assertFalse(outbox.readAfter(head, 10).isEmpty());
+        // The profile's settle time holds back events this young from the change feed
+        assertTrue(outbox.changesAfter(head, 10).isEmpty());
+        assertTrue(taskService.getStatistics().getTotalTasks() >= 2);
+    }
+
+    @Test
+    void testInstancesStartingTogetherFillFlowBucketsOnce() throws Exception {
+        UUID task = create("Flowing", null, Priority.HIGH);
+        taskService.updateStatus(task, Status.IN_PROGRESS);
+        bucketRepo.deleteAllInBatch();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService instances = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> backfills = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                backfills.add(instances.submit(() -> {
+                    start.await();
+                    flowAnalyticsService.backfillIfEmpty();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> backfill : backfills) {
+                backfill.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            instances.shutdownNow();
+        }
+        long filled = totalBucketTasks();
+
+        flowAnalyticsService.rebuild();
+
+        assertEquals(totalBucketTasks(), filled);
+    }
+
+    @Test
+    void testArchiveClaimsCompletedTasks() {
+        UUID done = create("Archive me", null, Priority.MEDIUM);
+        taskService.updateStatus(done, Status.COMPLETED);
+
+        assertEquals(1, taskArchiveService.archiveCompletedBefore(Instant.now().plusSeconds(60)));
+        assertEquals(Status.COMPLETED, taskService.getById(done).getStatus());
+        assertEquals(0, taskArchiveService.archiveCompletedBefore(Instant.now().plusSeconds(60)));
+    }
+
+    private long totalBucketTasks() {
+        return bucketRepo.findAll().stream().mapToLong(FlowBucket::getTasks).sum();
+    }
+
+    private UUID create(String title, String description, Priority priority) {
+        return create(title, description, priority, null);
+    }
+
+    private UUID create(String title, String description, Priority priority, LocalDate dueDate) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription(description);
+        request.setPriority(priority);
+        request.setDueDate(dueDate);
+        return taskService.create(request).getId();
+    }
+}
@@ -0,0 +1,115 @@
+package erdem.taskflow.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.community.dialect.SQLiteDialect;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the postgres profile's schema script and search function without a database
+ * server: the script must declare the same tables and columns as the validated SQLite
+ * script, and its GIN indexes must match the expression {@code task_search} renders.
+ */
+class PostgresSchemaTest {
+
+    private static final Pattern CREATE_TABLE =
+            Pattern.compile("(?is)CREATE TABLE IF NOT EXISTS (\\w+)\\s*\\((.*)\\)");
+
+    /** Commas outside parentheses, so check constraints and type arguments stay whole. */
+    private static final Pattern COLUMN_SEPARATOR = Pattern.compile(",(?![^()]*\\))");
+
+    @Test
+    void testDeclaresSameColumnsAsSqliteSchema() throws Exception {
+        Map<String, Set<String>> postgres = tables(statements("db/schema-postgres.sql"));
+
+        assertFalse(postgres.isEmpty());
+        assertEquals(tables(statements("db/schema-sqlite.sql")), postgres);
+    }
+
+    @Test
+    void testSearchIndexesMatchRenderedExpression() throws Exception {
+        String indexed = TaskSearchFunctionContributor.POSTGRES_DOCUMENT
+                .replace("?1", "title").replace("?2", "description");
+        List<String> statements = statements("db/schema-postgres.sql");
+
+        assertTrue(statements.contains("CREATE INDEX IF NOT EXISTS idx_task_search ON task USING gin (" + indexed + ")"));
+        assertTrue(statements.contains(
+                "CREATE INDEX IF NOT EXISTS idx_task_archive_search ON task_archive USING gin (" + indexed + ")"));
+    }
+
+    @Test
+    void testTitleKeysUseBinaryCollation() throws Exception {
+        String schema = new ClassPathResource("db/schema-postgres.sql").getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(2, schema.split("title_key varchar\\(255\\) collate \"C\" not null", -1).length - 1);
+    }
+
+    @Test
+    void testRegistersFullTextPatternForPostgres() {
+        assertEquals(TaskSearchFunctionContributor.POSTGRES_PATTERN, registeredPattern(new PostgreSQLDialect()));
+        assertEquals(TaskSearchFunctionContributor.SUBSTRING_PATTERN, registeredPattern(new SQLiteDialect()));
+    }
+
+    private static String registeredPattern(Dialect dialect) {
+        FunctionContributions contributions = mock(FunctionContributions.class, RETURNS_DEEP_STUBS);
+        SqmFunctionRegistry registry = mock(SqmFunctionRegistry.class);
+        when(contributions.getDialect()).thenReturn(dialect);
+        when(contributions.getFunctionRegistry()).thenReturn(registry);
+
+        new TaskSearchFunctionContributor().contributeFunctions(contributions);
+
+        List<String> patterns = new ArrayList<>();
+        verify(registry).registerPattern(eq(TaskSearchFunctionContributor.FUNCTION_NAME),
+                argThat(pattern -> patterns.add(pattern)), any());
+        return patterns.get(0);
+    }
+
+    private static List<String> statements(String location) throws Exception {
+        String script = new ClassPathResource(location).getContentAsString(StandardCharsets.UTF_8);
+        List<String> statements = new ArrayList<>();
+        for (String statement : script.replaceAll("--[^\n]*", "").split(";")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.strip().replaceAll("\\s+", " "));
+            }
+        }
+        return statements;
+    }
+
+    private static Map<String, Set<String>> tables(List<String> statements) {
+        Map<String, Set<String>> tables = new TreeMap<>();
+        for (String statement : statements) {
+            Matcher matcher = CREATE_TABLE.matcher(statement);
+            if (!matcher.find()) {
+                continue;
+            }
+            Set<String> columns = new LinkedHashSet<>();
+            for (String definition : COLUMN_SEPARATOR.split(matcher.group(2))) {
+                definition = definition.strip();
+                if (definition.startsWith("primary key")) {
+                    continue;
+                }
+                columns.add(definition.split("\\s+")[0]);
+            }
+            tables.put(matcher.group(1), columns);
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,75 @@
+package erdem.taskflow.repository;
+
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import erdem.taskflow.service.TaskArchiveService;
+import erdem.taskflow.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the postgres profile's configuration against H2 in PostgreSQL mode, so the
+ * backend-neutral code paths (substring search fallback, native archive statements)
+ * run on a non-SQLite database without Docker. H2 uses its own dialect and a
+ * Hibernate-generated schema; PostgreSQL itself is covered by {@link PostgresIntegrationTest}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:taskflow-pg;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never"
+})
+@ActiveProfiles("postgres")
+class SharedBackendH2IntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Test
+    void testSearchFilterAndArchiveOnSharedBackend() {
+        UUID match = create("Quarterly report", "numbers for finance", Priority.HIGH);
+        UUID other = create("Groceries", "milk and report cards", Priority.LOW);
+        create("Unrelated", null, Priority.LOW);
+
+        List<TaskResponseDTO> found = taskService.filterTasks(null, null, null, null, "REPORT", "title", "asc");
+        assertEquals(List.of(other, match), found.stream().map(TaskResponseDTO::getId).toList());
+        assertEquals(1, taskService.filterTasks(null, Priority.HIGH, null, null, "report", null, null).size());
+
+        taskService.updateStatus(match, Status.COMPLETED);
+        assertEquals(1, taskArchiveService.archiveCompletedBefore(Instant.now().plusSeconds(60)));
+        assertEquals(Status.COMPLETED, taskService.getById(match).getStatus());
+
+        List<UUID> streamed = new ArrayList<>();
+        taskService.streamTasks(Status.COMPLETED, null, null, null, "quarterly", null, null,
+                task -> streamed.add(task.getId()));
+        assertEquals(List.of(match), streamed);
+
+        assertEquals(Status.OPEN, taskService.updateStatus(match, Status.OPEN).getStatus());
+        assertEquals(3, taskService.getById(match).getStatusHistory().size());
+    }
+
+    private UUID create(String title, String description, Priority priority) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription(description);
+        request.setPriority(priority);
+        return taskService.create(request).getId();
+    }
+}
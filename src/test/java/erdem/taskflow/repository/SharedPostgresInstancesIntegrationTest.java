@@ -0,0 +1,132 @@
+package erdem.taskflow.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erdem.taskflow.TaskFlowApplication;
+import erdem.taskflow.event.TaskCountsConsumer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two instances of the postgres profile on one {@link EmbeddedPostgresServer embedded
+ * PostgreSQL} database: what one writes, the other reads, although no task event crosses
+ * between them.
+ */
+class SharedPostgresInstancesIntegrationTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConfigurableApplicationContext writer;
+    private ConfigurableApplicationContext reader;
+    private ClassLoader contextClassLoader;
+
+    @BeforeEach
+    void startInstances() throws Exception {
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        String url = EmbeddedPostgresServer.newDatabase();
+        writer = start(url);
+        reader = start(url);
+    }
+
+    @AfterEach
+    void stopInstances() {
+        if (reader != null) {
+            reader.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+        // Starting Tomcat leaves its class loader on this thread; once stopped, later
+        // tests on the thread could no longer load resources through it
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+    }
+
+    @Test
+    void testWritesThroughOneInstanceAreReadThroughAnother() throws Exception {
+        // Anything the reader would cache is built before the writes
+        assertEquals(0, send(reader, "GET", "/api/tasks").size());
+        assertEquals(0, send(reader, "GET", "/api/tasks?status=OPEN").size());
+        assertEquals(0, send(reader, "GET", "/api/tasks/stats").get("totalTasks").asLong());
+        assertEquals(0, send(reader, "GET", "/api/tasks/ready").size());
+
+        String first = create(writer, "shared first");
+        String second = create(writer, "shared second");
+        assertEquals(201, status(writer, "PUT", "/api/tasks/" + second + "/dependencies/" + first));
+
+        assertEquals(List.of(first, second), ids(send(reader, "GET", "/api/tasks?sortBy=title&sortOrder=asc")));
+        assertEquals(List.of(first, second), ids(send(reader, "GET", "/api/tasks?status=OPEN&sortBy=title&sortOrder=asc")));
+        JsonNode stats = send(reader, "GET", "/api/tasks/stats");
+        assertEquals(2, stats.get("totalTasks").asLong());
+        assertEquals(2, stats.get("openTasks").asLong());
+        assertEquals(List.of(first), ids(send(reader, "GET", "/api/tasks/ready")));
+        assertEquals(first, send(reader, "GET", "/api/tasks/" + second + "/dependencies").get(0).asText());
+        assertEquals(409, status(reader, "PUT", "/api/tasks/" + first + "/dependencies/" + second));
+
+        MeterRegistry registry = reader.getBean(MeterRegistry.class);
+        reader.getBean(TaskCountsConsumer.class).refreshScheduled();
+        assertEquals(2.0, registry.get("taskflow.tasks").tag("status", "OPEN").gauge().value());
+
+        // A task deleted elsewhere takes its edges along and unblocks its dependents
+        assertEquals(204, status(reader, "DELETE", "/api/tasks/" + first));
+        assertEquals(List.of(second), ids(send(writer, "GET", "/api/tasks/ready")));
+        assertEquals(0, send(writer, "GET", "/api/tasks/" + second + "/dependencies").size());
+    }
+
+    private static ConfigurableApplicationContext start(String url) {
+        return new SpringApplicationBuilder(TaskFlowApplication.class)
+                .profiles("postgres")
+                // Arguments, as default properties rank below the profile's
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--server.port=0");
+    }
+
+    private String create(ConfigurableApplicationContext instance, String title) throws Exception {
+        HttpResponse<String> response = client.send(request(instance, "/api/tasks")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"" + title + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body()).get("id").asText();
+    }
+
+    private JsonNode send(ConfigurableApplicationContext instance, String method, String path) throws Exception {
+        HttpResponse<String> response = client.send(request(instance, path)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private int status(ConfigurableApplicationContext instance, String method, String path) throws Exception {
+        return client.send(request(instance, path)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static HttpRequest.Builder request(ConfigurableApplicationContext instance, String path) {
+        int port = ((ServletWebServerApplicationContext) instance).getWebServer().getPort();
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+
+    private static List<String> ids(JsonNode tasks) {
+        List<String> ids = new ArrayList<>();
+        tasks.forEach(task -> ids.add(task.get("id").asText()));
+        return ids;
+    }
+}
@@ -0,0 +1,143 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.dto.FlowAnalyticsDTO;
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.model.FlowBucket;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FlowAnalyticsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private FlowAnalyticsService analytics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testStatusChangesUpdateBucketsOfTheirDay() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        FlowAnalyticsDTO before = analytics.getFlow(Priority.LOW, today, today, ChronoUnit.DAYS);
+
+        UUID done = taskService.create(request("Flow done", Priority.LOW)).getId();
+        taskService.updateStatus(done, Status.IN_PROGRESS);
+        taskService.updateStatus(done, Status.COMPLETED);
+        taskService.create(request("Flow waiting", Priority.LOW));
+        taskService.create(request("Other priority", Priority.HIGH));
+
+        FlowAnalyticsDTO after = analytics.getFlow(Priority.LOW, today, today, ChronoUnit.DAYS);
+        FlowAnalyticsDTO.Throughput beforeToday = before.getThroughput().get(0);
+        FlowAnalyticsDTO.Throughput afterToday = after.getThroughput().get(0);
+        assertEquals(today, afterToday.periodStart());
+        assertEquals(beforeToday.opened() + 2, afterToday.opened());
+        assertEquals(beforeToday.started() + 1, afterToday.started());
+        assertEquals(beforeToday.completed() + 1, afterToday.completed());
+
+        for (Status status : List.of(Status.OPEN, Status.IN_PROGRESS)) {
+            FlowAnalyticsDTO.TimeInStatus was = timeIn(before, status);
+            FlowAnalyticsDTO.TimeInStatus now = timeIn(after, status);
+            assertEquals(was.getTasks() + 1, now.getTasks());
+            assertEquals(was.getHistogram().get(0).tasks() + 1, now.getHistogram().get(0).tasks());
+            assertEquals(3600L, now.getHistogram().get(0).upToSeconds());
+        }
+
+        assertEquals(wip(before, Status.OPEN).getTasks() + 1, wip(after, Status.OPEN).getTasks());
+        assertEquals(wip(before, Status.IN_PROGRESS).getTasks(), wip(after, Status.IN_PROGRESS).getTasks());
+        assertTrue(wip(after, Status.OPEN).getOldest().stream().allMatch(task -> task.priority() == Priority.LOW));
+        assertTrue(wip(after, Status.OPEN).getOldest().size() <= 5);
+    }
+
+    @Test
+    void testRolledBackChangeLeavesBucketsUnchanged() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        long opened = analytics.getFlow(Priority.LOW, today, today, ChronoUnit.DAYS).getThroughput().get(0).opened();
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            taskService.create(request("Rolled back", Priority.LOW));
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals(opened, analytics.getFlow(Priority.LOW, today, today, ChronoUnit.DAYS).getThroughput().get(0).opened());
+    }
+
+    @Test
+    void testEndpointGroupsByWeekAndRejectsBadParameters() throws Exception {
+        LocalDate to = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = to.minusWeeks(3);
+        mockMvc.perform(get("/api/analytics/flow?granularity=week&from=" + from + "&to=" + to))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.throughput.length()").value(4))
+                .andExpect(jsonPath("$.throughput[0].periodStart")
+                        .value(from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString()))
+                .andExpect(jsonPath("$.timeInStatus.length()").value(3))
+                .andExpect(jsonPath("$.agingWip.length()").value(2));
+        mockMvc.perform(get("/api/analytics/flow?granularity=month")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/analytics/flow?from=" + to + "&to=" + from)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testHistoryIsBinnedInTimestampOrder() {
+        Instant opened = Instant.parse("2024-03-01T09:00:00Z");
+        Instant started = opened.plus(Duration.ofHours(2));
+        Instant completed = started.plus(Duration.ofDays(3));
+        Map<FlowAnalyticsService.BucketKey, long[]> totals = new HashMap<>();
+        FlowAnalyticsService.addHistory(Priority.HIGH, List.of(
+                "COMPLETED|" + completed, "OPEN|" + opened, "not a status change", "IN_PROGRESS|" + started), totals);
+
+        LocalDate day1 = LocalDate.of(2024, 3, 1);
+        LocalDate day4 = LocalDate.of(2024, 3, 4);
+        assertEquals(5, totals.size());
+        assertArrayEquals(new long[]{1, 0}, totals.get(key(day1, Status.OPEN, FlowBucket.ARRIVALS)));
+        assertArrayEquals(new long[]{1, 0}, totals.get(key(day1, Status.IN_PROGRESS, FlowBucket.ARRIVALS)));
+        assertArrayEquals(new long[]{1, 7200}, totals.get(key(day1, Status.OPEN, 1)));
+        assertArrayEquals(new long[]{1, 3 * 86400}, totals.get(key(day4, Status.IN_PROGRESS, 4)));
+        assertArrayEquals(new long[]{1, 0}, totals.get(key(day4, Status.COMPLETED, FlowBucket.ARRIVALS)));
+    }
+
+    private static FlowAnalyticsService.BucketKey key(LocalDate day, Status status, int bin) {
+        return new FlowAnalyticsService.BucketKey(day, Priority.HIGH, status, bin);
+    }
+
+    private static FlowAnalyticsDTO.TimeInStatus timeIn(FlowAnalyticsDTO flow, Status status) {
+        return flow.getTimeInStatus().stream().filter(entry -> entry.getStatus() == status).findFirst().orElseThrow();
+    }
+
+    private static FlowAnalyticsDTO.WorkInProgress wip(FlowAnalyticsDTO flow, Status status) {
+        return flow.getAgingWip().stream().filter(entry -> entry.getStatus() == status).findFirst().orElseThrow();
+    }
+
+    private static TaskRequestDTO request(String title, Priority priority) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setPriority(priority);
+        return request;
+    }
+}
@@ -0,0 +1,66 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.dto.TaskResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2025-01-01T00:00:00Z"));
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    };
+
+    @Test
+    void testClaimLifecycle() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 100, clock);
+        TaskResponseDTO response = new TaskResponseDTO();
+
+        assertEquals(IdempotencyStore.State.ACQUIRED, store.claim("k", "body").state());
+        assertEquals(IdempotencyStore.State.IN_PROGRESS, store.claim("k", "body").state());
+        store.complete("k", response);
+        IdempotencyStore.Claim replay = store.claim("k", "body");
+        assertEquals(IdempotencyStore.State.REPLAY, replay.state());
+        assertSame(response, replay.response());
+        assertEquals(IdempotencyStore.State.MISMATCH, store.claim("k", "other").state());
+
+        assertEquals(IdempotencyStore.State.ACQUIRED, store.claim("failed", "body").state());
+        store.release("failed");
+        assertEquals(IdempotencyStore.State.ACQUIRED, store.claim("failed", "body").state());
+    }
+
+    @Test
+    void testEntriesExpireAndAreBounded() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(10), 2, clock);
+        store.claim("a", "body");
+        store.complete("a", new TaskResponseDTO());
+
+        now.set(now.get().plus(Duration.ofMinutes(11)));
+        assertEquals(IdempotencyStore.State.ACQUIRED, store.claim("a", "body").state());
+
+        store.claim("b", "body");
+        store.claim("c", "body");
+        assertEquals(2, store.size());
+        assertEquals(IdempotencyStore.State.ACQUIRED, store.claim("a", "body").state());
+    }
+}
@@ -0,0 +1,102 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.dto.TaskRequestDTO;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.dto.TaskStatsDTO;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskArchiveIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Test
+    void testArchiveAndRehydrateCompletedTask() {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Archive me");
+        request.setPriority(Priority.LOW);
+        UUID id = taskService.create(request).getId();
+        taskService.updateStatus(id, Status.COMPLETED);
+        TaskStatsDTO before = taskService.getStatistics();
+
+        assertTrue(taskArchiveService.archiveCompletedBefore(Instant.now().plusSeconds(60)) >= 1);
+
+        assertTrue(taskService.getAll(null, null).stream().noneMatch(t -> t.getId().equals(id)));
+        assertTrue(taskService.filterTasks(Status.COMPLETED, Priority.LOW, null, null, null, null, null)
+                .stream().anyMatch(t -> t.getId().equals(id)));
+        TaskResponseDTO archived = taskService.getById(id);
+        assertEquals(Status.COMPLETED, archived.getStatus());
+        assertEquals(2, archived.getStatusHistory().size());
+        TaskStatsDTO after = taskService.getStatistics();
+        assertEquals(before.getCompletedTasks(), after.getCompletedTasks());
+        assertEquals(before.getTotalTasks(), after.getTotalTasks());
+
+        TaskResponseDTO reopened = taskService.updateStatus(id, Status.OPEN);
+
+        assertEquals(id, reopened.getId());
+        assertEquals(Status.OPEN, reopened.getStatus());
+        assertEquals(3, reopened.getStatusHistory().size());
+        assertTrue(taskService.getAll(null, null).stream().anyMatch(t -> t.getId().equals(id)));
+        assertTrue(taskService.filterTasks(Status.OPEN, Priority.LOW, null, null, null, null, null)
+                .stream().anyMatch(t -> t.getId().equals(id)));
+        assertEquals(before.getTotalTasks(), taskService.getStatistics().getTotalTasks());
+
+        taskService.delete(id);
+    }
+
+    @Test
+    void testDeleteArchivedTask() {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Delete from archive");
+        UUID id = taskService.create(request).getId();
+        taskService.updateStatus(id, Status.COMPLETED);
+        taskArchiveService.archiveCompletedBefore(Instant.now().plusSeconds(60));
+
+        taskService.delete(id);
+
+        assertThrows(RuntimeException.class, () -> taskService.getById(id));
+    }
+
+    @Test
+    void testStreamMergesArchivedTasksInOrder() {
+        String marker = "stream-" + System.nanoTime();
+        List<UUID> ids = new ArrayList<>();
+        for (String title : new String[]{"b " + marker, "d " + marker}) {
+            TaskRequestDTO request = new TaskRequestDTO();
+            request.setTitle(title);
+            UUID id = taskService.create(request).getId();
+            taskService.updateStatus(id, Status.COMPLETED);
+            ids.add(id);
+        }
+        taskArchiveService.archiveCompletedBefore(Instant.now().plusSeconds(60));
+        for (String title : new String[]{"c " + marker, "a " + marker}) {
+            TaskRequestDTO request = new TaskRequestDTO();
+            request.setTitle(title);
+            UUID id = taskService.create(request).getId();
+            taskService.updateStatus(id, Status.COMPLETED);
+            ids.add(id);
+        }
+
+        List<String> titles = new ArrayList<>();
+        taskService.streamTasks(Status.COMPLETED, null, null, null, marker, "title", "asc",
+                task -> titles.add(task.getTitle()));
+
+        assertEquals(List.of("a " + marker, "b " + marker, "c " + marker, "d " + marker), titles);
+        ids.forEach(taskService::delete);
+    }
+}
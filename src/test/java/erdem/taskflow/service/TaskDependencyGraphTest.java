@@ -0,0 +1,76 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.model.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskDependencyGraphTest {
+
+    private final TaskDependencyGraph graph = new TaskDependencyGraph();
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+    private final UUID d = UUID.randomUUID();
+
+    @Test
+    void testCountersFollowStatusChanges() {
+        graph.addEdge(c, Status.OPEN, a, Status.OPEN);
+        graph.addEdge(c, Status.OPEN, b, Status.COMPLETED);
+        assertFalse(graph.addEdge(c, Status.OPEN, a, Status.OPEN));
+
+        assertTrue(graph.isBlocked(c));
+        assertFalse(graph.isBlocked(a));
+        graph.setStatus(a, Status.COMPLETED);
+        assertFalse(graph.isBlocked(c));
+        graph.setStatus(b, Status.IN_PROGRESS);
+        assertTrue(graph.isBlocked(c));
+        assertEquals(List.of(a, b), graph.dependenciesOf(c));
+    }
+
+    @Test
+    void testRejectsCycles() {
+        graph.addEdge(b, Status.OPEN, a, Status.OPEN);
+        graph.addEdge(c, Status.OPEN, b, Status.OPEN);
+
+        assertTrue(graph.wouldCycle(a, c));
+        assertTrue(graph.wouldCycle(a, a));
+        assertFalse(graph.wouldCycle(c, a));
+        assertFalse(graph.wouldCycle(d, a));
+    }
+
+    @Test
+    void testRemovingTasksAndEdgesReleasesNodes() {
+        graph.addEdge(c, Status.OPEN, a, Status.OPEN);
+        graph.addEdge(d, Status.OPEN, c, Status.OPEN);
+
+        graph.remove(c);
+        assertFalse(graph.isBlocked(d));
+        assertEquals(0, graph.size());
+        assertTrue(graph.addEdge(d, Status.OPEN, b, Status.OPEN));
+        assertTrue(graph.isBlocked(d));
+        assertTrue(graph.removeEdge(d, b));
+        assertFalse(graph.removeEdge(d, b));
+        assertFalse(graph.hasEdges(d));
+    }
+
+    @Test
+    void testPlanPutsTheLongestChainFirst() {
+        // a -> c -> d is longer than b, so a goes first; completed tasks drop out
+        UUID done = UUID.randomUUID();
+        graph.addEdge(c, Status.OPEN, a, Status.OPEN);
+        graph.addEdge(d, Status.OPEN, c, Status.IN_PROGRESS);
+        graph.addEdge(b, Status.OPEN, done, Status.COMPLETED);
+
+        TaskDependencyGraph.Plan plan = graph.plan();
+        assertEquals(List.of(a, c, d), plan.criticalPath());
+        // c (chain of 2) is freed by a and goes before b (chain of 1)
+        assertEquals(List.of(a, c), plan.order().subList(0, 2));
+        assertEquals(Set.of(b, d), Set.copyOf(plan.order().subList(2, 4)));
+        assertEquals(4, plan.order().size());
+    }
+}
@@ -0,0 +1,113 @@
+package erdem.taskflow.service;
+
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.event.TaskEvent;
+import erdem.taskflow.model.Priority;
+import erdem.taskflow.model.Status;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskFilterIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 10);
+
+    private final TaskFilterIndex index = new TaskFilterIndex(null, null, true);
+
+    @Test
+    void testSelectCombinesStatusPriorityAndDueDateRange() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        UUID d = UUID.randomUUID();
+        index.rebuild(Stream.of(
+                row(a, Status.OPEN, Priority.HIGH, TODAY.minusDays(2)),
+                row(b, Status.COMPLETED, Priority.HIGH, TODAY.minusDays(1)),
+                row(c, Status.OPEN, Priority.LOW, TODAY.plusDays(3)),
+                row(d, Status.IN_PROGRESS, Priority.HIGH, null)));
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(a, b, c, d), index.select(null, null, null, null, TODAY));
+        assertEquals(List.of(a, c), index.select(Status.OPEN, null, null, null, TODAY));
+        assertEquals(List.of(a, b, d), index.select(null, Priority.HIGH, null, null, TODAY));
+        assertEquals(List.of(b, c), index.select(null, null, TODAY.minusDays(1), null, TODAY));
+        // A due-date range in the past leaves out completed tasks, like findWithFilters
+        assertEquals(List.of(a), index.select(null, null, null, TODAY.minusDays(1), TODAY));
+        assertEquals(List.of(a, b), index.select(null, null, null, TODAY, TODAY));
+        assertEquals(List.of(), index.select(Status.IN_PROGRESS, null, TODAY, TODAY, TODAY));
+
+        assertEquals(2, index.count(Status.OPEN));
+        assertEquals(1, index.countOverdue(TODAY));
+        assertEquals(List.of(a), index.overdue(TODAY));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void testEventsMoveTasksBetweenBitmapsAndReuseOrdinals() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        index.rebuild(Stream.of(
+                row(a, Status.OPEN, Priority.HIGH, TODAY),
+                row(b, Status.OPEN, Priority.LOW, TODAY)));
+
+        index.onTaskEvent(new TaskEvent.StatusChanged(a, Instant.now(), Status.OPEN, Status.COMPLETED,
+                Instant.now(), Priority.HIGH));
+        index.onTaskEvent(new TaskEvent.Updated(b, Instant.now(), dto(b, Status.OPEN, Priority.MEDIUM, null)));
+        assertEquals(List.of(a), index.select(Status.COMPLETED, null, null, null, TODAY));
+        assertEquals(List.of(b), index.select(null, Priority.MEDIUM, null, null, TODAY));
+        assertEquals(List.of(a), index.select(null, null, TODAY, TODAY, TODAY));
+
+        index.onTaskEvent(new TaskEvent.Deleted(a, Instant.now(), Status.COMPLETED));
+        UUID c = UUID.randomUUID();
+        index.onTaskEvent(new TaskEvent.Created(c, Instant.now(), dto(c, Status.OPEN, Priority.HIGH, TODAY)));
+        // c takes the ordinal freed by a, so it is listed first
+        assertEquals(List.of(c, b), index.select(Status.OPEN, null, null, null, TODAY));
+        assertEquals(List.of(c), index.select(null, null, TODAY, null, TODAY));
+
+        index.remove(List.of(b, c));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testChangesDuringRebuildAreReplayed() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(a, Status.OPEN, Priority.HIGH, null));
+        index.rebuild(rows.stream().peek(row -> {
+            // Committed after the table was read
+            index.onTaskEvent(new TaskEvent.Created(b, Instant.now(), dto(b, Status.OPEN, Priority.LOW, null)));
+            index.onTaskEvent(new TaskEvent.StatusChanged(a, Instant.now(), Status.OPEN, Status.IN_PROGRESS,
+                    Instant.now(), Priority.HIGH));
+        }));
+
+        assertEquals(List.of(a), index.select(Status.IN_PROGRESS, null, null, null, TODAY));
+        assertEquals(List.of(b), index.select(Status.OPEN, null, null, null, TODAY));
+    }
+
+    @Test
+    void testNotReadyUntilBuilt() {
+        assertFalse(index.isReady());
+        assertThrows(IllegalStateException.class, () -> index.count(Status.OPEN));
+    }
+
+    private static Object[] row(UUID id, Status status, Priority priority, LocalDate dueDate) {
+        return new Object[]{id, status, priority, dueDate};
+    }
+
+    private static TaskResponseDTO dto(UUID id, Status status, Priority priority, LocalDate dueDate) {
+        TaskResponseDTO dto = new TaskResponseDTO();
+        dto.setId(id);
+        dto.setStatus(status);
+        dto.setPriority(priority);
+        dto.setDueDate(dueDate);
+        return dto;
+    }
+}
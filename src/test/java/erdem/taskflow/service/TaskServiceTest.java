@@ -1,8 +1,10 @@
 package erdem.taskflow.service;
 
+import erdem.taskflow.dto.TaskFacetsDTO;
 import erdem.taskflow.dto.TaskRequestDTO;
 import erdem.taskflow.dto.TaskResponseDTO;
 import erdem.taskflow.dto.TaskStatsDTO;
+import erdem.taskflow.event.TaskEvent;
 import erdem.taskflow.model.Priority;
 import erdem.taskflow.model.Status;
 import erdem.taskflow.model.Task;
@@ -13,6 +15,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -28,6 +32,21 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskArchiveService taskArchiveService;
+
+    @Mock
+    private TaskDataVersion taskDataVersion;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskFilterIndex taskFilterIndex;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -161,26 +180,28 @@ class TaskServiceTest {
         assertNotNull(result);
         verify(taskRepository).findById(testTaskId);
         verify(taskRepository).save(any(Task.class));
+        verify(eventPublisher).publishEvent(any(TaskEvent.StatusChanged.class));
     }
 
     @Test
     void testDelete_Success() {
-        when(taskRepository.existsById(testTaskId)).thenReturn(true);
-        doNothing().when(taskRepository).deleteById(testTaskId);
+        when(taskRepository.findById(testTaskId)).thenReturn(Optional.of(testTask));
 
         taskService.delete(testTaskId);
 
-        verify(taskRepository).existsById(testTaskId);
-        verify(taskRepository).deleteById(testTaskId);
+        verify(taskRepository).findById(testTaskId);
+        verify(taskRepository).delete(testTask);
+        verify(eventPublisher).publishEvent(any(TaskEvent.Deleted.class));
     }
 
     @Test
     void testDelete_NotFound() {
-        when(taskRepository.existsById(testTaskId)).thenReturn(false);
+        when(taskRepository.findById(testTaskId)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> taskService.delete(testTaskId));
-        verify(taskRepository).existsById(testTaskId);
-        verify(taskRepository, never()).deleteById(testTaskId);
+        verify(taskRepository).findById(testTaskId);
+        verify(taskRepository, never()).delete(any(Task.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -197,6 +218,29 @@ class TaskServiceTest {
                 any(LocalDate.class));
     }
 
+    @Test
+    void testFilterTasksFetchesIndexMatchesByIdInIndexOrder() {
+        Task other = new Task();
+        other.setId(UUID.randomUUID());
+        other.setStatus(Status.OPEN);
+        other.setPriority(Priority.HIGH);
+        Task changedSince = new Task();
+        changedSince.setId(UUID.randomUUID());
+        changedSince.setStatus(Status.COMPLETED);
+        changedSince.setPriority(Priority.HIGH);
+        List<UUID> ids = List.of(other.getId(), testTaskId, changedSince.getId());
+        when(taskFilterIndex.isReady()).thenReturn(true);
+        when(taskFilterIndex.select(eq(Status.OPEN), eq(Priority.HIGH), isNull(), isNull(), any(LocalDate.class)))
+                .thenReturn(ids);
+        when(taskRepository.findAllById(ids)).thenReturn(List.of(testTask, changedSince, other));
+
+        List<TaskResponseDTO> result = taskService.filterTasks(
+                Status.OPEN, Priority.HIGH, null, null, null, null, null);
+
+        assertEquals(List.of(other.getId(), testTaskId), result.stream().map(TaskResponseDTO::getId).toList());
+        verify(taskRepository, never()).findWithFilters(any(), any(), any(), any(), any(), any());
+    }
+
     // @Test
     // void testGetStatistics() {
     // when(taskRepository.countByStatus(Status.OPEN)).thenReturn(5L);
@@ -242,4 +286,32 @@ class TaskServiceTest {
         assertNotNull(result);
         verify(taskRepository).findWithFilters(any(), any(), any(), any(), any(), any(LocalDate.class));
     }
+
+    @Test
+    void testCountFacets() {
+        LocalDate today = LocalDate.of(2025, 6, 10);
+        List<TaskResponseDTO> tasks = List.of(
+                response(Status.OPEN, Priority.HIGH, today.minusDays(1)),
+                response(Status.OPEN, Priority.LOW, today),
+                response(Status.COMPLETED, Priority.HIGH, today.plusDays(7)),
+                response(Status.IN_PROGRESS, Priority.HIGH, today.plusDays(8)),
+                response(Status.OPEN, Priority.MEDIUM, null));
+
+        TaskFacetsDTO facets = TaskService.countFacets(tasks, today);
+
+        assertEquals(Map.of(Status.OPEN, 3L, Status.IN_PROGRESS, 1L, Status.COMPLETED, 1L), facets.getStatus());
+        assertEquals(Map.of(Priority.HIGH, 3L, Priority.MEDIUM, 1L, Priority.LOW, 1L), facets.getPriority());
+        assertEquals(Map.of(TaskFacetsDTO.DueBucket.PAST, 1L, TaskFacetsDTO.DueBucket.TODAY, 1L,
+                TaskFacetsDTO.DueBucket.NEXT_7_DAYS, 1L, TaskFacetsDTO.DueBucket.LATER, 1L,
+                TaskFacetsDTO.DueBucket.NONE, 1L), facets.getDueDate());
+        assertEquals(0L, TaskService.countFacets(List.of(), today).getStatus().get(Status.OPEN));
+    }
+
+    private static TaskResponseDTO response(Status status, Priority priority, LocalDate dueDate) {
+        TaskResponseDTO dto = new TaskResponseDTO();
+        dto.setStatus(status);
+        dto.setPriority(priority);
+        dto.setDueDate(dueDate);
+        return dto;
+    }
 }
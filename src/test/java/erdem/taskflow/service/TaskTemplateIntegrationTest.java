@@ -0,0 +1,97 @@
+package erdem.taskflow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erdem.taskflow.dto.TaskResponseDTO;
+import erdem.taskflow.model.Priority;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskTemplateIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskTemplateService templateService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void testGeneratesEachOccurrenceOnceAndCatchesUp() throws Exception {
+        // Far enough ahead that the scheduled run (and the create call) has nothing to do yet
+        LocalDate start = LocalDate.of(2500, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(50_000));
+        String body = mockMvc.perform(post("/api/templates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Water plants\",\"priority\":\"HIGH\",\"recurrence\":\"FREQ=DAILY;INTERVAL=2\","
+                                + "\"startDate\":\"" + start + "\",\"dueOffsetDays\":1}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.nextFireDate").value(start.toString()))
+                .andReturn().getResponse().getContentAsString();
+        UUID id = UUID.fromString(objectMapper.readTree(body).get("id").asText());
+        LocalDate last = start.plusDays(100);
+
+        try {
+            // Lookahead of 14 days: occurrences start, start + 2, ..., start + 14
+            templateService.generate(start);
+            List<TaskResponseDTO> tasks = taskService.filterTasks(null, null, start, last, null, "dueDate", "asc");
+            assertEquals(8, tasks.size());
+            assertEquals(start.plusDays(1), tasks.get(0).getDueDate());
+            assertEquals(start.plusDays(15), tasks.get(7).getDueDate());
+            assertEquals("Water plants", tasks.get(0).getTitle());
+            assertEquals(Priority.HIGH, tasks.get(0).getPriority());
+
+            templateService.generate(start);
+            assertEquals(8, taskService.filterTasks(null, null, start, last, null, null, null).size());
+            JsonNode template = objectMapper.readTree(mockMvc.perform(get("/api/templates/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertEquals(start.plusDays(16).toString(), template.get("nextFireDate").asText());
+
+            // A month of downtime: the missed occurrences are created on the next run
+            templateService.generate(start.plusDays(30));
+            assertEquals(23, taskService.filterTasks(null, null, start, last, null, null, null).size());
+
+            mockMvc.perform(delete("/api/templates/" + id)).andExpect(status().isNoContent());
+            templateService.generate(start.plusDays(60));
+            assertEquals(23, taskService.filterTasks(null, null, start, last, null, null, null).size());
+            mockMvc.perform(get("/api/templates/" + id)).andExpect(status().isNotFound());
+        } finally {
+            if (templateService.getAll().stream().anyMatch(t -> t.getId().equals(id))) {
+                templateService.delete(id);
+            }
+            taskService.deleteMatching(null, null, start, last);
+        }
+    }
+
+    @Test
+    void testRejectsInvalidTemplates() throws Exception {
+        mockMvc.perform(post("/api/templates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Bad\",\"recurrence\":\"FREQ=HOURLY\",\"startDate\":\"2025-01-01\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/templates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"No start\",\"recurrence\":\"FREQ=DAILY\"}"))
+                .andExpect(status().isBadRequest());
+    }
+}
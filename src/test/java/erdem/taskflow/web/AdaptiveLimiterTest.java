@@ -0,0 +1,115 @@
+package erdem.taskflow.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void testRejectsImmediatelyWhenQueueIsFull() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", false, 1, 1, 0, Duration.ofSeconds(1), nanos::get);
+        AdaptiveLimiter.Permit permit = limiter.acquire();
+
+        AdaptiveLimiter.RejectedException e = assertThrows(AdaptiveLimiter.RejectedException.class, limiter::acquire);
+        assertFalse(e.timedOut());
+
+        permit.release();
+        limiter.acquire().release();
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void testQueuedCallerTimesOut() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", false, 1, 1, 1, Duration.ofMillis(20), nanos::get);
+        limiter.acquire();
+
+        AdaptiveLimiter.RejectedException e = assertThrows(AdaptiveLimiter.RejectedException.class, limiter::acquire);
+        assertTrue(e.timedOut());
+        assertEquals(0, limiter.queued());
+    }
+
+    @Test
+    void testQueuedCallerIsAdmittedOnRelease() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", false, 1, 1, 1, Duration.ofSeconds(5), nanos::get);
+        AdaptiveLimiter.Permit first = limiter.acquire();
+
+        CompletableFuture<AdaptiveLimiter.Permit> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limiter.queued() == 0) {
+            Thread.sleep(1);
+        }
+        assertFalse(waiting.isDone());
+
+        first.release();
+        waiting.get(5, TimeUnit.SECONDS).release();
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRisesAndRecovers() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", true, 1, 32, 0, Duration.ZERO, nanos::get);
+        run(limiter, 200, 32, 1_000_000);
+        assertEquals(32, limiter.limit());
+
+        run(limiter, 50, 32, 10_000_000);
+        int shrunk = limiter.limit();
+        assertTrue(shrunk < 8, "limit should drop under 10x latency, was " + shrunk);
+
+        run(limiter, 50, 32, 1_000_000);
+        assertEquals(32, limiter.limit());
+    }
+
+    @Test
+    void testDoesNotGrowWhileUnderused() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", true, 1, 32, 0, Duration.ZERO, nanos::get);
+        run(limiter, 50, 32, 10_000_000);
+        int shrunk = limiter.limit();
+
+        run(limiter, 200, 1, 1_000_000);
+        assertEquals(shrunk, limiter.limit());
+    }
+
+    @Test
+    void testAbandonedCallsDoNotAffectTheLimit() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", true, 1, 32, 0, Duration.ZERO, nanos::get);
+        for (int i = 0; i < 100; i++) {
+            AdaptiveLimiter.Permit permit = limiter.acquire();
+            nanos.addAndGet(1_000_000_000);
+            permit.abandon();
+            permit.release();
+        }
+        assertEquals(32, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    /**
+     * Runs {@code rounds} batches of {@code concurrency} overlapping calls (capped at the
+     * current limit), each taking {@code latency} nanoseconds.
+     */
+    private void run(AdaptiveLimiter limiter, int rounds, int concurrency, long latency) throws Exception {
+        for (int round = 0; round < rounds; round++) {
+            List<AdaptiveLimiter.Permit> permits = new ArrayList<>();
+            int calls = Math.min(concurrency, limiter.limit());
+            for (int i = 0; i < calls; i++) {
+                permits.add(limiter.acquire());
+            }
+            nanos.addAndGet(latency);
+            permits.forEach(AdaptiveLimiter.Permit::release);
+        }
+    }
+}
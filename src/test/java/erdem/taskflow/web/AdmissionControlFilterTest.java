@@ -0,0 +1,111 @@
+package erdem.taskflow.web;
+
+import erdem.taskflow.web.AdmissionControlFilter.Endpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdmissionControlFilter filter =
+            new AdmissionControlFilter(registry, true, 4, 2, 1, 0, Duration.ofMillis(50));
+
+    @Test
+    void testClassifiesEndpoints() {
+        assertEquals(Endpoint.LIST, AdmissionControlFilter.classify(request("GET", "/api/tasks")));
+        assertEquals(Endpoint.LIST, AdmissionControlFilter.classify(request("GET", "/api/tasks?searchTerm=x")));
+        assertEquals(Endpoint.QUERY, AdmissionControlFilter.classify(request("GET", "/api/tasks?status=TODO")));
+        assertEquals(Endpoint.GET, AdmissionControlFilter.classify(request("GET", "/api/tasks/1")));
+        assertEquals(Endpoint.STATS, AdmissionControlFilter.classify(request("GET", "/api/tasks/stats")));
+        assertEquals(Endpoint.CREATE, AdmissionControlFilter.classify(request("POST", "/api/tasks")));
+        assertEquals(Endpoint.UPDATE, AdmissionControlFilter.classify(request("PUT", "/api/tasks/1/status")));
+        assertEquals(Endpoint.DELETE, AdmissionControlFilter.classify(request("DELETE", "/api/tasks/1")));
+        assertEquals(Endpoint.BATCH, AdmissionControlFilter.classify(request("DELETE", "/api/tasks")));
+        assertEquals(Endpoint.BATCH, AdmissionControlFilter.classify(request("PATCH", "/api/tasks")));
+        assertEquals(Endpoint.LIST, AdmissionControlFilter.classify(request("GET", "/api/tasks/ready")));
+        assertEquals(Endpoint.GET, AdmissionControlFilter.classify(request("GET", "/api/tasks/1/dependencies")));
+        assertEquals(Endpoint.UPDATE, AdmissionControlFilter.classify(request("PUT", "/api/tasks/1/dependencies/2")));
+        assertEquals(Endpoint.UPDATE, AdmissionControlFilter.classify(request("DELETE", "/api/tasks/1/dependencies/2")));
+        assertNull(AdmissionControlFilter.classify(request("GET", "/api/taskset")));
+        assertEquals(Endpoint.GET, AdmissionControlFilter.classify(request("GET", "/api/projects/alpha/tasks/1")));
+        assertEquals(Endpoint.BATCH, AdmissionControlFilter.classify(request("PATCH", "/api/projects/alpha/tasks")));
+        assertEquals(Endpoint.UPDATE, AdmissionControlFilter.classify(request("PUT", "/api/projects/alpha/tasks/1/status")));
+        assertNull(AdmissionControlFilter.classify(request("GET", "/api/projects/alpha/taskset")));
+        assertNull(AdmissionControlFilter.classify(request("GET", "/api/projects/alpha")));
+        assertNull(AdmissionControlFilter.classify(request("GET", "/api/projects//tasks")));
+
+        MockHttpServletRequest stream = request("GET", "/api/tasks");
+        stream.addHeader(HttpHeaders.ACCEPT, "application/x-ndjson");
+        assertEquals(Endpoint.STREAM, AdmissionControlFilter.classify(stream));
+    }
+
+    @Test
+    void testSaturatedBulkEndpointIsRejectedWhileCheapReadsPass() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        CompletableFuture<Void> slowList = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(request("GET", "/api/tasks"), new MockHttpServletResponse(), (req, res) -> {
+                    entered.countDown();
+                    try {
+                        proceed.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/tasks"), rejected, (req, res) -> fail("should not be admitted"));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+
+        MockHttpServletResponse byId = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/tasks/1"), byId, (req, res) -> ((MockHttpServletResponse) res).setStatus(200));
+        assertEquals(200, byId.getStatus());
+
+        proceed.countDown();
+        slowList.get(5, TimeUnit.SECONDS);
+        assertEquals(0, filter.endpointLimiter(Endpoint.LIST).inFlight());
+        assertEquals(1.0, registry.get("taskflow.admission.rejected")
+                .tags("endpoint", "list", "reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void testFailedRequestsStillReleasePermits() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request("POST", "/api/tasks"), response,
+                (req, res) -> {
+                    throw new IllegalStateException("boom");
+                }));
+        assertEquals(0, filter.endpointLimiter(Endpoint.CREATE).inFlight());
+        assertEquals(2, filter.endpointLimiter(Endpoint.CREATE).limit());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        int query = uri.indexOf('?');
+        MockHttpServletRequest request = new MockHttpServletRequest(method, query < 0 ? uri : uri.substring(0, query));
+        if (query >= 0) {
+            request.setQueryString(uri.substring(query + 1));
+            for (String pair : uri.substring(query + 1).split("&")) {
+                String[] parts = pair.split("=", 2);
+                request.addParameter(parts[0], parts.length > 1 ? parts[1] : "");
+            }
+        }
+        return request;
+    }
+}
@@ -0,0 +1,67 @@
+package erdem.taskflow.web;
+
+import erdem.taskflow.logging.SampledTraceTurboFilter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTracingFilterTest {
+
+    @Test
+    void testPropagatesIncomingRequestId() throws Exception {
+        RequestTracingFilter filter = new RequestTracingFilter(0.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader(RequestTracingFilter.REQUEST_ID_HEADER, "abc123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(MDC.get(RequestTracingFilter.REQUEST_ID_KEY));
+            }
+        });
+
+        assertEquals("abc123", seen.get());
+        assertEquals("abc123", response.getHeader(RequestTracingFilter.REQUEST_ID_HEADER));
+        assertNull(MDC.get(RequestTracingFilter.REQUEST_ID_KEY));
+    }
+
+    @Test
+    void testReplacesUnsafeRequestId() throws Exception {
+        RequestTracingFilter filter = new RequestTracingFilter(0.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader(RequestTracingFilter.REQUEST_ID_HEADER, "abc\n2025-01-01 ERROR forged");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        String requestId = response.getHeader(RequestTracingFilter.REQUEST_ID_HEADER);
+        assertNotNull(requestId);
+        assertTrue(requestId.matches("[0-9a-f]+"), requestId);
+    }
+
+    @Test
+    void testGeneratesRequestIdAndSamplesWhenRateIsOne() throws Exception {
+        RequestTracingFilter filter = new RequestTracingFilter(1.0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> sampled = new AtomicReference<>();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                sampled.set(MDC.get(SampledTraceTurboFilter.SAMPLED_KEY));
+            }
+        });
+
+        assertNotNull(response.getHeader(RequestTracingFilter.REQUEST_ID_HEADER));
+        assertEquals("true", sampled.get());
+        assertNull(MDC.get(SampledTraceTurboFilter.SAMPLED_KEY));
+    }
+}
@@ -0,0 +1,78 @@
+package erdem.taskflow.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import erdem.taskflow.dto.TaskRequestDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ResponseCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void testRepeatedListIsServedFromCacheUntilTasksChange() throws Exception {
+        String marker = "cached-" + System.nanoTime();
+        for (int i = 0; i < 8; i++) {
+            create(marker + " task " + i);
+        }
+        String url = "/api/tasks?searchTerm=" + marker + "&sortBy=title";
+
+        String fresh = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(8))
+                .andReturn().getResponse().getContentAsString();
+        double hitsBefore = hits();
+
+        byte[] gzipped = mockMvc.perform(get("/api/tasks?sortBy=TITLE&searchTerm=" + marker)
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(hitsBefore + 1, hits());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertEquals(fresh, new String(in.readAllBytes()));
+        }
+
+        create(marker + " task 8");
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(9));
+        assertEquals(hitsBefore + 1, hits());
+    }
+
+    private double hits() {
+        return registry.get("taskflow.response.cache").tag("result", "hit").counter().count();
+    }
+
+    private void create(String title) throws Exception {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription("Padding so that the list response crosses the gzip threshold");
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,44 @@
+package erdem.taskflow.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    @Test
+    void testNewerVersionInvalidatesAndOlderResultsAreDropped() {
+        ResponseCache cache = new ResponseCache(1024);
+        cache.put("a", 1, entry(10));
+        assertNotNull(cache.get("a", 1));
+
+        assertNull(cache.get("a", 2));
+        cache.put("a", 1, entry(10));
+        assertNull(cache.get("a", 2));
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedBeyondMaxBytes() {
+        ResponseCache cache = new ResponseCache(100);
+        cache.put("a", 1, entry(40));
+        cache.put("b", 1, entry(40));
+        cache.get("a", 1);
+        cache.put("c", 1, entry(40));
+
+        assertNotNull(cache.get("a", 1));
+        assertNull(cache.get("b", 1));
+        assertNotNull(cache.get("c", 1));
+        assertEquals(80, cache.bytes());
+
+        cache.put("huge", 1, entry(101));
+        assertNull(cache.get("huge", 1));
+        assertEquals(2, cache.size());
+    }
+
+    private static ResponseCache.Entry entry(int size) {
+        return new ResponseCache.Entry(new byte[size], null, "application/json", Map.of());
+    }
+}
@@ -0,0 +1,133 @@
+package erdem.taskflow.web;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bytes transferred and wall time for loading the SPA the way a browser does: the page,
+ * then its scripts, stylesheet, task list and statistics in parallel.
+ * "Before" is HTTP/1.1 without compression, as served before compression and HTTP/2
+ * were enabled; "after" is h2c with gzip. Repeat visits skip assets that the
+ * {@code Cache-Control} header allows the browser to keep.
+ * Run with {@code mvn test -Dtest=SpaLoadBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=N]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:sqlite:target/spa-benchmark.db")
+class SpaLoadBenchmarkTest {
+
+    private static final int ITERATIONS = 20;
+    private static final Pattern ASSET = Pattern.compile("(?:src|href)=\"(/(?:js|css)/[^\"]+)\"");
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void freshDatabase() throws Exception {
+        Files.deleteIfExists(Path.of("target/spa-benchmark.db"));
+    }
+
+    @Test
+    void benchmarkPageLoad() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 1_000);
+        seed(rows);
+
+        System.out.printf("%-36s %12s %10s%n", "SPA load (" + rows + " tasks)", "bytes", "ms");
+        measure("HTTP/1.1 identity, first visit", HttpClient.Version.HTTP_1_1, "identity", true);
+        measure("HTTP/1.1 identity, repeat visit", HttpClient.Version.HTTP_1_1, "identity", true);
+        measure("h2c gzip, first visit", HttpClient.Version.HTTP_2, "gzip", true);
+        measure("h2c gzip, repeat visit", HttpClient.Version.HTTP_2, "gzip", false);
+    }
+
+    /**
+     * Before this change assets had no cache lifetime, so repeat visits fetched them
+     * again; the "before" repeat visit is therefore the same as the first one.
+     */
+    private void measure(String name, HttpClient.Version version, String encoding, boolean assets) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(version).build();
+        long[] bytes = new long[ITERATIONS];
+        long[] nanos = new long[ITERATIONS];
+        for (int warmup = 0; warmup < 3; warmup++) {
+            load(client, encoding, assets);
+        }
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            bytes[i] = load(client, encoding, assets);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-36s %12d %10.1f%n", name, bytes[0], nanos[ITERATIONS / 2] / 1e6);
+    }
+
+    private long load(HttpClient client, String encoding, boolean assets) throws Exception {
+        HttpResponse<byte[]> page = client.send(request("/index.html", encoding), HttpResponse.BodyHandlers.ofByteArray());
+        long total = page.body().length;
+
+        List<String> paths = new ArrayList<>(List.of("/api/tasks", "/api/tasks/stats"));
+        if (assets) {
+            Matcher matcher = ASSET.matcher(html(page));
+            while (matcher.find()) {
+                paths.add(matcher.group(1));
+            }
+        }
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>();
+        for (String path : paths) {
+            responses.add(client.sendAsync(request(path, encoding), HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        for (CompletableFuture<HttpResponse<byte[]>> response : responses) {
+            total += response.join().body().length;
+        }
+        return total;
+    }
+
+    private static String html(HttpResponse<byte[]> page) throws IOException {
+        if (page.headers().firstValue("Content-Encoding").filter("gzip"::equals).isEmpty()) {
+            return new String(page.body(), StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(page.body()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void seed(int rows) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        String description = "Follow up with the team, collect the open questions and update the ticket. ".repeat(6);
+        for (int i = 0; i < rows; i++) {
+            String body = """
+                    {"title":"Benchmark task %d","description":"%s","priority":"%s","dueDate":"2030-01-%02d"}"""
+                    .formatted(i, description, i % 3 == 0 ? "HIGH" : "LOW", i % 28 + 1);
+            client.send(HttpRequest.newBuilder(uri("/api/tasks"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private HttpRequest request(String path, String encoding) {
+        return HttpRequest.newBuilder(uri(path)).header("Accept-Encoding", encoding).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,57 @@
+package erdem.taskflow.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StaticResourceIntegrationTest {
+
+    private static final Pattern APP_JS = Pattern.compile("src=\"(/js/app-[0-9a-f]{32}\\.js)\"");
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+    @Test
+    void testIndexLinksHashedAssetsThatAreCachedForever() throws Exception {
+        HttpResponse<String> index = get("/index.html", "identity", HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, index.statusCode());
+        assertEquals("no-cache", index.headers().firstValue("Cache-Control").orElseThrow());
+        Matcher matcher = APP_JS.matcher(index.body());
+        assertTrue(matcher.find(), "index.html should link a content-hashed app.js");
+        assertTrue(index.body().matches("(?s).*href=\"/css/style-[0-9a-f]{32}\\.css\".*"));
+
+        HttpResponse<byte[]> asset = get(matcher.group(1), "gzip", HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, asset.statusCode());
+        assertEquals("max-age=31536000, public, immutable", asset.headers().firstValue("Cache-Control").orElseThrow());
+        assertEquals("gzip", asset.headers().firstValue("Content-Encoding").orElseThrow());
+
+        // Unversioned URLs keep working for bookmarks and older pages
+        assertEquals(200, get("/js/app.js", "identity", HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    @Test
+    void testApiIsServedOverH2c() throws Exception {
+        HttpResponse<byte[]> response = get("/api/tasks/stats", "gzip", HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        assertEquals(HttpClient.Version.HTTP_2, response.version());
+    }
+
+    private <T> HttpResponse<T> get(String path, String encoding, HttpResponse.BodyHandler<T> handler) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept-Encoding", encoding)
+                .build();
+        return client.send(request, handler);
+    }
+}